@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.terasology.entitySystem.entity.internal.ComponentTable;
+import org.terasology.entitySystem.entity.internal.ComponentTableType;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that all {@link ComponentTable} layouts behave the same.
+ */
+public class ComponentTableTest {
+
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testPutAndGet(ComponentTableType type) {
+        ComponentTable table = type.create();
+        StringComponent stringComponent = new StringComponent("a");
+        IntegerComponent integerComponent = new IntegerComponent(1);
+
+        assertNull(table.put(1, stringComponent));
+        assertNull(table.put(1, integerComponent));
+
+        assertSame(stringComponent, table.get(1, StringComponent.class));
+        assertSame(integerComponent, table.get(1, IntegerComponent.class));
+        assertNull(table.get(2, StringComponent.class));
+        assertEquals(2, table.getComponentsInNewList(1).size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testReplaceReturnsOldComponent(ComponentTableType type) {
+        ComponentTable table = type.create();
+        StringComponent first = new StringComponent("a");
+        StringComponent second = new StringComponent("b");
+
+        table.put(1, first);
+        assertSame(first, table.put(1, second));
+        assertSame(second, table.get(1, StringComponent.class));
+        assertEquals(1, table.getComponentCount(StringComponent.class));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testRemoveComponentKeepsOthers(ComponentTableType type) {
+        ComponentTable table = type.create();
+        IntegerComponent integerComponent = new IntegerComponent(1);
+        table.put(1, new StringComponent("a"));
+        table.put(1, integerComponent);
+        table.put(2, new StringComponent("b"));
+
+        table.remove(1, StringComponent.class);
+
+        assertNull(table.get(1, StringComponent.class));
+        assertSame(integerComponent, table.get(1, IntegerComponent.class));
+        assertEquals("b", table.get(2, StringComponent.class).value);
+        assertEquals(1, table.getComponentCount(StringComponent.class));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testRemoveEntity(ComponentTableType type) {
+        ComponentTable table = type.create();
+        for (int id = 1; id <= 10; id++) {
+            table.put(id, new IntegerComponent(id));
+        }
+
+        assertEquals(1, table.removeAndReturnComponentsOf(3).size());
+        table.remove(5);
+
+        assertEquals(8, table.numEntities());
+        assertNull(table.get(3, IntegerComponent.class));
+        for (int id = 1; id <= 10; id++) {
+            if (id != 3 && id != 5) {
+                assertEquals(id, table.get(id, IntegerComponent.class).value);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testIterateEntitiesWithMultipleComponents(ComponentTableType type) {
+        ComponentTable table = type.create();
+        TLongSet expected = new TLongHashSet();
+        for (int id = 1; id <= 100; id++) {
+            if (id % 2 == 0) {
+                table.put(id, new StringComponent());
+            }
+            if (id % 3 == 0) {
+                table.put(id, new IntegerComponent(id));
+            }
+            if (id % 6 == 0) {
+                expected.add(id);
+            }
+        }
+
+        TLongSet actual = new TLongHashSet();
+        TLongIterator iterator = table.entityIdIterator(StringComponent.class, IntegerComponent.class);
+        while (iterator.hasNext()) {
+            assertTrue(actual.add(iterator.next()));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testComponentIterator(ComponentTableType type) {
+        ComponentTable table = type.create();
+        for (int id = 1; id <= 20; id++) {
+            table.put(id, new IntegerComponent(id));
+            if (id % 2 == 0) {
+                table.put(id, new StringComponent());
+            }
+        }
+
+        int count = 0;
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.key(), iterator.value().value);
+            count++;
+        }
+        assertEquals(20, count);
+        assertNull(table.componentIterator(ComponentTableTestComponent.class));
+    }
+
+    /**
+     * Changing the other components of the visited entity moves it between archetypes in the archetype table.
+     */
+    @ParameterizedTest
+    @EnumSource(ComponentTableType.class)
+    public void testComponentIteratorWhileChangingComponents(ComponentTableType type) {
+        ComponentTable table = type.create();
+        for (int id = 1; id <= 20; id++) {
+            table.put(id, new IntegerComponent(id));
+            if (id % 2 == 0) {
+                table.put(id, new StringComponent());
+            }
+        }
+
+        TLongSet visited = new TLongHashSet();
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        while (iterator.hasNext()) {
+            iterator.advance();
+            long id = iterator.key();
+            if (table.get(id, StringComponent.class) != null) {
+                table.remove(id, StringComponent.class);
+            } else {
+                table.put(id, new StringComponent());
+            }
+            assertEquals(id, iterator.value().value);
+            assertTrue(visited.add(id));
+        }
+        assertEquals(20, visited.size());
+        assertEquals(10, table.getComponentCount(StringComponent.class));
+    }
+
+    private static final class ComponentTableTestComponent implements Component {
+    }
+}
@@ -160,6 +160,44 @@ public void testReceiveEventRequiringMultipleComponents() {
         assertEquals(entity, handler.receivedList.get(0).entity);
     }
 
+    @Test
+    public void testReceiveEventAfterComponentsChange() {
+        entity.addComponent(new StringComponent());
+
+        TestCompoundComponentEventHandler handler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new IntegerComponent());
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        entity.removeComponent(StringComponent.class);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testReceiveEventAfterLateHandlerRegistration() {
+        entity.addComponent(new StringComponent());
+        entity.addComponent(new IntegerComponent());
+
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+
+        TestCompoundComponentEventHandler lateHandler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(lateHandler);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, lateHandler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(lateHandler);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, lateHandler.receivedList.size());
+    }
+
     @Test
     public void testPriorityAndCancel() {
         entity.addComponent(new StringComponent());
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocationIndexTest {
+
+    private PojoEntityManager entityManager;
+    private LocationIndex index;
+
+    @BeforeEach
+    public void setup() {
+        entityManager = new PojoEntityManager();
+        index = new LocationIndex(entityManager);
+    }
+
+    @Test
+    public void testFindsEntitiesInBox() {
+        EntityRef inside = createAt(1, 2, 3);
+        EntityRef onBorder = createAt(32, 2, 3);
+        createAt(40, 2, 3);
+        createAt(-1, 2, 3);
+
+        List<EntityRef> found = index.getEntitiesIn(AABB.createMinMax(new Vector3f(0, 0, 0), new Vector3f(32, 64, 32)));
+
+        assertEquals(Sets.newHashSet(inside, onBorder), Sets.newHashSet(found));
+    }
+
+    @Test
+    public void testIndexesExistingEntities() {
+        EntityRef entity = createAt(100, 0, 100);
+
+        LocationIndex newIndex = new LocationIndex(entityManager);
+
+        assertEquals(Arrays.asList(entity), newIndex.getEntitiesWithin(new Vector3f(100, 0, 100), 1));
+    }
+
+    @Test
+    public void testFollowsMovedEntities() {
+        EntityRef entity = createAt(0, 0, 0);
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.setWorldPosition(new Vector3f(500, 0, 0));
+        entity.saveComponent(location);
+
+        assertTrue(index.getEntitiesWithin(new Vector3f(0, 0, 0), 10).isEmpty());
+        assertEquals(Arrays.asList(entity), index.getEntitiesWithin(new Vector3f(500, 0, 0), 10));
+    }
+
+    @Test
+    public void testDropsRemovedAndDestroyedEntities() {
+        EntityRef removed = createAt(0, 0, 0);
+        EntityRef destroyed = createAt(1, 0, 0);
+
+        removed.removeComponent(LocationComponent.class);
+        destroyed.destroy();
+
+        assertTrue(index.getEntitiesWithin(new Vector3f(0, 0, 0), 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testFindsAttachedEntitiesAtTheirWorldPosition() {
+        EntityRef parent = createAt(0, 0, 0);
+        EntityRef child = createAt(0, 0, 0);
+        LocationComponent childLocation = child.getComponent(LocationComponent.class);
+        childLocation.parent = parent;
+        childLocation.setLocalPosition(new Vector3f(1, 0, 0));
+        child.saveComponent(childLocation);
+
+        LocationComponent parentLocation = parent.getComponent(LocationComponent.class);
+        parentLocation.setWorldPosition(new Vector3f(300, 0, 0));
+        parent.saveComponent(parentLocation);
+
+        assertEquals(Arrays.asList(child), index.getEntitiesWithin(new Vector3f(301, 0, 0), 0.5f));
+    }
+
+    @Test
+    public void testFindsNearestEntitiesInOrder() {
+        EntityRef near = createAt(2, 0, 0);
+        EntityRef nearer = createAt(1, 0, 0);
+        EntityRef farInOtherChunk = createAt(-70, 0, 0);
+        createAt(500, 0, 500);
+
+        assertEquals(Arrays.asList(nearer, near, farInOtherChunk), index.getNearestEntities(new Vector3f(0, 0, 0), 3));
+        assertEquals(4, index.getNearestEntities(new Vector3f(0, 0, 0), 10).size());
+    }
+
+    private EntityRef createAt(float x, float y, float z) {
+        return entityManager.create(new LocationComponent(new Vector3f(x, y, z)));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ChunkEncodingCacheTest extends TerasologyTestingEnvironment {
+
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+    private Block airBlock;
+    private ChunkEncodingCache cache;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        blockManager = new BlockManagerImpl(new NullWorldAtlas(), CoreRegistry.get(AssetManager.class));
+        extraDataManager = new ExtraBlockDataManager();
+        airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+        cache = new ChunkEncodingCache(2);
+    }
+
+    @Test
+    public void testUnchangedChunkEncodedOnce() {
+        Chunk chunk = new ChunkImpl(1, 2, 3, blockManager, extraDataManager);
+
+        EntityData.ChunkStore encoded = cache.encode(chunk);
+        assertSame(encoded, cache.encode(chunk));
+        assertEquals(chunk.encode().build(), encoded);
+    }
+
+    @Test
+    public void testBlockChangeInvalidatesChunk() {
+        Chunk chunk = new ChunkImpl(1, 2, 3, blockManager, extraDataManager);
+        EntityData.ChunkStore encoded = cache.encode(chunk);
+
+        Vector3i blockPos = new Vector3i(ChunkConstants.SIZE_X + 1, 2 * ChunkConstants.SIZE_Y, 3 * ChunkConstants.SIZE_Z + 4);
+        cache.onBlockChanged(blockPos, airBlock, airBlock);
+
+        assertNotSame(encoded, cache.encode(chunk));
+    }
+
+    @Test
+    public void testBlockChangeInOtherChunkKeepsEntry() {
+        Chunk chunk = new ChunkImpl(1, 2, 3, blockManager, extraDataManager);
+        EntityData.ChunkStore encoded = cache.encode(chunk);
+
+        cache.onExtraDataChanged(0, new Vector3i(0, 0, 0), 1, 0);
+
+        assertSame(encoded, cache.encode(chunk));
+    }
+
+    @Test
+    public void testReloadedChunkNotServedFromCache() {
+        EntityData.ChunkStore encoded = cache.encode(new ChunkImpl(1, 2, 3, blockManager, extraDataManager));
+
+        assertNotSame(encoded, cache.encode(new ChunkImpl(1, 2, 3, blockManager, extraDataManager)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesDropped() {
+        cache.encode(new ChunkImpl(0, 0, 0, blockManager, extraDataManager));
+        cache.encode(new ChunkImpl(1, 0, 0, blockManager, extraDataManager));
+        cache.encode(new ChunkImpl(2, 0, 0, blockManager, extraDataManager));
+
+        assertEquals(2, cache.size());
+    }
+}
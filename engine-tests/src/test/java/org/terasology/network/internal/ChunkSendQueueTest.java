@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkSendQueueTest {
+
+    @Test
+    public void testNearestPolledFirst() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(new Vector3i(5, 0, 0));
+        queue.add(new Vector3i(1, 1, 0));
+        queue.add(new Vector3i(0, 0, -3));
+
+        assertEquals(new Vector3i(1, 1, 0), queue.poll());
+        assertEquals(new Vector3i(0, 0, -3), queue.poll());
+        assertEquals(new Vector3i(5, 0, 0), queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testEqualDistancesPolledInOrderAdded() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(new Vector3i(0, 2, 0));
+        queue.add(new Vector3i(-2, 0, 0));
+        queue.add(new Vector3i(0, 0, 2));
+
+        assertEquals(new Vector3i(0, 2, 0), queue.poll());
+        assertEquals(new Vector3i(-2, 0, 0), queue.poll());
+        assertEquals(new Vector3i(0, 0, 2), queue.poll());
+    }
+
+    @Test
+    public void testMovedCenterReordersQueue() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(new Vector3i(-4, 0, 0));
+        queue.add(new Vector3i(1, 0, 0));
+        queue.add(new Vector3i(8, 0, 0));
+
+        queue.setCenter(new Vector3i(7, 0, 0));
+
+        assertEquals(new Vector3i(8, 0, 0), queue.poll());
+        assertEquals(new Vector3i(1, 0, 0), queue.poll());
+        assertEquals(new Vector3i(-4, 0, 0), queue.poll());
+    }
+
+    @Test
+    public void testRemove() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(new Vector3i(1, 0, 0));
+        queue.add(new Vector3i(2, 0, 0));
+
+        assertTrue(queue.remove(new Vector3i(1, 0, 0)));
+        assertFalse(queue.remove(new Vector3i(1, 0, 0)));
+        assertFalse(queue.contains(new Vector3i(1, 0, 0)));
+        assertEquals(1, queue.size());
+        assertEquals(new Vector3i(2, 0, 0), queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntityUpdateBatcherTest {
+
+    private static final int NET_ID = 7;
+
+    private NetworkEntitySerializer entitySerializer;
+    private EntityRef entity;
+    private EntityUpdateBatcher batcher;
+    private final Set<Class<? extends Component>> none = Collections.emptySet();
+
+    @BeforeEach
+    public void setup() {
+        entitySerializer = mock(NetworkEntitySerializer.class);
+        when(entitySerializer.serialize(any(EntityRef.class), any(), any(), any(), any()))
+                .thenAnswer(invocation -> EntityData.PackedEntity.newBuilder().build());
+        entity = mock(EntityRef.class);
+        batcher = new EntityUpdateBatcher();
+    }
+
+    @Test
+    public void testSameUpdateSerializedOnce() {
+        EntityData.PackedEntity first = batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+        EntityData.PackedEntity second = batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+
+        assertSame(first, second);
+        verifySerializations(1);
+    }
+
+    @Test
+    public void testOwnerAndOthersSerializedSeparately() {
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+        batcher.serialize(entitySerializer, NET_ID, entity, true, none, dirty(StringComponent.class), none);
+
+        verifySerializations(2);
+    }
+
+    @Test
+    public void testDifferentComponentsSerializedSeparately() {
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class, IntegerComponent.class), none);
+
+        verifySerializations(2);
+    }
+
+    @Test
+    public void testInvalidatedEntitySerializedAgain() {
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+        batcher.invalidate(NET_ID);
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+
+        verifySerializations(2);
+    }
+
+    @Test
+    public void testChangedInputSetDoesNotAffectStoredUpdate() {
+        Set<Class<? extends Component>> dirty = dirty(StringComponent.class);
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty, none);
+        dirty.clear();
+        batcher.serialize(entitySerializer, NET_ID, entity, false, none, dirty(StringComponent.class), none);
+
+        verifySerializations(1);
+    }
+
+    @SafeVarargs
+    private static Set<Class<? extends Component>> dirty(Class<? extends Component>... components) {
+        return Sets.newLinkedHashSet(Arrays.asList(components));
+    }
+
+    private void verifySerializations(int count) {
+        verify(entitySerializer, times(count)).serialize(any(EntityRef.class), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChunkEncodingStageTest {
+
+    private ChunkEncodingStage encodingStage;
+
+    @BeforeEach
+    public void setup() {
+        encodingStage = new ChunkEncodingStage();
+    }
+
+    @AfterEach
+    public void teardown() {
+        encodingStage.shutdown();
+    }
+
+    @Test
+    public void testChunksWrittenInOrder() throws Exception {
+        Map<Vector3i, CompressedChunkBuilder> chunks = Maps.newLinkedHashMap();
+        for (int i = 0; i < 100; i++) {
+            chunks.put(new Vector3i(i, 0, -i), new FixedChunkBuilder(new byte[]{(byte) i}));
+        }
+
+        List<Vector3i> written = Lists.newArrayList();
+        encodingStage.encodeAndWrite(chunks, (chunkPos, encodedChunk) -> {
+            assertArrayEquals(new byte[]{(byte) chunkPos.x}, encodedChunk);
+            written.add(chunkPos);
+        });
+
+        assertEquals(Lists.newArrayList(chunks.keySet()), written);
+    }
+
+    @Test
+    public void testEncodingFailureThrown() {
+        Map<Vector3i, CompressedChunkBuilder> chunks = Maps.newLinkedHashMap();
+        chunks.put(new Vector3i(0, 0, 0), new FixedChunkBuilder(new byte[]{0}));
+        chunks.put(new Vector3i(1, 0, 0), new FixedChunkBuilder(null));
+        chunks.put(new Vector3i(2, 0, 0), new FixedChunkBuilder(new byte[]{2}));
+
+        List<Vector3i> written = Lists.newArrayList();
+        assertThrows(IllegalStateException.class,
+                () -> encodingStage.encodeAndWrite(chunks, (chunkPos, encodedChunk) -> written.add(chunkPos)));
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 0)), written);
+    }
+
+    /**
+     * Hands out a fixed encoding, or fails if there is none.
+     */
+    private static class FixedChunkBuilder extends CompressedChunkBuilder {
+        private final byte[] encodedChunk;
+
+        FixedChunkBuilder(byte[] encodedChunk) {
+            super(null, null, false);
+            this.encodedChunk = encodedChunk;
+        }
+
+        @Override
+        public synchronized byte[] buildEncodedChunk() {
+            if (encodedChunk == null) {
+                throw new IllegalStateException("Chunk can't be encoded");
+            }
+            return encodedChunk;
+        }
+    }
+}
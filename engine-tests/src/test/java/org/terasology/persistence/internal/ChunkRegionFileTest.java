@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ChunkRegionFileTest {
+
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+
+    private Path path;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        path = Files.createTempFile("chunk-region", ".region");
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testWrittenChunkRead() throws IOException {
+        try (ChunkRegionFile regionFile = ChunkRegionFile.open(path)) {
+            regionFile.write(3, new byte[]{1, 2, 3});
+        }
+
+        assertArrayEquals(new byte[]{1, 2, 3}, ChunkRegionFile.read(path, 3));
+        assertNull(ChunkRegionFile.read(path, 4));
+    }
+
+    @Test
+    public void testEntryBeyondEndOfFileReadAsMissing() throws IOException {
+        try (ChunkRegionFile regionFile = ChunkRegionFile.open(path)) {
+            regionFile.write(3, new byte[]{1, 2, 3});
+        }
+        long sectors = Files.size(path) / ChunkRegionFile.SECTOR_SIZE;
+
+        writeEntry(3, (int) sectors + 10, 3);
+        assertNull(ChunkRegionFile.read(path, 3));
+    }
+
+    @Test
+    public void testEntryWithCorruptLengthReadAsMissing() throws IOException {
+        try (ChunkRegionFile regionFile = ChunkRegionFile.open(path)) {
+            regionFile.write(3, new byte[]{1, 2, 3});
+            regionFile.write(4, new byte[]{4});
+        }
+        ByteBuffer entry = readEntry(3);
+
+        writeEntry(3, entry.getInt(0), Integer.MAX_VALUE);
+        assertNull(ChunkRegionFile.read(path, 3));
+        writeEntry(3, entry.getInt(0), -1);
+        assertNull(ChunkRegionFile.read(path, 3));
+        assertArrayEquals(new byte[]{4}, ChunkRegionFile.read(path, 4));
+    }
+
+    private ByteBuffer readEntry(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+            channel.read(entry, (long) index * ENTRY_SIZE);
+            return entry;
+        }
+    }
+
+    private void writeEntry(int index, int firstSector, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+            entry.putInt(firstSector).putInt(length).flip();
+            channel.write(entry, (long) index * ENTRY_SIZE);
+        }
+    }
+}
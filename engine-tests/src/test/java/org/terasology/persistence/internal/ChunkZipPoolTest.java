@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.FilesUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkZipPoolTest {
+
+    private static final Vector3i CHUNK_POS = new Vector3i(1, 2, 3);
+
+    private Path savePath;
+    private StoragePathProvider storagePathProvider;
+    private ChunkZipPool chunkZipPool;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        savePath = Files.createTempDirectory("chunk-zip-pool");
+        storagePathProvider = new StoragePathProvider(savePath);
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        chunkZipPool = new ChunkZipPool(storagePathProvider, 2);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        chunkZipPool.invalidateAll();
+        FilesUtil.recursiveDelete(savePath);
+    }
+
+    @Test
+    public void testMissingZipReadsNull() throws IOException {
+        assertNull(chunkZipPool.read(CHUNK_POS));
+    }
+
+    @Test
+    public void testMissingChunkReadsNull() throws IOException {
+        writeChunkZip(CHUNK_POS, new byte[]{1});
+
+        assertNull(chunkZipPool.read(new Vector3i(CHUNK_POS.x, CHUNK_POS.y + 1, CHUNK_POS.z)));
+    }
+
+    @Test
+    public void testChunkReadFromOpenZip() throws IOException {
+        writeChunkZip(CHUNK_POS, new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, chunkZipPool.read(CHUNK_POS));
+        assertArrayEquals(new byte[]{1, 2, 3}, chunkZipPool.read(CHUNK_POS));
+    }
+
+    @Test
+    public void testReplacedZipReadAfterInvalidation() throws IOException {
+        writeChunkZip(CHUNK_POS, new byte[]{1});
+        assertArrayEquals(new byte[]{1}, chunkZipPool.read(CHUNK_POS));
+
+        chunkZipPool.invalidate(storagePathProvider.getChunkZipPosition(CHUNK_POS));
+        writeChunkZip(CHUNK_POS, new byte[]{2});
+
+        assertArrayEquals(new byte[]{2}, chunkZipPool.read(CHUNK_POS));
+    }
+
+    @Test
+    public void testZipsReadLongestAgoClosedPastCapacity() throws IOException {
+        Vector3i first = chunkInZip(0);
+        Vector3i second = chunkInZip(1);
+        Vector3i third = chunkInZip(2);
+        writeChunkZip(first, new byte[]{1});
+        writeChunkZip(second, new byte[]{2});
+        writeChunkZip(third, new byte[]{3});
+
+        chunkZipPool.read(first);
+        chunkZipPool.read(second);
+        chunkZipPool.read(third);
+        assertFalse(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(first)));
+        assertTrue(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(second)));
+        assertTrue(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(third)));
+
+        chunkZipPool.read(second);
+        assertArrayEquals(new byte[]{1}, chunkZipPool.read(first));
+        assertTrue(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(first)));
+        assertTrue(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(second)));
+        assertFalse(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(third)));
+    }
+
+    @Test
+    public void testInvalidatedZipStaysOpenUntilReadDone() throws IOException {
+        writeChunkZip(CHUNK_POS, new byte[]{1, 2});
+        Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(CHUNK_POS);
+        ChunkZipPool.ZipHandle handle = chunkZipPool.acquire(chunkZipPos);
+
+        chunkZipPool.invalidate(chunkZipPos);
+        assertArrayEquals(new byte[]{1, 2}, readChunk(handle));
+
+        chunkZipPool.release(handle);
+        assertThrows(IllegalStateException.class, () -> readChunk(handle));
+    }
+
+    @Test
+    public void testEvictedZipStaysOpenUntilReadDone() throws IOException {
+        writeChunkZip(CHUNK_POS, new byte[]{1, 2});
+        writeChunkZip(chunkInZip(1), new byte[]{3});
+        writeChunkZip(chunkInZip(2), new byte[]{4});
+        ChunkZipPool.ZipHandle handle = chunkZipPool.acquire(storagePathProvider.getChunkZipPosition(CHUNK_POS));
+
+        chunkZipPool.read(chunkInZip(1));
+        chunkZipPool.read(chunkInZip(2));
+        assertFalse(chunkZipPool.isOpen(storagePathProvider.getChunkZipPosition(CHUNK_POS)));
+        assertArrayEquals(new byte[]{1, 2}, readChunk(handle));
+
+        chunkZipPool.release(handle);
+        assertThrows(IllegalStateException.class, () -> readChunk(handle));
+    }
+
+    /**
+     * @return a chunk in the zip the given number of zips to the right of the zip of {@link #CHUNK_POS}
+     */
+    private Vector3i chunkInZip(int index) {
+        Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(CHUNK_POS);
+        chunkZipPos.x += index;
+        Vector3i chunkPos = new Vector3i(CHUNK_POS);
+        while (!storagePathProvider.getChunkZipPosition(chunkPos).equals(chunkZipPos)) {
+            chunkPos.x++;
+        }
+        return chunkPos;
+    }
+
+    private byte[] readChunk(ChunkZipPool.ZipHandle handle) throws IOException {
+        ZipEntry entry = handle.zip.getEntry(storagePathProvider.getChunkFilename(CHUNK_POS));
+        try (InputStream in = handle.zip.getInputStream(entry)) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+    private void writeChunkZip(Vector3i chunkPos, byte[] chunkData) throws IOException {
+        Path chunkZipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(chunkPos));
+        try (OutputStream out = Files.newOutputStream(chunkZipPath); ZipOutputStream zipOut = new ZipOutputStream(out)) {
+            zipOut.putNextEntry(new ZipEntry(storagePathProvider.getChunkFilename(chunkPos)));
+            zipOut.write(chunkData);
+            zipOut.closeEntry();
+        }
+    }
+}
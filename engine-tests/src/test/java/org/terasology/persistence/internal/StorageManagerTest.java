@@ -37,6 +37,7 @@
 import org.terasology.entitySystem.stubs.EntityRefComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.location.LocationIndex;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.ModuleEnvironment;
@@ -93,6 +94,7 @@ public class StorageManagerTest extends TerasologyTestingEnvironment {
     private ModuleEnvironment moduleEnvironment;
     private ReadWriteStorageManager esm;
     private EngineEntityManager entityManager;
+    private LocationIndex locationIndex;
     private BlockManager blockManager;
     private ExtraBlockDataManager extraDataManager;
     private Block testBlock;
@@ -122,6 +124,7 @@ public void setup() throws Exception {
         assert !Files.isRegularFile(vfs.getPath("global.dat"));
 
         entityManager = context.get(EngineEntityManager.class);
+        locationIndex = context.get(LocationIndex.class);
         moduleEnvironment = mock(ModuleEnvironment.class);
         blockManager = context.get(BlockManager.class);
         extraDataManager = context.get(ExtraBlockDataManager.class);
@@ -138,8 +141,8 @@ public void setup() throws Exception {
         recordAndReplayCurrentStatus = context.get(RecordAndReplayCurrentStatus.class);
 
 
-        esm = new ReadWriteStorageManager(savePath, moduleEnvironment, entityManager, blockManager, extraDataManager,
-                false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        esm = new ReadWriteStorageManager(savePath, moduleEnvironment, entityManager, locationIndex, blockManager,
+                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
         context.put(StorageManager.class, esm);
 
         this.character = entityManager.create();
@@ -238,8 +241,8 @@ public void testGlobalEntitiesStoredAndRestored() throws Exception {
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
         EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
 
-        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
-                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
         newSM.loadGlobalStore();
 
         List<EntityRef> entities = Lists.newArrayList(newEntityManager.getEntitiesWith(StringComponent.class));
@@ -259,8 +262,8 @@ public void testReferenceRemainsValidOverStorageRestoral() throws Exception {
         EntitySystemSetupUtil.addReflectionBasedLibraries(context);
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
         EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
-        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
-                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
         newSM.loadGlobalStore();
 
         PlayerStore restored = newSM.loadPlayerStore(PLAYER_ID);
@@ -311,8 +314,8 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         EntitySystemSetupUtil.addReflectionBasedLibraries(context);
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
         EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
-        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
-                extraDataManager, storeChunkInZips, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, storeChunkInZips, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
         newSM.loadGlobalStore();
 
         ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
@@ -346,8 +349,8 @@ public void testEntitySurvivesStorageInChunkStore() throws Exception {
         EntitySystemSetupUtil.addReflectionBasedLibraries(context);
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
         EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
-        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
-                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
         newSM.loadGlobalStore();
 
         ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
@@ -358,6 +361,109 @@ public void testEntitySurvivesStorageInChunkStore() throws Exception {
     }
 
 
+    @Test
+    public void testChunkUpdatedInPlaceInRegionFile() throws Exception {
+        Path regionSavePath = PathManager.getInstance().getSavePath("testRegionSave");
+        ReadWriteStorageManager regionSM = new ReadWriteStorageManager(regionSavePath, moduleEnvironment, entityManager, locationIndex,
+                blockManager, extraDataManager, ChunkStoreFormat.REGION, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        regionSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        chunk.setBlock(0, 0, 0, testBlock2);
+        regionSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        regionSM.finishSavingAndShutdown();
+
+        StoragePathProvider storagePathProvider = new StoragePathProvider(regionSavePath);
+        assertTrue(Files.isRegularFile(storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(CHUNK_POS))));
+        assertFalse(Files.exists(storagePathProvider.getChunkPath(CHUNK_POS)));
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(regionSavePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, ChunkStoreFormat.REGION, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 0, 0));
+    }
+
+    @Test
+    public void testChunkZipsKeptWhenOpenedWithRegionFormat() throws Exception {
+        Path zipSavePath = PathManager.getInstance().getSavePath("testZipSave");
+        ReadWriteStorageManager zipSM = new ReadWriteStorageManager(zipSavePath, moduleEnvironment, entityManager, locationIndex,
+                blockManager, extraDataManager, ChunkStoreFormat.ZIP, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 4, 2, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        zipSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        zipSM.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(zipSavePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, ChunkStoreFormat.REGION, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.checkAndRepairSaveIfNecessary();
+
+        StoragePathProvider storagePathProvider = new StoragePathProvider(zipSavePath);
+        assertTrue(Files.isRegularFile(storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(CHUNK_POS))));
+        assertEquals(ChunkStoreFormat.ZIP, storagePathProvider.detectChunkStoreFormat());
+    }
+
+    @Test
+    public void testChunkZipsMigratedToRegionFiles() throws Exception {
+        Path migrationSavePath = PathManager.getInstance().getSavePath("testMigrationSave");
+        ReadWriteStorageManager zipSM = new ReadWriteStorageManager(migrationSavePath, moduleEnvironment, entityManager, locationIndex,
+                blockManager, extraDataManager, ChunkStoreFormat.ZIP, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 4, 2, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        zipSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        zipSM.finishSavingAndShutdown();
+
+        StoragePathProvider storagePathProvider = new StoragePathProvider(migrationSavePath);
+        Path chunkZipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(CHUNK_POS));
+        assertTrue(Files.isRegularFile(chunkZipPath));
+        assertEquals(ChunkStoreFormat.ZIP, storagePathProvider.detectChunkStoreFormat());
+
+        assertEquals(1, ChunkStoreMigration.migrateToRegionFiles(migrationSavePath));
+        assertFalse(Files.exists(chunkZipPath));
+        assertEquals(ChunkStoreFormat.REGION, storagePathProvider.detectChunkStoreFormat());
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(migrationSavePath, moduleEnvironment, newEntityManager, context.get(LocationIndex.class),
+                blockManager, extraDataManager, ChunkStoreFormat.REGION, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.checkAndRepairSaveIfNecessary();
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 4, 2));
+    }
+
     @Test
     public void testCanSavePlayerWithoutUnloading() throws Exception {
         esm.waitForCompletionOfPreviousSaveAndStartSaving();
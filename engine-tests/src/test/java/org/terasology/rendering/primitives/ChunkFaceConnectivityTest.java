@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkFaceConnectivityTest extends TerasologyTestingEnvironment {
+
+    private BlockManager blockManager;
+    private Block airBlock;
+    private Block solidBlock;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        solidBlock = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+    }
+
+    @Test
+    public void testEmptyChunkIsAllConnected() {
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, new ExtraBlockDataManager());
+
+        assertEquals(ChunkFaceConnectivity.ALL_CONNECTED, ChunkFaceConnectivity.compute(createView(chunk)));
+    }
+
+    @Test
+    public void testSolidChunkIsNotConnected() {
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, new ExtraBlockDataManager());
+        fill(chunk, 0, ChunkConstants.SIZE_Y);
+
+        assertEquals(0, ChunkFaceConnectivity.compute(createView(chunk)));
+    }
+
+    @Test
+    public void testFloorSeparatesTopFromBottom() {
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, new ExtraBlockDataManager());
+        fill(chunk, 20, 21);
+
+        long connectivity = ChunkFaceConnectivity.compute(createView(chunk));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.TOP, Side.BOTTOM));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.TOP, Side.LEFT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.BOTTOM, Side.FRONT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.RIGHT));
+    }
+
+    @Test
+    public void testTunnelConnectsItsEnds() {
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, new ExtraBlockDataManager());
+        fill(chunk, 0, ChunkConstants.SIZE_Y);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            chunk.setBlock(x, 30, 16, airBlock);
+        }
+
+        long connectivity = ChunkFaceConnectivity.compute(createView(chunk));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.RIGHT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.RIGHT, Side.LEFT));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.TOP));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.FRONT, Side.BACK));
+    }
+
+    private void fill(Chunk chunk, int minY, int maxY) {
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int y = minY; y < maxY; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    chunk.setBlock(x, y, z, solidBlock);
+                }
+            }
+        }
+    }
+
+    private ChunkView createView(Chunk chunk) {
+        return new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromMinAndSize(new Vector3i(), Vector3i.one()),
+                new Vector3i(), airBlock);
+    }
+}
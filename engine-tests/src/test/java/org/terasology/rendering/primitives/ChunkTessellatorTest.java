@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkTessellatorTest extends TerasologyTestingEnvironment {
+
+    private ChunkView chunkView;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        BlockManager blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        Block airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        Block solidBlock = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, new ExtraBlockDataManager());
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int y = 0; y < 8 + (x * 7 + z * 3) % 11; y++) {
+                    chunk.setBlock(x, y, z, solidBlock);
+                }
+            }
+        }
+        chunkView = new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromMinAndSize(new Vector3i(), Vector3i.one()),
+                new Vector3i(), airBlock);
+    }
+
+    @Test
+    public void testDirectVertexElementsMatchVertexElements() {
+        ChunkMesh mesh = new ChunkTessellator(new GLBufferPool(false)).generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+        ChunkMesh directMesh = new ChunkTessellator(new GLBufferPool(false), new DirectBufferPool())
+                .generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+
+        assertTrue(mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount > 0);
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
+            DirectVertexElements directElements = directMesh.getDirectVertexElements(type);
+
+            assertEquals(elements.vertexCount, directElements.getVertexCount());
+            assertEquals(elements.finalIndices.limit(), directElements.getIndexCount());
+            if (directElements.getVertexCount() > 0) {
+                assertEquals(elements.finalVertices, directElements.getVertices().asIntBuffer());
+                assertEquals(elements.finalIndices, directElements.getIndices().asIntBuffer());
+            }
+        }
+    }
+
+    @Test
+    public void testVertexElementsOfDirectMeshAppended() {
+        ChunkMesh mesh = new ChunkTessellator(new GLBufferPool(false)).generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+        ChunkMesh directMesh = new ChunkMesh(new GLBufferPool(false), new DirectBufferPool());
+
+        // as done by block mesh generators which don't know about DirectVertexElements
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        ChunkMesh.VertexElements compatibleElements = directMesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        compatibleElements.vertices.addAll(elements.vertices);
+        compatibleElements.tex.addAll(elements.tex);
+        compatibleElements.flags.addAll(elements.flags);
+        compatibleElements.frames.addAll(elements.frames);
+        compatibleElements.color.addAll(elements.color);
+        compatibleElements.normals.addAll(elements.normals);
+        compatibleElements.indices.addAll(elements.indices);
+        compatibleElements.vertexCount = elements.vertexCount;
+        directMesh.appendVertexElementsToDirect();
+
+        DirectVertexElements directElements = directMesh.getDirectVertexElements(ChunkMesh.RenderType.OPAQUE);
+        assertEquals(elements.vertexCount, directElements.getVertexCount());
+        assertEquals(elements.indices.size(), directElements.getIndexCount());
+        Vector3f position = new Vector3f();
+        for (int i = 0; i < elements.vertexCount; i++) {
+            directElements.getPosition(i, position);
+            assertEquals(new Vector3f(elements.vertices.get(i * 3), elements.vertices.get(i * 3 + 1), elements.vertices.get(i * 3 + 2)),
+                    position);
+        }
+        directMesh.dispose();
+    }
+
+    @Test
+    public void testBuffersReturnedToPool() {
+        DirectBufferPool vertexBufferPool = new DirectBufferPool();
+        ChunkTessellator tessellator = new ChunkTessellator(new GLBufferPool(false), vertexBufferPool);
+
+        tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0).dispose();
+        long allocatedBytes = vertexBufferPool.getAllocatedBytes();
+        tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0).dispose();
+
+        assertEquals(allocatedBytes, vertexBufferPool.getAllocatedBytes());
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.BlockTile;
+import org.terasology.world.block.tiles.WorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.nio.IntBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GreedyMeshGeneratorTest extends TerasologyTestingEnvironment {
+
+    private static final Logger logger = LoggerFactory.getLogger(GreedyMeshGeneratorTest.class);
+
+    private static final int TILES_PER_ROW = 16;
+    private static final float TILE_SIZE = 1f / TILES_PER_ROW;
+    private static final float BORDER = TILE_SIZE / 128f;
+
+    private ChunkView chunkView;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        WorldAtlas worldAtlas = new TestWorldAtlas();
+        CoreRegistry.put(WorldAtlas.class, worldAtlas);
+        BlockManager blockManager = new BlockManagerImpl(worldAtlas, assetManager);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        Block airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        Block solidBlock = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, new ExtraBlockDataManager());
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                int height = 8 + (x / 4 * 7 + z / 4 * 3) % 11;
+                for (int y = 0; y < height; y++) {
+                    chunk.setBlock(x, y, z, solidBlock);
+                }
+                // unevenly lit faces near the border between sunlit and dark columns
+                for (int y = height; y < ChunkConstants.SIZE_Y && x < ChunkConstants.SIZE_X / 2; y++) {
+                    chunk.setSunlight(x, y, z, ChunkConstants.MAX_SUNLIGHT);
+                }
+            }
+        }
+        chunkView = new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromMinAndSize(new Vector3i(), Vector3i.one()),
+                new Vector3i(), airBlock);
+    }
+
+    @Test
+    public void testMergedFacesCoverSameFaces() {
+        ChunkMesh mesh = new ChunkTessellator(new GLBufferPool(false)).generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+        ChunkMesh greedyMesh = new ChunkTessellator(new GLBufferPool(false), null, true)
+                .generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+
+        Map<String, float[]> faces = getCoveredFaces(mesh);
+        Map<String, float[]> greedyFaces = getCoveredFaces(greedyMesh);
+        assertEquals(faces.keySet(), greedyFaces.keySet());
+        for (Map.Entry<String, float[]> face : faces.entrySet()) {
+            assertArrayEquals(face.getValue(), greedyFaces.get(face.getKey()), 1.0e-4f, face.getKey());
+        }
+
+        int triangles = getTriangleCount(mesh);
+        int greedyTriangles = getTriangleCount(greedyMesh);
+        logger.info("Greedy meshing reduced the triangles from {} to {} ({}%)", triangles, greedyTriangles,
+                100 - 100 * greedyTriangles / triangles);
+        assertTrue(greedyTriangles < triangles);
+    }
+
+    @Test
+    public void testDirectVertexElementsMatchVertexElements() {
+        ChunkMesh mesh = new ChunkTessellator(new GLBufferPool(false), null, true)
+                .generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+        ChunkMesh directMesh = new ChunkTessellator(new GLBufferPool(false), new DirectBufferPool(), true)
+                .generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        DirectVertexElements directElements = directMesh.getDirectVertexElements(ChunkMesh.RenderType.OPAQUE);
+        assertEquals(elements.finalVertices, directElements.getVertices().asIntBuffer());
+        assertEquals(elements.finalIndices, directElements.getIndices().asIntBuffer());
+    }
+
+    private int getTriangleCount(ChunkMesh mesh) {
+        int triangles = 0;
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            triangles += mesh.getVertexElements(type).finalIndices.limit() / 3;
+        }
+        return triangles;
+    }
+
+    /**
+     * Splits the quads of the mesh into the block faces they cover, mapping the center of each face to the atlas
+     * coordinates, vertex flags and average lighting the chunk shader would use there.
+     */
+    private Map<String, float[]> getCoveredFaces(ChunkMesh mesh) {
+        Map<String, float[]> faces = Maps.newHashMap();
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        for (int quad = 0; quad < elements.vertexCount / 4; quad++) {
+            float[][] vertices = new float[4][];
+            for (int i = 0; i < 4; i++) {
+                vertices[i] = getVertex(elements.finalVertices, quad * 4 + i);
+            }
+            int n = Math.abs(vertices[0][11]) > 0.5f ? 0 : Math.abs(vertices[0][12]) > 0.5f ? 1 : 2;
+            int u = (n + 1) % 3;
+            int v = (n + 2) % 3;
+            float minU = Float.MAX_VALUE;
+            float minV = Float.MAX_VALUE;
+            float maxU = -Float.MAX_VALUE;
+            float maxV = -Float.MAX_VALUE;
+            for (float[] vertex : vertices) {
+                minU = Math.min(minU, vertex[u]);
+                minV = Math.min(minV, vertex[v]);
+                maxU = Math.max(maxU, vertex[u]);
+                maxV = Math.max(maxV, vertex[v]);
+            }
+            float[] corner00 = null;
+            float[] corner10 = null;
+            float[] corner01 = null;
+            float[] light = new float[3];
+            for (float[] vertex : vertices) {
+                if (vertex[u] == minU && vertex[v] == minV) {
+                    corner00 = vertex;
+                } else if (vertex[u] == maxU && vertex[v] == minV) {
+                    corner10 = vertex;
+                } else if (vertex[u] == minU && vertex[v] == maxV) {
+                    corner01 = vertex;
+                }
+                for (int i = 0; i < 3; i++) {
+                    light[i] += vertex[7 + i] / 4;
+                }
+            }
+
+            for (float faceU = minU + 0.5f; faceU < maxU; faceU++) {
+                for (float faceV = minV + 0.5f; faceV < maxV; faceV++) {
+                    float s = (faceU - minU) / (maxU - minU);
+                    float t = (faceV - minV) / (maxV - minV);
+                    float texU = corner00[3] + s * (corner10[3] - corner00[3]) + t * (corner01[3] - corner00[3]);
+                    float texV = corner00[4] + s * (corner10[4] - corner00[4]) + t * (corner01[4] - corner00[4]);
+                    if (corner00[6] < 0) {
+                        // same as mergedFaceTexCoord() in chunk_frag.glsl
+                        int tileIndex = (int) -corner00[6] - 1;
+                        texU = (tileIndex % TILES_PER_ROW) * TILE_SIZE + BORDER + fract(texU) * (TILE_SIZE - 2 * BORDER);
+                        texV = (tileIndex / TILES_PER_ROW) * TILE_SIZE + BORDER + fract(texV) * (TILE_SIZE - 2 * BORDER);
+                    }
+                    float[] center = new float[3];
+                    center[n] = corner00[n];
+                    center[u] = faceU;
+                    center[v] = faceV;
+                    String key = String.format("%.1f %.1f %.1f facing %.0f %.0f %.0f",
+                            center[0], center[1], center[2], corner00[11], corner00[12], corner00[13]);
+                    faces.put(key, new float[]{texU, texV, corner00[5], light[0], light[1], light[2]});
+                }
+            }
+        }
+        return faces;
+    }
+
+    /**
+     * @return position, texture coordinates, flags, frames, lighting, color and normal of the vertex
+     */
+    private float[] getVertex(IntBuffer vertices, int vertex) {
+        float[] values = new float[DirectVertexElements.INTS_PER_VERTEX];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Float.intBitsToFloat(vertices.get(vertex * values.length + i));
+        }
+        return values;
+    }
+
+    private static float fract(float value) {
+        return value - (float) Math.floor(value);
+    }
+
+    private static class TestWorldAtlas implements WorldAtlas {
+
+        @Override
+        public void update() {
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public int getTileSize() {
+            return 16;
+        }
+
+        @Override
+        public int getAtlasSize() {
+            return TILES_PER_ROW * getTileSize();
+        }
+
+        @Override
+        public float getRelativeTileSize() {
+            return TILE_SIZE;
+        }
+
+        @Override
+        public int getNumMipmaps() {
+            return 1;
+        }
+
+        @Override
+        public Vector2f getTexCoords(BlockTile tile, boolean warnOnError) {
+            return new Vector2f();
+        }
+
+        @Override
+        public Vector2f getTexCoords(ResourceUrn uri, boolean warnOnError) {
+            return new Vector2f();
+        }
+    }
+}
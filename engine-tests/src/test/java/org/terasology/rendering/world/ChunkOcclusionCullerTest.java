@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkOcclusionCullerTest {
+
+    private static final int VISIBLE = 1;
+
+    private final List<RenderableChunk> chunks = Lists.newArrayList();
+
+    @Test
+    public void testEveryChunkReachedThroughOpenChunks() {
+        addChunks();
+        addChunk(new Vector3i(1, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+        addChunk(new Vector3i(2, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+
+        int[] visibility = cull();
+
+        assertEquals(Arrays.asList(VISIBLE, VISIBLE, VISIBLE, VISIBLE, VISIBLE), toList(visibility));
+    }
+
+    @Test
+    public void testChunkBehindClosedChunkCulled() {
+        addChunks();
+        addChunk(new Vector3i(1, 1, 0), connect(Side.LEFT, Side.TOP));
+        addChunk(new Vector3i(2, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+
+        int[] visibility = cull();
+
+        assertEquals(Arrays.asList(VISIBLE, VISIBLE, VISIBLE, VISIBLE, 0), toList(visibility));
+    }
+
+    /**
+     * The chunk at (1, 1, 0) is reached through its left face first, which doesn't lead on to the chunk at (2, 1, 0).
+     * Its bottom face does, and is reached later, so the chunk has to be entered again.
+     */
+    @Test
+    public void testChunkEnteredAgainThroughBetterConnectedFace() {
+        addChunks();
+        addChunk(new Vector3i(1, 1, 0), connect(Side.BOTTOM, Side.RIGHT));
+        addChunk(new Vector3i(2, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+
+        int[] visibility = cull();
+
+        assertEquals(Arrays.asList(VISIBLE, VISIBLE, VISIBLE, VISIBLE, VISIBLE), toList(visibility));
+    }
+
+    @Test
+    public void testChunksOutsideFrustumNotPassedThrough() {
+        addChunks();
+        addChunk(new Vector3i(1, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+        addChunk(new Vector3i(2, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+        ChunkOcclusionCuller culler = new ChunkOcclusionCuller();
+        culler.rebuild(chunks);
+        int[] visibility = {VISIBLE, 0, 0, VISIBLE, VISIBLE};
+
+        assertEquals(2, culler.cull(new Vector3i(0, 0, 0), visibility, VISIBLE));
+        assertEquals(Arrays.asList(VISIBLE, 0, 0, 0, 0), toList(visibility));
+    }
+
+    /**
+     * Adds the chunk of the camera at the origin and the open chunks above it and to the right of it.
+     */
+    private void addChunks() {
+        addChunk(new Vector3i(0, 0, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+        addChunk(new Vector3i(0, 1, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+        addChunk(new Vector3i(1, 0, 0), ChunkFaceConnectivity.ALL_CONNECTED);
+    }
+
+    private void addChunk(Vector3i position, long connectivity) {
+        ChunkMesh mesh = mock(ChunkMesh.class);
+        when(mesh.getFaceConnectivity()).thenReturn(connectivity);
+        RenderableChunk chunk = mock(RenderableChunk.class);
+        when(chunk.getPosition()).thenReturn(position);
+        when(chunk.hasMesh()).thenReturn(true);
+        when(chunk.getMesh()).thenReturn(mesh);
+        chunks.add(chunk);
+    }
+
+    private int[] cull() {
+        ChunkOcclusionCuller culler = new ChunkOcclusionCuller();
+        culler.rebuild(chunks);
+        int[] visibility = new int[chunks.size()];
+        Arrays.fill(visibility, VISIBLE);
+        culler.cull(new Vector3i(0, 0, 0), visibility, VISIBLE);
+        return visibility;
+    }
+
+    private static long connect(Side from, Side to) {
+        return (1L << (from.ordinal() * 6 + to.ordinal())) | (1L << (to.ordinal() * 6 + from.ordinal()));
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> result = Lists.newArrayList();
+        for (int value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+}
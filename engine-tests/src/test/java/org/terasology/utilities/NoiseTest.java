@@ -19,6 +19,9 @@
 import com.google.common.collect.Lists;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.utilities.procedural.BrownianNoise;
 import org.terasology.utilities.procedural.DiscreteWhiteNoise;
 import org.terasology.utilities.procedural.Noise;
@@ -101,4 +104,51 @@ public void testResolution(Noise noiseGen) {
 
         fail();
     }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    public void testRegionsMatchSinglePositions(Noise noiseGen) {
+        Rect2i rect = Rect2i.createFromMinAndSize(-7, 3, 13, 5);
+        float[] values2D = noiseGen.noise(rect);
+        int index = 0;
+        for (int y = rect.minY(); y <= rect.maxY(); y++) {
+            for (int x = rect.minX(); x <= rect.maxX(); x++) {
+                assertEquals(noiseGen.noise(x, y), values2D[index++], 0);
+            }
+        }
+
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-5, 2, -9), new Vector3i(6, 4, 7));
+        float[] values3D = noiseGen.noise(region);
+        index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    assertEquals(noiseGen.noise(x, y, z), values3D[index++], 0);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    public void testGridsMatchSinglePositions(Noise noiseGen) {
+        float[] values2D = new float[9 * 4];
+        noiseGen.noise(values2D, 1.5f, -3.25f, 0.37f, 0.8f, 9, 4);
+        for (int j = 0; j < 4; j++) {
+            for (int i = 0; i < 9; i++) {
+                assertEquals(noiseGen.noise(1.5f + i * 0.37f, -3.25f + j * 0.8f), values2D[i + 9 * j], 0);
+            }
+        }
+
+        float[] values3D = new float[5 * 3 * 6];
+        noiseGen.noise(values3D, 0.1f, 20.5f, -4f, 0.45f, 1.3f, 0.05f, 5, 3, 6);
+        for (int k = 0; k < 6; k++) {
+            for (int j = 0; j < 3; j++) {
+                for (int i = 0; i < 5; i++) {
+                    assertEquals(noiseGen.noise(0.1f + i * 0.45f, 20.5f + j * 1.3f, -4f + k * 0.05f),
+                            values3D[i + 5 * (j + 3 * k)], 0);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.monitoring.TaskQueueMonitor;
+import org.terasology.monitoring.ThreadMonitor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskMasterTest {
+
+    @Test
+    public void testQueueMonitoredWhileRunning() {
+        TaskMaster<Task> taskMaster = TaskMaster.createFIFOTaskMaster("TaskMasterTest-fifo", 1);
+        assertTrue(isMonitored("TaskMasterTest-fifo"));
+
+        taskMaster.shutdown(new ShutdownTask(), true);
+        assertFalse(isMonitored("TaskMasterTest-fifo"));
+
+        taskMaster.restart();
+        assertTrue(isMonitored("TaskMasterTest-fifo"));
+
+        taskMaster.shutdown(new ShutdownTask(), true);
+        assertFalse(isMonitored("TaskMasterTest-fifo"));
+    }
+
+    @Test
+    public void testShutdownKeepsNewerQueueOfSameName() {
+        TaskMaster<Task> first = TaskMaster.createFIFOTaskMaster("TaskMasterTest-same-name", 1);
+        TaskMaster<Task> second = TaskMaster.createFIFOTaskMaster("TaskMasterTest-same-name", 1);
+
+        first.shutdown(new ShutdownTask(), true);
+        assertTrue(isMonitored("TaskMasterTest-same-name"));
+
+        second.shutdown(new ShutdownTask(), true);
+        assertFalse(isMonitored("TaskMasterTest-same-name"));
+    }
+
+    private static boolean isMonitored(String name) {
+        for (TaskQueueMonitor monitor : ThreadMonitor.getTaskQueueMonitors()) {
+            if (monitor.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
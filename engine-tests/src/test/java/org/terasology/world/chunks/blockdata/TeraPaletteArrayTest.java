@@ -0,0 +1,302 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeraPaletteArrayTest {
+
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 32;
+    private static final int SIZE_Z = 16;
+
+    @Test
+    public void testNewArrayStoresNoIndices() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+
+        assertEquals(0, array.get(3, 4, 5));
+        assertEquals(0, array.getBitsPerEntry());
+        assertEquals(0, array.set(3, 4, 5, 0));
+        assertEquals(0, array.getBitsPerEntry());
+    }
+
+    @Test
+    public void testPaletteGrowsOnSet() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        TeraDenseArray16Bit expected = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+
+        for (int value = 1; value < TeraPaletteArray.COMPACT_PALETTE_SIZE; value++) {
+            int x = value % SIZE_X;
+            int y = value % SIZE_Y;
+            int z = value / SIZE_X % SIZE_Z;
+            assertEquals(expected.set(x, y, z, value), array.set(x, y, z, value));
+            if (value == 1) {
+                assertEquals(1, array.getBitsPerEntry());
+            } else if (value == 3) {
+                assertEquals(2, array.getBitsPerEntry());
+            } else if (value == 255) {
+                assertEquals(8, array.getBitsPerEntry());
+            }
+        }
+
+        assertEquals(8, array.getBitsPerEntry());
+        assertEquals(TeraPaletteArray.COMPACT_PALETTE_SIZE, array.getPaletteSize());
+        assertContentEquals(expected, array);
+    }
+
+    @Test
+    public void testFullPaletteInflatedToDenseArray() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int value = 1; value < TeraPaletteArray.COMPACT_PALETTE_SIZE; value++) {
+            array.set(value % SIZE_X, value % SIZE_Y, value / SIZE_X % SIZE_Z, value);
+        }
+
+        assertTrue(array.canHold(17));
+        assertFalse(array.canHold(-5));
+        assertThrows(IllegalStateException.class, () -> array.set(0, 0, 0, -5));
+
+        TeraDenseArray16Bit inflated = array.inflate();
+        inflated.set(0, 0, 0, -5);
+
+        assertEquals(-5, inflated.get(0, 0, 0));
+        assertEquals(0, array.get(0, 0, 0));
+        assertEquals(17, inflated.get(1, 17, 1));
+    }
+
+    @Test
+    public void testConditionalSet() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+
+        assertFalse(array.set(1, 2, 3, 7, 1));
+        assertEquals(0, array.get(1, 2, 3));
+        assertTrue(array.set(1, 2, 3, 7, 0));
+        assertEquals(7, array.get(1, 2, 3));
+    }
+
+    @Test
+    public void testCreatedFromValues() {
+        TeraDenseArray16Bit expected = createTestData();
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, expected.data);
+
+        assertEquals(4, array.getBitsPerEntry());
+        assertContentEquals(expected, array);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        TeraDenseArray16Bit expected = createTestData();
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, expected.data);
+        TeraArray copy = array.copy();
+        copy.set(0, 0, 0, 1000);
+
+        assertEquals(1000, copy.get(0, 0, 0));
+        assertContentEquals(expected, array);
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, createTestData().data);
+        TeraPaletteArray.SerializationHandler handler = new TeraPaletteArray.SerializationHandler();
+
+        ByteBuffer buffer = handler.serialize(array);
+        assertEquals(handler.computeMinimumBufferSize(array), buffer.position());
+        buffer.flip();
+
+        assertContentEquals(array, handler.deserialize(buffer));
+    }
+
+    @Test
+    public void testDeflateDropsUnusedValues() {
+        TeraDenseArray16Bit expected = createTestData();
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, expected.data);
+        for (int value = 100; value < 120; value++) {
+            array.set(0, 0, 0, value);
+        }
+        array.set(0, 0, 0, expected.get(0, 0, 0));
+        assertEquals(8, array.getBitsPerEntry());
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+
+        assertEquals(4, ((TeraPaletteArray) deflated).getBitsPerEntry());
+        assertContentEquals(expected, deflated);
+        assertSame(deflated, new TeraStandardDeflator().deflate(deflated));
+    }
+
+    @Test
+    public void testDeflateSingleValueToSparseArray() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(0, 0, 0, 5);
+        array.set(0, 0, 0, 0);
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+
+        assertTrue(deflated instanceof TeraSparseArray16Bit);
+        assertContentEquals(array, deflated);
+    }
+
+    @Test
+    public void testDenseArrayDeflatedToPaletteArray() {
+        TeraDenseArray16Bit expected = createTestData();
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(expected.copy());
+
+        assertTrue(deflated instanceof TeraPaletteArray);
+        assertTrue(deflated.getEstimatedMemoryConsumptionInBytes() < expected.getEstimatedMemoryConsumptionInBytes() / 3);
+        assertContentEquals(expected, deflated);
+    }
+
+    @Test
+    public void testDenseArrayWithManyValuesNotDeflatedToPaletteArray() {
+        TeraDenseArray16Bit array = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    array.set(x, y, z, x + SIZE_X * (z + SIZE_Z * y));
+                }
+            }
+        }
+
+        assertSame(array, new TeraStandardDeflator().deflate(array));
+    }
+
+    @Test
+    public void testDeflatorFallsBackOnDensePath() {
+        TeraDenseArray16Bit expected = createTestData();
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, expected.data);
+
+        TeraArray deflated = new DenseOnlyDeflator().deflate(array);
+
+        assertTrue(deflated instanceof TeraDenseArray16Bit);
+        assertContentEquals(expected, deflated);
+    }
+
+    @Test
+    public void testReadsWhileRepacking() throws Exception {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (writing.get() && failure.get() == null) {
+                for (int y = 0; y < SIZE_Y; y++) {
+                    for (int z = 0; z < SIZE_Z; z++) {
+                        for (int x = 0; x < SIZE_X; x++) {
+                            try {
+                                int value = array.get(x, y, z);
+                                if (value != 0 && value != getRepackingTestValue(x, y, z)) {
+                                    failure.set("Read " + value + " at " + x + ", " + y + ", " + z);
+                                }
+                            } catch (RuntimeException e) {
+                                failure.set(e.toString());
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        reader.start();
+        // every new value grows the palette, passing through all index sizes up to 8 bits
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    array.set(x, y, z, getRepackingTestValue(x, y, z));
+                }
+            }
+        }
+        writing.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(8, array.getBitsPerEntry());
+    }
+
+    private int getRepackingTestValue(int x, int y, int z) {
+        return 1 + (x + SIZE_X * (z + SIZE_Z * y)) % (TeraPaletteArray.COMPACT_PALETTE_SIZE - 1);
+    }
+
+    /**
+     * @return a dense array using 10 distinct values, varying within every row
+     */
+    private TeraDenseArray16Bit createTestData() {
+        TeraDenseArray16Bit array = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    array.set(x, y, z, (x * 3 + y * 7 + z) % 10 - 2);
+                }
+            }
+        }
+        return array;
+    }
+
+    private void assertContentEquals(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * A deflator written before palette arrays existed, which only knows how to deflate dense arrays.
+     */
+    private static class DenseOnlyDeflator extends TeraVisitingDeflator {
+
+        @Override
+        public TeraArray deflateDenseArray16Bit(short[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+            return new TeraDenseArray16Bit(sizeX, sizeY, sizeZ, data);
+        }
+
+        @Override
+        public TeraArray deflateDenseArray8Bit(byte[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+            return null;
+        }
+
+        @Override
+        public TeraArray deflateDenseArray4Bit(byte[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+            return null;
+        }
+
+        @Override
+        public TeraArray deflateSparseArray16Bit(short[][] inflated, short[] deflated, short fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+            return null;
+        }
+
+        @Override
+        public TeraArray deflateSparseArray8Bit(byte[][] inflated, byte[] deflated, byte fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+            return null;
+        }
+
+        @Override
+        public TeraArray deflateSparseArray4Bit(byte[][] inflated, byte[] deflated, byte fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+            return null;
+        }
+    }
+}
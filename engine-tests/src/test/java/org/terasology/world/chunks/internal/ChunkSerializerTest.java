@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkSerializerTest {
+
+    private static final int SIZE_X = ChunkConstants.SIZE_X;
+    private static final int SIZE_Y = ChunkConstants.SIZE_Y;
+    private static final int SIZE_Z = ChunkConstants.SIZE_Z;
+
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+    private Vector3i pos;
+    private TeraArray blockData;
+    private TeraArray[] extraData;
+    private EntityData.EntityStore entityStore;
+
+    @BeforeEach
+    public void setup() {
+        blockManager = mock(BlockManager.class);
+        extraDataManager = mock(ExtraBlockDataManager.class);
+        when(extraDataManager.makeDataArrays(anyInt(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> new TeraArray[]{new TeraSparseArray8Bit(SIZE_X, SIZE_Y, SIZE_Z)});
+
+        pos = new Vector3i(-3, 2, 70000);
+        FastRandom random = new FastRandom(7);
+        blockData = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        extraData = new TeraArray[]{new TeraSparseArray8Bit(SIZE_X, SIZE_Y, SIZE_Z)};
+        for (int y = 0; y < 40; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    blockData.set(x, y, z, y < 30 ? 1 + random.nextInt(3) : 4);
+                }
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            extraData[0].set(random.nextInt(SIZE_X), random.nextInt(SIZE_Y), random.nextInt(SIZE_Z), random.nextInt(100));
+        }
+        entityStore = EntityData.EntityStore.newBuilder()
+                .addEntity(EntityData.Entity.newBuilder().setId(12))
+                .addComponentClass("Location")
+                .build();
+    }
+
+    @Test
+    public void testStreamedEncodingEqualsMessage() throws IOException {
+        byte[] expected = ChunkSerializer.encode(pos, blockData, extraData).setStore(entityStore).build().toByteArray();
+
+        assertArrayEquals(expected, encodeStreamed());
+    }
+
+    @Test
+    public void testStreamedRoundTrip() throws IOException {
+        EntityData.EntityStore.Builder decodedStore = EntityData.EntityStore.newBuilder();
+        Chunk chunk = ChunkSerializer.decode(CodedInputStream.newInstance(encodeStreamed()), decodedStore, blockManager, extraDataManager);
+
+        assertChunkEquals(chunk);
+        assertEquals(entityStore, decodedStore.build());
+    }
+
+    @Test
+    public void testDecodesMessage() throws IOException {
+        byte[] message = ChunkSerializer.encode(pos, blockData, extraData).setStore(entityStore).build().toByteArray();
+
+        EntityData.EntityStore.Builder decodedStore = EntityData.EntityStore.newBuilder();
+        Chunk chunk = ChunkSerializer.decode(CodedInputStream.newInstance(message), decodedStore, blockManager, extraDataManager);
+
+        assertChunkEquals(chunk);
+        assertEquals(entityStore, decodedStore.build());
+    }
+
+    @Test
+    public void testMissingBlockDataRejected() {
+        byte[] message = EntityData.ChunkStore.newBuilder().setX(1).setY(2).setZ(3).build().toByteArray();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                ChunkSerializer.decode(CodedInputStream.newInstance(message), EntityData.EntityStore.newBuilder(), blockManager, extraDataManager));
+    }
+
+    private byte[] encodeStreamed() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        ChunkSerializer.encode(pos, blockData, extraData, entityStore, output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private void assertChunkEquals(Chunk chunk) {
+        assertEquals(pos, chunk.getPosition());
+        assertEquals(ChunkSerializer.encode(pos, blockData, extraData).build(), chunk.encode().build());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.Test;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
+import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RunLengthCodecTest {
+
+    private static final int SIZE_X = ChunkConstants.SIZE_X;
+    private static final int SIZE_Y = ChunkConstants.SIZE_Y;
+    private static final int SIZE_Z = ChunkConstants.SIZE_Z;
+
+    @Test
+    public void testDenseArrayRoundTrip() throws IOException {
+        TeraArray array = fillTerrain(new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z), 5);
+
+        assertRoundTrip(array);
+    }
+
+    @Test
+    public void testSparseArrayRoundTrip() throws IOException {
+        short[][] inflated = new short[SIZE_Y][];
+        short[] deflated = new short[SIZE_Y];
+        for (int y = 0; y < SIZE_Y / 2; y++) {
+            deflated[y] = (short) (y < 10 ? 3 : -2);
+        }
+        TeraArray array = new TeraSparseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, inflated, deflated);
+        FastRandom random = new FastRandom(4);
+        for (int i = 0; i < 200; i++) {
+            array.set(random.nextInt(SIZE_X), 20 + random.nextInt(10), random.nextInt(SIZE_Z), random.nextInt(4));
+        }
+
+        assertRoundTrip(array);
+        assertRoundTrip(new TeraSparseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, (short) 7));
+    }
+
+    @Test
+    public void testPaletteArrayRoundTrip() throws IOException {
+        assertRoundTrip(fillTerrain(new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z), 40));
+        assertRoundTrip(fillTerrain(new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z), 200));
+        assertRoundTrip(new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z));
+    }
+
+    @Test
+    public void testEncodesLikeTheMessage() throws IOException {
+        TeraArray array = fillTerrain(new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z), 5);
+
+        assertEquals(encodeElementByElement(array), EntityData.RunLengthEncoding16.parseFrom(RunLengthCodec.encode(array)));
+        assertEquals(encodeElementByElement(array).toByteString(), RunLengthCodec.encode(array));
+    }
+
+    @Test
+    public void testDecodesTheMessage() {
+        // runs the codec wouldn't write itself: split up and with a trailing run of 0
+        EntityData.RunLengthEncoding16 message = EntityData.RunLengthEncoding16.newBuilder()
+                .addRunLengths(10).addValues(2)
+                .addRunLengths(5).addValues(2)
+                .addRunLengths(SIZE_X * SIZE_Z).addValues(0xFFFF)
+                .addRunLengths(7).addValues(0)
+                .build();
+        TeraArray expected = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        int index = 0;
+        for (int i = 0; i < message.getRunLengthsCount(); i++) {
+            for (int j = 0; j < message.getRunLengths(i); j++, index++) {
+                expected.set(index % SIZE_X, index / (SIZE_X * SIZE_Z), index / SIZE_X % SIZE_Z, (short) message.getValues(i));
+            }
+        }
+
+        assertContentEquals(expected, RunLengthCodec.decode(message.toByteString()));
+    }
+
+    @Test
+    public void testWritesEnclosedField() throws IOException {
+        TeraArray array = fillTerrain(new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z), 5);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        RunLengthCodec.writeField(EntityData.ChunkStore.BLOCK_DATA_FIELD_NUMBER, array, output);
+        output.flush();
+
+        EntityData.ChunkStore store = EntityData.ChunkStore.parseFrom(bytes.toByteArray());
+        assertEquals(encodeElementByElement(array), store.getBlockData());
+    }
+
+    @Test
+    public void testDecodesIntoExtraDataArray() throws IOException {
+        TeraArray array = new TeraSparseArray8Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        FastRandom random = new FastRandom(2);
+        for (int i = 0; i < 500; i++) {
+            array.set(random.nextInt(SIZE_X), random.nextInt(SIZE_Y), random.nextInt(SIZE_Z), random.nextInt(256) - 128);
+        }
+
+        TeraArray decoded = new TeraSparseArray8Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        RunLengthCodec.read(RunLengthCodec.encode(array).newCodedInput(), decoded);
+        assertContentEquals(array, decoded);
+    }
+
+    private static void assertRoundTrip(TeraArray array) throws IOException {
+        ByteString encoded = RunLengthCodec.encode(array);
+
+        assertContentEquals(array, RunLengthCodec.decode(encoded));
+        assertContentEquals(array, RunLengthCodec.read(encoded.newCodedInput()));
+    }
+
+    /**
+     * Fills the array with layers of ground, a few of them mixed from the given number of values, and air above.
+     */
+    private static TeraArray fillTerrain(TeraArray array, int values) {
+        FastRandom random = new FastRandom(values);
+        for (int y = 0; y < 40; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    int value = y % 10 < 3 ? 1 + random.nextInt(values) : 1 + y / 10;
+                    array.set(x, y, z, value);
+                }
+            }
+        }
+        return array;
+    }
+
+    /**
+     * The message the chunk serializer used to build, element by element.
+     */
+    private static EntityData.RunLengthEncoding16 encodeElementByElement(TeraArray array) {
+        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        short lastItem = (short) array.get(0, 0, 0);
+        int counter = 0;
+        for (int y = 0; y < array.getSizeY(); ++y) {
+            for (int z = 0; z < array.getSizeZ(); ++z) {
+                for (int x = 0; x < array.getSizeX(); ++x) {
+                    short item = (short) array.get(x, y, z);
+                    if (lastItem != item) {
+                        builder.addRunLengths(counter);
+                        builder.addValues(lastItem & 0xFFFF);
+                        lastItem = item;
+                        counter = 1;
+                    } else {
+                        counter++;
+                    }
+                }
+            }
+        }
+        if (lastItem != 0) {
+            builder.addRunLengths(counter);
+            builder.addValues(lastItem & 0xFFFF);
+        }
+        return builder.build();
+    }
+
+    private static void assertContentEquals(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < expected.getSizeY(); y++) {
+            for (int z = 0; z < expected.getSizeZ(); z++) {
+                for (int x = 0; x < expected.getSizeX(); x++) {
+                    assertEquals((short) expected.get(x, y, z), (short) actual.get(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.persistence.StorageManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChunkPrefetcherTest {
+
+    private StorageManager storageManager;
+    private ChunkPrefetcher prefetcher;
+
+    @BeforeEach
+    public void setUp() {
+        storageManager = mock(StorageManager.class);
+        prefetcher = new ChunkPrefetcher(storageManager, 2, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    public void testPrefetchedStoreIsTakenOnce() {
+        Vector3i pos = new Vector3i(1, 2, 3);
+        ChunkStore store = mock(ChunkStore.class);
+        when(storageManager.loadChunkStore(pos)).thenReturn(store);
+        long hits = ChunkMonitor.getPrefetchHits();
+        long misses = ChunkMonitor.getPrefetchMisses();
+
+        assertTrue(prefetcher.prefetch(pos));
+        assertFalse(prefetcher.prefetch(pos));
+        assertSame(store, prefetcher.take(pos));
+        assertFalse(prefetcher.isPrefetched(pos));
+        assertSame(store, prefetcher.take(pos));
+
+        verify(storageManager, times(2)).loadChunkStore(pos);
+        assertEquals(hits + 1, ChunkMonitor.getPrefetchHits());
+        assertEquals(misses + 1, ChunkMonitor.getPrefetchMisses());
+    }
+
+    @Test
+    public void testMissingStoreIsPrefetchedAsNull() {
+        Vector3i pos = new Vector3i(0, 0, 0);
+
+        prefetcher.prefetch(pos);
+
+        assertNull(prefetcher.take(pos));
+        verify(storageManager, times(1)).loadChunkStore(pos);
+    }
+
+    @Test
+    public void testFirstPrefetchedStoreIsDropped() {
+        long dropped = ChunkMonitor.getPrefetchesDropped();
+
+        prefetcher.prefetch(new Vector3i(0, 0, 0));
+        prefetcher.prefetch(new Vector3i(1, 0, 0));
+        prefetcher.prefetch(new Vector3i(2, 0, 0));
+
+        assertFalse(prefetcher.isPrefetched(new Vector3i(0, 0, 0)));
+        assertTrue(prefetcher.isPrefetched(new Vector3i(1, 0, 0)));
+        assertTrue(prefetcher.isPrefetched(new Vector3i(2, 0, 0)));
+        assertEquals(dropped + 1, ChunkMonitor.getPrefetchesDropped());
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class ColumnFacetCacheTest {
+
+    private static final Vector3i CHUNK_SIZE = new Vector3i(8, 8, 8);
+
+    private ColumnProvider columnProvider;
+    private ColumnUpdater columnUpdater;
+    private VolumeProvider volumeProvider;
+    private World world;
+
+    @BeforeEach
+    public void setup() {
+        columnProvider = new ColumnProvider();
+        columnUpdater = new ColumnUpdater();
+        volumeProvider = new VolumeProvider();
+
+        WorldBuilder worldBuilder = new WorldBuilder(null);
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(columnProvider);
+        worldBuilder.addProvider(columnUpdater);
+        worldBuilder.addProvider(volumeProvider);
+        world = worldBuilder.build();
+    }
+
+    @Test
+    public void testColumnFacetsSharedBetweenStackedRegions() {
+        Region lower = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE));
+        Region upper = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 8, 0), CHUNK_SIZE));
+
+        assertEquals(1, lower.getFacet(ColumnFacet.class).updates);
+        assertEquals(1, upper.getFacet(ColumnFacet.class).updates);
+        assertEquals(1, columnProvider.runs);
+        assertEquals(1, columnUpdater.runs);
+    }
+
+    @Test
+    public void testVolumeFacetsStillGeneratedPerRegion() {
+        Region lower = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE));
+        Region upper = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 8, 0), CHUNK_SIZE));
+
+        assertNotSame(lower.getFacet(VolumeFacet.class), upper.getFacet(VolumeFacet.class));
+        assertEquals(2, volumeProvider.runs);
+        assertEquals(1, columnProvider.runs);
+    }
+
+    @Test
+    public void testSharedFacetsCopiedForEveryRegion() {
+        Region lower = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE));
+        lower.getFacet(ColumnFacet.class).updates = 10;
+        Region upper = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 8, 0), CHUNK_SIZE));
+        ColumnFacet upperFacet = upper.getFacet(ColumnFacet.class);
+        upperFacet.updates = 20;
+        Region top = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 16, 0), CHUNK_SIZE));
+
+        assertNotSame(lower.getFacet(ColumnFacet.class), upperFacet);
+        assertEquals(1, top.getFacet(ColumnFacet.class).updates);
+        assertEquals(1, columnProvider.runs);
+    }
+
+    @Test
+    public void testFacetsOfHeightDependentProvidersNotShared() {
+        WorldBuilder worldBuilder = new WorldBuilder(null);
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(columnProvider);
+        worldBuilder.addProvider(columnUpdater);
+        worldBuilder.addProvider(new HeightDependentColumnUpdater());
+        World heightDependentWorld = worldBuilder.build();
+
+        Region lower = heightDependentWorld.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE));
+        Region upper = heightDependentWorld.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 8, 0), CHUNK_SIZE));
+
+        assertEquals(0, lower.getFacet(ColumnFacet.class).minY);
+        assertEquals(8, upper.getFacet(ColumnFacet.class).minY);
+        assertEquals(2, columnProvider.runs);
+    }
+
+    @Test
+    public void testNeighbouringColumnsNotShared() {
+        Region first = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE));
+        Region second = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(8, 0, 0), CHUNK_SIZE));
+
+        assertNotSame(first.getFacet(ColumnFacet.class), second.getFacet(ColumnFacet.class));
+        assertEquals(2, columnProvider.runs);
+    }
+
+    @Test
+    public void testRetainDropsIrrelevantColumns() {
+        world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE)).getFacet(ColumnFacet.class);
+        world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(64, 0, 0), CHUNK_SIZE)).getFacet(ColumnFacet.class);
+
+        world.retainColumnData(Collections.singletonList(Rect2i.createFromMinAndSize(0, 0, 8, 8)));
+
+        world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 8, 0), CHUNK_SIZE)).getFacet(ColumnFacet.class);
+        assertEquals(2, columnProvider.runs);
+        world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(64, 8, 0), CHUNK_SIZE)).getFacet(ColumnFacet.class);
+        assertEquals(3, columnProvider.runs);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        WorldBuilder worldBuilder = new WorldBuilder(null);
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(columnProvider);
+        worldBuilder.addProvider(columnUpdater);
+        worldBuilder.setColumnFacetCacheSize(0);
+        World uncachedWorld = worldBuilder.build();
+
+        Region lower = uncachedWorld.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), CHUNK_SIZE));
+        Region upper = uncachedWorld.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 8, 0), CHUNK_SIZE));
+
+        assertNotSame(lower.getFacet(ColumnFacet.class), upper.getFacet(ColumnFacet.class));
+        assertEquals(2, columnProvider.runs);
+    }
+
+    public static class ColumnFacet extends BaseFacet2D {
+        public int updates;
+        public int minY;
+
+        public ColumnFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class VolumeFacet extends BaseFacet3D {
+        public VolumeFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(ColumnFacet.class)
+    @HeightIndependent
+    public static class ColumnProvider implements FacetProvider {
+        private int runs;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            runs++;
+            region.setRegionFacet(ColumnFacet.class, new ColumnFacet(region.getRegion(), region.getBorderForFacet(ColumnFacet.class)));
+        }
+    }
+
+    @Updates(@Facet(ColumnFacet.class))
+    @HeightIndependent
+    public static class ColumnUpdater implements FacetProvider {
+        private int runs;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            runs++;
+            region.getRegionFacet(ColumnFacet.class).updates++;
+        }
+    }
+
+    @Updates(@Facet(ColumnFacet.class))
+    public static class HeightDependentColumnUpdater implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(ColumnFacet.class).minY = region.getRegion().minY();
+        }
+    }
+
+    @Produces(VolumeFacet.class)
+    @Requires(@Facet(value = ColumnFacet.class, border = @FacetBorder(sides = 1)))
+    public static class VolumeProvider implements FacetProvider {
+        private int runs;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            runs++;
+            region.setRegionFacet(VolumeFacet.class, new VolumeFacet(region.getRegion(), region.getBorderForFacet(VolumeFacet.class)));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PackedPositionQueueTest {
+
+    private Deque<long[]> bitsetPool;
+    private PackedPositionQueue queue;
+
+    @BeforeEach
+    public void setup() {
+        bitsetPool = new ArrayDeque<>();
+        queue = new PackedPositionQueue(bitsetPool);
+    }
+
+    @Test
+    public void testPollsInOrderAdded() {
+        Vector3i[] positions = {new Vector3i(0, 0, 0), new Vector3i(-1, -1, -1), new Vector3i(1000000, -1000000, 5),
+                new Vector3i(31, 63, 31), new Vector3i(32, 64, 32)};
+        for (Vector3i pos : positions) {
+            assertTrue(queue.add(pos));
+        }
+
+        Vector3i polled = new Vector3i();
+        for (Vector3i pos : positions) {
+            assertTrue(queue.poll(polled));
+            assertEquals(pos, polled);
+        }
+        assertFalse(queue.poll(polled));
+    }
+
+    @Test
+    public void testQueuedPositionNotAddedAgain() {
+        assertTrue(queue.add(3, 4, 5));
+        assertFalse(queue.add(3, 4, 5));
+
+        Vector3i polled = new Vector3i();
+        assertTrue(queue.poll(polled));
+        assertFalse(queue.poll(polled));
+        assertTrue(queue.add(3, 4, 5));
+    }
+
+    @Test
+    public void testRemovedPositionSkipped() {
+        queue.add(1, 2, 3);
+        queue.add(4, 5, 6);
+        queue.remove(new Vector3i(1, 2, 3));
+
+        Vector3i polled = new Vector3i();
+        assertTrue(queue.poll(polled));
+        assertEquals(new Vector3i(4, 5, 6), polled);
+        assertFalse(queue.poll(polled));
+    }
+
+    @Test
+    public void testClearReturnsClearedBitsets() {
+        for (int x = 0; x < 100; x++) {
+            queue.add(x, x, x);
+        }
+        queue.clear();
+
+        assertFalse(bitsetPool.isEmpty());
+        for (long[] bitset : bitsetPool) {
+            for (long word : bitset) {
+                assertEquals(0, word);
+            }
+        }
+        assertFalse(queue.poll(new Vector3i()));
+        assertTrue(queue.add(0, 0, 0));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation.light;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LightMergerTest {
+
+    private static final int THREADS = 4;
+    private static final int AREA_SIZE = 6;
+    private static final long TIMEOUT_MS = 10000;
+
+    @Test
+    public void testOverlappingMergesNeverRunAtOnce() throws Exception {
+        List<Vector3i> positions = Lists.newArrayList();
+        for (int x = 0; x < AREA_SIZE; x++) {
+            for (int y = 0; y < AREA_SIZE; y++) {
+                for (int z = 0; z < AREA_SIZE; z++) {
+                    positions.add(new Vector3i(x, y, z));
+                }
+            }
+        }
+        Collections.shuffle(positions, new Random(42));
+
+        Set<Vector3i> running = Sets.newHashSet();
+        List<Vector3i> startOrder = Lists.newArrayList();
+        AtomicReference<String> failure = new AtomicReference<>();
+        LightMerger<Vector3i> lightMerger = new LightMerger<Vector3i>(mock(GeneratingChunkProvider.class), THREADS) {
+            @Override
+            void merge(Chunk chunk) {
+                Vector3i pos = chunk.getPosition();
+                synchronized (running) {
+                    for (Vector3i other : running) {
+                        if (overlaps(pos, other)) {
+                            failure.compareAndSet(null, pos + " merged at the same time as " + other);
+                        }
+                    }
+                    running.add(pos);
+                    startOrder.add(pos);
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (running) {
+                    running.remove(pos);
+                }
+            }
+        };
+
+        for (Vector3i pos : positions) {
+            lightMerger.beginMerge(createChunk(pos), pos);
+        }
+        Set<Vector3i> completed = Sets.newHashSet();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (completed.size() < positions.size() && System.currentTimeMillis() < deadline) {
+            completed.addAll(lightMerger.completeMerge());
+            Thread.sleep(5);
+        }
+        lightMerger.shutdown();
+
+        assertNull(failure.get());
+        assertEquals(Sets.newHashSet(positions), completed);
+        assertEquals(0, lightMerger.getPendingMergeCount());
+        synchronized (running) {
+            for (int i = 0; i < startOrder.size(); i++) {
+                for (int j = i + 1; j < startOrder.size(); j++) {
+                    if (overlaps(startOrder.get(i), startOrder.get(j))) {
+                        assertTrue(positions.indexOf(startOrder.get(i)) < positions.indexOf(startOrder.get(j)),
+                                "Overlapping merges of " + startOrder.get(i) + " and " + startOrder.get(j) + " ran out of order");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPendingMergesCompleteOnShutdown() {
+        LightMerger<Vector3i> lightMerger = new LightMerger<Vector3i>(mock(GeneratingChunkProvider.class), THREADS) {
+            @Override
+            void merge(Chunk chunk) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Set<Vector3i> positions = Sets.newHashSet();
+        for (int x = 0; x < AREA_SIZE; x++) {
+            Vector3i pos = new Vector3i(x, 0, 0);
+            positions.add(pos);
+            lightMerger.beginMerge(createChunk(pos), pos);
+        }
+        lightMerger.shutdown();
+
+        assertEquals(0, lightMerger.getPendingMergeCount());
+        assertEquals(positions, Sets.newHashSet(lightMerger.completeMerge()));
+    }
+
+    @Test
+    public void testPendingMergesRunAfterRestart() throws Exception {
+        LightMerger<Vector3i> lightMerger = new LightMerger<Vector3i>(mock(GeneratingChunkProvider.class), THREADS) {
+            @Override
+            void merge(Chunk chunk) {
+            }
+        };
+        lightMerger.shutdown();
+        lightMerger.restart();
+        lightMerger.beginMerge(createChunk(Vector3i.zero()), Vector3i.zero());
+
+        List<Vector3i> completed = Lists.newArrayList();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (completed.isEmpty() && System.currentTimeMillis() < deadline) {
+            completed.addAll(lightMerger.completeMerge());
+            Thread.sleep(5);
+        }
+        lightMerger.shutdown();
+
+        assertEquals(Collections.singletonList(Vector3i.zero()), completed);
+    }
+
+    private static boolean overlaps(Vector3i a, Vector3i b) {
+        return Math.abs(a.x - b.x) < 3 && Math.abs(a.y - b.y) < 3 && Math.abs(a.z - b.z) < 3;
+    }
+
+    private static Chunk createChunk(Vector3i pos) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getPosition()).thenReturn(pos);
+        return chunk;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.RunLengthCodec;
+
+/**
+ * BenchmarkTeraArrayRunLengthCoding encodes a chunk sized tera array into the run length encoding chunks are sent and
+ * stored with, and decodes it again.
+ * <br><br>
+ * The array is either encoded element by element into the protobuf message and decoded from the parsed message, or
+ * encoded and decoded from its runs with the {@link RunLengthCodec}.
+ */
+public class BenchmarkTeraArrayRunLengthCoding extends BenchmarkTeraArray {
+
+    private final boolean codec;
+
+    public BenchmarkTeraArrayRunLengthCoding(TeraArray array, boolean codec) {
+        super(array);
+        this.codec = codec;
+    }
+
+    @Override
+    public String getTitle() {
+        return array.getClass().getSimpleName() + " run length coding " + (codec ? "from its runs" : "element by element");
+    }
+
+    @Override
+    public int[] getRepetitions() {
+        return new int[]{500, 5000};
+    }
+
+    @Override
+    public void run() {
+        if (codec) {
+            RunLengthCodec.decode(RunLengthCodec.encode(array));
+        } else {
+            decodeElementByElement(encodeElementByElement().toByteString());
+        }
+    }
+
+    private EntityData.RunLengthEncoding16 encodeElementByElement() {
+        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        short lastItem = (short) array.get(0, 0, 0);
+        int counter = 0;
+        for (int y = 0; y < array.getSizeY(); ++y) {
+            for (int z = 0; z < array.getSizeZ(); ++z) {
+                for (int x = 0; x < array.getSizeX(); ++x) {
+                    short item = (short) array.get(x, y, z);
+                    if (lastItem != item) {
+                        builder.addRunLengths(counter);
+                        builder.addValues(lastItem & 0xFFFF);
+                        lastItem = item;
+                        counter = 1;
+                    } else {
+                        counter++;
+                    }
+                }
+            }
+        }
+        if (lastItem != 0) {
+            builder.addRunLengths(counter);
+            builder.addValues(lastItem & 0xFFFF);
+        }
+        return builder.build();
+    }
+
+    private TeraArray decodeElementByElement(ByteString bytes) {
+        EntityData.RunLengthEncoding16 data;
+        try {
+            data = EntityData.RunLengthEncoding16.parseFrom(bytes);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        short[] decodedData = new short[array.getSizeXYZ()];
+        int index = 0;
+        for (int pos = 0; pos < data.getValuesCount(); ++pos) {
+            int length = data.getRunLengths(pos);
+            short value = (short) data.getValues(pos);
+            for (int i = 0; i < length; ++i) {
+                decodedData[index++] = value;
+            }
+        }
+        return new TeraDenseArray16Bit(array.getSizeX(), array.getSizeY(), array.getSizeZ(), decodedData);
+    }
+}
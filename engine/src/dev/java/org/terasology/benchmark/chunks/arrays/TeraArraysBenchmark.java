@@ -18,7 +18,15 @@
 import org.terasology.benchmark.Benchmarks;
 import org.terasology.benchmark.Benchmark;
 import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.utilities.random.Random;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
+import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -48,6 +56,32 @@ public final class TeraArraysBenchmark {
     private TeraArraysBenchmark() {
     }
 
+    /**
+     * Fills the array with layers of a few block ids below a hilly surface, scattering some ores in between.
+     */
+    private static TeraArray createTerrain(TeraArray array) {
+        final Random random = new FastRandom(42);
+        for (int x = 0; x < array.getSizeX(); x++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                int height = array.getSizeY() / 2 + (int) (8 * Math.sin(x * 0.3) * Math.cos(z * 0.2));
+                for (int y = 0; y < height; y++) {
+                    int block;
+                    if (y == height - 1) {
+                        block = 3;
+                    } else if (y > height - 4) {
+                        block = 2;
+                    } else if (random.nextInt(40) == 0) {
+                        block = 4 + random.nextInt(4);
+                    } else {
+                        block = 1;
+                    }
+                    array.set(x, y, z, block);
+                }
+            }
+        }
+        return array;
+    }
+
     public static void main(String[] args) {
 
         final List<Benchmark> benchmarks = new LinkedList<>();
@@ -72,6 +106,23 @@ public static void main(String[] args) {
 //        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraSparseArray8Bit(16, 256, 16, INFLATED_8_BIT, DEFLATED_8_BIT)));
 //        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraSparseArray4Bit(16, 256, 16, INFLATED_4_BIT, DEFLATED_4_BIT)));
 
+        // 16-bit block data of a chunk as dense, row-sparse and palette array
+        final TeraArray denseBlocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        final TeraArray[] blockArrays = {
+                denseBlocks,
+                new TeraSparseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, new short[ChunkConstants.SIZE_Y][], new short[ChunkConstants.SIZE_Y]),
+                new TeraPaletteArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z)
+        };
+        for (TeraArray array : blockArrays) {
+            createTerrain(array);
+            System.out.println(array.getClass().getSimpleName() + " holding terrain: " + array.getEstimatedMemoryConsumptionInBytes() + " bytes");
+            benchmarks.add(new BenchmarkTeraArrayRead(array));
+            benchmarks.add(new BenchmarkTeraArrayWrite(array.copy()));
+            benchmarks.add(new BenchmarkTeraArrayRunLengthCoding(array, false));
+            benchmarks.add(new BenchmarkTeraArrayRunLengthCoding(array, true));
+        }
+        System.out.println("Deflated terrain: " + new TeraStandardDeflator().deflate(denseBlocks));
+
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
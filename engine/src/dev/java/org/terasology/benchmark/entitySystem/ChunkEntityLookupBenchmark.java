@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.location.LocationIndex;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.ChunkConstants;
+
+/**
+ * Finds the entities of one chunk after the other among 100000 entities spread over a few hundred chunks, the way the
+ * storage manager does when it unloads a chunk.
+ * <br><br>
+ * The entities are either found by checking the position of every entity with a location, or through a
+ * {@link LocationIndex}.
+ */
+public class ChunkEntityLookupBenchmark extends AbstractBenchmark {
+
+    private static final int ENTITIES = 100000;
+    private static final int CHUNKS_X = 16;
+    private static final int CHUNKS_Y = 2;
+    private static final int CHUNKS_Z = 16;
+
+    private final boolean indexed;
+
+    private PojoEntityManager entityManager;
+    private LocationIndex locationIndex;
+    private AABB[] chunkBoxes;
+    private int lookups;
+    private int found;
+
+    public ChunkEntityLookupBenchmark(boolean indexed) {
+        super(indexed ? "Entities of a chunk through a location index" : "Entities of a chunk by checking all entities",
+                10, new int[]{500});
+        this.indexed = indexed;
+    }
+
+    @Override
+    public void setup() {
+        FastRandom random = new FastRandom(0L);
+        entityManager = new PojoEntityManager();
+        locationIndex = new LocationIndex(entityManager);
+        for (int i = 0; i < ENTITIES; i++) {
+            entityManager.create(new LocationComponent(new Vector3f(
+                    random.nextFloat() * CHUNKS_X * ChunkConstants.SIZE_X,
+                    random.nextFloat() * CHUNKS_Y * ChunkConstants.SIZE_Y,
+                    random.nextFloat() * CHUNKS_Z * ChunkConstants.SIZE_Z)));
+        }
+
+        chunkBoxes = new AABB[CHUNKS_X * CHUNKS_Y * CHUNKS_Z];
+        int index = 0;
+        for (int x = 0; x < CHUNKS_X; x++) {
+            for (int y = 0; y < CHUNKS_Y; y++) {
+                for (int z = 0; z < CHUNKS_Z; z++) {
+                    Vector3f min = new Vector3f(x * ChunkConstants.SIZE_X, y * ChunkConstants.SIZE_Y, z * ChunkConstants.SIZE_Z);
+                    Vector3f max = new Vector3f(min.x + ChunkConstants.SIZE_X, min.y + ChunkConstants.SIZE_Y, min.z + ChunkConstants.SIZE_Z);
+                    chunkBoxes[index++] = AABB.createMinMax(min, max);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void prerun() {
+        lookups = 0;
+        found = 0;
+    }
+
+    @Override
+    public void run() {
+        AABB aabb = chunkBoxes[lookups++ % chunkBoxes.length];
+        if (indexed) {
+            found += locationIndex.getEntitiesIn(aabb).size();
+        } else {
+            Vector3f position = new Vector3f();
+            for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
+                LocationComponent location = entity.getComponent(LocationComponent.class);
+                if (aabb.contains(location.getWorldPosition(position))) {
+                    found++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void postrun() {
+        System.out.println("Entities found per chunk: " + found / lookups);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        entityManager = null;
+        locationIndex = null;
+        chunkBoxes = null;
+    }
+}
@@ -22,6 +22,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.benchmark.Benchmark;
+import org.terasology.entitySystem.entity.internal.ComponentTableType;
 
 import java.util.List;
 
@@ -39,7 +40,14 @@ public static void main(String[] args) {
 
         benchmarks.add(new EntityCreateBenchmark());
         benchmarks.add(new IterateSingleComponentBenchmark());
-        benchmarks.add(new IterateMultipleComponentBenchmark());
+        for (ComponentTableType componentTableType : ComponentTableType.values()) {
+            benchmarks.add(new IterateMultipleComponentBenchmark(componentTableType, 1000));
+            benchmarks.add(new IterateMultipleComponentBenchmark(componentTableType, 200000));
+        }
+        benchmarks.add(new EventDispatchBenchmark(false));
+        benchmarks.add(new EventDispatchBenchmark(true));
+        benchmarks.add(new ChunkEntityLookupBenchmark(false));
+        benchmarks.add(new ChunkEntityLookupBenchmark(true));
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.entitySystem.metadata.EventLibrary;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.network.NetworkMode;
+import org.terasology.network.NetworkSystem;
+import org.terasology.recording.EventCatcher;
+import org.terasology.recording.RecordAndReplayCurrentStatus;
+import org.terasology.rendering.logic.MeshComponent;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Sends an event through the event system to an entity with a handler taking two component parameters, which is
+ * called either through a method handle or through the reflectasm dispatch with a parameter array per call that the
+ * event system used before.
+ * <br><br>
+ * Divide the repetitions by the run time to get the events dispatched per second.
+ */
+public class EventDispatchBenchmark extends AbstractBenchmark {
+
+    private final boolean methodHandleDispatch;
+
+    private EventSystemImpl eventSystem;
+    private DispatchBenchmarkSystem handler;
+    private EntityRef entity;
+    private DispatchBenchmarkEvent event;
+
+    public EventDispatchBenchmark(boolean methodHandleDispatch) {
+        super(methodHandleDispatch ? "Event dispatch through method handles" : "Event dispatch through reflectasm",
+                1000000, new int[]{10000000});
+        this.methodHandleDispatch = methodHandleDispatch;
+    }
+
+    @Override
+    public void setup() {
+        NetworkSystem networkSystem = (NetworkSystem) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{NetworkSystem.class},
+                (proxy, method, args) -> "getMode".equals(method.getName()) ? NetworkMode.NONE : null);
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        eventSystem = new EventSystemImpl(new EventLibrary(new ContextImpl()), networkSystem, new EventCatcher(null, null),
+                new RecordAndReplayCurrentStatus());
+        eventSystem.setMethodHandleDispatch(methodHandleDispatch);
+        entityManager.setEventSystem(eventSystem);
+
+        handler = new DispatchBenchmarkSystem();
+        eventSystem.registerEventHandler(handler);
+        entity = entityManager.create(new LocationComponent(), new MeshComponent());
+        event = new DispatchBenchmarkEvent();
+    }
+
+    @Override
+    public void run() {
+        eventSystem.send(entity, event);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        System.out.println("Events handled: " + handler.count);
+    }
+
+    public static class DispatchBenchmarkEvent implements Event {
+    }
+
+    public static class DispatchBenchmarkSystem extends BaseComponentSystem {
+        private long count;
+
+        @ReceiveEvent
+        public void onEvent(DispatchBenchmarkEvent benchmarkEvent, EntityRef target, LocationComponent location, MeshComponent mesh) {
+            count++;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.terasology.benchmark.AbstractBenchmark;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ComponentTableType;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.rendering.logic.MeshComponent;
@@ -29,22 +30,32 @@
 import java.util.List;
 
 /**
- *
+ * Iterates the entities which have both a mesh and a location, using the given component storage layout.
  */
 public class IterateMultipleComponentBenchmark extends AbstractBenchmark {
 
+    private final ComponentTableType componentTableType;
+    private final int entityCount;
+
     private List<List<Component>> rawEntityData;
     private PojoEntityManager entityManager;
 
     public IterateMultipleComponentBenchmark() {
-        super("Iterate entities by multiple components", 10000, new int[]{10000});
+        this(ComponentTableType.HASH, 1000);
+    }
+
+    public IterateMultipleComponentBenchmark(ComponentTableType componentTableType, int entityCount) {
+        super("Iterate " + entityCount + " entities by multiple components (" + componentTableType + " storage)",
+                10000000 / entityCount, new int[]{10000000 / entityCount});
+        this.componentTableType = componentTableType;
+        this.entityCount = entityCount;
     }
 
     @Override
     public void setup() {
         FastRandom rand = new FastRandom(0L);
         rawEntityData = Lists.newArrayList();
-        for (int i = 0; i < 1000; ++i) {
+        for (int i = 0; i < entityCount; ++i) {
             List<Component> entityData = Lists.newArrayList();
             if (rand.nextFloat() < 0.75f) {
                 entityData.add(new LocationComponent());
@@ -58,7 +69,7 @@ public void setup() {
             rawEntityData.add(entityData);
         }
 
-        entityManager = new PojoEntityManager();
+        entityManager = new PojoEntityManager(componentTableType);
         for (List<Component> rawEntity : rawEntityData) {
             entityManager.create(rawEntity);
         }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.internal.ChunkSendQueue;
+
+import java.util.Map;
+
+/**
+ * Picks the nearest of several thousand chunks waiting to be sent per repetition, like a client moving through the
+ * world does once per net tick, either with a {@link ChunkSendQueue} or by scanning all waiting chunks.
+ */
+public class ChunkSendQueueBenchmark extends AbstractBenchmark {
+
+    private static final int VIEW_RADIUS = 12;
+    private static final int TICKS_PER_CHUNK_MOVED = 20;
+
+    private final boolean indexed;
+
+    private ChunkSendQueue queue;
+    private Map<Vector3i, Object> readyChunks;
+    private Vector3i center;
+    private int tick;
+    private long checksum;
+
+    public ChunkSendQueueBenchmark(boolean indexed) {
+        super(indexed ? "Nearest waiting chunk from ChunkSendQueue" : "Nearest waiting chunk by linear scan", 1000, new int[]{10000});
+        this.indexed = indexed;
+    }
+
+    @Override
+    public void setup() {
+        queue = new ChunkSendQueue();
+        readyChunks = Maps.newLinkedHashMap();
+        center = new Vector3i();
+        for (int x = -VIEW_RADIUS; x <= VIEW_RADIUS; x++) {
+            for (int y = -VIEW_RADIUS / 2; y <= VIEW_RADIUS / 2; y++) {
+                for (int z = -VIEW_RADIUS; z <= VIEW_RADIUS; z++) {
+                    add(new Vector3i(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        if (++tick % TICKS_PER_CHUNK_MOVED == 0) {
+            center.x++;
+        }
+        Vector3i nearest = indexed ? pollQueue() : pollLinear();
+        checksum += nearest.x + nearest.y + nearest.z;
+        // keep the number of waiting chunks stable, as newly relevant chunks replace the sent ones
+        add(new Vector3i(nearest.x + 2 * VIEW_RADIUS + 1, nearest.y, nearest.z));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        System.out.println("Checksum: " + checksum);
+    }
+
+    private void add(Vector3i pos) {
+        if (indexed) {
+            queue.add(pos);
+        } else {
+            readyChunks.put(pos, pos);
+        }
+    }
+
+    private Vector3i pollQueue() {
+        queue.setCenter(center);
+        return queue.poll();
+    }
+
+    private Vector3i pollLinear() {
+        Vector3i pos = null;
+        int distance = Integer.MAX_VALUE;
+        for (Vector3i chunkPos : readyChunks.keySet()) {
+            int chunkDistance = chunkPos.distanceSquared(center);
+            if (pos == null || chunkDistance < distance) {
+                pos = chunkPos;
+                distance = chunkDistance;
+            }
+        }
+        readyChunks.remove(pos);
+        return pos;
+    }
+}
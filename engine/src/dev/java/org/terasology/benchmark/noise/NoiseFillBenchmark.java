@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+
+/**
+ * Fills the noise values of chunk sized areas with octaved simplex noise, one area per repetition, and reports the
+ * values computed per second.
+ * <br><br>
+ * The areas are filled either position by position, the way facet providers used to, or with one batch per area.
+ */
+public class NoiseFillBenchmark extends AbstractBenchmark {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+    private static final int OCTAVES = 8;
+    private static final float STEP = 0.01f;
+
+    private final boolean threeDimensional;
+    private final boolean batch;
+
+    private Noise noise;
+    private float[] values;
+    private int fills;
+    private long startNanos;
+
+    public NoiseFillBenchmark(boolean threeDimensional, boolean batch) {
+        super((threeDimensional ? "3D" : "2D") + " octaved noise filled " + (batch ? "in batches" : "position by position"),
+                threeDimensional ? 20 : 1000, new int[]{threeDimensional ? 200 : 10000});
+        this.threeDimensional = threeDimensional;
+        this.batch = batch;
+    }
+
+    @Override
+    public void setup() {
+        noise = new BrownianNoise(new SimplexNoise(0xCAFE), OCTAVES);
+        values = new float[threeDimensional ? SIZE_X * SIZE_Y * SIZE_Z : SIZE_X * SIZE_Z];
+    }
+
+    @Override
+    public void prerun() {
+        fills = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        // every repetition fills the next area along the x-axis
+        float x = fills * SIZE_X * STEP;
+        if (threeDimensional) {
+            if (batch) {
+                noise.noise(values, x, 0, 0, STEP, STEP, STEP, SIZE_X, SIZE_Y, SIZE_Z);
+            } else {
+                fill3D(x);
+            }
+        } else {
+            if (batch) {
+                noise.noise(values, x, 0, STEP, STEP, SIZE_X, SIZE_Z);
+            } else {
+                fill2D(x);
+            }
+        }
+        fills++;
+    }
+
+    private void fill2D(float x) {
+        for (int j = 0; j < SIZE_Z; j++) {
+            for (int i = 0; i < SIZE_X; i++) {
+                values[i + SIZE_X * j] = noise.noise(x + i * STEP, j * STEP);
+            }
+        }
+    }
+
+    private void fill3D(float x) {
+        int index = 0;
+        for (int k = 0; k < SIZE_Z; k++) {
+            for (int j = 0; j < SIZE_Y; j++) {
+                for (int i = 0; i < SIZE_X; i++) {
+                    values[index++] = noise.noise(x + i * STEP, j * STEP, k * STEP);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void postrun() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println("Noise values per second: " + (long) (fills * (double) values.length / seconds));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        noise = null;
+        values = null;
+    }
+}
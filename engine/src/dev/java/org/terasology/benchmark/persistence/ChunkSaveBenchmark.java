@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.world.BlockManagerStub;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.internal.ChunkEncodingStage;
+import org.terasology.persistence.internal.CompressedChunkBuilder;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.concurrency.SharedTaskPool;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves the chunks of a generated world into chunk files in a temporary directory, the whole world per repetition, the
+ * way a save transaction writes them, and reports the chunks saved per second.
+ * <br><br>
+ * The chunks are encoded and compressed on the shared task pool, sized to the given number of threads, and written one
+ * by one from the benchmark thread.
+ */
+public class ChunkSaveBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNKS_X = 8;
+    private static final int CHUNKS_Y = 2;
+    private static final int CHUNKS_Z = 8;
+
+    private final int threads;
+
+    private List<ChunkImpl> chunks;
+    private ChunkEncodingStage encodingStage;
+    private Path saveDirectory;
+    private int saves;
+    private long startNanos;
+
+    public ChunkSaveBenchmark(int threads) {
+        super("Saving chunks on " + threads + (threads == 1 ? " encoding thread" : " encoding threads"), 2, new int[]{10});
+        this.threads = threads;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setUri(BlockManager.AIR_ID);
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setUri(new BlockUri(new ResourceUrn("benchmark:stone")));
+        Block dirt = new Block();
+        dirt.setId((short) 2);
+        dirt.setUri(new BlockUri(new ResourceUrn("benchmark:dirt")));
+
+        BlockManager blockManager = new BlockManagerStub(air, stone, dirt);
+        Noise noise = new SimplexNoise(3);
+        chunks = Lists.newArrayList();
+        for (int chunkX = 0; chunkX < CHUNKS_X; chunkX++) {
+            for (int chunkY = 0; chunkY < CHUNKS_Y; chunkY++) {
+                for (int chunkZ = 0; chunkZ < CHUNKS_Z; chunkZ++) {
+                    ChunkImpl chunk = new ChunkImpl(chunkX, chunkY, chunkZ, blockManager, new ExtraBlockDataManager());
+                    generateTerrain(chunk, noise, stone, dirt);
+                    chunks.add(chunk);
+                }
+            }
+        }
+
+        try {
+            saveDirectory = Files.createTempDirectory("chunk-save-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SharedTaskPool.setThreads(threads);
+        encodingStage = new ChunkEncodingStage();
+    }
+
+    /**
+     * Hilly terrain of stone under a few layers of dirt, with caves.
+     */
+    private static void generateTerrain(ChunkImpl chunk, Noise noise, Block stone, Block dirt) {
+        Vector3i offset = chunk.getChunkWorldOffset();
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                int worldX = offset.x + x;
+                int worldZ = offset.z + z;
+                float height = ChunkConstants.SIZE_Y + 24 * noise.noise(worldX * 0.01f, worldZ * 0.01f);
+                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                    int worldY = offset.y + y;
+                    if (worldY < height && noise.noise(worldX * 0.04f, worldY * 0.06f, worldZ * 0.04f) < 0.4f) {
+                        chunk.setBlock(x, y, z, worldY < height - 4 ? stone : dirt);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void prerun() {
+        saves = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        // the builders keep their encoding, so every save needs new ones, like every save transaction
+        Map<Vector3i, CompressedChunkBuilder> chunkBuilders = Maps.newLinkedHashMap();
+        for (ChunkImpl chunk : chunks) {
+            chunkBuilders.put(chunk.getPosition(), new CompressedChunkBuilder(EntityData.EntityStore.getDefaultInstance(), chunk, false));
+        }
+        try {
+            encodingStage.encodeAndWrite(chunkBuilders, (chunkPos, encodedChunk) -> {
+                Path chunkPath = saveDirectory.resolve(chunkPos.x + "." + chunkPos.y + "." + chunkPos.z + ".chunk");
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                    out.write(encodedChunk);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        saves++;
+    }
+
+    @Override
+    public void postrun() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println("Chunks saved per second: " + (long) (saves * (double) chunks.size() / seconds));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (encodingStage != null) {
+            encodingStage.shutdown();
+        }
+        if (saveDirectory != null) {
+            try {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(saveDirectory)) {
+                    for (Path file : files) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(saveDirectory);
+            } catch (IOException e) {
+                System.out.println("Failed to delete " + saveDirectory + ": " + e.getMessage());
+            }
+        }
+        encodingStage = null;
+        chunks = null;
+        saveDirectory = null;
+    }
+}
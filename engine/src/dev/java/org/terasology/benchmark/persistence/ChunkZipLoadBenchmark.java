@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.world.BlockManagerStub;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.internal.ChunkZipPool;
+import org.terasology.persistence.internal.CompressedChunkBuilder;
+import org.terasology.persistence.internal.StoragePathProvider;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.FilesUtil;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Loads the compressed data of the chunks around a player from a chunk zip holding a few thousand chunks, the chunks
+ * of one player's surroundings per repetition, and reports the chunks loaded per second.
+ * <br><br>
+ * The zip is either opened anew for every chunk, the way the storage manager used to, or kept open in a
+ * {@link ChunkZipPool}. Only the reading is measured, the chunks are not decompressed.
+ */
+public class ChunkZipLoadBenchmark extends AbstractBenchmark {
+
+    private static final int ZIP_CHUNKS_X = 32;
+    private static final int ZIP_CHUNKS_Y = 4;
+    private static final int ZIP_CHUNKS_Z = 32;
+    private static final int LOADED_CHUNKS_X = 8;
+    private static final int LOADED_CHUNKS_Y = 2;
+    private static final int LOADED_CHUNKS_Z = 8;
+    private static final int DISTINCT_CHUNKS = 8;
+
+    private final boolean pooled;
+
+    private Path savePath;
+    private StoragePathProvider storagePathProvider;
+    private ChunkZipPool chunkZipPool;
+    private FastRandom random;
+    private int loadedChunks;
+    private long startNanos;
+
+    public ChunkZipLoadBenchmark(boolean pooled) {
+        super(pooled ? "Chunk loading from pooled zips" : "Chunk loading opening the zip per chunk", 20, new int[]{200});
+        this.pooled = pooled;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setUri(BlockManager.AIR_ID);
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setUri(new BlockUri(new ResourceUrn("benchmark:stone")));
+        BlockManager blockManager = new BlockManagerStub(air, stone);
+
+        // a few differently filled chunks are enough, the zip holds each of them many times
+        random = new FastRandom(0L);
+        byte[][] encodedChunks = new byte[DISTINCT_CHUNKS][];
+        for (int i = 0; i < DISTINCT_CHUNKS; i++) {
+            ChunkImpl chunk = new ChunkImpl(i, 0, 0, blockManager, new ExtraBlockDataManager());
+            int height = random.nextInt(ChunkConstants.SIZE_Y);
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    for (int y = 0; y < height + random.nextInt(4); y++) {
+                        chunk.setBlock(x, y, z, stone);
+                    }
+                }
+            }
+            encodedChunks[i] = new CompressedChunkBuilder(EntityData.EntityStore.getDefaultInstance(), chunk, false).buildEncodedChunk();
+        }
+
+        try {
+            savePath = Files.createTempDirectory("chunk-zip-load-benchmark");
+            storagePathProvider = new StoragePathProvider(savePath);
+            Files.createDirectories(storagePathProvider.getWorldPath());
+            Path chunkZipPath = storagePathProvider.getChunkZipPath(new Vector3i());
+            try (OutputStream out = Files.newOutputStream(chunkZipPath); ZipOutputStream zipOut = new ZipOutputStream(out)) {
+                int index = 0;
+                for (int x = 0; x < ZIP_CHUNKS_X; x++) {
+                    for (int y = 0; y < ZIP_CHUNKS_Y; y++) {
+                        for (int z = 0; z < ZIP_CHUNKS_Z; z++) {
+                            zipOut.putNextEntry(new ZipEntry(storagePathProvider.getChunkFilename(new Vector3i(x, y, z))));
+                            zipOut.write(encodedChunks[index++ % DISTINCT_CHUNKS]);
+                            zipOut.closeEntry();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunkZipPool = new ChunkZipPool(storagePathProvider, 16);
+    }
+
+    @Override
+    public void prerun() {
+        loadedChunks = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        int minX = random.nextInt(ZIP_CHUNKS_X - LOADED_CHUNKS_X);
+        int minY = random.nextInt(ZIP_CHUNKS_Y - LOADED_CHUNKS_Y);
+        int minZ = random.nextInt(ZIP_CHUNKS_Z - LOADED_CHUNKS_Z);
+        try {
+            for (int x = minX; x < minX + LOADED_CHUNKS_X; x++) {
+                for (int y = minY; y < minY + LOADED_CHUNKS_Y; y++) {
+                    for (int z = minZ; z < minZ + LOADED_CHUNKS_Z; z++) {
+                        Vector3i chunkPos = new Vector3i(x, y, z);
+                        byte[] chunkData = pooled ? chunkZipPool.read(chunkPos) : readOpeningZip(chunkPos);
+                        if (chunkData == null) {
+                            throw new IllegalStateException("Chunk " + chunkPos + " is missing");
+                        }
+                        loadedChunks++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] readOpeningZip(Vector3i chunkPos) throws IOException {
+        Path chunkZipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(chunkPos));
+        try (FileSystem chunkZip = FileSystems.newFileSystem(chunkZipPath, null)) {
+            Path chunkPath = chunkZip.getPath(storagePathProvider.getChunkFilename(chunkPos));
+            return Files.isRegularFile(chunkPath) ? Files.readAllBytes(chunkPath) : null;
+        }
+    }
+
+    @Override
+    public void postrun() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println("Chunks loaded per second: " + (long) (loadedChunks / seconds));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        try {
+            if (chunkZipPool != null) {
+                chunkZipPool.invalidateAll();
+            }
+            if (savePath != null) {
+                FilesUtil.recursiveDelete(savePath);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to delete " + savePath + ": " + e.getMessage());
+        }
+        chunkZipPool = null;
+        storagePathProvider = null;
+        savePath = null;
+    }
+}
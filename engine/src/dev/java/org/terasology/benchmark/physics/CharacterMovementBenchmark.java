@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.google.common.collect.Lists;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.world.BlockManagerStub;
+import org.terasology.benchmark.world.ChunkProviderStub;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.entitySystem.metadata.EventLibrary;
+import org.terasology.logic.characters.CharacterMoveInputEvent;
+import org.terasology.logic.characters.CharacterMovementComponent;
+import org.terasology.logic.characters.CharacterStateEvent;
+import org.terasology.logic.characters.KinematicCharacterMover;
+import org.terasology.logic.characters.MovementMode;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.NetworkMode;
+import org.terasology.network.NetworkSystem;
+import org.terasology.physics.bullet.BulletPhysics;
+import org.terasology.physics.engine.PhysicsEngineManager;
+import org.terasology.recording.EventCatcher;
+import org.terasology.recording.RecordAndReplayCurrentStatus;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.WorldProviderCoreImpl;
+import org.terasology.world.internal.WorldProviderWrapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Steps a group of characters walking in circles across a field of stone pillars with the
+ * {@link KinematicCharacterMover}, without rendering or networking, and reports the heap allocated per repetition.
+ * <br><br>
+ * The physics engine reads the blocks either through the world provider, or through its own per-thread cache of the
+ * chunks it read from last.
+ */
+public class CharacterMovementBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNKS_X = 3;
+    private static final int CHUNKS_Z = 3;
+    private static final int GROUND_HEIGHT = 20;
+    private static final int CHARACTERS = 16;
+    private static final long STEP_MS = 50;
+
+    private final boolean cachedLookup;
+
+    private BulletPhysics physics;
+    private KinematicCharacterMover mover;
+    private List<EntityRef> characters;
+    private CharacterStateEvent[] states;
+    private int sequenceNumber;
+    private long startHeapBytes;
+
+    public CharacterMovementBenchmark(boolean cachedLookup) {
+        super(cachedLookup ? "Character movement with cached chunk lookups" : "Character movement with world provider lookups",
+                1000, new int[]{10000});
+        this.cachedLookup = cachedLookup;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setUri(BlockManager.AIR_ID);
+        air.setPenetrable(true);
+        air.setTargetable(false);
+
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setUri(new BlockUri(new ResourceUrn("benchmark:stone")));
+        stone.setCollision(Vector3f.zero(), PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube());
+
+        BlockManager blockManager = new BlockManagerStub(air, stone);
+        FastRandom random = new FastRandom(0L);
+        ChunkProviderStub chunkProvider = new ChunkProviderStub();
+        for (int chunkX = 0; chunkX < CHUNKS_X; chunkX++) {
+            for (int chunkZ = 0; chunkZ < CHUNKS_Z; chunkZ++) {
+                Chunk chunk = new ChunkImpl(chunkX, 0, chunkZ, blockManager, new ExtraBlockDataManager());
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                        int height = random.nextFloat() < 0.05f ? GROUND_HEIGHT + 2 : GROUND_HEIGHT;
+                        for (int y = 0; y < height; y++) {
+                            chunk.setBlock(x, y, z, stone);
+                        }
+                    }
+                }
+                chunk.markReady();
+                chunkProvider.addChunk(chunk);
+            }
+        }
+
+        WorldProvider world = new WorldProviderWrapper(new WorldProviderCoreImpl("benchmark", null, "benchmark", 0, null,
+                chunkProvider, air, new ContextImpl()), new ExtraBlockDataManager());
+        physics = cachedLookup ? new BulletPhysics(world, chunkProvider) : new BulletPhysics(world);
+        mover = new KinematicCharacterMover(world, physics);
+
+        NetworkSystem networkSystem = (NetworkSystem) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{NetworkSystem.class},
+                (proxy, method, args) -> "getMode".equals(method.getName()) ? NetworkMode.NONE : null);
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entityManager.setEventSystem(new EventSystemImpl(new EventLibrary(new ContextImpl()), networkSystem,
+                new EventCatcher(null, null), new RecordAndReplayCurrentStatus()));
+
+        characters = Lists.newArrayList();
+        states = new CharacterStateEvent[CHARACTERS];
+        float centerX = CHUNKS_X * ChunkConstants.SIZE_X / 2f;
+        float centerZ = CHUNKS_Z * ChunkConstants.SIZE_Z / 2f;
+        for (int i = 0; i < CHARACTERS; i++) {
+            Vector3f position = new Vector3f(centerX + (i % 4 - 1.5f) * 8, GROUND_HEIGHT + 3, centerZ + (i / 4 - 1.5f) * 8);
+            characters.add(entityManager.create(new LocationComponent(position), new CharacterMovementComponent()));
+            states[i] = new CharacterStateEvent(0, 0, position, new Quat4f(0, 0, 0, 1), new Vector3f(), 0, 0,
+                    MovementMode.WALKING, false);
+        }
+    }
+
+    @Override
+    public void prerun() {
+        sequenceNumber = 0;
+        startHeapBytes = getAllocatedHeapBytes();
+    }
+
+    @Override
+    public void run() {
+        sequenceNumber++;
+        // every character turns a bit each step, so it walks in a circle of a few meters
+        for (int i = 0; i < CHARACTERS; i++) {
+            float yaw = sequenceNumber * 3f + i * 22.5f;
+            Vector3f direction = new Vector3f((float) Math.sin(Math.toRadians(yaw)), 0, (float) Math.cos(Math.toRadians(yaw)));
+            CharacterMoveInputEvent input = new CharacterMoveInputEvent(sequenceNumber, 0, yaw, direction, false, false, STEP_MS);
+            states[i] = mover.step(states[i], input, characters.get(i));
+        }
+    }
+
+    @Override
+    public void postrun() {
+        if (startHeapBytes >= 0) {
+            System.out.println("Heap bytes allocated per repetition: " + (getAllocatedHeapBytes() - startHeapBytes) / sequenceNumber);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (physics != null) {
+            physics.dispose();
+        }
+        physics = null;
+        mover = null;
+        characters = null;
+        states = null;
+    }
+
+    /**
+     * @return the bytes allocated on the heap by the current thread so far, or -1 if the JVM doesn't track them
+     */
+    private static long getAllocatedHeapBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
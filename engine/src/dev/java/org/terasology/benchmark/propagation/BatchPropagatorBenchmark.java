@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.propagation.BatchPropagator;
+import org.terasology.world.propagation.BlockChange;
+import org.terasology.world.propagation.PropagatorWorldView;
+import org.terasology.world.propagation.StandardBatchPropagator;
+import org.terasology.world.propagation.light.LightPropagationRules;
+import org.terasology.world.propagation.light.SunlightPropagationRules;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Replays a large batch of block changes and its reversal through a {@link StandardBatchPropagator} per repetition,
+ * and reports the heap allocated per repetition.
+ * <br><br>
+ * For light a lit tunnel is dug through the stone and filled again, for sunlight a pit is dug from the surface and
+ * filled again. The world is a plain array of a few chunks, so only the propagation itself is measured.
+ */
+public class BatchPropagatorBenchmark extends AbstractBenchmark {
+
+    private static final int SIZE_X = 3 * ChunkConstants.SIZE_X;
+    private static final int SIZE_Y = 2 * ChunkConstants.SIZE_Y;
+    private static final int SIZE_Z = 3 * ChunkConstants.SIZE_Z;
+    private static final int SURFACE_HEIGHT = 96;
+
+    private final boolean sunlight;
+
+    private ArrayWorldView world;
+    private ArrayWorldView regenWorld;
+    private BatchPropagator propagator;
+    private List<BlockChange> digChanges;
+    private List<BlockChange> fillChanges;
+    private int repetitions;
+    private long startHeapBytes;
+
+    public BatchPropagatorBenchmark(boolean sunlight) {
+        super(sunlight ? "Sunlight propagation of a pit dug and filled" : "Light propagation of a lit tunnel dug and filled",
+                10, new int[]{100});
+        this.sunlight = sunlight;
+    }
+
+    @Override
+    public void setup() {
+        Block air = createBlock(0, "air", true, (byte) 0);
+        Block stone = createBlock(1, "stone", false, (byte) 0);
+        Block torch = createBlock(2, "torch", true, ChunkConstants.MAX_LIGHT);
+
+        world = new ArrayWorldView();
+        regenWorld = new ArrayWorldView();
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    if (y < SURFACE_HEIGHT) {
+                        world.setBlock(x, y, z, stone);
+                    } else {
+                        world.setBlock(x, y, z, air);
+                        regenWorld.setValue(x, y, z, ChunkConstants.MAX_SUNLIGHT_REGEN);
+                        if (sunlight) {
+                            world.setValue(x, y, z, ChunkConstants.MAX_SUNLIGHT);
+                        }
+                    }
+                }
+            }
+        }
+
+        digChanges = Lists.newArrayList();
+        fillChanges = Lists.newArrayList();
+        if (sunlight) {
+            propagator = new StandardBatchPropagator(new SunlightPropagationRules(regenWorld), world);
+            for (int y = SURFACE_HEIGHT - 1; y >= SURFACE_HEIGHT - 32; y--) {
+                for (int z = 32; z < 64; z++) {
+                    for (int x = 32; x < 64; x++) {
+                        digChanges.add(new BlockChange(new org.joml.Vector3i(x, y, z), stone, air));
+                        fillChanges.add(new BlockChange(new org.joml.Vector3i(x, y, z), air, stone));
+                    }
+                }
+            }
+        } else {
+            propagator = new StandardBatchPropagator(new LightPropagationRules(), world);
+            for (int x = 4; x < SIZE_X - 4; x++) {
+                for (int y = 40; y < 44; y++) {
+                    for (int z = 44; z < 48; z++) {
+                        Block dug = (x % 12 == 0 && y == 40 && z == 44) ? torch : air;
+                        digChanges.add(new BlockChange(new org.joml.Vector3i(x, y, z), stone, dug));
+                        fillChanges.add(new BlockChange(new org.joml.Vector3i(x, y, z), dug, stone));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void prerun() {
+        repetitions = 0;
+        startHeapBytes = getAllocatedHeapBytes();
+    }
+
+    @Override
+    public void run() {
+        apply(digChanges, ChunkConstants.MAX_SUNLIGHT_REGEN);
+        apply(fillChanges, (byte) 0);
+        repetitions++;
+    }
+
+    @Override
+    public void postrun() {
+        if (startHeapBytes >= 0) {
+            System.out.println("Heap bytes allocated per repetition: " + (getAllocatedHeapBytes() - startHeapBytes) / repetitions);
+        }
+    }
+
+    /**
+     * Places the new blocks, and for sunlight updates the regeneration values the way the regeneration propagator
+     * would have before, then propagates the changes.
+     */
+    private void apply(List<BlockChange> changes, byte regenValue) {
+        for (BlockChange change : changes) {
+            int x = change.getPosition().x();
+            int y = change.getPosition().y();
+            int z = change.getPosition().z();
+            world.setBlock(x, y, z, change.getTo());
+            regenWorld.setValue(x, y, z, regenValue);
+        }
+        propagator.process(changes);
+    }
+
+    /**
+     * @return the bytes allocated on the heap by the current thread so far, or -1 if the JVM doesn't track them
+     */
+    private static long getAllocatedHeapBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static Block createBlock(int id, String name, boolean translucent, byte luminance) {
+        Block block = new Block();
+        block.setId((short) id);
+        block.setUri(id == 0 ? BlockManager.AIR_ID : new BlockUri(new ResourceUrn("benchmark", name)));
+        block.setTranslucent(translucent);
+        block.setLuminance(luminance);
+        for (Side side : Side.getAllSides()) {
+            block.setFullSide(side, !translucent);
+        }
+        return block;
+    }
+
+    /**
+     * Blocks and values of a fixed box of the world, starting at the origin.
+     */
+    private static final class ArrayWorldView implements PropagatorWorldView {
+        private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+        private final byte[] values = new byte[SIZE_X * SIZE_Y * SIZE_Z];
+
+        @Override
+        public byte getValueAt(Vector3i pos) {
+            int index = index(pos.x, pos.y, pos.z);
+            return index < 0 ? UNAVAILABLE : values[index];
+        }
+
+        @Override
+        public void setValueAt(Vector3i pos, byte value) {
+            values[index(pos.x, pos.y, pos.z)] = value;
+        }
+
+        @Override
+        public Block getBlockAt(Vector3i pos) {
+            int index = index(pos.x, pos.y, pos.z);
+            return index < 0 ? null : blocks[index];
+        }
+
+        void setValue(int x, int y, int z, byte value) {
+            values[index(x, y, z)] = value;
+        }
+
+        void setBlock(int x, int y, int z, Block block) {
+            blocks[index(x, y, z)] = block;
+        }
+
+        private static int index(int x, int y, int z) {
+            if (x < 0 || y < 0 || z < 0 || x >= SIZE_X || y >= SIZE_Y || z >= SIZE_Z) {
+                return -1;
+            }
+            return x + SIZE_X * (z + SIZE_Z * y);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Maps;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.world.BlockManagerStub;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.rendering.primitives.DirectBufferPool;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+/**
+ * Tessellates one of a set of generated chunks per repetition, either collecting the vertices in lists or writing
+ * them straight into pooled direct buffers, and reports the heap and native memory allocated per chunk.
+ * <br><br>
+ * Runs without any assets or OpenGL context: the blocks are plain cubes and the meshes are disposed before any
+ * VBO gets created.
+ */
+public class ChunkTessellatorBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNK_COUNT = 16;
+
+    private final boolean direct;
+
+    private ChunkView[] chunkViews;
+    private ChunkTessellator tessellator;
+    private DirectBufferPool vertexBufferPool;
+    private int tessellated;
+    private long startHeapBytes;
+    private long startDirectBytes;
+
+    public ChunkTessellatorBenchmark(boolean direct) {
+        super(direct ? "Chunk tessellation into pooled direct buffers" : "Chunk tessellation into vertex lists", 20, new int[]{200});
+        this.direct = direct;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setUri(BlockManager.AIR_ID);
+        air.setTranslucent(true);
+        air.setMeshGenerator(null);
+
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setUri(new BlockUri(new ResourceUrn("benchmark:stone")));
+        stone.setPrimaryAppearance(createCubeAppearance());
+        for (Side side : Side.getAllSides()) {
+            stone.setFullSide(side, true);
+        }
+
+        BlockManager blockManager = new BlockManagerStub(air, stone);
+        Noise noise = new SimplexNoise(12);
+        chunkViews = new ChunkView[CHUNK_COUNT];
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            Chunk chunk = new ChunkImpl(i, 0, 0, blockManager, new ExtraBlockDataManager());
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                        int worldX = i * ChunkConstants.SIZE_X + x;
+                        float density = 32 - y + 12 * noise.noise(worldX * 0.03f, y * 0.05f, z * 0.03f);
+                        if (density > 0) {
+                            chunk.setBlock(x, y, z, stone);
+                        }
+                    }
+                }
+            }
+            chunkViews[i] = new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromMinAndSize(new Vector3i(), Vector3i.one()),
+                    new Vector3i(), air);
+        }
+
+        vertexBufferPool = new DirectBufferPool();
+        tessellator = direct ? new ChunkTessellator(new GLBufferPool(false), vertexBufferPool) : new ChunkTessellator(new GLBufferPool(false));
+    }
+
+    @Override
+    public void prerun() {
+        tessellated = 0;
+        startHeapBytes = getAllocatedHeapBytes();
+        startDirectBytes = vertexBufferPool.getAllocatedBytes();
+    }
+
+    @Override
+    public void run() {
+        tessellator.generateMesh(chunkViews[tessellated % CHUNK_COUNT], ChunkConstants.SIZE_Y, 0).dispose();
+        tessellated++;
+    }
+
+    @Override
+    public void postrun() {
+        long heapBytes = getAllocatedHeapBytes() - startHeapBytes;
+        long directBytes = vertexBufferPool.getAllocatedBytes() - startDirectBytes;
+        if (startHeapBytes >= 0) {
+            System.out.println("Heap bytes allocated per chunk: " + heapBytes / tessellated);
+        }
+        System.out.println("Direct bytes allocated per chunk: " + directBytes / tessellated);
+    }
+
+    /**
+     * @return the bytes allocated on the heap by the current thread so far, or -1 if the JVM doesn't track them
+     */
+    private static long getAllocatedHeapBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static BlockAppearance createCubeAppearance() {
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> textureAtlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart part : BlockPart.values()) {
+            textureAtlasPositions.put(part, new Vector2f());
+        }
+        for (Side side : Side.getAllSides()) {
+            parts.put(BlockPart.fromSide(side), createFace(side));
+        }
+        return new BlockAppearance(parts, textureAtlasPositions);
+    }
+
+    private static BlockMeshPart createFace(Side side) {
+        Vector3i direction = side.getVector3i();
+        Vector3f center = new Vector3f(direction.x * 0.5f, direction.y * 0.5f, direction.z * 0.5f);
+        Vector3f u = direction.x != 0 ? new Vector3f(0, 0.5f, 0) : new Vector3f(0.5f, 0, 0);
+        Vector3f v = direction.z != 0 ? new Vector3f(0, 0.5f, 0) : new Vector3f(0, 0, 0.5f);
+        Vector3f[] vertices = {
+                new Vector3f(center).sub(u).sub(v),
+                new Vector3f(center).add(u).sub(v),
+                new Vector3f(center).add(u).add(v),
+                new Vector3f(center).sub(u).add(v)
+        };
+        Vector3f normal = new Vector3f(direction.x, direction.y, direction.z);
+        Vector3f[] normals = {normal, normal, normal, normal};
+        Vector2f[] texCoords = {new Vector2f(0, 0), new Vector2f(1, 0), new Vector2f(1, 1), new Vector2f(0, 1)};
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Lists;
+import org.joml.Matrix4f;
+import org.lwjgl.BufferUtils;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.logic.players.LocalPlayer;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.world.ChunkVisibilityGrid;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.lang.reflect.Proxy;
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Culls the chunks of a far view distance against the frustums of a player camera turning around, its reflection and a
+ * shadow map camera, the three frustums the renderable world culls against every frame, and reports the chunks culled
+ * per second.
+ * <br><br>
+ * The chunks are culled either one by one against every frustum, the way the renderable world used to, or through a
+ * {@link ChunkVisibilityGrid}. Runs without OpenGL or a loaded config: the frustums are built from plain projection and
+ * view matrices instead of cameras, and the chunks only have a position and bounds.
+ */
+public class FrustumCullingBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNKS_X = 24;
+    private static final int CHUNKS_Y = 8;
+    private static final int CHUNKS_Z = 24;
+    private static final int DIRECTIONS = 36;
+
+    private final boolean grid;
+
+    private List<RenderableChunk> chunks;
+    private AABB[] chunkBounds;
+    private ChunkVisibilityGrid visibilityGrid;
+    private int[] visibility;
+    private ViewFrustum[][] frustums;
+    private int frames;
+    private long visibleChunks;
+    private long startNanos;
+
+    public FrustumCullingBenchmark(boolean grid) {
+        super(grid ? "Frustum culling of chunk groups" : "Frustum culling of single chunks", 100, new int[]{1000});
+        this.grid = grid;
+    }
+
+    @Override
+    public void setup() {
+        // ViewFrustum.intersects(AABB) culls relative to the view position of the local player, the origin without a client
+        Context context = new ContextImpl();
+        context.put(LocalPlayer.class, new LocalPlayer());
+        CoreRegistry.setContext(context);
+
+        chunks = Lists.newArrayList();
+        for (int x = -CHUNKS_X / 2; x < CHUNKS_X / 2; x++) {
+            for (int y = -CHUNKS_Y / 2; y < CHUNKS_Y / 2; y++) {
+                for (int z = -CHUNKS_Z / 2; z < CHUNKS_Z / 2; z++) {
+                    chunks.add(createChunk(new Vector3i(x, y, z)));
+                }
+            }
+        }
+        chunkBounds = new AABB[chunks.size()];
+        for (int i = 0; i < chunkBounds.length; i++) {
+            chunkBounds[i] = chunks.get(i).getAABB();
+        }
+        visibilityGrid = new ChunkVisibilityGrid();
+        visibilityGrid.rebuild(chunks);
+        visibility = new int[chunks.size()];
+
+        Matrix4f perspective = new Matrix4f().perspective((float) Math.toRadians(90), 16f / 9f, 0.1f, 1000f);
+        ViewFrustum shadowFrustum = createFrustum(new Matrix4f().ortho(-256, 256, -256, 256, -512, 512),
+                new Matrix4f().lookAt(0, 0, 0, -0.3f, -1f, -0.2f, 0, 0, 1));
+        frustums = new ViewFrustum[DIRECTIONS][];
+        for (int i = 0; i < DIRECTIONS; i++) {
+            float yaw = (float) Math.toRadians(i * 360.0 / DIRECTIONS);
+            float dirX = (float) Math.sin(yaw);
+            float dirZ = (float) Math.cos(yaw);
+            frustums[i] = new ViewFrustum[]{
+                createFrustum(perspective, new Matrix4f().lookAt(0, 0, 0, dirX, -0.2f, dirZ, 0, 1, 0)),
+                shadowFrustum,
+                createFrustum(perspective, new Matrix4f().lookAt(0, 0, 0, dirX, 0.2f, dirZ, 0, 1, 0))
+            };
+        }
+    }
+
+    private static RenderableChunk createChunk(Vector3i position) {
+        Vector3f min = new Vector3f(position.x * ChunkConstants.SIZE_X, position.y * ChunkConstants.SIZE_Y,
+                position.z * ChunkConstants.SIZE_Z);
+        Vector3f max = new Vector3f(min.x + ChunkConstants.SIZE_X, min.y + ChunkConstants.SIZE_Y, min.z + ChunkConstants.SIZE_Z);
+        AABB aabb = AABB.createMinMax(min, max);
+        return (RenderableChunk) Proxy.newProxyInstance(FrustumCullingBenchmark.class.getClassLoader(),
+                new Class[]{RenderableChunk.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getPosition":
+                            return position;
+                        case "getAABB":
+                            return aabb;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static ViewFrustum createFrustum(Matrix4f projection, Matrix4f view) {
+        FloatBuffer projectionBuffer = BufferUtils.createFloatBuffer(16);
+        FloatBuffer viewBuffer = BufferUtils.createFloatBuffer(16);
+        projection.get(projectionBuffer);
+        view.get(viewBuffer);
+        ViewFrustum frustum = new ViewFrustum();
+        frustum.updateFrustum(viewBuffer, projectionBuffer);
+        return frustum;
+    }
+
+    @Override
+    public void prerun() {
+        frames = 0;
+        visibleChunks = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        ViewFrustum[] frameFrustums = frustums[frames % DIRECTIONS];
+        if (grid) {
+            visibilityGrid.cull(frameFrustums, CoreRegistry.get(LocalPlayer.class).getViewPosition(), visibility);
+        } else {
+            for (int i = 0; i < chunkBounds.length; i++) {
+                int chunkVisibility = 0;
+                for (int frustum = 0; frustum < frameFrustums.length; frustum++) {
+                    if (frameFrustums[frustum].intersects(chunkBounds[i])) {
+                        chunkVisibility |= 1 << frustum;
+                    }
+                }
+                visibility[i] = chunkVisibility;
+            }
+        }
+        for (int i = 0; i < visibility.length; i++) {
+            visibleChunks += Integer.bitCount(visibility[i]);
+        }
+        frames++;
+    }
+
+    @Override
+    public void postrun() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println("Chunks culled per second: " + (long) (frames * (double) chunks.size() / seconds));
+        // the same for both ways of culling, unless they disagree
+        System.out.println("Chunk visibilities per frame: " + visibleChunks / frames);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        CoreRegistry.setContext(null);
+        chunks = null;
+        chunkBounds = null;
+        visibilityGrid = null;
+        visibility = null;
+        frustums = null;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Lists;
+import org.joml.Matrix4f;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.world.BlockManagerStub;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.world.ChunkOcclusionCuller;
+import org.terasology.rendering.world.ChunkVisibilityGrid;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.util.List;
+
+/**
+ * Culls the chunks around a camera in a cavern deep underground, turning around from frame to frame, and reports how
+ * many chunks are left to render per frame and how many frames are culled per second.
+ * <br><br>
+ * The chunks are culled either against the view frustum only, or also by their occlusion through the rock around the
+ * cavern, with the face connectivity of every chunk computed from the generated caves the way the tessellation does.
+ * Runs without OpenGL: the chunk meshes only carry the connectivity.
+ */
+public class OcclusionCullingBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNKS_X = 8;
+    private static final int CHUNKS_Y = 4;
+    private static final int CHUNKS_Z = 8;
+    private static final int CAVERN_RADIUS = 6;
+    private static final int DIRECTIONS = 36;
+
+    private final boolean occlusionCulling;
+
+    private List<Chunk> chunks;
+    private ChunkVisibilityGrid visibilityGrid;
+    private ChunkOcclusionCuller occlusionCuller;
+    private int[] visibility;
+    private ViewFrustum[][] frustums;
+    private int frames;
+    private long visibleChunks;
+    private long occludedChunks;
+    private long startNanos;
+
+    public OcclusionCullingBenchmark(boolean occlusionCulling) {
+        super(occlusionCulling ? "Frustum and occlusion culling in caves" : "Frustum culling in caves", 100, new int[]{1000});
+        this.occlusionCulling = occlusionCulling;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setUri(BlockManager.AIR_ID);
+        air.setTranslucent(true);
+        air.setMeshGenerator(null);
+
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setUri(new BlockUri(new ResourceUrn("benchmark:stone")));
+        for (Side side : Side.getAllSides()) {
+            stone.setFullSide(side, true);
+        }
+
+        BlockManager blockManager = new BlockManagerStub(air, stone);
+        Noise noise = new SimplexNoise(7);
+        GLBufferPool bufferPool = new GLBufferPool(false);
+        chunks = Lists.newArrayList();
+        // the camera is at the origin, in the middle of the chunks, the view position of ViewFrustum without a player
+        for (int chunkX = -CHUNKS_X / 2; chunkX < CHUNKS_X / 2; chunkX++) {
+            for (int chunkY = -CHUNKS_Y / 2; chunkY < CHUNKS_Y / 2; chunkY++) {
+                for (int chunkZ = -CHUNKS_Z / 2; chunkZ < CHUNKS_Z / 2; chunkZ++) {
+                    Chunk chunk = new ChunkImpl(chunkX, chunkY, chunkZ, blockManager, new ExtraBlockDataManager());
+                    generateCaves(chunk, noise, stone);
+                    chunk.markReady();
+
+                    ChunkMesh mesh = new ChunkMesh(bufferPool);
+                    mesh.setFaceConnectivity(ChunkFaceConnectivity.compute(new ChunkViewCoreImpl(new Chunk[]{chunk},
+                            Region3i.createFromMinAndSize(new Vector3i(), Vector3i.one()), new Vector3i(), air)));
+                    chunk.setMesh(mesh);
+                    chunks.add(chunk);
+                }
+            }
+        }
+
+        visibilityGrid = new ChunkVisibilityGrid();
+        visibilityGrid.rebuild(chunks);
+        occlusionCuller = new ChunkOcclusionCuller();
+        occlusionCuller.rebuild(chunks);
+        visibility = new int[chunks.size()];
+
+        Matrix4f perspective = new Matrix4f().perspective((float) Math.toRadians(90), 16f / 9f, 0.1f, 1000f);
+        frustums = new ViewFrustum[DIRECTIONS][];
+        for (int i = 0; i < DIRECTIONS; i++) {
+            float yaw = (float) Math.toRadians(i * 360.0 / DIRECTIONS);
+            frustums[i] = new ViewFrustum[]{FrustumCullingBenchmark.createFrustum(perspective,
+                    new Matrix4f().lookAt(0, 0, 0, (float) Math.sin(yaw), -0.2f, (float) Math.cos(yaw), 0, 1, 0))};
+        }
+    }
+
+    /**
+     * Fills the chunk with rock, except for caves where the noise is high and a cavern around the origin.
+     */
+    private static void generateCaves(Chunk chunk, Noise noise, Block stone) {
+        Vector3i offset = chunk.getChunkWorldOffset();
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    int worldX = offset.x + x;
+                    int worldY = offset.y + y;
+                    int worldZ = offset.z + z;
+                    boolean cavern = worldX * worldX + worldY * worldY + worldZ * worldZ < CAVERN_RADIUS * CAVERN_RADIUS;
+                    boolean cave = noise.noise(worldX * 0.03f, worldY * 0.05f, worldZ * 0.03f) > 0.35f;
+                    if (!cavern && !cave) {
+                        chunk.setBlock(x, y, z, stone);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void prerun() {
+        frames = 0;
+        visibleChunks = 0;
+        occludedChunks = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        visibilityGrid.cull(frustums[frames % DIRECTIONS], new Vector3f(), visibility);
+        if (occlusionCulling) {
+            occludedChunks += occlusionCuller.cull(new Vector3i(), visibility, 1);
+        }
+        for (int i = 0; i < visibility.length; i++) {
+            if (visibility[i] != 0) {
+                visibleChunks++;
+            }
+        }
+        frames++;
+    }
+
+    @Override
+    public void postrun() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println("Frames culled per second: " + (long) (frames / seconds));
+        System.out.println("Chunks to render per frame: " + visibleChunks / frames + " of " + chunks.size());
+        if (occlusionCulling) {
+            System.out.println("Chunks occluded per frame: " + occludedChunks / frames);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        chunks = null;
+        visibilityGrid = null;
+        occlusionCuller = null;
+        visibility = null;
+        frustums = null;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.WorldProviderCoreImpl;
+
+/**
+ * Reads the blocks of regions spread over a few chunks, one region per repetition, and reports the blocks read per
+ * second.
+ * <br><br>
+ * The blocks are read either by looking up the chunk of every block in the chunk provider, the way the world provider
+ * used to, or block by block through the world provider, or with one bulk read of the region from the world provider.
+ */
+public class BlockReadBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNKS = 3;
+    private static final int REGION_SIZE = 24;
+    private static final int REGIONS = 64;
+
+    private final ReadMode mode;
+
+    private ChunkProviderStub chunkProvider;
+    private WorldProviderCoreImpl world;
+    private Region3i[] regions;
+    private Block[] blocks;
+    private int reads;
+    private long startNanos;
+
+    public BlockReadBenchmark(ReadMode mode) {
+        super("Block reads " + mode.description, 1000, new int[]{10000});
+        this.mode = mode;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        air.setUri(BlockManager.AIR_ID);
+        Block stone = new Block();
+        stone.setId((short) 1);
+        stone.setUri(new BlockUri(new ResourceUrn("benchmark:stone")));
+
+        BlockManager blockManager = new BlockManagerStub(air, stone);
+        FastRandom random = new FastRandom(0L);
+        chunkProvider = new ChunkProviderStub();
+        for (int x = 0; x < CHUNKS; x++) {
+            for (int y = 0; y < CHUNKS; y++) {
+                for (int z = 0; z < CHUNKS; z++) {
+                    Chunk chunk = new ChunkImpl(x, y, z, blockManager, new ExtraBlockDataManager());
+                    for (int i = 0; i < chunk.getChunkSizeX() * chunk.getChunkSizeY() * chunk.getChunkSizeZ() / 2; i++) {
+                        chunk.setBlock(random.nextInt(chunk.getChunkSizeX()), random.nextInt(chunk.getChunkSizeY()),
+                                random.nextInt(chunk.getChunkSizeZ()), stone);
+                    }
+                    chunk.markReady();
+                    chunkProvider.addChunk(chunk);
+                }
+            }
+        }
+        world = new WorldProviderCoreImpl("benchmark", null, "benchmark", 0, null, chunkProvider, air, new ContextImpl());
+
+        // most regions straddle chunk borders
+        regions = new Region3i[REGIONS];
+        for (int i = 0; i < REGIONS; i++) {
+            Vector3i min = new Vector3i(random.nextInt(CHUNKS * ChunkConstants.SIZE_X - REGION_SIZE),
+                    random.nextInt(CHUNKS * ChunkConstants.SIZE_Y - REGION_SIZE),
+                    random.nextInt(CHUNKS * ChunkConstants.SIZE_Z - REGION_SIZE));
+            regions[i] = Region3i.createFromMinAndSize(min, new Vector3i(REGION_SIZE, REGION_SIZE, REGION_SIZE));
+        }
+        blocks = new Block[REGION_SIZE * REGION_SIZE * REGION_SIZE];
+    }
+
+    @Override
+    public void prerun() {
+        reads = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        Region3i region = regions[reads % REGIONS];
+        switch (mode) {
+            case CHUNK_PROVIDER:
+                readWithChunkLookups(region);
+                break;
+            case WORLD_PROVIDER:
+                readFromWorld(region);
+                break;
+            case REGION:
+                world.getBlocks(region, blocks);
+                break;
+            default:
+                throw new IllegalStateException("Unknown read mode " + mode);
+        }
+        reads++;
+    }
+
+    private void readWithChunkLookups(Region3i region) {
+        int index = 0;
+        for (int x = region.minX(); x <= region.maxX(); x++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                    Chunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+                    blocks[index++] = chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
+                }
+            }
+        }
+    }
+
+    private void readFromWorld(Region3i region) {
+        int index = 0;
+        for (int x = region.minX(); x <= region.maxX(); x++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                    blocks[index++] = world.getBlock(x, y, z);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void postrun() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println("Blocks read per second: " + (long) (reads * (double) blocks.length / seconds));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        chunkProvider = null;
+        world = null;
+        regions = null;
+        blocks = null;
+    }
+
+    public enum ReadMode {
+        CHUNK_PROVIDER("through a chunk lookup per block"),
+        WORLD_PROVIDER("block by block from the world provider"),
+        REGION("of whole regions from the world provider");
+
+        private final String description;
+
+        ReadMode(String description) {
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkRegionListener;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Just enough of a chunk provider to hand out a fixed set of chunks, looked up the way the local chunk provider does.
+ */
+public final class ChunkProviderStub implements GeneratingChunkProvider {
+    private final Map<Vector3i, Chunk> chunks = Maps.newConcurrentMap();
+
+    public void addChunk(Chunk chunk) {
+        chunks.put(chunk.getPosition(), chunk);
+    }
+
+    @Override
+    public Chunk getChunk(int x, int y, int z) {
+        return getChunk(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public Chunk getChunk(Vector3i chunkPos) {
+        Chunk chunk = chunks.get(chunkPos);
+        return chunk != null && chunk.isReady() ? chunk : null;
+    }
+
+    @Override
+    public boolean isChunkReady(Vector3i pos) {
+        return getChunk(pos) != null;
+    }
+
+    @Override
+    public Collection<Chunk> getAllChunks() {
+        return chunks.values();
+    }
+
+    @Override
+    public Chunk getChunkUnready(Vector3i pos) {
+        return chunks.get(pos);
+    }
+
+    @Override
+    public void onChunkIsReady(Chunk chunk) {
+    }
+
+    @Override
+    public ChunkViewCore getLocalView(Vector3i centerChunkPos) {
+        return null;
+    }
+
+    @Override
+    public ChunkViewCore getSubviewAroundBlock(Vector3i blockPos, int extent) {
+        return null;
+    }
+
+    @Override
+    public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
+        return null;
+    }
+
+    @Override
+    public void setWorldEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void addRelevanceEntity(EntityRef entity, Vector3i distance) {
+    }
+
+    @Override
+    public void addRelevanceEntity(EntityRef entity, Vector3i distance, ChunkRegionListener listener) {
+    }
+
+    @Override
+    public void updateRelevanceEntity(EntityRef entity, Vector3i distance) {
+    }
+
+    @Override
+    public void removeRelevanceEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void completeUpdate() {
+    }
+
+    @Override
+    public void beginUpdate() {
+    }
+
+    @Override
+    public boolean reloadChunk(Vector3i pos) {
+        return false;
+    }
+
+    @Override
+    public void purgeWorld() {
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public void restart() {
+    }
+}
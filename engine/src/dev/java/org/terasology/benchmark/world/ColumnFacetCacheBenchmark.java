@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.generation.Facet;
+import org.terasology.world.generation.FacetBorder;
+import org.terasology.world.generation.FacetProvider;
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.HeightIndependent;
+import org.terasology.world.generation.Produces;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.Requires;
+import org.terasology.world.generation.World;
+import org.terasology.world.generation.WorldBuilder;
+import org.terasology.world.generation.facets.DensityFacet;
+import org.terasology.world.generation.facets.SurfaceHeightFacet;
+import org.terasology.world.generation.facets.SurfaceTemperatureFacet;
+import org.terasology.world.generation.facets.base.BaseFieldFacet2D;
+
+/**
+ * Generates the facets of a column of vertically stacked chunks per repetition, either sharing the 2D facets across
+ * the column or generating them for every chunk.
+ */
+public class ColumnFacetCacheBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNKS_PER_COLUMN = 8;
+
+    private final int columnFacetCacheSize;
+
+    private World world;
+    private int column;
+    private float checksum;
+
+    public ColumnFacetCacheBenchmark(int columnFacetCacheSize) {
+        super(columnFacetCacheSize > 0 ? "Chunk column facets with shared 2D facets" : "Chunk column facets without shared 2D facets",
+                50, new int[]{500});
+        this.columnFacetCacheSize = columnFacetCacheSize;
+    }
+
+    @Override
+    public void setup() {
+        WorldBuilder worldBuilder = new WorldBuilder(null);
+        worldBuilder.setSeed(12);
+        worldBuilder.setColumnFacetCacheSize(columnFacetCacheSize);
+        worldBuilder.addProvider(new HeightProvider());
+        worldBuilder.addProvider(new TemperatureProvider());
+        worldBuilder.addProvider(new DensityProvider());
+        world = worldBuilder.build();
+        world.initialize();
+    }
+
+    @Override
+    public void run() {
+        Vector3i min = new Vector3i(column * ChunkConstants.SIZE_X, 0, 0);
+        for (int i = 0; i < CHUNKS_PER_COLUMN; i++) {
+            min.y = i * ChunkConstants.SIZE_Y;
+            Region region = world.getWorldData(Region3i.createFromMinAndSize(min, ChunkConstants.CHUNK_SIZE));
+            checksum += region.getFacet(DensityFacet.class).get(0, 0, 0);
+            checksum += region.getFacet(SurfaceTemperatureFacet.class).get(0, 0);
+        }
+        column++;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        System.out.println("Checksum: " + checksum);
+    }
+
+    private static void fill(BaseFieldFacet2D facet, Noise noise, float scale) {
+        Rect2i area = facet.getWorldRegion();
+        for (int z = area.minY(); z <= area.maxY(); z++) {
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                facet.setWorld(x, z, noise.noise(x * scale, z * scale));
+            }
+        }
+    }
+
+    @Produces(SurfaceHeightFacet.class)
+    @HeightIndependent
+    public static class HeightProvider implements FacetProvider {
+        private Noise noise;
+
+        @Override
+        public void setSeed(long seed) {
+            noise = new BrownianNoise(new SimplexNoise(seed), 8);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceHeightFacet facet = new SurfaceHeightFacet(region.getRegion(), region.getBorderForFacet(SurfaceHeightFacet.class));
+            fill(facet, noise, 0.005f);
+            region.setRegionFacet(SurfaceHeightFacet.class, facet);
+        }
+    }
+
+    @Produces(SurfaceTemperatureFacet.class)
+    @HeightIndependent
+    public static class TemperatureProvider implements FacetProvider {
+        private Noise noise;
+
+        @Override
+        public void setSeed(long seed) {
+            noise = new BrownianNoise(new SimplexNoise(seed + 1), 4);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceTemperatureFacet facet = new SurfaceTemperatureFacet(region.getRegion(),
+                    region.getBorderForFacet(SurfaceTemperatureFacet.class));
+            fill(facet, noise, 0.001f);
+            region.setRegionFacet(SurfaceTemperatureFacet.class, facet);
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(value = SurfaceHeightFacet.class, border = @FacetBorder(sides = 1)))
+    public static class DensityProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            DensityFacet facet = new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class));
+            SurfaceHeightFacet heights = region.getRegionFacet(SurfaceHeightFacet.class);
+            Region3i area = facet.getWorldRegion();
+            for (int z = area.minZ(); z <= area.maxZ(); z++) {
+                for (int x = area.minX(); x <= area.maxX(); x++) {
+                    float height = heights.getWorld(x, z) * 64;
+                    for (int y = area.minY(); y <= area.maxY(); y++) {
+                        facet.setWorld(x, y, z, height - y);
+                    }
+                }
+            }
+            region.setRegionFacet(DensityFacet.class, facet);
+        }
+    }
+}
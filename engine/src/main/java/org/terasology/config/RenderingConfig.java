@@ -79,6 +79,8 @@ public class RenderingConfig extends AbstractSubscribable {
     public static final String SCREENSHOT_FORMAT = "ScreenshotFormat";
     public static final String DUMP_SHADERS = "DumpShaders";
     public static final String VOLUMETRIC_FOG = "VolumetricFog";
+    public static final String GREEDY_MESHING = "GreedyMeshing";
+    public static final String OCCLUSION_CULLING = "OcclusionCulling";
 
     private PixelFormat pixelFormat;
     private int windowPosX;
@@ -126,6 +128,8 @@ public class RenderingConfig extends AbstractSubscribable {
     private int uiScale = 100;
     private boolean dumpShaders;
     private boolean volumetricFog;
+    private boolean greedyMeshing;
+    private boolean occlusionCulling;
     private ScreenshotSize screenshotSize;
     private String screenshotFormat;
     private PerspectiveCameraSettings cameraSettings;
@@ -685,4 +689,27 @@ public void setVolumetricFog(boolean volumetricFog) {
         propertyChangeSupport.firePropertyChange(VOLUMETRIC_FOG, oldValue, this.volumetricFog);
     }
 
+    /**
+     * @return whether chunk meshes merge adjacent faces of identical full blocks into larger quads
+     */
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        boolean oldValue = this.greedyMeshing;
+        this.greedyMeshing = greedyMeshing;
+        propertyChangeSupport.firePropertyChange(GREEDY_MESHING, oldValue, this.greedyMeshing);
+    }
+
+    public boolean isOcclusionCulling() {
+        return occlusionCulling;
+    }
+
+    public void setOcclusionCulling(boolean occlusionCulling) {
+        boolean oldValue = this.occlusionCulling;
+        this.occlusionCulling = occlusionCulling;
+        propertyChangeSupport.firePropertyChange(OCCLUSION_CULLING, oldValue, this.occlusionCulling);
+    }
+
 }
@@ -16,12 +16,23 @@
 
 package org.terasology.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.internal.ComponentTableType;
+import org.terasology.persistence.internal.ChunkStoreFormat;
+
 import java.util.Locale;
 import java.util.Locale.Category;
 
 public class SystemConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SystemConfig.class);
+
     public static final String SAVED_GAMES_ENABLED_PROPERTY = "org.terasology.savedGamesEnabled";
     public static final String PERMISSIVE_SECURITY_ENABLED_PROPERTY = "org.terasology.permissiveSecurityEnabled";
+    public static final String COMPONENT_TABLE_TYPE_PROPERTY = "org.terasology.componentTableType";
+    public static final String CHUNK_STORE_FORMAT_PROPERTY = "org.terasology.chunkStoreFormat";
+    public static final String LIGHT_MERGER_THREADS_PROPERTY = "org.terasology.lightMergerThreads";
+    public static final String GENERATOR_THREADS_PROPERTY = "org.terasology.generatorThreads";
 
     private long dayNightLengthInMs;
     private int maxThreads;
@@ -32,6 +43,10 @@ public class SystemConfig {
     private boolean writeSaveGamesEnabled;
     private long chunkGenerationFailTimeoutInMs;
     private String locale;
+    private ComponentTableType componentTableType;
+    private ChunkStoreFormat chunkStoreFormat;
+    private int lightMergerThreads;
+    private int generatorThreads;
 
     public long getDayNightLengthInMs() {
         return dayNightLengthInMs;
@@ -101,6 +116,99 @@ public void setChunkGenerationFailTimeoutInMs(long chunkGenerationFailTimeoutInM
         this.chunkGenerationFailTimeoutInMs = chunkGenerationFailTimeoutInMs;
     }
 
+    /**
+     * @return the storage layout of the entity components, which is only read when the entity system is set up.
+     */
+    public ComponentTableType getComponentTableType() {
+        String property = System.getProperty(COMPONENT_TABLE_TYPE_PROPERTY);
+        if (property != null) {
+            try {
+                return ComponentTableType.valueOf(property);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown component table type '{}' in {}, using {}", property, COMPONENT_TABLE_TYPE_PROPERTY,
+                        ComponentTableType.HASH);
+                return ComponentTableType.HASH;
+            }
+        }
+        if (componentTableType == null) {
+            return ComponentTableType.HASH;
+        }
+        return componentTableType;
+    }
+
+    public void setComponentTableType(ComponentTableType componentTableType) {
+        this.componentTableType = componentTableType;
+    }
+
+    /**
+     * @return the layout of the chunks in new save games. Existing save games keep the layout recorded in their
+     *         manifest, they can be converted with {@link org.terasology.persistence.internal.ChunkStoreMigration}.
+     */
+    public ChunkStoreFormat getChunkStoreFormat() {
+        String property = System.getProperty(CHUNK_STORE_FORMAT_PROPERTY);
+        if (property != null) {
+            try {
+                return ChunkStoreFormat.valueOf(property);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown chunk store format '{}' in {}, using {}", property, CHUNK_STORE_FORMAT_PROPERTY,
+                        ChunkStoreFormat.ZIP);
+                return ChunkStoreFormat.ZIP;
+            }
+        }
+        if (chunkStoreFormat == null) {
+            return ChunkStoreFormat.ZIP;
+        }
+        return chunkStoreFormat;
+    }
+
+    public void setChunkStoreFormat(ChunkStoreFormat chunkStoreFormat) {
+        this.chunkStoreFormat = chunkStoreFormat;
+    }
+
+    /**
+     * @return the number of threads merging the light of newly generated chunks with their neighbours. Zero or less
+     *         picks half the available processors.
+     */
+    public int getLightMergerThreads() {
+        int threads = getIntProperty(LIGHT_MERGER_THREADS_PROPERTY, lightMergerThreads);
+        if (threads <= 0) {
+            return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return threads;
+    }
+
+    public void setLightMergerThreads(int lightMergerThreads) {
+        this.lightMergerThreads = lightMergerThreads;
+    }
+
+    /**
+     * @return the number of threads shared by the chunk generation and chunk mesh pipelines. Zero or less picks one
+     *         less than the available processors, leaving one for the main thread.
+     */
+    public int getGeneratorThreads() {
+        int threads = getIntProperty(GENERATOR_THREADS_PROPERTY, generatorThreads);
+        if (threads <= 0) {
+            return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        }
+        return threads;
+    }
+
+    public void setGeneratorThreads(int generatorThreads) {
+        this.generatorThreads = generatorThreads;
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        String property = System.getProperty(name);
+        if (property != null) {
+            try {
+                return Integer.parseInt(property.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid number '{}' in {}, using {}", property, name, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
@@ -17,12 +17,14 @@
 package org.terasology.engine.bootstrap;
 
 import org.terasology.audio.events.PlaySoundEvent;
+import org.terasology.config.Config;
 import org.terasology.context.Context;
 import org.terasology.engine.SimpleUri;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ComponentTableType;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.event.Event;
@@ -38,6 +40,7 @@
 import org.terasology.input.cameraTarget.CameraTargetChangedEvent;
 import org.terasology.input.events.InputEvent;
 import org.terasology.logic.characters.CharacterMoveInputEvent;
+import org.terasology.logic.location.LocationIndex;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.network.NetworkSystem;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
@@ -113,7 +116,10 @@ public static void addEntityManagementRelatedClasses(Context context) {
         NetworkSystem networkSystem = context.get(NetworkSystem.class);
 
         // Entity Manager
-        PojoEntityManager entityManager = new PojoEntityManager();
+        Config config = context.get(Config.class);
+        ComponentTableType componentTableType = (config != null)
+                ? config.getSystem().getComponentTableType() : ComponentTableType.HASH;
+        PojoEntityManager entityManager = new PojoEntityManager(componentTableType);
         context.put(EntityManager.class, entityManager);
         context.put(EngineEntityManager.class, entityManager);
 
@@ -146,6 +152,8 @@ public static void addEntityManagementRelatedClasses(Context context) {
         entityManager.setEventSystem(eventSystem);
         context.put(EventSystem.class, eventSystem);
 
+        context.put(LocationIndex.class, new LocationIndex(entityManager));
+
         // TODO: Review - NodeClassLibrary related to the UI for behaviours. Should not be here and probably not even in the CoreRegistry
         context.put(OneOfProviderFactory.class, new OneOfProviderFactory());
         registerComponents(library.getComponentLibrary(), environment);
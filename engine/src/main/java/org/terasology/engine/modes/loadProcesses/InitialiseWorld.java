@@ -31,11 +31,14 @@
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.game.GameManifest;
+import org.terasology.logic.location.LocationIndex;
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ChunkStoreFormat;
 import org.terasology.persistence.internal.ReadOnlyStorageManager;
 import org.terasology.persistence.internal.ReadWriteStorageManager;
+import org.terasology.persistence.internal.StoragePathProvider;
 import org.terasology.recording.DirectionAndOriginPosRecorderList;
 import org.terasology.recording.RecordAndReplayCurrentStatus;
 import org.terasology.recording.RecordAndReplaySerializer;
@@ -127,10 +130,12 @@ public boolean step() {
         RecordAndReplaySerializer recordAndReplaySerializer = context.get(RecordAndReplaySerializer.class);
         RecordAndReplayUtils recordAndReplayUtils = context.get(RecordAndReplayUtils.class);
         RecordAndReplayCurrentStatus recordAndReplayCurrentStatus = context.get(RecordAndReplayCurrentStatus.class);
+        LocationIndex locationIndex = context.get(LocationIndex.class);
         try {
+            ChunkStoreFormat chunkStoreFormat = getChunkStoreFormat(saveOrRecordingPath);
             storageManager = writeSaveGamesEnabled
-                    ? new ReadWriteStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus)
-                    : new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager);
+                    ? new ReadWriteStorageManager(saveOrRecordingPath, environment, entityManager, locationIndex, blockManager, extraDataManager, chunkStoreFormat, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus)
+                    : new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager, locationIndex, blockManager, extraDataManager, chunkStoreFormat);
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
@@ -138,7 +143,7 @@ public boolean step() {
         }
         context.put(StorageManager.class, storageManager);
         LocalChunkProvider chunkProvider = new LocalChunkProvider(storageManager, entityManager, worldGenerator,
-                blockManager, extraDataManager);
+                blockManager, extraDataManager, context.get(Config.class).getSystem().getLightMergerThreads());
         context.get(ComponentSystemManager.class).register(new RelevanceSystem(chunkProvider), "engine:relevanceSystem");
         Block unloadedBlock = blockManager.getBlock(BlockManager.UNLOADED_ID);
         WorldProviderCoreImpl worldProviderCore = new WorldProviderCoreImpl(worldInfo, chunkProvider, unloadedBlock, context);
@@ -172,6 +177,20 @@ public boolean step() {
         return true;
     }
 
+    /**
+     * The format of a save game never changes implicitly, the configured one is only used for new save games.
+     */
+    private ChunkStoreFormat getChunkStoreFormat(Path savePath) throws IOException {
+        ChunkStoreFormat chunkStoreFormat = gameManifest.getChunkStoreFormat();
+        if (chunkStoreFormat == null) {
+            chunkStoreFormat = new StoragePathProvider(savePath).detectChunkStoreFormat();
+        }
+        if (chunkStoreFormat == null) {
+            chunkStoreFormat = context.get(Config.class).getSystem().getChunkStoreFormat();
+        }
+        return chunkStoreFormat;
+    }
+
     private Path getSaveOrRecordingPath() {
         Path saveOrRecordingPath;
         if (context.get(RecordAndReplayCurrentStatus.class).getStatus() == RecordAndReplayStatus.PREPARING_REPLAY) {
@@ -17,10 +17,13 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.context.Context;
+import org.terasology.engine.GameEngine;
 import org.terasology.engine.subsystem.EngineSubsystem;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
+import org.terasology.utilities.concurrency.SharedTaskPool;
 import org.terasology.utilities.concurrency.ShutdownTask;
 import org.terasology.utilities.concurrency.Task;
 import org.terasology.utilities.concurrency.TaskMaster;
@@ -88,6 +91,11 @@ public void preInitialise(Context rootContext) {
         rootContext.put(ThreadManager.class, this);
     }
 
+    @Override
+    public void initialise(GameEngine engine, Context rootContext) {
+        SharedTaskPool.setThreads(rootContext.get(Config.class).getSystem().getGeneratorThreads());
+    }
+
     @Override
     public void shutdown() {
         commonThreadPool.shutdown(new ShutdownTask(), true);
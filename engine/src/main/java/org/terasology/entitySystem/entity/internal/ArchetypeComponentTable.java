@@ -0,0 +1,487 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.impl.Constants;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A component table which groups entities by their archetype, the exact set of component types they have.
+ * <br><br>
+ * All entities of one archetype are stored contiguously, with one column per component type, so iterating over the
+ * entities that have several given components only visits the archetypes containing all of them, without probing
+ * per entity. Adding or removing a component moves the entity to the matching archetype, which is more expensive
+ * than with {@link HashComponentTable}, so this table suits worlds with many entities that rarely change shape.
+ * <br><br>
+ * Like the other tables this one is not thread safe. The iterator returned by {@link #componentIterator(Class)}
+ * visits the entities which had the component when it was created, so components may be added or removed while
+ * iterating; entities that lost the component meanwhile are skipped.
+ */
+public class ArchetypeComponentTable implements ComponentTable {
+    private static final int NO_TYPE = -1;
+    private static final int INITIAL_ARCHETYPE_CAPACITY = 16;
+
+    private final TObjectIntMap<Class<?>> typeIndices =
+            new TObjectIntHashMap<>(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, NO_TYPE);
+    private final Map<BitSet, Archetype> archetypes = Maps.newHashMap();
+    private final List<Archetype> archetypeList = Lists.newArrayList();
+
+    private final TLongObjectMap<Archetype> entityArchetypes = new TLongObjectHashMap<>();
+    private final TLongIntMap entityRows = new TLongIntHashMap();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return null;
+        }
+        int column = archetype.columnOf(typeIndices.get(componentClass));
+        if (column < 0) {
+            return null;
+        }
+        return componentClass.cast(archetype.columns[column][entityRows.get(entityId)]);
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        int typeIndex = getOrRegisterType(component.getClass());
+        Archetype current = entityArchetypes.get(entityId);
+        if (current == null) {
+            BitSet types = new BitSet();
+            types.set(typeIndex);
+            Archetype target = getArchetype(types);
+            int row = target.addRow(entityId);
+            target.columns[0][row] = component;
+            entityArchetypes.put(entityId, target);
+            entityRows.put(entityId, row);
+            return null;
+        }
+
+        int row = entityRows.get(entityId);
+        int column = current.columnOf(typeIndex);
+        if (column >= 0) {
+            Component old = current.columns[column][row];
+            current.columns[column][row] = component;
+            return old;
+        }
+        moveEntity(entityId, current, row, current.withType(typeIndex), component);
+        return null;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        Archetype current = entityArchetypes.get(entityId);
+        if (current == null) {
+            return null;
+        }
+        int typeIndex = typeIndices.get(componentClass);
+        int column = current.columnOf(typeIndex);
+        if (column < 0) {
+            return null;
+        }
+        int row = entityRows.get(entityId);
+        Component old = current.columns[column][row];
+        if (current.columnTypes.length == 1) {
+            remove(entityId);
+        } else {
+            moveEntity(entityId, current, row, current.withoutType(typeIndex), null);
+        }
+        return old;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        List<Component> components = getComponentsInNewList(entityId);
+        remove(entityId);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        Archetype archetype = entityArchetypes.remove(entityId);
+        if (archetype != null) {
+            removeRow(archetype, entityRows.remove(entityId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        entityArchetypes.clear();
+        entityRows.clear();
+        archetypes.clear();
+        archetypeList.clear();
+        typeIndices.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        int typeIndex = typeIndices.get(componentClass);
+        if (typeIndex == NO_TYPE) {
+            return 0;
+        }
+        int count = 0;
+        for (Archetype archetype : archetypeList) {
+            if (archetype.types.get(typeIndex)) {
+                count += archetype.size;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        return getComponentsInNewList(entityId);
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return Lists.newArrayList();
+        }
+        int row = entityRows.get(entityId);
+        List<Component> components = Lists.newArrayListWithCapacity(archetype.columns.length);
+        for (Component[] column : archetype.columns) {
+            components.add(column[row]);
+        }
+        return components;
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        int typeIndex = typeIndices.get(componentClass);
+        if (typeIndex == NO_TYPE) {
+            return null;
+        }
+        List<Archetype> matching = Lists.newArrayList();
+        TIntList columns = new TIntArrayList();
+        for (Archetype archetype : archetypeList) {
+            int column = archetype.columnOf(typeIndex);
+            if (column >= 0) {
+                matching.add(archetype);
+                columns.add(column);
+            }
+        }
+        return new ArchetypeComponentIterator<>(typeIndex, matching, columns);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        return new TLongArrayList(entityArchetypes.keys()).iterator();
+    }
+
+    /**
+     * Only the archetypes which contain all of the given components are visited, and their entity ids are copied
+     * in bulk.
+     */
+    @Override
+    public TLongIterator entityIdIterator(Class<? extends Component>... componentClasses) {
+        if (componentClasses.length == 0) {
+            return entityIdIterator();
+        }
+        BitSet required = new BitSet();
+        for (Class<? extends Component> componentClass : componentClasses) {
+            int typeIndex = typeIndices.get(componentClass);
+            if (typeIndex == NO_TYPE) {
+                return new TLongArrayList(0).iterator();
+            }
+            required.set(typeIndex);
+        }
+
+        TLongList ids = new TLongArrayList();
+        for (Archetype archetype : archetypeList) {
+            if (archetype.size > 0 && archetype.containsAll(required)) {
+                ids.add(archetype.entityIds, 0, archetype.size);
+            }
+        }
+        return ids.iterator();
+    }
+
+    @Override
+    public int numEntities() {
+        return entityArchetypes.size();
+    }
+
+    private int getOrRegisterType(Class<?> componentClass) {
+        int typeIndex = typeIndices.get(componentClass);
+        if (typeIndex == NO_TYPE) {
+            typeIndex = typeIndices.size();
+            typeIndices.put(componentClass, typeIndex);
+        }
+        return typeIndex;
+    }
+
+    private Archetype getArchetype(BitSet types) {
+        Archetype archetype = archetypes.get(types);
+        if (archetype == null) {
+            archetype = new Archetype(types);
+            archetypes.put(archetype.types, archetype);
+            archetypeList.add(archetype);
+        }
+        return archetype;
+    }
+
+    /**
+     * Moves an entity between two archetypes which differ by exactly one component type.
+     *
+     * @param addedComponent the component for the column the source archetype lacks, or null if a type is removed
+     */
+    private void moveEntity(long entityId, Archetype from, int fromRow, Archetype to, Component addedComponent) {
+        int toRow = to.addRow(entityId);
+        for (int column = 0; column < to.columnTypes.length; column++) {
+            int fromColumn = from.columnOf(to.columnTypes[column]);
+            to.columns[column][toRow] = (fromColumn >= 0) ? from.columns[fromColumn][fromRow] : addedComponent;
+        }
+        removeRow(from, fromRow);
+        entityArchetypes.put(entityId, to);
+        entityRows.put(entityId, toRow);
+    }
+
+    private void removeRow(Archetype archetype, int row) {
+        if (archetype.removeRow(row)) {
+            entityRows.put(archetype.entityIds[row], row);
+        }
+    }
+
+    /**
+     * The entities sharing one set of component types, stored as parallel arrays.
+     */
+    private final class Archetype {
+        private final BitSet types;
+        /** The type index of each column, in ascending order */
+        private final int[] columnTypes;
+        private final Component[][] columns;
+        private long[] entityIds;
+        private int size;
+
+        private final TIntObjectMap<Archetype> addEdges = new TIntObjectHashMap<>();
+        private final TIntObjectMap<Archetype> removeEdges = new TIntObjectHashMap<>();
+
+        Archetype(BitSet types) {
+            this.types = (BitSet) types.clone();
+            this.columnTypes = types.stream().toArray();
+            this.entityIds = new long[INITIAL_ARCHETYPE_CAPACITY];
+            this.columns = new Component[columnTypes.length][INITIAL_ARCHETYPE_CAPACITY];
+        }
+
+        int columnOf(int typeIndex) {
+            if (typeIndex == NO_TYPE) {
+                return -1;
+            }
+            int column = Arrays.binarySearch(columnTypes, typeIndex);
+            return (column >= 0) ? column : -1;
+        }
+
+        boolean containsAll(BitSet required) {
+            for (int typeIndex = required.nextSetBit(0); typeIndex >= 0; typeIndex = required.nextSetBit(typeIndex + 1)) {
+                if (!types.get(typeIndex)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Archetype withType(int typeIndex) {
+            Archetype result = addEdges.get(typeIndex);
+            if (result == null) {
+                BitSet resultTypes = (BitSet) types.clone();
+                resultTypes.set(typeIndex);
+                result = getArchetype(resultTypes);
+                addEdges.put(typeIndex, result);
+            }
+            return result;
+        }
+
+        Archetype withoutType(int typeIndex) {
+            Archetype result = removeEdges.get(typeIndex);
+            if (result == null) {
+                BitSet resultTypes = (BitSet) types.clone();
+                resultTypes.clear(typeIndex);
+                result = getArchetype(resultTypes);
+                removeEdges.put(typeIndex, result);
+            }
+            return result;
+        }
+
+        int addRow(long entityId) {
+            if (size == entityIds.length) {
+                int capacity = entityIds.length * 2;
+                entityIds = Arrays.copyOf(entityIds, capacity);
+                for (int column = 0; column < columns.length; column++) {
+                    columns[column] = Arrays.copyOf(columns[column], capacity);
+                }
+            }
+            entityIds[size] = entityId;
+            return size++;
+        }
+
+        /**
+         * Removes a row by moving the last row into its place.
+         *
+         * @return whether another entity was moved into the given row
+         */
+        boolean removeRow(int row) {
+            int last = --size;
+            boolean moved = row != last;
+            if (moved) {
+                entityIds[row] = entityIds[last];
+            }
+            for (Component[] column : columns) {
+                if (moved) {
+                    column[row] = column[last];
+                }
+                column[last] = null;
+            }
+            return moved;
+        }
+    }
+
+    /**
+     * Iterates over one column of each of a list of archetypes.
+     * <br><br>
+     * The entity ids of the archetypes are copied up front, as adding or removing a component moves the entity to
+     * another archetype and the last entity of its archetype into its row. Entities still in their row are read
+     * straight from the column, the moved ones are looked up again.
+     */
+    private final class ArchetypeComponentIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final int typeIndex;
+        private final List<Archetype> archetypes;
+        private final TIntList columns;
+        private final long[][] entityIds;
+        private int archetypeIndex;
+        private int row = -1;
+        private int nextArchetypeIndex;
+        private int nextRow;
+
+        ArchetypeComponentIterator(int typeIndex, List<Archetype> archetypes, TIntList columns) {
+            this.typeIndex = typeIndex;
+            this.archetypes = Collections.unmodifiableList(archetypes);
+            this.columns = columns;
+            this.entityIds = new long[archetypes.size()][];
+            for (int i = 0; i < archetypes.size(); i++) {
+                Archetype archetype = archetypes.get(i);
+                entityIds[i] = Arrays.copyOf(archetype.entityIds, archetype.size);
+            }
+        }
+
+        @Override
+        public long key() {
+            return entityIds[archetypeIndex][row];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T value() {
+            long entityId = key();
+            Archetype archetype = archetypes.get(archetypeIndex);
+            if (isInPlace(archetype, row, entityId)) {
+                return (T) archetype.columns[columns.get(archetypeIndex)][row];
+            }
+            Archetype current = entityArchetypes.get(entityId);
+            int column = (current != null) ? current.columnOf(typeIndex) : -1;
+            return (column >= 0) ? (T) current.columns[column][entityRows.get(entityId)] : null;
+        }
+
+        @Override
+        public T setValue(T val) {
+            T old = value();
+            long entityId = key();
+            Archetype archetype = archetypes.get(archetypeIndex);
+            if (isInPlace(archetype, row, entityId)) {
+                archetype.columns[columns.get(archetypeIndex)][row] = val;
+            } else if (old != null) {
+                put(entityId, val);
+            }
+            return old;
+        }
+
+        @Override
+        public void advance() {
+            if (!findNext()) {
+                throw new NoSuchElementException();
+            }
+            archetypeIndex = nextArchetypeIndex;
+            row = nextRow;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return findNext();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Looks for the next entity which still has the component.
+         *
+         * @return whether there is one, its position is left in nextArchetypeIndex and nextRow
+         */
+        private boolean findNext() {
+            nextArchetypeIndex = archetypeIndex;
+            nextRow = row + 1;
+            while (nextArchetypeIndex < archetypes.size()) {
+                if (nextRow >= entityIds[nextArchetypeIndex].length) {
+                    nextArchetypeIndex++;
+                    nextRow = 0;
+                } else if (hasComponent(nextArchetypeIndex, nextRow)) {
+                    return true;
+                } else {
+                    nextRow++;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasComponent(int index, int entityRow) {
+            long entityId = entityIds[index][entityRow];
+            if (isInPlace(archetypes.get(index), entityRow, entityId)) {
+                return true;
+            }
+            Archetype current = entityArchetypes.get(entityId);
+            return current != null && current.columnOf(typeIndex) >= 0;
+        }
+
+        private boolean isInPlace(Archetype archetype, int entityRow, long entityId) {
+            return entityRow < archetype.size && archetype.entityIds[entityRow] == entityId;
+        }
+    }
+}
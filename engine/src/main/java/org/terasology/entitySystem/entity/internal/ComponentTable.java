@@ -15,82 +15,42 @@
  */
 package org.terasology.entitySystem.entity.internal;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
-import gnu.trove.map.TLongObjectMap;
-import gnu.trove.map.hash.TLongObjectHashMap;
-import gnu.trove.set.TLongSet;
-import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.entitySystem.Component;
 
 import java.util.List;
-import java.util.Map;
 
 /**
- * A table for storing entities and components. Focused on allowing iteration across a components of a given type
- *
+ * A table for storing entities and components. Focused on allowing iteration across a components of a given type.
+ * <br><br>
+ * The layout of the table is left to the implementation, see {@link ComponentTableType} for the available ones.
  */
-public class ComponentTable {
-    private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
-
-    public <T extends Component> T get(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
-        if (entityMap != null) {
-            return componentClass.cast(entityMap.get(entityId));
-        }
-        return null;
-    }
-
-    public Component put(long entityId, Component component) {
-        TLongObjectMap<Component> entityMap = store.get(component.getClass());
-        if (entityMap == null) {
-            entityMap = new TLongObjectHashMap<>();
-            store.put(component.getClass(), entityMap);
-        }
-        return entityMap.put(entityId, component);
-    }
+public interface ComponentTable {
+
+    <T extends Component> T get(long entityId, Class<T> componentClass);
+
+    /**
+     * Adds or replaces the component of the given entity.
+     *
+     * @return the component of the same class that was replaced, or null if there was none.
+     */
+    Component put(long entityId, Component component);
 
     /**
      *
      * @return removes the component with the specified class from the entity and returns it.
      *         Returns null if no component could be removed.
      */
-    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
-        if (entityMap != null) {
-            return entityMap.remove(entityId);
-        }
-        return null;
-    }
-
-
-    public List<Component> removeAndReturnComponentsOf(long entityId) {
-        List<Component> componentList = Lists.newArrayList();
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            Component component = entityMap.remove(entityId);
-            if (component != null) {
-                componentList.add(component);
-            }
-        }
-        return componentList;
-    }
-
-    public void remove(long entityId) {
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            entityMap.remove(entityId);
-        }
-    }
-
-    public void clear() {
-        store.clear();
-    }
-
-    public int getComponentCount(Class<? extends Component> componentClass) {
-        TLongObjectMap<Component> map = store.get(componentClass);
-        return (map == null) ? 0 : map.size();
-    }
+    <T extends Component> Component remove(long entityId, Class<T> componentClass);
+
+    List<Component> removeAndReturnComponentsOf(long entityId);
+
+    void remove(long entityId);
+
+    void clear();
+
+    int getComponentCount(Class<? extends Component> componentClass);
 
     /**
      *
@@ -98,33 +58,20 @@ public int getComponentCount(Class<? extends Component> componentClass) {
      *         components. It should not be used after components have been added or removed from the entity.
      *
      */
-    public Iterable<Component> iterateComponents(long entityId) {
-        return getComponentsInNewList(entityId);
-    }
+    Iterable<Component> iterateComponents(long entityId);
 
     /**
      *
      * @return a new modifable list instance that contains all the components the entity had at the
      *         time this method got called.
      */
-    public List<Component> getComponentsInNewList(long entityId) {
-        List<Component> components = Lists.newArrayList();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            Component comp = componentMap.get(entityId);
-            if (comp != null) {
-                components.add(comp);
-            }
-        }
-        return components;
-    }
-
-    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
-        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) store.get(componentClass);
-        if (entityMap != null) {
-            return entityMap.iterator();
-        }
-        return null;
-    }
+    List<Component> getComponentsInNewList(long entityId);
+
+    /**
+     * @return an iterator over all entities with a component of the given class, or null if no entity in the table
+     *         has ever had such a component.
+     */
+    <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass);
 
     /**
      * Produces an iterator for iterating over all entities
@@ -133,20 +80,16 @@ public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> c
      *
      * @return An iterator over all entity ids.
      */
-    public TLongIterator entityIdIterator() {
-        TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
-        }
-        return idSet.iterator();
-    }
-
-    public int numEntities() {
-        TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
-        }
-        return idSet.size();
-    }
+    TLongIterator entityIdIterator();
+
+    /**
+     * Produces an iterator over the entities which have all of the given components. The iterator works on a snapshot
+     * of the matching ids, so components may be added or removed while iterating.
+     *
+     * @param componentClasses the components an entity must have to be included. If empty, all entities are included.
+     * @return An iterator over the ids of the matching entities.
+     */
+    TLongIterator entityIdIterator(Class<? extends Component>... componentClasses);
 
+    int numEntities();
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import java.util.function.Supplier;
+
+/**
+ * The storage layouts available for the {@link ComponentTable} of the entity pools.
+ */
+public enum ComponentTableType {
+    /**
+     * One map per component type keyed by entity id. Cheap to add and remove components.
+     */
+    HASH(HashComponentTable::new),
+    /**
+     * Entities grouped by their set of component types. Cheap to iterate over entities with several components.
+     */
+    ARCHETYPE(ArchetypeComponentTable::new);
+
+    private final Supplier<ComponentTable> factory;
+
+    ComponentTableType(Supplier<ComponentTable> factory) {
+        this.factory = factory;
+    }
+
+    public ComponentTable create() {
+        return factory.get();
+    }
+}
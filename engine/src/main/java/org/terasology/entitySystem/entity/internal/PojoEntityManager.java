@@ -65,8 +65,9 @@ public class PojoEntityManager implements EngineEntityManager {
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
 
-    private EngineEntityPool globalPool = new PojoEntityPool(this);
-    private PojoSectorManager sectorManager = new PojoSectorManager(this);
+    private final ComponentTableType componentTableType;
+    private EngineEntityPool globalPool;
+    private PojoSectorManager sectorManager;
     private Map<Long, EngineEntityPool> poolMap = new MapMaker().initialCapacity(1000).makeMap();
     private List<EngineEntityPool> worldPools = Lists.newArrayList();
     private Map<EngineEntityPool, Long> poolCounts = new HashMap<EngineEntityPool, Long>();
@@ -83,6 +84,23 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private TypeHandlerLibrary typeSerializerLibrary;
 
+    public PojoEntityManager() {
+        this(ComponentTableType.HASH);
+    }
+
+    /**
+     * @param componentTableType the storage layout used for the components of all pools created by this manager
+     */
+    public PojoEntityManager(ComponentTableType componentTableType) {
+        this.componentTableType = componentTableType;
+        this.globalPool = new PojoEntityPool(this);
+        this.sectorManager = new PojoSectorManager(this);
+    }
+
+    public ComponentTableType getComponentTableType() {
+        return componentTableType;
+    }
+
     @Override
     public RefStrategy getEntityRefStrategy() {
         return refStrategy;
@@ -517,8 +535,13 @@ protected void notifyComponentRemovalAndEntityDestruction(long entityId, EntityR
      */
     @Override
     public <T extends Component> T getComponent(long entityId, Class<T> componentClass) {
+        // This is called for every component parameter of every event handler, so avoid the Optional on the common path
+        EngineEntityPool pool = poolMap.get(entityId);
+        if (pool != null) {
+            return pool.getComponentStore().get(entityId, componentClass);
+        }
         return getPool(entityId)
-                .map(pool -> pool.getComponentStore().get(entityId, componentClass))
+                .map(p -> p.getComponentStore().get(entityId, componentClass))
                 .orElse(null);
     }
 
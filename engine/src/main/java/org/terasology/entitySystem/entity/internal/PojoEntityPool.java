@@ -44,10 +44,15 @@ public class PojoEntityPool implements EngineEntityPool {
     private static final Logger logger = LoggerFactory.getLogger(PojoEntityPool.class);
 
     private Map<Long, BaseEntityRef> entityStore = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable componentStore = new ComponentTable();
+    private ComponentTable componentStore;
 
     public PojoEntityPool(PojoEntityManager entityManager) {
+        this(entityManager, entityManager.getComponentTableType().create());
+    }
+
+    public PojoEntityPool(PojoEntityManager entityManager, ComponentTable componentStore) {
         this.entityManager = entityManager;
+        this.componentStore = componentStore;
     }
 
     @Override
@@ -297,12 +302,13 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
-        return () -> entityStore.keySet().stream()
-                //Keep entities which have all of the required components
-                .filter(id -> Arrays.stream(componentClasses)
-                        .allMatch(component -> componentStore.get(id, component) != null))
-                .map(id -> getEntity(id))
-                .iterator();
+        if (componentClasses.length == 0) {
+            return () -> entityStore.keySet().stream()
+                    .map(id -> getEntity(id))
+                    .iterator();
+        }
+        //Let the component store find the entities which have all of the required components
+        return () -> new EntityIterator(componentStore.entityIdIterator(componentClasses), this);
     }
 
     @Override
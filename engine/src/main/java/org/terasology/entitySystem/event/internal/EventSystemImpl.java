@@ -27,6 +27,8 @@
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +58,9 @@
 import org.terasology.recording.RecordAndReplayStatus;
 import org.terasology.world.block.BlockComponent;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
@@ -74,10 +79,14 @@
 public class EventSystemImpl implements EventSystem {
 
     private static final Logger logger = LoggerFactory.getLogger(EventSystemImpl.class);
+    private static final String RESOLUTION_CACHE_HIT_COUNTER = "EventSystem handler cache hits";
+    private static final String RESOLUTION_CACHE_MISS_COUNTER = "EventSystem handler cache misses";
+    private static final String RESOLUTION_UNCACHEABLE_COUNTER = "EventSystem handler resolutions too large to cache";
 
     private Map<Class<? extends Event>, SetMultimap<Class<? extends Component>, EventHandlerInfo>> componentSpecificHandlers = Maps.newHashMap();
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
+    private Map<Class<? extends Event>, EventHandlerResolution> resolutionCache = Maps.newHashMap();
 
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
@@ -90,6 +99,7 @@ public class EventSystemImpl implements EventSystem {
     private NetworkSystem networkSystem;
     private EventCatcher eventCatcher;
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
+    private boolean methodHandleDispatch = true;
 
 
     public EventSystemImpl(EventLibrary eventLibrary, NetworkSystem networkSystem, EventCatcher eventCatcher, RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
@@ -114,6 +124,7 @@ public void process() {
 
     @Override
     public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
+        resolutionCache.clear();
         eventIdMap.put(uri, eventType);
         logger.debug("Registering event {}", eventType.getSimpleName());
         for (Class parent : ReflectionUtils.getAllSuperTypes(eventType, Predicates.assignableFrom(Event.class))) {
@@ -138,6 +149,14 @@ private boolean shouldAddToLibrary(Class<? extends Event> eventType) {
                 || eventType.getAnnotation(BroadcastEvent.class) != null;
     }
 
+    /**
+     * Sets whether the handlers registered from now on are called through method handles or through reflectasm with
+     * a parameter array per call, which is only meant for comparing the two.
+     */
+    public void setMethodHandleDispatch(boolean methodHandleDispatch) {
+        this.methodHandleDispatch = methodHandleDispatch;
+    }
+
     @Override
     public void registerEventHandler(ComponentSystem handler) {
         Class handlerClass = handler.getClass();
@@ -174,8 +193,19 @@ public void registerEventHandler(ComponentSystem handler) {
                     componentParams.add((Class<? extends Component>) types[i]);
                 }
 
-                ByteCodeEventHandlerInfo handlerInfo = new ByteCodeEventHandlerInfo(handler, method, receiveEventAnnotation.priority(),
-                        receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                EventHandlerInfo handlerInfo = null;
+                if (methodHandleDispatch) {
+                    try {
+                        handlerInfo = new MethodHandleEventHandlerInfo(handler, method, receiveEventAnnotation.priority(),
+                                receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                    } catch (IllegalAccessException e) {
+                        logger.warn("Cannot create method handle for event handler {}, falling back on reflection", method, e);
+                    }
+                }
+                if (handlerInfo == null) {
+                    handlerInfo = new ByteCodeEventHandlerInfo(handler, method, receiveEventAnnotation.priority(),
+                            receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                }
                 addEventHandler((Class<? extends Event>) types[0], handlerInfo, requiredComponents);
             }
         }
@@ -183,6 +213,7 @@ public void registerEventHandler(ComponentSystem handler) {
 
     @Override
     public void unregisterEventHandler(ComponentSystem handler) {
+        resolutionCache.clear();
         for (SetMultimap<Class<? extends Component>, EventHandlerInfo> eventHandlers : componentSpecificHandlers.values()) {
             Iterator<EventHandlerInfo> eventHandlerIterator = eventHandlers.values().iterator();
             while (eventHandlerIterator.hasNext()) {
@@ -203,6 +234,7 @@ public void unregisterEventHandler(ComponentSystem handler) {
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
+        resolutionCache.clear();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -240,6 +272,7 @@ public <T extends Event> void registerEventReceiver(EventReceiver<T> eventReceiv
 
     @Override
     public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventReceiver, Class<T> eventClass, Class<? extends Component>... componentTypes) {
+        resolutionCache.clear();
         SetMultimap<Class<? extends Component>, EventHandlerInfo> eventHandlerMap = componentSpecificHandlers.get(eventClass);
         if (eventHandlerMap != null) {
             ReceiverEventHandlerInfo testReceiver = new ReceiverEventHandlerInfo<>(eventReceiver, 0, componentTypes);
@@ -272,9 +305,7 @@ public void send(EntityRef entity, Event event) {
             }
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            selectedHandlers.sort(priorityComparator);
+            List<EventHandlerInfo> selectedHandlers = resolveEventHandlers(event.getClass(), entity);
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -386,6 +417,56 @@ public void send(EntityRef entity, Event event, Component component) {
         }
     }
 
+    /**
+     * Returns the handlers for an event sent to the given entity, sorted by priority. The result only depends on which
+     * of the components relevant to the event type the entity has, so it is cached per event type and combination of
+     * those components until a handler is registered or unregistered. Event types with more relevant components than
+     * fit the bit mask are resolved every time and counted apart from the cache misses.
+     */
+    private List<EventHandlerInfo> resolveEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
+        EventHandlerResolution resolution = resolutionCache.get(eventType);
+        if (resolution == null) {
+            resolution = new EventHandlerResolution(getRelevantComponents(eventType));
+            resolutionCache.put(eventType, resolution);
+        }
+
+        if (resolution.isCacheable()) {
+            long fingerprint = resolution.fingerprint(entity);
+            List<EventHandlerInfo> cached = resolution.get(fingerprint);
+            if (cached != null) {
+                PerformanceMonitor.incrementCounter(RESOLUTION_CACHE_HIT_COUNTER, 1);
+                return cached;
+            }
+            PerformanceMonitor.incrementCounter(RESOLUTION_CACHE_MISS_COUNTER, 1);
+            List<EventHandlerInfo> selectedHandlers = sortedEventHandlers(eventType, entity);
+            resolution.put(fingerprint, selectedHandlers);
+            return selectedHandlers;
+        }
+        PerformanceMonitor.incrementCounter(RESOLUTION_UNCACHEABLE_COUNTER, 1);
+        return sortedEventHandlers(eventType, entity);
+    }
+
+    private List<EventHandlerInfo> sortedEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
+        List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectEventHandlers(eventType, entity));
+        selectedHandlers.sort(priorityComparator);
+        return ImmutableList.copyOf(selectedHandlers);
+    }
+
+    /**
+     * @return every component which decides whether a handler of the given event type is selected.
+     */
+    private Set<Class<? extends Component>> getRelevantComponents(Class<? extends Event> eventType) {
+        Set<Class<? extends Component>> relevantComponents = Sets.newLinkedHashSet();
+        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+        if (handlers != null) {
+            relevantComponents.addAll(handlers.keySet());
+            for (EventHandlerInfo handler : handlers.values()) {
+                relevantComponents.addAll(handler.getFilterComponents());
+            }
+        }
+        return relevantComponents;
+    }
+
     private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
         Set<EventHandlerInfo> result = Sets.newHashSet();
         result.addAll(generalHandlers.get(eventType));
@@ -414,9 +495,49 @@ public int compare(EventHandlerInfo o1, EventHandlerInfo o2) {
         }
     }
 
+    /**
+     * The cached handler selections of one event type, keyed by a bit mask of which of the relevant components an
+     * entity has.
+     */
+    private static class EventHandlerResolution {
+        private final Class<? extends Component>[] relevantComponents;
+        private final TLongObjectMap<List<EventHandlerInfo>> handlersByFingerprint = new TLongObjectHashMap<>();
+
+        EventHandlerResolution(Collection<Class<? extends Component>> relevantComponents) {
+            this.relevantComponents = relevantComponents.toArray(new Class[relevantComponents.size()]);
+        }
+
+        boolean isCacheable() {
+            return relevantComponents.length <= Long.SIZE;
+        }
+
+        long fingerprint(EntityRef entity) {
+            long fingerprint = 0;
+            for (int i = 0; i < relevantComponents.length; i++) {
+                if (entity.hasComponent(relevantComponents[i])) {
+                    fingerprint |= 1L << i;
+                }
+            }
+            return fingerprint;
+        }
+
+        List<EventHandlerInfo> get(long fingerprint) {
+            return handlersByFingerprint.get(fingerprint);
+        }
+
+        void put(long fingerprint, List<EventHandlerInfo> handlers) {
+            handlersByFingerprint.put(fingerprint, handlers);
+        }
+    }
+
     private interface EventHandlerInfo {
         boolean isValidFor(EntityRef entity);
 
+        /**
+         * @return the components an entity must have for this handler to be valid for it.
+         */
+        Collection<Class<? extends Component>> getFilterComponents();
+
         void invoke(EntityRef entity, Event event);
 
         int getPriority();
@@ -453,6 +574,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             try {
@@ -515,6 +641,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             try {
@@ -550,6 +681,127 @@ public ComponentSystem getHandler() {
         }
     }
 
+    /**
+     * Invokes the handler method through a method handle bound to the handler. Handlers with up to
+     * {@link #MAX_FIXED_ARITY_COMPONENTS} component parameters are invoked with a fixed arity, so dispatching an event
+     * allocates no parameter array and does no reflective access checks.
+     */
+    private static class MethodHandleEventHandlerInfo implements EventHandlerInfo {
+        private static final int MAX_FIXED_ARITY_COMPONENTS = 4;
+
+        private ComponentSystem handler;
+        private String activity;
+        private MethodHandle methodHandle;
+        private Class<? extends Component>[] filterComponents;
+        private Class<? extends Component>[] componentParams;
+        private int priority;
+
+        MethodHandleEventHandlerInfo(ComponentSystem handler,
+                                     Method method,
+                                     int priority,
+                                     String activity,
+                                     Collection<Class<? extends Component>> filterComponents,
+                                     Collection<Class<? extends Component>> componentParams) throws IllegalAccessException {
+            this.handler = handler;
+            this.activity = activity;
+            this.filterComponents = filterComponents.toArray(new Class[filterComponents.size()]);
+            this.componentParams = componentParams.toArray(new Class[componentParams.size()]);
+            this.priority = priority;
+
+            int arity = 2 + componentParams.size();
+            MethodHandle boundHandle = MethodHandles.publicLookup().unreflect(method).bindTo(handler);
+            if (componentParams.size() <= MAX_FIXED_ARITY_COMPONENTS) {
+                this.methodHandle = boundHandle.asType(MethodType.genericMethodType(arity).changeReturnType(void.class));
+            } else {
+                this.methodHandle = boundHandle.asSpreader(Object[].class, arity)
+                        .asType(MethodType.methodType(void.class, Object[].class));
+            }
+        }
+
+        @Override
+        public boolean isValidFor(EntityRef entity) {
+            for (Class<? extends Component> component : filterComponents) {
+                if (!entity.hasComponent(component)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return Arrays.asList(filterComponents);
+        }
+
+        @Override
+        public void invoke(EntityRef entity, Event event) {
+            if (!activity.isEmpty()) {
+                PerformanceMonitor.startActivity(activity);
+            }
+            try {
+                invokeHandle(entity, event);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable ex) {
+                logger.error("Failed to invoke event", ex);
+            } finally {
+                if (!activity.isEmpty()) {
+                    PerformanceMonitor.endActivity();
+                }
+            }
+        }
+
+        private void invokeHandle(EntityRef entity, Event event) throws Throwable {
+            // The casts to Object make the call sites match the generic type of the method handle exactly
+            switch (componentParams.length) {
+                case 0:
+                    methodHandle.invokeExact((Object) event, (Object) entity);
+                    break;
+                case 1:
+                    methodHandle.invokeExact((Object) event, (Object) entity,
+                            (Object) entity.getComponent(componentParams[0]));
+                    break;
+                case 2:
+                    methodHandle.invokeExact((Object) event, (Object) entity,
+                            (Object) entity.getComponent(componentParams[0]),
+                            (Object) entity.getComponent(componentParams[1]));
+                    break;
+                case 3:
+                    methodHandle.invokeExact((Object) event, (Object) entity,
+                            (Object) entity.getComponent(componentParams[0]),
+                            (Object) entity.getComponent(componentParams[1]),
+                            (Object) entity.getComponent(componentParams[2]));
+                    break;
+                case 4:
+                    methodHandle.invokeExact((Object) event, (Object) entity,
+                            (Object) entity.getComponent(componentParams[0]),
+                            (Object) entity.getComponent(componentParams[1]),
+                            (Object) entity.getComponent(componentParams[2]),
+                            (Object) entity.getComponent(componentParams[3]));
+                    break;
+                default:
+                    Object[] params = new Object[2 + componentParams.length];
+                    params[0] = event;
+                    params[1] = entity;
+                    for (int i = 0; i < componentParams.length; ++i) {
+                        params[i + 2] = entity.getComponent(componentParams[i]);
+                    }
+                    methodHandle.invokeExact(params);
+                    break;
+            }
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public ComponentSystem getHandler() {
+            return handler;
+        }
+    }
+
     private static class ReceiverEventHandlerInfo<T extends Event> implements EventHandlerInfo {
         private EventReceiver<T> receiver;
         private Class<? extends Component>[] components;
@@ -571,6 +823,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return Arrays.asList(components);
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             receiver.onEvent((T) event, entity);
@@ -26,6 +26,7 @@
 import org.terasology.naming.Version;
 import org.terasology.naming.gson.NameTypeAdapter;
 import org.terasology.naming.gson.VersionTypeAdapter;
+import org.terasology.persistence.internal.ChunkStoreFormat;
 import org.terasology.utilities.gson.CaseInsensitiveEnumTypeAdapterFactory;
 import org.terasology.utilities.gson.UriTypeAdapterFactory;
 import org.terasology.world.internal.WorldInfo;
@@ -50,6 +51,7 @@ public class GameManifest {
     private Map<String, Short> blockIdMap = Maps.newHashMap();
     private Map<String, WorldInfo> worlds = Maps.newHashMap();
     private List<NameVersion> modules = Lists.newArrayList();
+    private ChunkStoreFormat chunkStoreFormat;
 
     public GameManifest() {
     }
@@ -104,6 +106,17 @@ public void setBlockIdMap(Map<String, Short> blockIdMap) {
         this.blockIdMap = blockIdMap;
     }
 
+    /**
+     * @return the layout of the stored chunks, or null for save games from before it was recorded.
+     */
+    public ChunkStoreFormat getChunkStoreFormat() {
+        return chunkStoreFormat;
+    }
+
+    public void setChunkStoreFormat(ChunkStoreFormat chunkStoreFormat) {
+        this.chunkStoreFormat = chunkStoreFormat;
+    }
+
     public WorldInfo getWorldInfo(String name) {
         return worlds.get(name);
     }
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.EntityChangeSubscriber;
+import org.terasology.math.AABB;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the active entities with a {@link LocationComponent} sorted into buckets by the chunk they are in, so the
+ * entities of a region can be found without going over all entities.
+ * <br><br>
+ * The index follows the component changes of its entity manager. Entities attached to a parent move with it without
+ * their location changing, so they are not put into buckets but checked by their current world position on every query.
+ * Like the entity system, the index must only be used from the main thread.
+ */
+public class LocationIndex implements EntityChangeSubscriber {
+
+    private static final int MIN_CHUNK_SIZE = Math.min(ChunkConstants.SIZE_X, Math.min(ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z));
+
+    private final EngineEntityManager entityManager;
+    private final Map<Vector3i, Set<EntityRef>> buckets = Maps.newHashMap();
+    private final Map<EntityRef, Vector3i> bucketOfEntity = Maps.newHashMap();
+    private final Set<EntityRef> attachedEntities = Sets.newLinkedHashSet();
+
+    /**
+     * Creates an index of the entities of an entity manager, including the ones it already has.
+     */
+    public LocationIndex(EngineEntityManager entityManager) {
+        this.entityManager = entityManager;
+        for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
+            update(entity);
+        }
+        entityManager.subscribeForChanges(this);
+    }
+
+    /**
+     * @return the entity manager whose entities are indexed
+     */
+    public EngineEntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    /**
+     * @return the number of indexed entities
+     */
+    public int size() {
+        return bucketOfEntity.size() + attachedEntities.size();
+    }
+
+    /**
+     * @return the entities whose world position is within the given box, as decided by {@link AABB#contains(Vector3f)}
+     */
+    public List<EntityRef> getEntitiesIn(AABB aabb) {
+        List<EntityRef> result = Lists.newArrayList();
+        Vector3i minChunk = ChunkMath.calcChunkPos(aabb.getMin());
+        Vector3i maxChunk = ChunkMath.calcChunkPos(aabb.getMax());
+        Vector3i chunkPos = new Vector3i();
+        Vector3f position = new Vector3f();
+        for (int x = minChunk.x; x <= maxChunk.x; x++) {
+            for (int y = minChunk.y; y <= maxChunk.y; y++) {
+                for (int z = minChunk.z; z <= maxChunk.z; z++) {
+                    Set<EntityRef> bucket = buckets.get(chunkPos.set(x, y, z));
+                    if (bucket != null) {
+                        for (EntityRef entity : bucket) {
+                            if (getWorldPosition(entity, position) && aabb.contains(position)) {
+                                result.add(entity);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (EntityRef entity : attachedEntities) {
+            if (getWorldPosition(entity, position) && aabb.contains(position)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the entities whose world position is at most the given distance away from a position
+     */
+    public List<EntityRef> getEntitiesWithin(Vector3f center, float radius) {
+        Vector3f extent = new Vector3f(radius, radius, radius);
+        List<EntityRef> result = getEntitiesIn(AABB.createCenterExtent(center, extent));
+        float radiusSquared = radius * radius;
+        Vector3f position = new Vector3f();
+        result.removeIf(entity -> !getWorldPosition(entity, position) || position.distanceSquared(center) > radiusSquared);
+        return result;
+    }
+
+    /**
+     * Searches the buckets around a position in growing shells, until no unsearched bucket can hold an entity nearer
+     * than the ones found.
+     *
+     * @param center the position to search around
+     * @param count the maximum number of entities to find
+     * @return the entities nearest to the position, nearest first
+     */
+    public List<EntityRef> getNearestEntities(Vector3f center, int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        List<EntityRef> candidates = Lists.newArrayList(attachedEntities);
+        Map<EntityRef, Float> distances = Maps.newHashMap();
+        Vector3f position = new Vector3f();
+        candidates.removeIf(entity -> !getWorldPosition(entity, position));
+        for (EntityRef entity : candidates) {
+            getWorldPosition(entity, position);
+            distances.put(entity, position.distanceSquared(center));
+        }
+        Comparator<EntityRef> byDistance = Comparator.comparing(distances::get);
+
+        Vector3i centerChunk = ChunkMath.calcChunkPos(center);
+        Vector3i chunkPos = new Vector3i();
+        int bucketedEntitiesSeen = 0;
+        for (int shell = 0; bucketedEntitiesSeen < bucketOfEntity.size(); shell++) {
+            for (int x = -shell; x <= shell; x++) {
+                for (int y = -shell; y <= shell; y++) {
+                    for (int z = -shell; z <= shell; z++) {
+                        if (Math.max(Math.abs(x), Math.max(Math.abs(y), Math.abs(z))) != shell) {
+                            continue;
+                        }
+                        Set<EntityRef> bucket = buckets.get(chunkPos.set(centerChunk.x + x, centerChunk.y + y, centerChunk.z + z));
+                        if (bucket != null) {
+                            bucketedEntitiesSeen += bucket.size();
+                            for (EntityRef entity : bucket) {
+                                if (getWorldPosition(entity, position)) {
+                                    candidates.add(entity);
+                                    distances.put(entity, position.distanceSquared(center));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            if (candidates.size() >= count) {
+                candidates.sort(byDistance);
+                // the unsearched buckets are at least this far from any position in the center chunk
+                float searchedDistance = shell * MIN_CHUNK_SIZE;
+                if (distances.get(candidates.get(count - 1)) <= searchedDistance * searchedDistance) {
+                    break;
+                }
+            }
+        }
+        candidates.sort(byDistance);
+        return candidates.size() > count ? Lists.newArrayList(candidates.subList(0, count)) : candidates;
+    }
+
+    /**
+     * Moves an entity to the bucket of its current location, or drops it from the index if it lost its location.
+     */
+    public void update(EntityRef entity) {
+        remove(entity);
+        if (!entity.isActive()) {
+            return;
+        }
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null) {
+            return;
+        }
+        if (location.getParent().exists()) {
+            attachedEntities.add(entity);
+            return;
+        }
+        Vector3f position = location.getWorldPosition();
+        if (Float.isNaN(position.x)) {
+            return;
+        }
+        Vector3i chunkPos = ChunkMath.calcChunkPos(position);
+        buckets.computeIfAbsent(chunkPos, pos -> Sets.newLinkedHashSet()).add(entity);
+        bucketOfEntity.put(entity, chunkPos);
+    }
+
+    private void remove(EntityRef entity) {
+        Vector3i chunkPos = bucketOfEntity.remove(entity);
+        if (chunkPos != null) {
+            Set<EntityRef> bucket = buckets.get(chunkPos);
+            bucket.remove(entity);
+            if (bucket.isEmpty()) {
+                buckets.remove(chunkPos);
+            }
+        } else {
+            attachedEntities.remove(entity);
+        }
+    }
+
+    private static boolean getWorldPosition(EntityRef entity, Vector3f output) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        return location != null && !Float.isNaN(location.getWorldPosition(output).x);
+    }
+
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            update(entity);
+        }
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            update(entity);
+        }
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            remove(entity);
+        }
+    }
+
+    @Override
+    public void onReactivation(EntityRef entity, Collection<Component> components) {
+        update(entity);
+    }
+
+    @Override
+    public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
+        remove(entity);
+    }
+}
@@ -16,6 +16,7 @@
 package org.terasology.monitoring;
 
 import gnu.trove.map.TObjectDoubleMap;
+import gnu.trove.map.TObjectLongMap;
 import org.terasology.monitoring.impl.NullPerformanceMonitor;
 import org.terasology.monitoring.impl.PerformanceMonitorImpl;
 import org.terasology.monitoring.impl.PerformanceMonitorInternal;
@@ -140,6 +141,27 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Adds the given amount to a named counter, for instance the hits or misses of a cache.
+     * <br><br>
+     * Unlike activities, counters may be updated from any thread. They are not reset by rollCycle().
+     *
+     * @param counterName the name of the counter.
+     * @param amount the amount to add to the counter.
+     */
+    public static void incrementCounter(String counterName, long amount) {
+        instance.incrementCounter(counterName, amount);
+    }
+
+    /**
+     * Returns a mapping from the name of a counter to its total since the Performance Monitoring system was enabled.
+     *
+     * @return a snapshot of the counters.
+     */
+    public static TObjectLongMap<String> getCounters() {
+        return instance.getCounters();
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Tracks how many tasks are waiting in a task queue and how fast they get done.
+ */
+public final class TaskQueueMonitor {
+
+    private final String name;
+    private final IntSupplier queueDepth;
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    private long sampleNanos = System.nanoTime();
+    private long sampleCompletedTasks;
+
+    TaskQueueMonitor(String name, IntSupplier queueDepth) {
+        this.name = name;
+        this.queueDepth = queueDepth;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of tasks waiting to be run
+     */
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    public void taskCompleted() {
+        completedTasks.incrementAndGet();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    /**
+     * @return the tasks completed per second since the previous call, or since the queue was created
+     */
+    public synchronized float sampleThroughput() {
+        long now = System.nanoTime();
+        long completed = completedTasks.get();
+        float throughput = now > sampleNanos ? (completed - sampleCompletedTasks) * 1e9f / (now - sampleNanos) : 0;
+        sampleNanos = now;
+        sampleCompletedTasks = completed;
+        return throughput;
+    }
+}
@@ -26,11 +26,13 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntSupplier;
 
 public final class ThreadMonitor {
 
     private static final EventBus EVENT_BUS = new EventBus("ThreadMonitor");
     private static final Map<Thread, SingleThreadMonitor> THREAD_INFO_BY_ID = Maps.newConcurrentMap();
+    private static final Map<String, TaskQueueMonitor> TASK_QUEUES_BY_NAME = Maps.newConcurrentMap();
 
     private ThreadMonitor() {
     }
@@ -57,6 +59,38 @@ public static synchronized List<SingleThreadMonitor> getThreadMonitors(boolean a
         return getThreadMonitors(Lists.<SingleThreadMonitor>newArrayList(), aliveThreadsOnly);
     }
 
+    /**
+     * Starts tracking a task queue. A queue registered under the same name before is no longer tracked.
+     *
+     * @param name the name of the queue
+     * @param queueDepth supplies the number of tasks waiting in the queue
+     * @return the monitor to report the completed tasks of the queue to
+     */
+    public static TaskQueueMonitor monitorTaskQueue(String name, IntSupplier queueDepth) {
+        TaskQueueMonitor monitor = new TaskQueueMonitor(name, queueDepth);
+        TASK_QUEUES_BY_NAME.put(name, monitor);
+        return monitor;
+    }
+
+    /**
+     * Tracks a task queue again after {@link #removeTaskQueueMonitor(TaskQueueMonitor)}, replacing a queue registered
+     * under the same name since.
+     */
+    public static void addTaskQueueMonitor(TaskQueueMonitor monitor) {
+        TASK_QUEUES_BY_NAME.put(monitor.getName(), monitor);
+    }
+
+    /**
+     * Stops tracking a task queue, unless another queue has been registered under its name since.
+     */
+    public static void removeTaskQueueMonitor(TaskQueueMonitor monitor) {
+        TASK_QUEUES_BY_NAME.remove(monitor.getName(), monitor);
+    }
+
+    public static List<TaskQueueMonitor> getTaskQueueMonitors() {
+        return Lists.newArrayList(TASK_QUEUES_BY_NAME.values());
+    }
+
     public static void registerForEvents(Object object) {
         Preconditions.checkNotNull(object, "The parameter 'object' must not be null");
         EVENT_BUS.register(object);
@@ -16,6 +16,7 @@
 package org.terasology.monitoring.chunk;
 
 import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.primitives.DirectVertexElements;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -35,9 +36,15 @@ public ChunkMeshInfo(ChunkMesh mesh) {
 
         if (!mesh.isGenerated()) {
             for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
-                final ChunkMesh.VertexElements element = mesh.getVertexElements(type);
-                vertices += element.finalVertices.limit();
-                indices += element.finalIndices.limit();
+                final DirectVertexElements directElement = mesh.getDirectVertexElements(type);
+                if (directElement != null) {
+                    vertices += directElement.getVertexCount() * DirectVertexElements.INTS_PER_VERTEX;
+                    indices += directElement.getIndexCount();
+                } else {
+                    final ChunkMesh.VertexElements element = mesh.getVertexElements(type);
+                    vertices += element.finalVertices.limit();
+                    indices += element.finalIndices.limit();
+                }
             }
         }
 
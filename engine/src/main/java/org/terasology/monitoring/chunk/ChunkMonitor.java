@@ -25,11 +25,15 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ChunkMonitor {
 
     private static final EventBus EVENT_BUS = new EventBus("ChunkMonitor");
     private static final Map<Vector3i, ChunkMonitorEntry> CHUNKS = Maps.newConcurrentMap();
+    private static final AtomicLong PREFETCH_HITS = new AtomicLong();
+    private static final AtomicLong PREFETCH_MISSES = new AtomicLong();
+    private static final AtomicLong PREFETCHES_DROPPED = new AtomicLong();
 
     private ChunkMonitor() {
     }
@@ -61,6 +65,9 @@ public static void fireChunkProviderInitialized(ChunkProvider provider) {
 
     public static void fireChunkProviderDisposed(ChunkProvider provider) {
         CHUNKS.clear();
+        PREFETCH_HITS.set(0);
+        PREFETCH_MISSES.set(0);
+        PREFETCHES_DROPPED.set(0);
         post(new ChunkMonitorEvent.ChunkProviderDisposed(provider));
     }
 
@@ -96,4 +103,37 @@ public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
     }
+
+    /**
+     * Counts a chunk whose store had been prefetched, or was being prefetched, when the chunk was loaded.
+     */
+    public static void recordPrefetchHit() {
+        PREFETCH_HITS.incrementAndGet();
+    }
+
+    /**
+     * Counts a chunk whose store had to be read from the storage when the chunk was loaded.
+     */
+    public static void recordPrefetchMiss() {
+        PREFETCH_MISSES.incrementAndGet();
+    }
+
+    /**
+     * Counts a prefetched chunk store that was dropped from the prefetch cache before its chunk was loaded.
+     */
+    public static void recordPrefetchDropped() {
+        PREFETCHES_DROPPED.incrementAndGet();
+    }
+
+    public static long getPrefetchHits() {
+        return PREFETCH_HITS.get();
+    }
+
+    public static long getPrefetchMisses() {
+        return PREFETCH_MISSES.get();
+    }
+
+    public static long getPrefetchesDropped() {
+        return PREFETCHES_DROPPED.get();
+    }
 }
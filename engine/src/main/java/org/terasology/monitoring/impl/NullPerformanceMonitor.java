@@ -16,7 +16,9 @@
 package org.terasology.monitoring.impl;
 
 import gnu.trove.map.TObjectDoubleMap;
+import gnu.trove.map.TObjectLongMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
+import gnu.trove.map.hash.TObjectLongHashMap;
 import org.terasology.monitoring.Activity;
 
 /**
@@ -24,6 +26,7 @@
 public class NullPerformanceMonitor implements PerformanceMonitorInternal {
     private static final NullActivity NULL_ACTIVITY = new NullActivity();
     private TObjectDoubleMap<String> metrics = new TObjectDoubleHashMap<>();
+    private TObjectLongMap<String> counters = new TObjectLongHashMap<>();
 
     @Override
     public void rollCycle() {
@@ -53,4 +56,13 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public void incrementCounter(String counterName, long amount) {
+    }
+
+    @Override
+    public TObjectLongMap<String> getCounters() {
+        return counters;
+    }
+
 }
@@ -16,6 +16,7 @@
 package org.terasology.monitoring.impl;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.TObjectLongMap;
@@ -30,6 +31,9 @@
 
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Active implementation of Performance Monitor
@@ -57,6 +61,7 @@ public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private final TObjectLongMap<String> runningExecutionTotals;
     private final TObjectLongMap<String> runningAllocationTotals;
     private final TObjectDoubleMap<String> spikeData;
+    private final ConcurrentMap<String, AtomicLong> counters;
 
     private final TObjectDoubleProcedure<String> decayLargestExecutionTime;
     private final TObjectLongProcedure<String> updateExecutionTimeTotalAndSpikeData;
@@ -79,6 +84,7 @@ public PerformanceMonitorImpl() {
         runningExecutionTotals = new TObjectLongHashMap<>();
         runningAllocationTotals = new TObjectLongHashMap<>();
         spikeData = new TObjectDoubleHashMap<>();
+        counters = Maps.newConcurrentMap();
 
         decayLargestExecutionTime  = new DecayerOfActivityLargestExecutionTime();
         updateExecutionTimeTotalAndSpikeData = new UpdaterOfActivityExecutionTimeTotalAndSpikeData();
@@ -184,6 +190,28 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return activityToMeanMap;
     }
 
+    @Override
+    public void incrementCounter(String counterName, long amount) {
+        AtomicLong counter = counters.get(counterName);
+        if (counter == null) {
+            AtomicLong newCounter = new AtomicLong();
+            counter = counters.putIfAbsent(counterName, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        counter.addAndGet(amount);
+    }
+
+    @Override
+    public TObjectLongMap<String> getCounters() {
+        TObjectLongMap<String> snapshot = new TObjectLongHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return snapshot;
+    }
+
     private class ActivityInfo {
         public String name;
         public long startTime;
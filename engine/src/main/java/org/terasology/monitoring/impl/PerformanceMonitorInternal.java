@@ -16,6 +16,7 @@
 package org.terasology.monitoring.impl;
 
 import gnu.trove.map.TObjectDoubleMap;
+import gnu.trove.map.TObjectLongMap;
 import org.terasology.monitoring.Activity;
 
 /**
@@ -34,4 +35,8 @@ public interface PerformanceMonitorInternal {
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    void incrementCounter(String counterName, long amount);
+
+    TObjectLongMap<String> getCounters();
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.WorldChangeListener;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.propagation.BlockChange;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the encoded form of the chunks recently sent to clients, so that a chunk only gets serialized once no matter
+ * how many clients it is sent to.
+ * <br><br>
+ * An entry is dropped as soon as a block or extra data of its chunk changes, or when the chunk at its position got
+ * replaced by another instance (e.g. after being unloaded and loaded again). The least recently used entries are
+ * dropped once the cache is full.
+ */
+class ChunkEncodingCache implements WorldChangeListener {
+
+    static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final String HIT_COUNTER = "Network chunk encoding cache hits";
+    private static final String MISS_COUNTER = "Network chunk encoding cache misses";
+    private static final String BYTES_SAVED_COUNTER = "Network chunk encoding cache bytes saved";
+
+    private final Map<Vector3i, Entry> entries;
+    private int modificationCount;
+
+    ChunkEncodingCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    ChunkEncodingCache(int maxEntries) {
+        this.entries = new LinkedHashMap<Vector3i, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Vector3i, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the encoded chunk, taken from the cache if the chunk hasn't changed since it was last encoded.
+     */
+    EntityData.ChunkStore encode(Chunk chunk) {
+        Vector3i pos = chunk.getPosition();
+        int expectedModificationCount;
+        synchronized (this) {
+            Entry entry = entries.get(pos);
+            if (entry != null && entry.chunk == chunk) {
+                PerformanceMonitor.incrementCounter(HIT_COUNTER, 1);
+                PerformanceMonitor.incrementCounter(BYTES_SAVED_COUNTER, entry.encoded.getSerializedSize());
+                return entry.encoded;
+            }
+            expectedModificationCount = modificationCount;
+        }
+        PerformanceMonitor.incrementCounter(MISS_COUNTER, 1);
+        EntityData.ChunkStore encoded = chunk.encode().build();
+        synchronized (this) {
+            // a change during the encoding may or may not be part of the result, so it must not be reused
+            if (expectedModificationCount == modificationCount) {
+                entries.put(new Vector3i(pos), new Entry(chunk, encoded));
+            }
+        }
+        return encoded;
+    }
+
+    synchronized void invalidate(Vector3i chunkPos) {
+        modificationCount++;
+        entries.remove(chunkPos);
+    }
+
+    synchronized void clear() {
+        modificationCount++;
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
+        invalidate(ChunkMath.calcChunkPos(pos));
+    }
+
+    @Override
+    public void onBlocksChanged(Vector3i chunkPos, List<BlockChange> changes) {
+        invalidate(chunkPos);
+    }
+
+    @Override
+    public void onExtraDataChanged(int i, Vector3i pos, int newData, int oldData) {
+        invalidate(ChunkMath.calcChunkPos(pos));
+    }
+
+    private static final class Entry {
+        private final Chunk chunk;
+        private final EntityData.ChunkStore encoded;
+
+        Entry(Chunk chunk, EntityData.ChunkStore encoded) {
+            this.chunk = chunk;
+            this.encoded = encoded;
+        }
+    }
+}
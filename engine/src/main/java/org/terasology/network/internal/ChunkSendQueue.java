@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Orders the positions of the chunks waiting to be sent to a client by their distance to the chunk the client is in.
+ * <br><br>
+ * The positions are kept in buckets by their squared distance to the center, so the nearest one is found without
+ * looking at the others. The buckets are only rebuilt when the center moves to another chunk. Positions with the same
+ * distance are returned in the order they were added.
+ */
+public class ChunkSendQueue {
+
+    private final Vector3i center = new Vector3i();
+    private final Map<Vector3i, Integer> distances = Maps.newHashMap();
+    private final TreeMap<Integer, Set<Vector3i>> buckets = new TreeMap<>();
+
+    /**
+     * Adds a position to the queue, keeping its place if it is already queued.
+     */
+    public void add(Vector3i chunkPos) {
+        if (!distances.containsKey(chunkPos)) {
+            Vector3i pos = new Vector3i(chunkPos);
+            int distance = pos.distanceSquared(center);
+            distances.put(pos, distance);
+            buckets.computeIfAbsent(distance, key -> Sets.newLinkedHashSet()).add(pos);
+        }
+    }
+
+    /**
+     * @return whether the position was queued
+     */
+    public boolean remove(Vector3i chunkPos) {
+        Integer distance = distances.remove(chunkPos);
+        if (distance == null) {
+            return false;
+        }
+        Set<Vector3i> bucket = buckets.get(distance);
+        bucket.remove(chunkPos);
+        if (bucket.isEmpty()) {
+            buckets.remove(distance);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the position nearest to the center from the queue.
+     *
+     * @return the nearest position or null if the queue is empty
+     */
+    public Vector3i poll() {
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Integer, Set<Vector3i>> nearest = buckets.firstEntry();
+        Iterator<Vector3i> iterator = nearest.getValue().iterator();
+        Vector3i pos = iterator.next();
+        iterator.remove();
+        if (nearest.getValue().isEmpty()) {
+            buckets.remove(nearest.getKey());
+        }
+        distances.remove(pos);
+        return pos;
+    }
+
+    /**
+     * Sets the chunk position the distances are measured from, re-sorting the queue if it changed.
+     */
+    public void setCenter(Vector3i chunkPos) {
+        if (center.equals(chunkPos)) {
+            return;
+        }
+        center.set(chunkPos);
+        List<Vector3i> queued = Lists.newArrayListWithCapacity(distances.size());
+        buckets.values().forEach(queued::addAll);
+        distances.clear();
+        buckets.clear();
+        for (Vector3i pos : queued) {
+            int distance = pos.distanceSquared(center);
+            distances.put(pos, distance);
+            buckets.computeIfAbsent(distance, key -> Sets.newLinkedHashSet()).add(pos);
+        }
+    }
+
+    public boolean contains(Vector3i chunkPos) {
+        return distances.containsKey(chunkPos);
+    }
+
+    public boolean isEmpty() {
+        return distances.isEmpty();
+    }
+
+    public int size() {
+        return distances.size();
+    }
+
+    public void clear() {
+        distances.clear();
+        buckets.clear();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.network.serialization.ServerComponentFieldCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Shares the serialized updates of dirty entities between the clients during a net tick.
+ * <br><br>
+ * The update of an entity only depends on whether the client owns it and on which of its components were added,
+ * changed or removed since the last tick, so clients that agree on these get the same update, which then only gets
+ * serialized once. The updates of an entity are dropped as soon as one of its components changes again, and all of
+ * them after each net tick.
+ */
+class EntityUpdateBatcher {
+
+    private static final String SERIALIZED_COUNTER = "Network entity updates serialized";
+    private static final String SHARED_COUNTER = "Network entity updates shared";
+
+    private final TIntObjectMap<Map<UpdateKey, Optional<EntityData.PackedEntity>>> updates = new TIntObjectHashMap<>();
+
+    /**
+     * @return the update of the entity or null if there is nothing to send
+     */
+    EntityData.PackedEntity serialize(NetworkEntitySerializer entitySerializer, int netId, EntityRef entity, boolean owned,
+                                      Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                                      Set<Class<? extends Component>> removed) {
+        Map<UpdateKey, Optional<EntityData.PackedEntity>> entityUpdates = updates.get(netId);
+        if (entityUpdates == null) {
+            entityUpdates = Maps.newHashMap();
+            updates.put(netId, entityUpdates);
+        }
+        UpdateKey key = new UpdateKey(owned, added, changed, removed);
+        Optional<EntityData.PackedEntity> update = entityUpdates.get(key);
+        if (update != null) {
+            PerformanceMonitor.incrementCounter(SHARED_COUNTER, 1);
+            return update.orElse(null);
+        }
+        PerformanceMonitor.incrementCounter(SERIALIZED_COUNTER, 1);
+        EntityData.PackedEntity entityData = entitySerializer.serialize(entity, added, changed, removed,
+                new ServerComponentFieldCheck(owned, false));
+        entityUpdates.put(key.copy(), Optional.ofNullable(entityData));
+        return entityData;
+    }
+
+    void invalidate(int netId) {
+        updates.remove(netId);
+    }
+
+    void clear() {
+        updates.clear();
+    }
+
+    private static final class UpdateKey {
+        private final boolean owned;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+
+        UpdateKey(boolean owned, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                  Set<Class<? extends Component>> removed) {
+            this.owned = owned;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+        }
+
+        /**
+         * The sets handed in by the clients get cleared after sending, so a stored key must not refer to them.
+         */
+        UpdateKey copy() {
+            return new UpdateKey(owned, ImmutableSet.copyOf(added), ImmutableSet.copyOf(changed), ImmutableSet.copyOf(removed));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof UpdateKey) {
+                UpdateKey other = (UpdateKey) obj;
+                return owned == other.owned && added.equals(other.added) && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owned, added, changed, removed);
+        }
+    }
+}
@@ -23,6 +23,7 @@
 import org.terasology.network.NetMetricSource;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A generic Netty handler for recording metrics on sent and received bytes and messages.
@@ -36,6 +37,7 @@ public class MetricRecordingHandler extends SimpleChannelHandler implements NetM
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private AtomicLong totalSentBytes = new AtomicLong();
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
@@ -50,6 +52,7 @@ public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exc
         ChannelBuffer buf = (ChannelBuffer) e.getMessage();
         sentMessages.incrementAndGet();
         sentBytes.addAndGet(buf.readableBytes());
+        totalSentBytes.addAndGet(buf.readableBytes());
         ctx.sendDownstream(e);
     }
 
@@ -72,4 +75,14 @@ public int getSentMessagesSinceLastCall() {
     public int getSentBytesSinceLastCall() {
         return sentBytes.getAndSet(0);
     }
+
+    /**
+     * Unlike {@link #getSentBytesSinceLastCall()} this is never reset, so it can be sampled without disturbing the
+     * network metrics.
+     *
+     * @return the number of bytes written to the channel since it has been opened
+     */
+    public long getTotalSentBytes() {
+        return totalSentBytes.get();
+    }
 }
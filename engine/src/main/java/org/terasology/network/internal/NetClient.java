@@ -64,6 +64,7 @@
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.propagation.BlockChange;
 
 import java.math.RoundingMode;
 import java.util.Arrays;
@@ -73,6 +74,7 @@
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A remote client.
@@ -81,6 +83,7 @@
 public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
+    private static final int MIN_COMPRESSION_SAMPLE_BYTES = 4096;
 
     private Time time;
     private NetworkSystemImpl networkSystem;
@@ -105,9 +108,10 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
+    private int chunkSendBudget;
+    private float sentCompressionRatio = 1f;
+    private long sampledSerializedBytes;
+    private long sampledChannelBytes;
 
     private PublicIdentityCertificate identity;
 
@@ -117,7 +121,8 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
+    private Map<Vector3i, Chunk> readyChunks = Maps.newHashMap();
+    private ChunkSendQueue chunkSendQueue = new ChunkSendQueue();
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
 
 
@@ -128,7 +133,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private AtomicInteger receivedMessages = new AtomicInteger();
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
-    private AtomicInteger sentBytes = new AtomicInteger();
+    private AtomicLong sentBytes = new AtomicLong();
     private Color color;
 
     /**
@@ -246,29 +251,44 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
 
     private void sendNewChunks(NetData.NetMessage.Builder message) {
         if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null&& !Float.isNaN(loc.getWorldPosition().x)) {
-                    center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
-                }
-                Vector3i pos = null;
-                int distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    int chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
-                }
+            // the bandwidth is given in kilobits per second
+            int tickBudget = Math.max(1, Math.round(NET_TICK_RATE * networkSystem.getBandwidthPerClient() * 1024 / 8));
+            updateSentCompressionRatio();
+            chunkSendBudget = Math.min(chunkSendBudget + tickBudget, tickBudget);
+            LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+            if (loc != null && !Float.isNaN(loc.getWorldPosition().x)) {
+                chunkSendQueue.setCenter(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
+            }
+            ChunkEncodingCache chunkEncodingCache = networkSystem.getChunkEncodingCache();
+            while (chunkSendBudget > 0 && !chunkSendQueue.isEmpty()) {
+                Vector3i pos = chunkSendQueue.poll();
                 Chunk chunk = readyChunks.remove(pos);
                 relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
+                EntityData.ChunkStore encoded = (chunkEncodingCache != null) ? chunkEncodingCache.encode(chunk) : chunk.encode().build();
+                message.addChunkInfo(encoded);
+                chunkSendBudget -= Math.max(1, Math.round(encoded.getSerializedSize() * sentCompressionRatio));
             }
         } else {
-            chunkSendCounter = 1.0f;
+            chunkSendBudget = 0;
+        }
+    }
+
+    /**
+     * The bandwidth is spent on the compressed messages written to the channel, but only the serialized size of a chunk
+     * is known when adding it to a message. So chunks are charged with their serialized size, scaled by how much the
+     * channel compressed the messages sent since the last sample.
+     */
+    private void updateSentCompressionRatio() {
+        if (!(metricSource instanceof MetricRecordingHandler)) {
+            return;
+        }
+        long serializedBytes = sentBytes.get();
+        long channelBytes = ((MetricRecordingHandler) metricSource).getTotalSentBytes();
+        long sampleSize = serializedBytes - sampledSerializedBytes;
+        if (sampleSize >= MIN_COMPRESSION_SAMPLE_BYTES) {
+            sentCompressionRatio = (float) (channelBytes - sampledChannelBytes) / sampleSize;
+            sampledSerializedBytes = serializedBytes;
+            sampledChannelBytes = channelBytes;
         }
     }
 
@@ -382,11 +402,13 @@ void send(NetData.NetMessage data) {
     public void onChunkRelevant(Vector3i pos, Chunk chunk) {
         invalidatedChunks.remove(pos);
         readyChunks.put(pos, chunk);
+        chunkSendQueue.add(pos);
     }
 
     @Override
     public void onChunkIrrelevant(Vector3i pos) {
         readyChunks.remove(pos);
+        chunkSendQueue.remove(pos);
         invalidatedChunks.add(pos);
     }
 
@@ -401,6 +423,18 @@ public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
         }
     }
 
+    @Override
+    public void onBlocksChanged(Vector3i chunkPos, List<BlockChange> changes) {
+        if (relevantChunks.contains(chunkPos)) {
+            for (BlockChange change : changes) {
+                queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
+                        .setPos(NetMessageUtil.convert(change.getPosition()))
+                        .setNewBlock(change.getTo().getId())
+                        .build());
+            }
+        }
+    }
+
     @Override
     public void onExtraDataChanged(int i, Vector3i pos, int newData, int oldData) {
         Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
@@ -458,8 +492,8 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            EntityData.PackedEntity entityData = networkSystem.getEntityUpdateBatcher().serialize(entitySerializer, netId, entity, isOwner,
+                    addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId));
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
@@ -147,6 +147,8 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
     private StorageManager storageManager;
+    private ChunkEncodingCache chunkEncodingCache;
+    private final EntityUpdateBatcher entityUpdateBatcher = new EntityUpdateBatcher();
 
     // Client only
     private ServerImpl server;
@@ -170,6 +172,12 @@ public void host(int port, boolean dedicatedServer) throws HostingFailedExceptio
                 }
                 generateSerializationTables();
 
+                chunkEncodingCache = new ChunkEncodingCache();
+                WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
+                if (worldProvider != null) {
+                    worldProvider.registerListener(chunkEncodingCache);
+                }
+
                 factory = new NioServerSocketChannelFactory(Executors.newCachedThreadPool(), Executors.newCachedThreadPool());
                 ServerBootstrap bootstrap = new ServerBootstrap(factory);
                 bootstrap.setPipelineFactory(new TerasologyServerPipelineFactory(this));
@@ -261,6 +269,14 @@ public void shutdown() {
         processPendingDisconnects();
         clientList.forEach(this::processRemovedClient);
         server = null;
+        entityUpdateBatcher.clear();
+        if (chunkEncodingCache != null) {
+            WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
+            if (worldProvider != null) {
+                worldProvider.unregisterListener(chunkEncodingCache);
+            }
+            chunkEncodingCache = null;
+        }
         nextNetId = 1;
         netIdToEntityId.clear();
         if (mode != NetworkMode.CLIENT) {
@@ -314,6 +330,9 @@ public void update() {
                 for (Client client : clientList) {
                     client.update(netTick);
                 }
+                if (netTick) {
+                    entityUpdateBatcher.clear();
+                }
                 PerformanceMonitor.endActivity();
                 if (server != null) {
                     server.update(netTick);
@@ -559,6 +578,7 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityUpdateBatcher.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
@@ -576,6 +596,7 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityUpdateBatcher.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
@@ -607,6 +628,7 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
                     if (metadata.isReplicated()) {
+                        entityUpdateBatcher.invalidate(netComp.getNetworkId());
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
                         }
@@ -763,6 +785,14 @@ void removeKickedClient(NetClient client) {
         disconnectedClients.offer(client);
     }
 
+    EntityUpdateBatcher getEntityUpdateBatcher() {
+        return entityUpdateBatcher;
+    }
+
+    ChunkEncodingCache getChunkEncodingCache() {
+        return chunkEncodingCache;
+    }
+
     void registerChannel(Channel channel) {
         allChannels.add(channel);
     }
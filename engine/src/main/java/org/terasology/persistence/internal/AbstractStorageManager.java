@@ -16,13 +16,15 @@
 
 package org.terasology.persistence.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.protobuf.CodedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.OwnershipHelper;
-import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.location.LocationIndex;
 import org.terasology.math.AABB;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.ModuleEnvironment;
@@ -40,8 +42,6 @@
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -57,7 +57,10 @@ public abstract class AbstractStorageManager implements StorageManager {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractStorageManager.class);
 
+    private static final int OPEN_CHUNK_ZIPS = 16;
+
     private final StoragePathProvider storagePathProvider;
+    private final ChunkZipPool chunkZipPool;
     private final BlockManager blockManager;
     private final ExtraBlockDataManager extraDataManager;
 
@@ -65,19 +68,32 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final EngineEntityManager entityManager;
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
+    private final LocationIndex locationIndex;
+
+    private ChunkStoreFormat chunkStoreFormat;
 
-    private boolean storeChunksInZips = true;
+    public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  LocationIndex locationIndex, BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  boolean storeChunksInZips) {
+        this(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager,
+                storeChunksInZips ? ChunkStoreFormat.ZIP : ChunkStoreFormat.FILES);
+    }
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
+                                  LocationIndex locationIndex, BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStoreFormat chunkStoreFormat) {
+        Preconditions.checkArgument(locationIndex.getEntityManager() == entityManager,
+                "The location index must index the entities of the given entity manager");
+        this.locationIndex = locationIndex;
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStoreFormat = chunkStoreFormat;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.extraDataManager = extraDataManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
+        this.chunkZipPool = new ChunkZipPool(storagePathProvider, OPEN_CHUNK_ZIPS);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
     }
 
@@ -109,8 +125,7 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         if (chunkData != null) {
             ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
             try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
-                store = new ChunkStoreInternal(storeData, entityManager, blockManager, extraDataManager);
+                store = new ChunkStoreInternal(CodedInputStream.newInstance(gzipIn), entityManager, blockManager, extraDataManager);
             } catch (IOException e) {
                 logger.error("Failed to read existing saved chunk {}", chunkPos);
             }
@@ -119,20 +134,26 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
     }
 
     protected byte[] loadChunkZip(Vector3i chunkPos) {
-        byte[] chunkData = null;
-        Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-        Path chunkPath = storagePathProvider.getChunkZipPath(chunkZipPos);
-        if (Files.isRegularFile(chunkPath)) {
-            try (FileSystem chunkZip = FileSystems.newFileSystem(chunkPath, null)) {
-                Path targetChunk = chunkZip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                if (Files.isRegularFile(targetChunk)) {
-                    chunkData = Files.readAllBytes(targetChunk);
-                }
+        try {
+            return chunkZipPool.read(chunkPos);
+        } catch (IOException e) {
+            Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
+            logger.error("Failed to load chunk zip {}", storagePathProvider.getChunkZipPath(chunkZipPos), e);
+            return null;
+        }
+    }
+
+    protected byte[] loadChunkRegion(Vector3i chunkPos) {
+        Vector3i chunkRegionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+        Path regionPath = storagePathProvider.getChunkRegionPath(chunkRegionPos);
+        if (Files.isRegularFile(regionPath)) {
+            try {
+                return ChunkRegionFile.read(regionPath, storagePathProvider.getChunkIndexInRegion(chunkPos));
             } catch (IOException e) {
-                logger.error("Failed to load chunk zip {}", chunkPath, e);
+                logger.error("Failed to load chunk {} from region file {}", chunkPos, regionPath, e);
             }
         }
-        return chunkData;
+        return null;
     }
 
     @Override
@@ -140,31 +161,37 @@ public void update() {
     }
 
     public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+        return chunkStoreFormat == ChunkStoreFormat.ZIP;
     }
 
     /**
      * For tests only
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStoreFormat = storeChunksInZips ? ChunkStoreFormat.ZIP : ChunkStoreFormat.FILES;
+    }
+
+    public ChunkStoreFormat getChunkStoreFormat() {
+        return chunkStoreFormat;
     }
 
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
-        if (isStoreChunksInZips()) {
-            return loadChunkZip(chunkPos);
-        } else {
-            Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
-            if (Files.isRegularFile(chunkPath)) {
-                try {
-                    return Files.readAllBytes(chunkPath);
-                } catch (IOException e) {
-                    logger.error("Failed to load chunk {}", chunkPos, e);
+        switch (chunkStoreFormat) {
+            case ZIP:
+                return loadChunkZip(chunkPos);
+            case REGION:
+                return loadChunkRegion(chunkPos);
+            default:
+                Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
+                if (Files.isRegularFile(chunkPath)) {
+                    try {
+                        return Files.readAllBytes(chunkPath);
+                    } catch (IOException e) {
+                        logger.error("Failed to load chunk {}", chunkPos, e);
+                    }
                 }
-            }
+                return null;
         }
-
-        return null;
     }
 
     protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
@@ -184,14 +211,9 @@ protected Collection<EntityRef> getEntitiesOfChunk(Chunk chunk) {
         List<EntityRef> entitiesToStore = Lists.newArrayList();
 
         AABB aabb = chunk.getAABB();
-        for (EntityRef entity : getEntityManager().getEntitiesWith(LocationComponent.class)) {
+        for (EntityRef entity : locationIndex.getEntitiesIn(aabb)) {
             if (!entity.getOwner().exists() && !entity.isAlwaysRelevant() && !entity.hasComponent(ClientComponent.class)) {
-                LocationComponent loc = entity.getComponent(LocationComponent.class);
-                if (loc != null&& !Float.isNaN(loc.getWorldPosition().x)) {
-                    if (aabb.contains(loc.getWorldPosition())) {
-                        entitiesToStore.add(entity);
-                    }
-                }
+                entitiesToStore.add(entity);
             }
         }
         return entitiesToStore;
@@ -217,6 +239,13 @@ protected StoragePathProvider getStoragePathProvider() {
         return storagePathProvider;
     }
 
+    /**
+     * @return the chunk zips kept open for loading chunks, which have to be invalidated before they get replaced
+     */
+    protected ChunkZipPool getChunkZipPool() {
+        return chunkZipPool;
+    }
+
     protected ModuleEnvironment getEnvironment() {
         return environment;
     }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.concurrency.SharedTaskPool;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Encodes and compresses chunks for saving on the {@link SharedTaskPool}, and hands the results to a single writer, one at a
+ * time and in the order the chunks were given in. The writer runs on the calling thread, so the files are written
+ * the same way they would be without the pool.
+ * <br><br>
+ * Only a few chunks per thread are encoded ahead of the writer. If encoding or writing a chunk fails, the chunks not
+ * encoded yet are skipped and the failure is thrown to the caller.
+ */
+public final class ChunkEncodingStage {
+
+    private static final int CHUNKS_AHEAD_PER_THREAD = 4;
+
+    private final TaskMaster<Task> taskMaster;
+    private final int maxChunksAhead;
+
+    public ChunkEncodingStage() {
+        this.taskMaster = TaskMaster.createSharedFIFOTaskMaster("Chunk-Encoding");
+        this.maxChunksAhead = SharedTaskPool.getThreads() * CHUNKS_AHEAD_PER_THREAD;
+    }
+
+    /**
+     * Encodes all given chunks and writes them with the given writer, in the iteration order of the map.
+     *
+     * @throws IOException if the writer fails or the calling thread gets interrupted
+     */
+    public void encodeAndWrite(Map<Vector3i, CompressedChunkBuilder> chunks, ChunkWriter writer) throws IOException {
+        List<Map.Entry<Vector3i, CompressedChunkBuilder>> entries = Lists.newArrayList(chunks.entrySet());
+        List<CompletableFuture<byte[]>> encodedChunks = Lists.newArrayListWithCapacity(entries.size());
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                while (encodedChunks.size() < entries.size() && encodedChunks.size() <= i + maxChunksAhead) {
+                    CompletableFuture<byte[]> encodedChunk = new CompletableFuture<>();
+                    encodedChunks.add(encodedChunk);
+                    taskMaster.put(new EncodeTask(entries.get(encodedChunks.size() - 1).getValue(), encodedChunk));
+                }
+                writer.write(entries.get(i).getKey(), encodedChunks.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding chunks");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException("Failed to encode chunk", e.getCause());
+        } finally {
+            // lets the threads skip the chunks left after a failure
+            for (CompletableFuture<byte[]> encodedChunk : encodedChunks) {
+                encodedChunk.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Waits for the chunks being encoded and drops the ones not started yet. The threads of the pool keep running.
+     */
+    public void shutdown() {
+        taskMaster.shutdown(new ShutdownTask(), false);
+    }
+
+    /**
+     * Writes an encoded chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkWriter {
+        void write(Vector3i chunkPos, byte[] encodedChunk) throws IOException;
+    }
+
+    private static final class EncodeTask implements Task {
+        private final CompressedChunkBuilder chunkBuilder;
+        private final CompletableFuture<byte[]> encodedChunk;
+
+        EncodeTask(CompressedChunkBuilder chunkBuilder, CompletableFuture<byte[]> encodedChunk) {
+            this.chunkBuilder = chunkBuilder;
+            this.encodedChunk = encodedChunk;
+        }
+
+        @Override
+        public String getName() {
+            return "Encode chunk";
+        }
+
+        @Override
+        public void run() {
+            if (encodedChunk.isDone()) {
+                return;
+            }
+            try {
+                encodedChunk.complete(chunkBuilder.buildEncodedChunk());
+            } catch (RuntimeException | Error e) {
+                encodedChunk.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file storing the compressed chunks of one region (see {@link StoragePathProvider#getChunkRegionPosition}).
+ * <br><br>
+ * The file starts with a table that holds, for every chunk of the region, the first sector and the length in bytes
+ * of the chunk data, a first sector of 0 meaning that the chunk is not stored. The data of each chunk occupies
+ * consecutive sectors after the table.
+ * <br><br>
+ * Changed chunks are always written to free sectors first and only become visible once {@link #commit()} has flushed
+ * them to the disk and updated the table, so an interrupted write leaves every chunk either in its old or its new
+ * version. The sectors of the old versions are reused afterwards.
+ */
+final class ChunkRegionFile implements Closeable {
+    static final int SECTOR_SIZE = 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkRegionFile.class);
+
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+    private static final int TABLE_SIZE = StoragePathProvider.CHUNKS_PER_REGION * ENTRY_SIZE;
+    private static final int TABLE_SECTORS = sectorsFor(TABLE_SIZE);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] firstSectors = new int[StoragePathProvider.CHUNKS_PER_REGION];
+    private final int[] lengths = new int[StoragePathProvider.CHUNKS_PER_REGION];
+    private final BitSet usedSectors = new BitSet();
+    private final TIntObjectMap<int[]> uncommittedEntries = new TIntObjectHashMap<>();
+
+    private ChunkRegionFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        usedSectors.set(0, TABLE_SECTORS);
+        readTable();
+    }
+
+    /**
+     * Opens the region file for writing, creating it if it doesn't exist yet.
+     */
+    static ChunkRegionFile open(Path path) throws IOException {
+        return new ChunkRegionFile(path);
+    }
+
+    /**
+     * Reads a single chunk without loading the table of the region file.
+     *
+     * @param index the index of the chunk, see {@link StoragePathProvider#getChunkIndexInRegion}
+     * @return the compressed chunk or null if the region doesn't contain it or its entry is corrupt
+     */
+    static byte[] read(Path path, int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+            if (!readFully(channel, entry, (long) index * ENTRY_SIZE)) {
+                return null;
+            }
+            entry.flip();
+            int firstSector = entry.getInt();
+            int length = entry.getInt();
+            if (firstSector == 0) {
+                return null;
+            }
+            if (!isValidEntry(firstSector, length, channel.size())) {
+                logger.warn("Ignoring invalid entry {} in chunk region file {}", index, path);
+                return null;
+            }
+            ByteBuffer data = ByteBuffer.allocate(length);
+            if (!readFully(channel, data, (long) firstSector * SECTOR_SIZE)) {
+                logger.warn("Chunk data of entry {} exceeds the end of chunk region file {}", index, path);
+                return null;
+            }
+            return data.array();
+        }
+    }
+
+    /**
+     * Writes the new version of a chunk to free sectors. It replaces the old version once {@link #commit()} or
+     * {@link #close()} gets called.
+     */
+    void write(int index, byte[] data) throws IOException {
+        int firstSector = allocate(sectorsFor(data.length));
+        writeFully(ByteBuffer.wrap(data), (long) firstSector * SECTOR_SIZE);
+
+        int[] replaced = uncommittedEntries.put(index, new int[]{firstSector, data.length});
+        if (replaced != null) {
+            // never referenced by the table, can be reused right away
+            release(replaced[0], replaced[1]);
+        }
+    }
+
+    /**
+     * Flushes the written chunks and then points the table to them.
+     */
+    void commit() throws IOException {
+        if (uncommittedEntries.isEmpty()) {
+            return;
+        }
+        channel.force(true);
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        for (int index : uncommittedEntries.keys()) {
+            int[] newEntry = uncommittedEntries.get(index);
+            entry.clear();
+            entry.putInt(newEntry[0]).putInt(newEntry[1]).flip();
+            writeFully(entry, (long) index * ENTRY_SIZE);
+        }
+        channel.force(false);
+
+        for (int index : uncommittedEntries.keys()) {
+            int[] newEntry = uncommittedEntries.get(index);
+            if (firstSectors[index] != 0) {
+                release(firstSectors[index], lengths[index]);
+            }
+            firstSectors[index] = newEntry[0];
+            lengths[index] = newEntry[1];
+        }
+        uncommittedEntries.clear();
+    }
+
+    /**
+     * Commits all written chunks and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void readTable() throws IOException {
+        ByteBuffer table = ByteBuffer.allocate(TABLE_SIZE);
+        readFully(channel, table, 0);
+        table.flip();
+        long fileSize = channel.size();
+        for (int index = 0; table.remaining() >= ENTRY_SIZE; index++) {
+            int firstSector = table.getInt();
+            int length = table.getInt();
+            if (firstSector == 0) {
+                continue;
+            }
+            if (!isValidEntry(firstSector, length, fileSize)) {
+                logger.warn("Ignoring invalid entry {} in chunk region file {}", index, path);
+                continue;
+            }
+            int sectorCount = sectorsFor(length);
+            int nextUsedSector = usedSectors.nextSetBit(firstSector);
+            if (nextUsedSector != -1 && nextUsedSector < firstSector + sectorCount) {
+                logger.warn("Ignoring entry {} overlapping another chunk in chunk region file {}", index, path);
+                continue;
+            }
+            firstSectors[index] = firstSector;
+            lengths[index] = length;
+            usedSectors.set(firstSector, firstSector + sectorCount);
+        }
+    }
+
+    /**
+     * Checks that the data of an entry starts after the table and within the sectors of the file, and ends within the
+     * file.
+     */
+    private static boolean isValidEntry(int firstSector, int length, long fileSize) {
+        long sectorCount = (fileSize + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        return firstSector >= TABLE_SECTORS && firstSector < sectorCount
+                && length >= 0 && (long) firstSector * SECTOR_SIZE + length <= fileSize;
+    }
+
+    private int allocate(int sectorCount) {
+        int start = usedSectors.nextClearBit(TABLE_SECTORS);
+        while (true) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= sectorCount) {
+                usedSectors.set(start, start + sectorCount);
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+    }
+
+    private void release(int firstSector, int length) {
+        usedSectors.clear(firstSector, firstSector + sectorsFor(length));
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    /**
+     * @return false if the end of the file was reached before the buffer could be filled
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
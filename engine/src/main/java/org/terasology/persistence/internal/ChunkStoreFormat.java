@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+/**
+ * The ways the chunks of a world can be laid out in the save game.
+ */
+public enum ChunkStoreFormat {
+    /**
+     * One file per chunk.
+     */
+    FILES,
+    /**
+     * One zip file per group of chunks, rewritten completely whenever one of its chunks is saved.
+     */
+    ZIP,
+    /**
+     * One {@link ChunkRegionFile} per group of chunks, saved chunks are updated in place.
+     */
+    REGION
+}
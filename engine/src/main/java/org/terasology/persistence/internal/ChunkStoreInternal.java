@@ -15,6 +15,7 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.protobuf.CodedInputStream;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.persistence.ChunkStore;
@@ -24,6 +25,8 @@
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.world.chunks.internal.ChunkSerializer;
 
+import java.io.IOException;
+
 /**
  */
 final class ChunkStoreInternal implements ChunkStore {
@@ -34,13 +37,14 @@ final class ChunkStoreInternal implements ChunkStore {
     private EngineEntityManager entityManager;
     private EntityData.EntityStore entityStore;
 
-    ChunkStoreInternal(EntityData.ChunkStore chunkData, EngineEntityManager entityManager,
-                       BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
-        this.chunkPosition = new Vector3i(chunkData.getX(), chunkData.getY(), chunkData.getZ());
+    ChunkStoreInternal(CodedInputStream chunkData, EngineEntityManager entityManager,
+                       BlockManager blockManager, ExtraBlockDataManager extraDataManager) throws IOException {
         this.entityManager = entityManager;
 
-        this.chunk = ChunkSerializer.decode(chunkData, blockManager, extraDataManager);
-        this.entityStore = chunkData.getStore();
+        EntityData.EntityStore.Builder entityStoreBuilder = EntityData.EntityStore.newBuilder();
+        this.chunk = ChunkSerializer.decode(chunkData, entityStoreBuilder, blockManager, extraDataManager);
+        this.chunkPosition = new Vector3i(chunk.getPosition());
+        this.entityStore = entityStoreBuilder.build();
     }
 
     @Override
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.game.GameManifest;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts the chunks of a save game stored as single files or in chunk zips into region files.
+ * <br><br>
+ * Save games are never migrated implicitly, this has to be run with the path of the save game directory as argument
+ * while the game isn't running. All chunks are copied into the region files before the game manifest records
+ * {@link ChunkStoreFormat#REGION} and the old files get deleted, so an interrupted migration either leaves a save game
+ * that still loads from its old files or one whose leftover files only need to be deleted by running it again.
+ */
+public final class ChunkStoreMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkStoreMigration.class);
+
+    private static final String CHUNK_ZIP_GLOB = "*.chunks.zip";
+
+    private ChunkStoreMigration() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            logger.error("Usage: ChunkStoreMigration <save game directory>");
+            return;
+        }
+        migrateToRegionFiles(Paths.get(args[0]));
+    }
+
+    /**
+     * @return the number of chunks that have been copied into region files
+     * @throws IOException if the save game can't be read or written, or still has unmerged changes of an interrupted
+     *                     save, which can only be merged in the format it has been saved in.
+     */
+    public static int migrateToRegionFiles(Path savePath) throws IOException {
+        StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+        if (Files.exists(storagePathProvider.getUnmergedChangesPath())) {
+            throw new IOException("Save game " + savePath + " has unmerged changes, load it once before migrating it");
+        }
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return 0;
+        }
+        Path gameManifestPath = storagePathProvider.getGameManifestPath();
+        GameManifest gameManifest = Files.isRegularFile(gameManifestPath) ? GameManifest.load(gameManifestPath) : null;
+
+        List<Path> chunkZips = Lists.newArrayList();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(worldPath, CHUNK_ZIP_GLOB)) {
+            files.forEach(chunkZips::add);
+        }
+        List<Path> chunkFiles;
+        try (Stream<Path> files = Files.list(worldPath)) {
+            chunkFiles = files.filter(file -> storagePathProvider.getChunkPosition(file.getFileName().toString()) != null)
+                    .collect(Collectors.toList());
+        }
+
+        int migrated = 0;
+        if (gameManifest != null && gameManifest.getChunkStoreFormat() == ChunkStoreFormat.REGION) {
+            // Leftovers of an interrupted migration, the region files may already hold newer versions of their chunks
+            logger.info("Deleting {} chunk files left over by a previous migration", chunkZips.size() + chunkFiles.size());
+        } else {
+            for (Path chunkZip : chunkZips) {
+                migrated += migrateChunkZip(storagePathProvider, chunkZip);
+            }
+            migrated += migrateChunkFiles(storagePathProvider, chunkFiles);
+            if (gameManifest != null) {
+                gameManifest.setChunkStoreFormat(ChunkStoreFormat.REGION);
+                GameManifest.save(gameManifestPath, gameManifest);
+            }
+            logger.info("Migrated {} chunks into region files", migrated);
+        }
+
+        for (Path chunkZip : chunkZips) {
+            Files.delete(chunkZip);
+        }
+        for (Path chunkFile : chunkFiles) {
+            Files.delete(chunkFile);
+        }
+        return migrated;
+    }
+
+    private static int migrateChunkZip(StoragePathProvider storagePathProvider, Path chunkZip) throws IOException {
+        try (FileSystem zip = FileSystems.newFileSystem(chunkZip, null)) {
+            Map<Vector3i, byte[]> chunks = Maps.newHashMap();
+            for (Path root : zip.getRootDirectories()) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                        Vector3i chunkPos = storagePathProvider.getChunkPosition(file.getFileName().toString());
+                        if (chunkPos != null) {
+                            chunks.put(chunkPos, Files.readAllBytes(file));
+                        } else {
+                            logger.warn("Skipping unknown file {} in chunk zip {}", file, chunkZip);
+                        }
+                    }
+                }
+            }
+            return writeChunks(storagePathProvider, chunks);
+        }
+    }
+
+    private static int migrateChunkFiles(StoragePathProvider storagePathProvider, List<Path> chunkFiles) throws IOException {
+        Map<Vector3i, List<Path>> chunkFilesPerRegion = chunkFiles.stream().collect(Collectors.groupingBy(
+                file -> storagePathProvider.getChunkRegionPosition(storagePathProvider.getChunkPosition(file.getFileName().toString()))));
+        int migrated = 0;
+        for (List<Path> regionChunkFiles : chunkFilesPerRegion.values()) {
+            Map<Vector3i, byte[]> chunks = Maps.newHashMap();
+            for (Path chunkFile : regionChunkFiles) {
+                chunks.put(storagePathProvider.getChunkPosition(chunkFile.getFileName().toString()), Files.readAllBytes(chunkFile));
+            }
+            migrated += writeChunks(storagePathProvider, chunks);
+        }
+        return migrated;
+    }
+
+    private static int writeChunks(StoragePathProvider storagePathProvider, Map<Vector3i, byte[]> chunks) throws IOException {
+        Map<Vector3i, Map<Vector3i, byte[]>> chunksPerRegion = chunks.entrySet().stream().collect(Collectors.groupingBy(
+                entry -> storagePathProvider.getChunkRegionPosition(entry.getKey()),
+                Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        for (Map.Entry<Vector3i, Map<Vector3i, byte[]>> region : chunksPerRegion.entrySet()) {
+            try (ChunkRegionFile regionFile = ChunkRegionFile.open(storagePathProvider.getChunkRegionPath(region.getKey()))) {
+                for (Map.Entry<Vector3i, byte[]> chunk : region.getValue().entrySet()) {
+                    regionFile.write(storagePathProvider.getChunkIndexInRegion(chunk.getKey()), chunk.getValue());
+                }
+            }
+        }
+        return chunks.size();
+    }
+}
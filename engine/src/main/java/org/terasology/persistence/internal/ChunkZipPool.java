@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Keeps the chunk zips chunks were read from last open for reading, so loading the chunks of a zip one after another
+ * doesn't read the directory of the zip again for every chunk. An open zip indexes its entries by name in memory.
+ * <br><br>
+ * At most {@code capacity} zips are kept open, the ones read from longest ago are closed first. Chunks can be read
+ * from several threads at once, and opening a zip doesn't hold up reads from the others; a zip that is closed while
+ * chunks are being read from it stays open until they are done. Zips that get replaced on the disk, like when a save
+ * transaction merges its changes, have to be {@link #invalidate invalidated} first.
+ */
+public final class ChunkZipPool {
+
+    private final StoragePathProvider storagePathProvider;
+    private final int capacity;
+    private final Map<Vector3i, ZipHandle> handles = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidations;
+
+    public ChunkZipPool(StoragePathProvider storagePathProvider, int capacity) {
+        Preconditions.checkArgument(capacity > 0, "The capacity has to be positive but is " + capacity);
+        this.storagePathProvider = storagePathProvider;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the compressed data of the chunk, or null if its zip doesn't exist or doesn't contain it
+     * @throws IOException if the zip can't be read
+     */
+    public byte[] read(Vector3i chunkPos) throws IOException {
+        ZipHandle handle = acquire(storagePathProvider.getChunkZipPosition(chunkPos));
+        if (handle == null) {
+            return null;
+        }
+        try {
+            ZipEntry entry = handle.zip.getEntry(storagePathProvider.getChunkFilename(chunkPos));
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = handle.zip.getInputStream(entry)) {
+                return ByteStreams.toByteArray(in);
+            }
+        } finally {
+            release(handle);
+        }
+    }
+
+    /**
+     * Closes the zip at the given position, if it is open, so that it can be replaced.
+     */
+    public synchronized void invalidate(Vector3i chunkZipPos) throws IOException {
+        invalidations++;
+        ZipHandle handle = handles.remove(chunkZipPos);
+        if (handle != null) {
+            handle.retire();
+        }
+    }
+
+    /**
+     * Closes all open zips.
+     */
+    public synchronized void invalidateAll() throws IOException {
+        invalidations++;
+        for (ZipHandle handle : handles.values()) {
+            handle.retire();
+        }
+        handles.clear();
+    }
+
+    /**
+     * Opens the zip outside of the lock, as that reads its directory from the disk, and caches it unless another thread
+     * got there first or the zips were invalidated meanwhile.
+     * <br><br>
+     * Package-private so tests can keep a zip in use like a read in progress.
+     *
+     * @return the handle of the open zip, to be {@link #release released} after reading, or null if the zip doesn't
+     * exist
+     */
+    ZipHandle acquire(Vector3i chunkZipPos) throws IOException {
+        while (true) {
+            long openedAfter;
+            synchronized (this) {
+                ZipHandle handle = handles.get(chunkZipPos);
+                if (handle != null) {
+                    handle.readers++;
+                    return handle;
+                }
+                openedAfter = invalidations;
+            }
+            Path chunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
+            if (!Files.isRegularFile(chunkZipPath)) {
+                return null;
+            }
+            ZipFile zip = new ZipFile(chunkZipPath.toFile());
+            ZipHandle winner;
+            synchronized (this) {
+                winner = handles.get(chunkZipPos);
+                if (winner == null && openedAfter == invalidations) {
+                    ZipHandle handle = new ZipHandle(zip);
+                    handles.put(new Vector3i(chunkZipPos), handle);
+                    // only counted as read once the eldest are closed, so a failure there leaves the new zip closable
+                    closeEldest();
+                    handle.readers++;
+                    return handle;
+                }
+                if (winner != null) {
+                    winner.readers++;
+                }
+            }
+            zip.close();
+            if (winner != null) {
+                return winner;
+            }
+            // the zip may have been replaced while it was being opened, so it is opened again
+        }
+    }
+
+    /**
+     * Ends a read from a zip returned by {@link #acquire}, closing it if it was retired meanwhile.
+     */
+    synchronized void release(ZipHandle handle) throws IOException {
+        handle.readers--;
+        if (handle.retired && handle.readers == 0) {
+            handle.zip.close();
+        }
+    }
+
+    /**
+     * Package-private so tests can check which zips are kept open.
+     */
+    synchronized boolean isOpen(Vector3i chunkZipPos) {
+        return handles.containsKey(chunkZipPos);
+    }
+
+    private void closeEldest() throws IOException {
+        Iterator<ZipHandle> iterator = handles.values().iterator();
+        while (handles.size() > capacity && iterator.hasNext()) {
+            ZipHandle handle = iterator.next();
+            iterator.remove();
+            handle.retire();
+        }
+    }
+
+    /**
+     * An open zip and the number of chunks being read from it. Guarded by the pool.
+     */
+    static final class ZipHandle {
+        final ZipFile zip;
+        private int readers;
+        private boolean retired;
+
+        ZipHandle(ZipFile zip) {
+            this.zip = zip;
+        }
+
+        void retire() throws IOException {
+            retired = true;
+            if (readers == 0) {
+                zip.close();
+            }
+        }
+    }
+}
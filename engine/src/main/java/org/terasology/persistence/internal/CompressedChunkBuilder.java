@@ -15,6 +15,7 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.protobuf.CodedOutputStream;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.protobuf.EntityData;
@@ -74,31 +75,24 @@ public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chun
 
     public synchronized byte[] buildEncodedChunk() {
         if (result == null) {
-
-            EntityData.ChunkStore.Builder encoded;
-            if (viaSnapshot) {
-                encoded = chunk.encodeAndReleaseSnapshot();
-            } else {
-                encoded = chunk.encode();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+                CodedOutputStream output = CodedOutputStream.newInstance(gzipOut);
+                if (viaSnapshot) {
+                    chunk.encodeAndReleaseSnapshot(entityStore, output);
+                } else {
+                    chunk.encode(entityStore, output);
+                }
+                output.flush();
+            } catch (IOException e) {
+                // as no real IO is involved this should not happen
+                throw new RuntimeException(e);
             }
-            encoded.setStore(entityStore);
-            EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+            result = baos.toByteArray();
         }
         return result;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
-    }
-
     public Set<EntityRef> getStoredEntities() {
         return storedEntities;
     }
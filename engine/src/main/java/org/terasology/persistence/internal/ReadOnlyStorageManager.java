@@ -19,6 +19,7 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.module.ModuleEnvironment;
+import org.terasology.logic.location.LocationIndex;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.world.block.BlockManager;
@@ -35,13 +36,20 @@
 public final class ReadOnlyStorageManager extends AbstractStorageManager {
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
-        this(savePath, environment, entityManager, blockManager, extraDataManager, true);
+                                  LocationIndex locationIndex, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
+        this(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager, true);
     }
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+                                  LocationIndex locationIndex, BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  boolean storeChunksInZips) {
+        super(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager, storeChunksInZips);
+    }
+
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  LocationIndex locationIndex, BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStoreFormat chunkStoreFormat) {
+        super(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager, chunkStoreFormat);
     }
 
     @Override
@@ -36,6 +36,7 @@
 import org.terasology.game.Game;
 import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.location.LocationIndex;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.Module;
@@ -120,25 +121,35 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
      */
     private ComponentLibrary entityRefReplacingComponentLibrary;
 
-    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager, BlockManager blockManager
-            , ExtraBlockDataManager extraDataManager, RecordAndReplaySerializer recordAndReplaySerializer,
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager, LocationIndex locationIndex,
+                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager, RecordAndReplaySerializer recordAndReplaySerializer,
                                    RecordAndReplayUtils recordAndReplayUtils, RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
-        this(savePath, environment, entityManager, blockManager, extraDataManager,
+        this(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager,
             true, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
     }
 
-    ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+    ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager, LocationIndex locationIndex,
                                    BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips,
                                    RecordAndReplaySerializer recordAndReplaySerializer, RecordAndReplayUtils recordAndReplayUtils,
                             RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+        this(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager,
+                storeChunksInZips ? ChunkStoreFormat.ZIP : ChunkStoreFormat.FILES,
+                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+    }
+
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   LocationIndex locationIndex, BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                   ChunkStoreFormat chunkStoreFormat, RecordAndReplaySerializer recordAndReplaySerializer,
+                                   RecordAndReplayUtils recordAndReplayUtils, RecordAndReplayCurrentStatus recordAndReplayCurrentStatus)
+            throws IOException {
+        super(savePath, environment, entityManager, locationIndex, blockManager, extraDataManager, chunkStoreFormat);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
         // TODO Ensure that the component library and the type serializer library are thread save (e.g. immutable)
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
-        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
+        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider(), chunkStoreFormat);
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
@@ -164,6 +175,11 @@ public void finishSavingAndShutdown() {
         }
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        try {
+            getChunkZipPool().invalidateAll();
+        } catch (IOException e) {
+            logger.error("Failed to close chunk zips", e);
+        }
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -264,7 +280,7 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock,
+                entitySetDeltaRecorder, getChunkStoreFormat(), getStoragePathProvider(), getChunkZipPool(), worldDirectoryWriteLock,
                 recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
@@ -374,6 +390,7 @@ private void addGameManifestToSaveTransaction(SaveTransactionBuilder saveTransac
         }
         gameManifest.setRegisteredBlockFamilies(registeredBlockFamilies);
         gameManifest.setBlockIdMap(blockManager.getBlockIdMap());
+        gameManifest.setChunkStoreFormat(getChunkStoreFormat());
         List<WorldInfo> worlds = universeConfig.getWorlds();
         for (WorldInfo worldInfo: worlds) {
             gameManifest.addWorld(worldInfo);
@@ -489,6 +506,7 @@ public boolean isSaving() {
     public void checkAndRepairSaveIfNecessary() throws IOException {
         saveTransactionHelper.cleanupSaveTransactionDirectory();
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
+            getChunkZipPool().invalidateAll();
             saveTransactionHelper.mergeChanges();
         }
     }
@@ -503,6 +521,7 @@ public void deleteWorld() {
         unloadedAndSavingPlayerMap.clear();
 
         try {
+            getChunkZipPool().invalidateAll();
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
         } catch (IOException e) {
             logger.error("Failed to purge chunks", e);
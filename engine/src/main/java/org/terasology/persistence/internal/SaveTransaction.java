@@ -90,11 +90,13 @@ public class SaveTransaction extends AbstractTask {
 
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStoreFormat chunkStoreFormat;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
+    private final ChunkZipPool chunkZipPool;
+    private final Set<Vector3i> writtenChunkZips = new HashSet<>();
 
     //Record and Replay
     private RecordAndReplaySerializer recordAndReplaySerializer;
@@ -106,8 +108,8 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
+                           GameManifest gameManifest, ChunkStoreFormat chunkStoreFormat,
+                           StoragePathProvider storagePathProvider, ChunkZipPool chunkZipPool, Lock worldDirectoryWriteLock,
                            RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
@@ -119,9 +121,10 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.loadedChunks = loadedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStoreFormat = chunkStoreFormat;
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider, chunkStoreFormat);
+        this.chunkZipPool = chunkZipPool;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -402,10 +405,19 @@ private void writeGlobalStore() throws IOException {
     private void writeChunkStores() throws IOException {
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
+        // encoding and compressing the chunks takes most of the time of a save, so it is spread over the shared pool
+        ChunkEncodingStage encodingStage = new ChunkEncodingStage();
+        try {
+            writeChunkStores(encodingStage);
+        } finally {
+            encodingStage.shutdown();
+        }
+    }
+
+    private void writeChunkStores(ChunkEncodingStage encodingStage) throws IOException {
+        if (chunkStoreFormat == ChunkStoreFormat.ZIP) {
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
+            encodingStage.encodeAndWrite(allChunks, (chunkPos, compressedChunk) -> {
                 Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
                 FileSystem zip = newChunkZips.get(chunkZipPos);
                 if (zip == null) {
@@ -415,12 +427,10 @@ private void writeChunkStores() throws IOException {
                     newChunkZips.put(chunkZipPos, zip);
                 }
                 Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
                 try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
                     bos.write(compressedChunk);
                 }
-            }
+            });
             // Copy existing, unmodified content into the zips and close them
             for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
                 Vector3i chunkZipPos = chunkZipEntry.getKey();
@@ -444,16 +454,15 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                 }
                 zip.close();
             }
+            writtenChunkZips.addAll(newChunkZips.keySet());
         } else {
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
+            // region files get updated in place when the changes are merged
+            encodingStage.encodeAndWrite(allChunks, (chunkPos, compressedChunk) -> {
                 Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
                 try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
                     out.write(compressedChunk);
                 }
-            }
+            });
         }
     }
 
@@ -477,6 +486,10 @@ private void saveGameManifest() {
     private void mergeChanges() throws IOException {
         worldDirectoryWriteLock.lock();
         try {
+            // no chunks are read while the lock is held, so the replaced zips get closed right away
+            for (Vector3i chunkZipPos : writtenChunkZips) {
+                chunkZipPool.invalidate(chunkZipPos);
+            }
             saveTransactionHelper.mergeChanges();
         } finally {
             worldDirectoryWriteLock.unlock();
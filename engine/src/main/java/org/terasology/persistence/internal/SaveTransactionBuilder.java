@@ -41,22 +41,25 @@ class SaveTransactionBuilder {
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final ChunkStoreFormat chunkStoreFormat;
     private final StoragePathProvider storagePathProvider;
+    private final ChunkZipPool chunkZipPool;
     private GameManifest gameManifest;
     private RecordAndReplaySerializer recordAndReplaySerializer;
     private RecordAndReplayUtils recordAndReplayUtils;
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
+                           ChunkStoreFormat chunkStoreFormat, StoragePathProvider storagePathProvider,
+                           ChunkZipPool chunkZipPool,
                            Lock worldDirectoryWriteLock, RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStoreFormat = chunkStoreFormat;
         this.storagePathProvider = storagePathProvider;
+        this.chunkZipPool = chunkZipPool;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -86,7 +89,7 @@ void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk) {
 
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
+                unloadedChunks, loadedChunks, gameManifest, chunkStoreFormat, storagePathProvider, chunkZipPool,
                 worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
 
     }
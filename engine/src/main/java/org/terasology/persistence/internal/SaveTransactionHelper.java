@@ -15,18 +15,24 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
 
 import java.io.IOException;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Helper class for methods around {@link SaveTransaction}s that are also needed outside of the save transaction.
@@ -35,9 +41,15 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final ChunkStoreFormat chunkStoreFormat;
 
     public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+        this(storagePathProvider, ChunkStoreFormat.ZIP);
+    }
+
+    public SaveTransactionHelper(StoragePathProvider storagePathProvider, ChunkStoreFormat chunkStoreFormat) {
         this.storagePathProvider = storagePathProvider;
+        this.chunkStoreFormat = chunkStoreFormat;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -67,6 +79,10 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
      * The write lock for the save directory should be acquired before this method gets called.
      */
     public void mergeChanges() throws IOException {
+        if (chunkStoreFormat == ChunkStoreFormat.REGION) {
+            mergeChunksIntoRegionFiles();
+        }
+
         final Path sourceDirectory = storagePathProvider.getUnmergedChangesPath();
         final Path targetDirectory = storagePathProvider.getStoragePathDirectory();
 
@@ -122,4 +138,42 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
             }
         });
     }
+
+    /**
+     * Writes the saved chunks into the region files of the world and removes them from the unmerged changes. As the
+     * chunk files only get removed once the region files have been updated, this can be repeated after an
+     * interruption.
+     */
+    private void mergeChunksIntoRegionFiles() throws IOException {
+        Path unmergedWorldPath = storagePathProvider.getUnmergedWorldPath();
+        if (!Files.isDirectory(unmergedWorldPath)) {
+            return;
+        }
+        Map<Vector3i, List<Path>> chunkFilesPerRegion = Maps.newHashMap();
+        try (DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(unmergedWorldPath)) {
+            for (Path chunkFile : chunkFiles) {
+                Vector3i chunkPos = storagePathProvider.getChunkPosition(chunkFile.getFileName().toString());
+                if (chunkPos != null) {
+                    Vector3i chunkRegionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+                    chunkFilesPerRegion.computeIfAbsent(chunkRegionPos, pos -> Lists.newArrayList()).add(chunkFile);
+                }
+            }
+        }
+        if (chunkFilesPerRegion.isEmpty()) {
+            return;
+        }
+
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        for (Map.Entry<Vector3i, List<Path>> entry : chunkFilesPerRegion.entrySet()) {
+            try (ChunkRegionFile regionFile = ChunkRegionFile.open(storagePathProvider.getChunkRegionPath(entry.getKey()))) {
+                for (Path chunkFile : entry.getValue()) {
+                    Vector3i chunkPos = storagePathProvider.getChunkPosition(chunkFile.getFileName().toString());
+                    regionFile.write(storagePathProvider.getChunkIndexInRegion(chunkPos), Files.readAllBytes(chunkFile));
+                }
+            }
+            for (Path chunkFile : entry.getValue()) {
+                Files.delete(chunkFile);
+            }
+        }
+    }
 }
@@ -19,7 +19,12 @@
 import org.terasology.game.GameManifest;
 import org.terasology.math.geom.Vector3i;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  */
@@ -31,7 +36,17 @@ public class StoragePathProvider {
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
+    private static final String CHUNK_REGION_EXTENSION = ".region";
+    private static final String CHUNK_ZIP_GLOB = "*.chunks.zip";
+    private static final String CHUNK_FILE_GLOB = "*.chunk";
+    private static final String CHUNK_REGION_GLOB = "*" + CHUNK_REGION_EXTENSION;
     private static final int CHUNK_ZIP_DIM = 32;
+    private static final Pattern CHUNK_FILENAME_PATTERN = Pattern.compile("(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.chunk");
+
+    /**
+     * The number of chunks stored in a single region file.
+     */
+    static final int CHUNKS_PER_REGION = CHUNK_ZIP_DIM * CHUNK_ZIP_DIM * CHUNK_ZIP_DIM;
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -97,6 +112,17 @@ public Path getChunkZipTempPath(Vector3i chunkZipPos) {
         return getWorldTempPath().resolve(getChunkZipFilename(chunkZipPos));
     }
 
+    public Path getChunkRegionPath(Vector3i chunkRegionPos) {
+        return worldPath.resolve(getChunkRegionFilename(chunkRegionPos));
+    }
+
+    /**
+     * @return the world directory within the changes of a finished save transaction that still need to be merged.
+     */
+    public Path getUnmergedWorldPath() {
+        return unmergedChangesPath.resolve(WORLDS_PATH).resolve(TerasologyConstants.MAIN_WORLD);
+    }
+
     public Path getGlobalEntityStorePath() {
         return globalEntityStorePath;
     }
@@ -110,10 +136,26 @@ public String getChunkFilename(Vector3i pos) {
     }
 
 
+    /**
+     * @return the position of the chunk stored in the file with the given name, or null if it is no chunk file.
+     */
+    public Vector3i getChunkPosition(String chunkFilename) {
+        Matcher matcher = CHUNK_FILENAME_PATTERN.matcher(chunkFilename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new Vector3i(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)));
+    }
+
     private String getChunkZipFilename(Vector3i pos) {
         return String.format("%d.%d.%d.chunks.zip", pos.x, pos.y, pos.z);
     }
 
+    private String getChunkRegionFilename(Vector3i pos) {
+        return String.format("%d.%d.%d%s", pos.x, pos.y, pos.z, CHUNK_REGION_EXTENSION);
+    }
+
     public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         Vector3i result = new Vector3i(chunkPos);
         result.div(CHUNK_ZIP_DIM);
@@ -129,6 +171,26 @@ public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         return result;
     }
 
+    /**
+     * Region files group chunks in cubes of the same size as the chunk zips, but unlike
+     * {@link #getChunkZipPosition(Vector3i)} rounds down exactly so every region holds the same number of chunks.
+     */
+    public Vector3i getChunkRegionPosition(Vector3i chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x, CHUNK_ZIP_DIM), Math.floorDiv(chunkPos.y, CHUNK_ZIP_DIM),
+                Math.floorDiv(chunkPos.z, CHUNK_ZIP_DIM));
+    }
+
+    /**
+     * @return the index of the chunk within the offset table of its region file.
+     */
+    public int getChunkIndexInRegion(Vector3i chunkPos) {
+        Vector3i regionPos = getChunkRegionPosition(chunkPos);
+        int x = chunkPos.x - regionPos.x * CHUNK_ZIP_DIM;
+        int y = chunkPos.y - regionPos.y * CHUNK_ZIP_DIM;
+        int z = chunkPos.z - regionPos.z * CHUNK_ZIP_DIM;
+        return x + CHUNK_ZIP_DIM * (y + CHUNK_ZIP_DIM * z);
+    }
+
     public Path getChunkPath(Vector3i chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
@@ -138,6 +200,10 @@ public Path getChunkTempPath(Vector3i chunkPos) {
     }
 
 
+    public Path getGameManifestPath() {
+        return storagePathDirectory.resolve(GameManifest.DEFAULT_FILE_NAME);
+    }
+
     public Path getGameManifestTempPath() {
         return unfinishedSaveTransactionPath.resolve(GameManifest.DEFAULT_FILE_NAME);
     }
@@ -153,4 +219,33 @@ public Path getUnmergedChangesPath() {
     public Path getStoragePathDirectory() {
         return storagePathDirectory;
     }
+
+    /**
+     * Determines the format from the chunk files of the world, for save games whose manifest doesn't record it.
+     * Chunk zips and single chunk files take precedence over region files, as those are only left next to region files
+     * by an interrupted {@link ChunkStoreMigration}, which copies them before deleting them.
+     *
+     * @return the format of the stored chunks, or null if no chunks have been stored yet.
+     */
+    public ChunkStoreFormat detectChunkStoreFormat() throws IOException {
+        if (!Files.isDirectory(worldPath)) {
+            return null;
+        }
+        if (containsFiles(CHUNK_ZIP_GLOB)) {
+            return ChunkStoreFormat.ZIP;
+        }
+        if (containsFiles(CHUNK_FILE_GLOB)) {
+            return ChunkStoreFormat.FILES;
+        }
+        if (containsFiles(CHUNK_REGION_GLOB)) {
+            return ChunkStoreFormat.REGION;
+        }
+        return null;
+    }
+
+    private boolean containsFiles(String glob) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(worldPath, glob)) {
+            return files.iterator().hasNext();
+        }
+    }
 }
@@ -78,6 +78,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.chunks.ChunkProvider;
 
 import javax.vecmath.Matrix3f;
 import javax.vecmath.Matrix4f;
@@ -116,6 +117,14 @@ public class BulletPhysics implements PhysicsEngine {
     private List<PhysicsSystem.CollisionPair> collisions = new ArrayList<>();
 
     public BulletPhysics(WorldProvider world) {
+        this(world, null);
+    }
+
+    /**
+     * @param world The world the physics happens in
+     * @param chunkProvider Provides the chunks of the world for the collision lookups of blocks, may be null
+     */
+    public BulletPhysics(WorldProvider world, ChunkProvider chunkProvider) {
         broadphase = new DbvtBroadphase();
         broadphase.getOverlappingPairCache().setInternalGhostPairCallback(new GhostPairCallback());
         CollisionConfiguration defaultCollisionConfiguration = new DefaultCollisionConfiguration();
@@ -125,10 +134,10 @@ public BulletPhysics(WorldProvider world) {
         discreteDynamicsWorld.setGravity(new Vector3f(0f, -15f, 0f));
         blockEntityRegistry = CoreRegistry.get(BlockEntityRegistry.class);
 
-        wrapper = new PhysicsWorldWrapper(world);
+        wrapper = new PhysicsWorldWrapper(world, chunkProvider);
         VoxelWorldShape worldShape = new VoxelWorldShape(wrapper);
 
-        liquidWrapper = new PhysicsLiquidWrapper(world);
+        liquidWrapper = new PhysicsLiquidWrapper(world, chunkProvider);
         VoxelWorldShape liquidShape = new VoxelWorldShape(liquidWrapper);
 
         Matrix3f rot = new Matrix3f();
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.bullet;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+
+/**
+ * Looks up the blocks the physics engine asks for. The voxels of a collision test lie next to each other, so every
+ * thread remembers the last few chunks it read from and only asks the chunk provider when it leaves them.
+ * <br><br>
+ * Without a chunk provider, and for positions whose chunk isn't loaded, the blocks come from the world provider.
+ */
+final class CachedBlockLookup {
+
+    private static final int CACHED_CHUNKS = 4;
+
+    private final WorldProvider world;
+    private final ChunkProvider chunkProvider;
+    private final ThreadLocal<ChunkCache> chunkCaches = ThreadLocal.withInitial(ChunkCache::new);
+
+    CachedBlockLookup(WorldProvider world, ChunkProvider chunkProvider) {
+        this.world = world;
+        this.chunkProvider = chunkProvider;
+    }
+
+    Block getBlock(int x, int y, int z) {
+        if (chunkProvider != null) {
+            Chunk chunk = chunkCaches.get().getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+            if (chunk != null) {
+                return chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
+            }
+        }
+        return world.getBlock(x, y, z);
+    }
+
+    /**
+     * The chunks last read from by one thread, replaced round-robin.
+     */
+    private final class ChunkCache {
+        private final Chunk[] chunks = new Chunk[CACHED_CHUNKS];
+        private final int[] chunkX = new int[CACHED_CHUNKS];
+        private final int[] chunkY = new int[CACHED_CHUNKS];
+        private final int[] chunkZ = new int[CACHED_CHUNKS];
+        private int next;
+
+        Chunk getChunk(int x, int y, int z) {
+            for (int i = 0; i < CACHED_CHUNKS; i++) {
+                Chunk chunk = chunks[i];
+                if (chunk != null && chunkX[i] == x && chunkY[i] == y && chunkZ[i] == z) {
+                    // unloaded chunks are no longer ready, their replacement has to be looked up again
+                    if (chunk.isReady()) {
+                        return chunk;
+                    }
+                    chunks[i] = null;
+                    break;
+                }
+            }
+
+            Chunk chunk = chunkProvider.getChunk(x, y, z);
+            if (chunk != null) {
+                chunks[next] = chunk;
+                chunkX[next] = x;
+                chunkY[next] = y;
+                chunkZ[next] = z;
+                next = (next + 1) % CACHED_CHUNKS;
+            }
+            return chunk;
+        }
+    }
+}
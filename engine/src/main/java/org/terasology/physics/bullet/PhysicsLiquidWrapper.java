@@ -15,49 +15,67 @@
  */
 package org.terasology.physics.bullet;
 
+import com.google.common.collect.Maps;
 import org.terasology.physics.bullet.shapes.BulletCollisionShape;
 import org.terasology.physics.shapes.CollisionShape;
 import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
 import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
 import org.terasology.math.VecMath;
-import org.terasology.math.geom.Vector3f;
-import org.terasology.math.geom.Vector3i;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkProvider;
+
+import java.util.Map;
 
 /**
  */
 public class PhysicsLiquidWrapper implements VoxelPhysicsWorld {
-    private WorldProvider world;
+    private final Map<Block, LiquidVoxelInfo> voxelInfos = Maps.newConcurrentMap();
+    private CachedBlockLookup blocks;
 
     public PhysicsLiquidWrapper(WorldProvider world) {
-        this.world = world;
+        this(world, null);
+    }
+
+    /**
+     * @param chunkProvider Provides the chunks blocks are read from directly, may be null to read them through the world
+     */
+    public PhysicsLiquidWrapper(WorldProvider world, ChunkProvider chunkProvider) {
+        this.blocks = new CachedBlockLookup(world, chunkProvider);
     }
 
     @Override
     public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new LiquidVoxelInfo(block, new Vector3i(x, y, z));
+        Block block = blocks.getBlock(x, y, z);
+        LiquidVoxelInfo info = voxelInfos.get(block);
+        if (info == null) {
+            info = new LiquidVoxelInfo(block);
+            voxelInfos.put(block, info);
+        }
+        return info.isColliding() ? new PositionedVoxelInfo(info, x, y, z) : info;
     }
 
     public void dispose() {
-        world = null;
+        blocks = null;
+        voxelInfos.clear();
     }
 
+    /**
+     * The liquid collision information of a block, without a position. The collision offset is shared and must not be
+     * modified.
+     */
     private static class LiquidVoxelInfo implements VoxelInfo {
 
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
+        private final boolean colliding;
+        private final boolean blocking;
+        private final CollisionShape shape;
+        private final javax.vecmath.Vector3f offset;
 
-         LiquidVoxelInfo(Block block, Vector3i position) {
+         LiquidVoxelInfo(Block block) {
             this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
+            this.offset = block.getCollisionOffset() != null ? VecMath.to(block.getCollisionOffset()) : null;
             this.colliding = block.isLiquid();
             this.blocking = false;
-            this.position = position;
         }
 
         @Override
@@ -67,7 +85,7 @@ public boolean isColliding() {
 
         @Override
         public Object getUserData() {
-            return position;
+            return null;
         }
 
         @Override
@@ -77,7 +95,7 @@ public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
 
         @Override
         public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
+            return offset;
         }
 
         @Override
@@ -16,54 +16,74 @@
 
 package org.terasology.physics.bullet;
 
+import com.google.common.collect.Maps;
 import org.terasology.physics.bullet.shapes.BulletCollisionShape;
 import org.terasology.physics.shapes.CollisionShape;
 import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
 import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
 import org.terasology.math.VecMath;
-import org.terasology.math.geom.Vector3f;
-import org.terasology.math.geom.Vector3i;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkProvider;
+
+import java.util.Map;
 
 /**
  * This class links Terasology's voxel world with the physics engine, providing it with the collision information for each block location.
+ * <br><br>
+ * The collision information of a block is created once and shared by all its locations. Only colliding locations get
+ * a small wrapper on top, holding their position.
  *
  */
 public class PhysicsWorldWrapper implements VoxelPhysicsWorld {
 
-    private WorldProvider world;
+    private final Map<Block, TeraVoxelInfo> voxelInfos = Maps.newConcurrentMap();
+    private CachedBlockLookup blocks;
 
     public PhysicsWorldWrapper(WorldProvider world) {
-        this.world = world;
+        this(world, null);
+    }
+
+    /**
+     * @param chunkProvider Provides the chunks blocks are read from directly, may be null to read them through the world
+     */
+    public PhysicsWorldWrapper(WorldProvider world, ChunkProvider chunkProvider) {
+        this.blocks = new CachedBlockLookup(world, chunkProvider);
     }
 
     @Override
     public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new TeraVoxelInfo(block, block.isTargetable(), !block.isPenetrable(), new Vector3i(x, y, z));
+        Block block = blocks.getBlock(x, y, z);
+        TeraVoxelInfo info = voxelInfos.get(block);
+        if (info == null) {
+            info = new TeraVoxelInfo(block, block.isTargetable(), !block.isPenetrable());
+            voxelInfos.put(block, info);
+        }
+        return info.isColliding() ? new PositionedVoxelInfo(info, x, y, z) : info;
     }
 
     public void dispose() {
-        world = null;
+        blocks = null;
+        voxelInfos.clear();
     }
 
+    /**
+     * The collision information of a block, without a position. The collision offset is shared and must not be modified.
+     */
     private static class TeraVoxelInfo implements VoxelInfo {
 
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
-        private float friction;
-        private float restitution;
+        private final boolean colliding;
+        private final boolean blocking;
+        private final CollisionShape shape;
+        private final javax.vecmath.Vector3f offset;
+        private final float friction;
+        private final float restitution;
 
-         TeraVoxelInfo(Block block, boolean colliding, boolean blocking, Vector3i position) {
+         TeraVoxelInfo(Block block, boolean colliding, boolean blocking) {
             this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
+            this.offset = block.getCollisionOffset() != null ? VecMath.to(block.getCollisionOffset()) : null;
             this.colliding = shape != null && colliding;
             this.blocking = shape != null && blocking;
-            this.position = position;
             this.friction = block.getFriction();
             this.restitution = block.getRestitution();
         }
@@ -75,7 +95,7 @@ public boolean isColliding() {
 
         @Override
         public Object getUserData() {
-            return position;
+            return null;
         }
 
         @Override
@@ -85,7 +105,7 @@ public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
 
         @Override
         public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
+            return offset;
         }
 
         @Override
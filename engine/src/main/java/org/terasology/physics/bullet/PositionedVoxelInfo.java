@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.bullet;
+
+import com.bulletphysics.collision.shapes.CollisionShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * The shared {@link VoxelInfo} of a block, placed at a position. The position is the user data, as ray tests report
+ * the block they hit through it, and is only created when it is asked for.
+ */
+final class PositionedVoxelInfo implements VoxelInfo {
+
+    private final VoxelInfo blockInfo;
+    private final int x;
+    private final int y;
+    private final int z;
+    private Vector3i position;
+
+    PositionedVoxelInfo(VoxelInfo blockInfo, int x, int y, int z) {
+        this.blockInfo = blockInfo;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public boolean isColliding() {
+        return blockInfo.isColliding();
+    }
+
+    @Override
+    public Object getUserData() {
+        if (position == null) {
+            position = new Vector3i(x, y, z);
+        }
+        return position;
+    }
+
+    @Override
+    public CollisionShape getCollisionShape() {
+        return blockInfo.getCollisionShape();
+    }
+
+    @Override
+    public javax.vecmath.Vector3f getCollisionOffset() {
+        return blockInfo.getCollisionOffset();
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return blockInfo.isBlocking();
+    }
+
+    @Override
+    public float getFriction() {
+        return blockInfo.getFriction();
+    }
+
+    @Override
+    public float getRestitution() {
+        return blockInfo.getRestitution();
+    }
+}
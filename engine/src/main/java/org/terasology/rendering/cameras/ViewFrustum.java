@@ -184,6 +184,38 @@ public boolean intersects(AABB aabb) {
         return true;
     }
 
+    /**
+     * Tells whether the given box lies outside of, intersects or lies entirely inside this view frustum. A box is
+     * outside exactly when {@link #intersects(AABB)} returns false for it.
+     * <br><br>
+     * Only the two corners of the box nearest to and farthest from each plane are tested, and no vertices are created,
+     * so this is cheap enough to test many boxes per frame.
+     *
+     * @param viewPosition the position the frustum is relative to, usually the view position of the local player
+     */
+    public Containment classify(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, Vector3f viewPosition) {
+        boolean inside = true;
+        for (int i = 0; i < 6; i++) {
+            float a = planes[i].getA();
+            float b = planes[i].getB();
+            float c = planes[i].getC();
+            float d = planes[i].getD();
+
+            // the corner farthest along the plane normal is in front of the plane if any corner is
+            float farthest = a * ((a > 0 ? maxX : minX) - viewPosition.x) + b * ((b > 0 ? maxY : minY) - viewPosition.y)
+                    + c * ((c > 0 ? maxZ : minZ) - viewPosition.z) + d;
+            if (farthest <= 0) {
+                return Containment.OUTSIDE;
+            }
+            float nearest = a * ((a > 0 ? minX : maxX) - viewPosition.x) + b * ((b > 0 ? minY : maxY) - viewPosition.y)
+                    + c * ((c > 0 ? minZ : maxZ) - viewPosition.z) + d;
+            if (nearest <= 0) {
+                inside = false;
+            }
+        }
+        return inside ? Containment.INSIDE : Containment.INTERSECTING;
+    }
+
     /**
      * Returns true if the given sphere intersects the given AABB.
      */
@@ -195,4 +227,13 @@ public boolean intersects(Vector3f position, float radius) {
         }
         return true;
     }
+
+    /**
+     * Where a box lies relative to a view frustum.
+     */
+    public enum Containment {
+        OUTSIDE,
+        INTERSECTING,
+        INSIDE
+    }
 }
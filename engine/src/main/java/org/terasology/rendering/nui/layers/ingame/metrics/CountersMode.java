@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.rendering.nui.layers.ingame.metrics;
+
+import gnu.trove.map.TObjectDoubleMap;
+import gnu.trove.map.hash.TObjectDoubleHashMap;
+import org.terasology.monitoring.PerformanceMonitor;
+
+/**
+ * Displays the largest counters of the PerformanceMonitor, such as cache hits and misses.
+ */
+final class CountersMode extends TimeMetricsMode {
+
+    CountersMode() {
+        super("\n- Counters -", 20, "");
+    }
+
+    @Override
+    protected TObjectDoubleMap<String> gatherMetrics() {
+        TObjectDoubleMap<String> metrics = new TObjectDoubleHashMap<>();
+        PerformanceMonitor.getCounters().forEachEntry((counter, value) -> {
+            metrics.put(counter, value);
+            return true;
+        });
+        return metrics;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPerformanceManagerMode() {
+        return true;
+    }
+}
@@ -41,7 +41,7 @@ public TimeMetricsMode(String name, int limit) {
 
     public TimeMetricsMode(String name, int limit, String unit) {
         this(name, limit);
-        this.limit = limit;
+        this.unit = unit;
     }
 
     @Override
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.terasology.math.Side;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+
+/**
+ * Tells which faces of a chunk can be seen from each other through the chunk. Two faces are connected if a path of
+ * blocks that don't hide what is behind them leads from one to the other, which a flood fill over those blocks finds.
+ * <br><br>
+ * The connectivity of a chunk is packed into a long: the bit at {@code from.ordinal() * 6 + to.ordinal()} is set if
+ * the {@link Side}s {@code from} and {@code to} are connected. The matrix is symmetric.
+ */
+public final class ChunkFaceConnectivity {
+
+    /**
+     * The connectivity of a chunk every face of which can be seen from every other one, like a chunk of air.
+     */
+    public static final long ALL_CONNECTED = (1L << 36) - 1;
+
+    private static final int SIDES = 6;
+    private static final int VOLUME = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z;
+
+    private static final ThreadLocal<FloodFill> FLOOD_FILLS = ThreadLocal.withInitial(FloodFill::new);
+
+    private ChunkFaceConnectivity() {
+    }
+
+    /**
+     * @param chunkView a view of the chunk, with the blocks of the chunk at its local positions
+     * @return which faces of the chunk are connected
+     */
+    public static long compute(ChunkView chunkView) {
+        return FLOOD_FILLS.get().compute(chunkView);
+    }
+
+    public static boolean isConnected(long connectivity, Side from, Side to) {
+        return (connectivity & (1L << (from.ordinal() * SIDES + to.ordinal()))) != 0;
+    }
+
+    /**
+     * @return whether the block hides everything behind it, so the flood fill doesn't pass through it
+     */
+    private static boolean isOccluding(Block block) {
+        if (block == null || block.getMeshGenerator() == null || block.isTranslucent()) {
+            return false;
+        }
+        for (Side side : Side.values()) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y * ChunkConstants.SIZE_Z + z) * ChunkConstants.SIZE_X + x;
+    }
+
+    /**
+     * The buffers of the flood fills of one thread, as chunks are tessellated on several threads.
+     */
+    private static final class FloodFill {
+        private final long[] filled = new long[VOLUME / Long.SIZE];
+        private final int[] queue = new int[VOLUME];
+
+        long compute(ChunkView chunkView) {
+            Arrays.fill(filled, 0);
+            // occluding blocks count as filled from the start
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                        if (isOccluding(chunkView.getBlock(x, y, z))) {
+                            markFilled(index(x, y, z));
+                        }
+                    }
+                }
+            }
+
+            long connectivity = 0;
+            for (int index = 0; index < VOLUME; index++) {
+                if (!isFilled(index)) {
+                    int faces = fill(index);
+                    for (int from = 0; from < SIDES; from++) {
+                        if ((faces & (1 << from)) != 0) {
+                            connectivity |= (long) faces << (from * SIDES);
+                        }
+                    }
+                    if (connectivity == ALL_CONNECTED) {
+                        break;
+                    }
+                }
+            }
+            return connectivity;
+        }
+
+        /**
+         * Fills the open blocks connected to the given one.
+         *
+         * @return the bits of the ordinals of the faces of the chunk the filled blocks touch
+         */
+        private int fill(int start) {
+            int faces = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            markFilled(start);
+            while (head < tail) {
+                int index = queue[head++];
+                int x = index % ChunkConstants.SIZE_X;
+                int z = (index / ChunkConstants.SIZE_X) % ChunkConstants.SIZE_Z;
+                int y = index / (ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z);
+
+                if (x == 0) {
+                    faces |= 1 << Side.LEFT.ordinal();
+                } else {
+                    tail = enqueue(index(x - 1, y, z), tail);
+                }
+                if (x == ChunkConstants.SIZE_X - 1) {
+                    faces |= 1 << Side.RIGHT.ordinal();
+                } else {
+                    tail = enqueue(index(x + 1, y, z), tail);
+                }
+                if (y == 0) {
+                    faces |= 1 << Side.BOTTOM.ordinal();
+                } else {
+                    tail = enqueue(index(x, y - 1, z), tail);
+                }
+                if (y == ChunkConstants.SIZE_Y - 1) {
+                    faces |= 1 << Side.TOP.ordinal();
+                } else {
+                    tail = enqueue(index(x, y + 1, z), tail);
+                }
+                if (z == 0) {
+                    faces |= 1 << Side.FRONT.ordinal();
+                } else {
+                    tail = enqueue(index(x, y, z - 1), tail);
+                }
+                if (z == ChunkConstants.SIZE_Z - 1) {
+                    faces |= 1 << Side.BACK.ordinal();
+                } else {
+                    tail = enqueue(index(x, y, z + 1), tail);
+                }
+            }
+            return faces;
+        }
+
+        private int enqueue(int index, int tail) {
+            if (isFilled(index)) {
+                return tail;
+            }
+            markFilled(index);
+            queue[tail] = index;
+            return tail + 1;
+        }
+
+        private boolean isFilled(int index) {
+            return (filled[index >>> 6] & (1L << index)) != 0;
+        }
+
+        private void markFilled(int index) {
+            filled[index >>> 6] |= 1L << index;
+        }
+    }
+}
@@ -88,12 +88,12 @@ public enum RenderPhase {
     private static final int SIZE_NORMAL = 3;   // normals are 3-dimensional vectors with u,v,t components
 
     // offset to the beginning of each data field, from the start of the data regarding an individual vertex
-    private static final int OFFSET_VERTEX = 0;
-    private static final int OFFSET_TEX_0 = OFFSET_VERTEX + SIZE_VERTEX * 4;
-    private static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
-    private static final int OFFSET_COLOR = OFFSET_TEX_1 + SIZE_TEX1 * 4;
-    private static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
-    private static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
+    static final int OFFSET_VERTEX = 0;
+    static final int OFFSET_TEX_0 = OFFSET_VERTEX + SIZE_VERTEX * 4;
+    static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
+    static final int OFFSET_COLOR = OFFSET_TEX_1 + SIZE_TEX1 * 4;
+    static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
+    static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
     // the STRIDE, above, is the gap between the beginnings of the data regarding two consecutive vertices
 
     /* VERTEX DATA */
@@ -105,7 +105,8 @@ public enum RenderPhase {
     private int triangleCount = -1;
 
     /* TEMPORARY DATA */
-    private Map<RenderType, VertexElements> vertexElements = Maps.newEnumMap(RenderType.class);
+    private Map<RenderType, VertexElements> vertexElements;
+    private Map<RenderType, DirectVertexElements> directVertexElements;
 
     private boolean disposed;
 
@@ -116,21 +117,69 @@ public enum RenderPhase {
     private int timeToGenerateBlockVertices;
     private int timeToGenerateOptimizedBuffers;
 
+    /* VISIBILITY */
+    private long faceConnectivity = ChunkFaceConnectivity.ALL_CONNECTED;
+
     private GLBufferPool bufferPool;
 
     public ChunkMesh(GLBufferPool bufferPool) {
+        this(bufferPool, null);
+    }
+
+    /**
+     * @param vertexBufferPool if not null, the vertex data is written straight into direct buffers taken from this
+     *                         pool (see {@link DirectVertexElements}) instead of into {@link VertexElements}.
+     */
+    public ChunkMesh(GLBufferPool bufferPool, DirectBufferPool vertexBufferPool) {
         this.bufferPool = bufferPool;
-        for (RenderType type : RenderType.values()) {
-            vertexElements.put(type, new VertexElements());
+        vertexElements = Maps.newEnumMap(RenderType.class);
+        if (vertexBufferPool != null) {
+            directVertexElements = Maps.newEnumMap(RenderType.class);
+            for (RenderType type : RenderType.values()) {
+                directVertexElements.put(type, new DirectVertexElements(vertexBufferPool));
+            }
+        } else {
+            for (RenderType type : RenderType.values()) {
+                vertexElements.put(type, new VertexElements());
+            }
         }
     }
 
+    /**
+     * Block mesh generators should check {@link #getDirectVertexElements(RenderType)} first. For meshes using
+     * {@link DirectVertexElements}, the vertices added here are only appended to those when the mesh is tessellated.
+     *
+     * @return the vertex data of the given render type, or null once the mesh has been generated
+     */
     public VertexElements getVertexElements(RenderType renderType) {
-        return vertexElements.get(renderType);
+        if (vertexElements == null) {
+            return null;
+        }
+        return vertexElements.computeIfAbsent(renderType, type -> new VertexElements());
+    }
+
+    /**
+     * @return the vertex data of the given render type, or null if the mesh uses {@link VertexElements}
+     */
+    public DirectVertexElements getDirectVertexElements(RenderType renderType) {
+        return directVertexElements != null ? directVertexElements.get(renderType) : null;
+    }
+
+    /**
+     * Appends the vertices which block mesh generators not knowing about {@link DirectVertexElements} have added to
+     * {@link #getVertexElements(RenderType)} to the direct vertex data.
+     */
+    void appendVertexElementsToDirect() {
+        if (directVertexElements != null && vertexElements != null) {
+            for (Map.Entry<RenderType, VertexElements> entry : vertexElements.entrySet()) {
+                directVertexElements.get(entry.getKey()).append(entry.getValue());
+            }
+            vertexElements.clear();
+        }
     }
 
     public boolean isGenerated() {
-        return vertexElements == null;
+        return vertexElements == null && directVertexElements == null;
     }
 
     /**
@@ -142,16 +191,21 @@ public boolean generateVBOs() {
         if (lock.tryLock()) {
             try {
                 // IMPORTANT: A mesh can only be generated once.
-                if (vertexElements == null || disposed) {
+                if (isGenerated() || disposed) {
                     return false;
                 }
 
                 for (RenderType type : RenderType.values()) {
-                    generateVBO(type);
+                    if (directVertexElements != null) {
+                        generateDirectVBO(type);
+                    } else {
+                        generateVBO(type);
+                    }
                 }
 
                 // Free unused space on the heap
                 vertexElements = null;
+                releaseDirectVertexElements();
                 // Calculate the final amount of triangles
                 triangleCount = (vertexCount[0] + vertexCount[1] + vertexCount[2] + vertexCount[3]) / 3;
             } finally {
@@ -182,6 +236,30 @@ private void generateVBO(RenderType type) {
 
     }
 
+    private void generateDirectVBO(RenderType type) {
+        DirectVertexElements elements = directVertexElements.get(type);
+        int id = type.getIndex();
+        if (!disposed && elements.getIndexCount() > 0 && elements.getVertexCount() > 0) {
+            vertexBuffers[id] = bufferPool.get("chunkMesh");
+            idxBuffers[id] = bufferPool.get("chunkMesh");
+            vertexCount[id] = elements.getIndexCount();
+
+            VertexBufferObjectUtil.bufferVboElementData(idxBuffers[id], elements.getIndices(), GL15.GL_STATIC_DRAW);
+            VertexBufferObjectUtil.bufferVboData(vertexBuffers[id], elements.getVertices(), GL15.GL_STATIC_DRAW);
+        } else {
+            vertexBuffers[id] = 0;
+            idxBuffers[id] = 0;
+            vertexCount[id] = 0;
+        }
+    }
+
+    private void releaseDirectVertexElements() {
+        if (directVertexElements != null) {
+            directVertexElements.values().forEach(DirectVertexElements::release);
+            directVertexElements = null;
+        }
+    }
+
     private void renderVbo(int id) {
         if (lock.tryLock()) {
             try {
@@ -311,6 +389,7 @@ public void dispose() {
 
                 disposed = true;
                 vertexElements = null;
+                releaseDirectVertexElements();
             }
         } finally {
             lock.unlock();
@@ -360,6 +439,21 @@ public int getTimeToGenerateOptimizedBuffers() {
         return timeToGenerateOptimizedBuffers;
     }
 
+    /**
+     * @param faceConnectivity which faces of the chunk can see each other through it, as computed by
+     *                         {@link ChunkFaceConnectivity#compute}
+     */
+    public void setFaceConnectivity(long faceConnectivity) {
+        this.faceConnectivity = faceConnectivity;
+    }
+
+    /**
+     * @return which faces of the chunk can see each other through it, all of them unless computed
+     */
+    public long getFaceConnectivity() {
+        return faceConnectivity;
+    }
+
     /**
      * Data structure for storing vertex data. Abused like a "struct" in C/C++. Just sad.
      */
@@ -23,9 +23,11 @@
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.RenderMath;
 import org.terasology.world.ChunkView;
 import org.terasology.world.block.Block;
+import org.terasology.world.block.tiles.WorldAtlas;
 import org.terasology.world.chunks.ChunkConstants;
 
 import java.util.concurrent.TimeUnit;
@@ -39,14 +41,38 @@ public final class ChunkTessellator {
     private static int statVertexArrayUpdateCount;
 
     private GLBufferPool bufferPool;
+    private DirectBufferPool vertexBufferPool;
+    private GreedyMeshGenerator greedyMeshGenerator;
 
     public ChunkTessellator(GLBufferPool bufferPool) {
+        this(bufferPool, null);
+    }
+
+    /**
+     * @param vertexBufferPool if not null, the vertex data of the generated meshes is written straight into direct
+     *                         buffers taken from this pool
+     */
+    public ChunkTessellator(GLBufferPool bufferPool, DirectBufferPool vertexBufferPool) {
+        this(bufferPool, vertexBufferPool, false);
+    }
+
+    /**
+     * @param vertexBufferPool if not null, the vertex data of the generated meshes is written straight into direct
+     *                         buffers taken from this pool
+     * @param greedyMeshing    whether the faces of neighbouring full blocks are merged into larger quads, see
+     *                         {@link GreedyMeshGenerator}
+     */
+    public ChunkTessellator(GLBufferPool bufferPool, DirectBufferPool vertexBufferPool, boolean greedyMeshing) {
         this.bufferPool = bufferPool;
+        this.vertexBufferPool = vertexBufferPool;
+        if (greedyMeshing) {
+            greedyMeshGenerator = new GreedyMeshGenerator(CoreRegistry.get(WorldAtlas.class));
+        }
     }
 
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
         PerformanceMonitor.startActivity("GenerateMesh");
-        ChunkMesh mesh = new ChunkMesh(bufferPool);
+        ChunkMesh mesh = new ChunkMesh(bufferPool, vertexBufferPool);
 
         final Stopwatch watch = Stopwatch.createStarted();
 
@@ -54,12 +80,16 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
                     Block block = chunkView.getBlock(x, y, z);
-                    if (block != null && block.getMeshGenerator() != null) {
+                    if (block != null && block.getMeshGenerator() != null
+                            && (greedyMeshGenerator == null || !greedyMeshGenerator.isMergeable(block))) {
                         block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
                     }
                 }
             }
         }
+        if (greedyMeshGenerator != null) {
+            greedyMeshGenerator.generateChunkMesh(chunkView, mesh, verticalOffset, meshHeight);
+        }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
@@ -77,6 +107,12 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
     private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
 
+        if (vertexBufferPool != null) {
+            generateDirectLighting(chunkView, mesh);
+            PerformanceMonitor.endActivity();
+            return;
+        }
+
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
             ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
             // Vertices double to account for light info
@@ -146,7 +182,28 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
+    /**
+     * Fills in the lighting of the vertices written to {@link DirectVertexElements}, which are already in their final
+     * layout otherwise.
+     */
+    private void generateDirectLighting(ChunkView chunkView, ChunkMesh mesh) {
+        mesh.appendVertexElementsToDirect();
+        Vector3f vertexPos = new Vector3f();
+        Vector3f normal = new Vector3f();
+        float[] result = new float[3];
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            DirectVertexElements elements = mesh.getDirectVertexElements(type);
+            for (int i = 0; i < elements.getVertexCount(); i++) {
+                elements.getPosition(i, vertexPos);
+                elements.getNormal(i, normal);
+                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
+                elements.setLight(i, result[0], result[1], result[2]);
+            }
+            elements.finish();
+        }
+    }
+
+    static void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
         PerformanceMonitor.startActivity("calcLighting");
         float[] lights = new float[8];
         float[] blockLights = new float[8];
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.lwjgl.BufferUtils;
+import org.terasology.math.TeraMath;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Recycles direct byte buffers, so that the vertex data of chunk meshes doesn't need freshly allocated native memory
+ * for every mesh.
+ * <br><br>
+ * Buffers are handed out with a capacity rounded up to the next power of two. Released buffers are kept until the
+ * pool holds the given amount of bytes; any further ones are left to the garbage collector.
+ */
+public class DirectBufferPool {
+
+    public static final int DEFAULT_MAX_RETAINED_BYTES = 64 * 1024 * 1024;
+
+    private final long maxRetainedBytes;
+    private final TIntObjectMap<Deque<ByteBuffer>> freeBuffers = new TIntObjectHashMap<>();
+    private long retainedBytes;
+    private long allocatedBytes;
+
+    public DirectBufferPool() {
+        this(DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    public DirectBufferPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * @return a cleared buffer in native byte order with at least the given capacity
+     */
+    public synchronized ByteBuffer acquire(int minCapacity) {
+        int capacity = TeraMath.ceilPowerOfTwo(Math.max(minCapacity, 1));
+        Deque<ByteBuffer> buffers = freeBuffers.get(capacity);
+        if (buffers != null && !buffers.isEmpty()) {
+            retainedBytes -= capacity;
+            ByteBuffer buffer = buffers.pop();
+            buffer.clear();
+            return buffer;
+        }
+        allocatedBytes += capacity;
+        return BufferUtils.createByteBuffer(capacity);
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)} to the pool. The buffer must not be used afterwards.
+     */
+    public synchronized void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (retainedBytes + capacity > maxRetainedBytes) {
+            return;
+        }
+        Deque<ByteBuffer> buffers = freeBuffers.get(capacity);
+        if (buffers == null) {
+            buffers = new ArrayDeque<>();
+            freeBuffers.put(capacity, buffers);
+        }
+        buffers.push(buffer);
+        retainedBytes += capacity;
+    }
+
+    /**
+     * @return a buffer with at least the given capacity holding the content of the given buffer up to its position,
+     * the given buffer having been released to the pool
+     */
+    public ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+        ByteBuffer grown = acquire(minCapacity);
+        buffer.flip();
+        grown.put(buffer);
+        release(buffer);
+        return grown;
+    }
+
+    /**
+     * @return the number of bytes that had to be newly allocated since the pool was created
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import gnu.trove.iterator.TIntIterator;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.rendering.RenderMath;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vertex data of one render type of a chunk mesh, written straight into pooled direct buffers in the interleaved
+ * layout uploaded to the GPU.
+ * <br><br>
+ * This is the alternative to {@link ChunkMesh.VertexElements}, which collects the vertex attributes in separate
+ * lists first and copies them into a direct buffer afterwards. The lighting values of the vertices are left empty
+ * while appending and get filled in by the {@link ChunkTessellator} once all blocks have been added.
+ */
+public class DirectVertexElements {
+
+    public static final int INTS_PER_VERTEX = ChunkMesh.STRIDE / Integer.BYTES;
+
+    private static final int INITIAL_VERTICES = 1024;
+    private static final int OFFSET_LIGHT = ChunkMesh.OFFSET_TEX_1;
+
+    private final DirectBufferPool bufferPool;
+    private ByteBuffer vertices;
+    private ByteBuffer indices;
+    private int vertexCount;
+    private boolean finished;
+
+    DirectVertexElements(DirectBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Makes room for the given number of additional vertices and indices.
+     *
+     * @return the index of the next vertex, to which the indices of the appended vertices are relative
+     */
+    public int reserve(int vertexAmount, int indexAmount) {
+        if (vertices == null) {
+            // most chunks don't use every render type, so the buffers are only taken once needed
+            vertices = bufferPool.acquire(Math.max(INITIAL_VERTICES, vertexAmount) * ChunkMesh.STRIDE);
+            indices = bufferPool.acquire(Math.max(INITIAL_VERTICES * 3 / 2, indexAmount) * Integer.BYTES);
+        }
+        if (vertices.remaining() < vertexAmount * ChunkMesh.STRIDE) {
+            vertices = bufferPool.grow(vertices, vertices.position() + vertexAmount * ChunkMesh.STRIDE);
+        }
+        if (indices.remaining() < indexAmount * Integer.BYTES) {
+            indices = bufferPool.grow(indices, indices.position() + indexAmount * Integer.BYTES);
+        }
+        return vertexCount;
+    }
+
+    /**
+     * Appends a vertex. {@link #reserve(int, int)} must have been called for it beforehand.
+     */
+    public void addVertex(float x, float y, float z, float u, float v, int flags, int frames, int packedColor,
+                          float normalX, float normalY, float normalZ) {
+        vertices.putFloat(x).putFloat(y).putFloat(z);
+        vertices.putFloat(u).putFloat(v).putFloat(flags).putFloat(frames);
+        vertices.putFloat(0).putFloat(0).putFloat(0);
+        vertices.putInt(packedColor);
+        vertices.putFloat(normalX).putFloat(normalY).putFloat(normalZ);
+        vertexCount++;
+    }
+
+    /**
+     * Appends an index. {@link #reserve(int, int)} must have been called for it beforehand.
+     */
+    public void addIndex(int index) {
+        indices.putInt(index);
+    }
+
+    /**
+     * Appends the vertices collected in list based {@link ChunkMesh.VertexElements}.
+     */
+    void append(ChunkMesh.VertexElements elements) {
+        if (elements.vertexCount == 0) {
+            return;
+        }
+        int nextIndex = reserve(elements.vertexCount, elements.indices.size());
+        for (int i = 0; i < elements.vertexCount; i++) {
+            int packedColor = RenderMath.packColor(elements.color.get(i * 4), elements.color.get(i * 4 + 1),
+                    elements.color.get(i * 4 + 2), elements.color.get(i * 4 + 3));
+            addVertex(elements.vertices.get(i * 3), elements.vertices.get(i * 3 + 1), elements.vertices.get(i * 3 + 2),
+                    elements.tex.get(i * 2), elements.tex.get(i * 2 + 1), elements.flags.get(i), elements.frames.get(i),
+                    packedColor, elements.normals.get(i * 3), elements.normals.get(i * 3 + 1), elements.normals.get(i * 3 + 2));
+        }
+        TIntIterator indexIterator = elements.indices.iterator();
+        while (indexIterator.hasNext()) {
+            addIndex(indexIterator.next() + nextIndex);
+        }
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getIndexCount() {
+        if (indices == null) {
+            return 0;
+        }
+        return (finished ? indices.limit() : indices.position()) / Integer.BYTES;
+    }
+
+    void getPosition(int vertex, Vector3f output) {
+        int offset = vertex * ChunkMesh.STRIDE + ChunkMesh.OFFSET_VERTEX;
+        output.set(vertices.getFloat(offset), vertices.getFloat(offset + 4), vertices.getFloat(offset + 8));
+    }
+
+    void getNormal(int vertex, Vector3f output) {
+        int offset = vertex * ChunkMesh.STRIDE + ChunkMesh.OFFSET_NORMAL;
+        output.set(vertices.getFloat(offset), vertices.getFloat(offset + 4), vertices.getFloat(offset + 8));
+    }
+
+    void setLight(int vertex, float sunlight, float blockLight, float ambientOcclusion) {
+        int offset = vertex * ChunkMesh.STRIDE + OFFSET_LIGHT;
+        vertices.putFloat(offset, sunlight).putFloat(offset + 4, blockLight).putFloat(offset + 8, ambientOcclusion);
+    }
+
+    /**
+     * Flips the buffers for uploading. No more vertices can be added afterwards.
+     */
+    void finish() {
+        if (vertices != null && !finished) {
+            vertices.flip();
+            indices.flip();
+        }
+        finished = true;
+    }
+
+    /**
+     * @return the vertex data, from position 0 up to the limit once {@link #finish()} has been called, or null if no
+     * vertex has been added
+     */
+    ByteBuffer getVertices() {
+        return vertices;
+    }
+
+    ByteBuffer getIndices() {
+        return indices;
+    }
+
+    /**
+     * Returns the buffers to the pool. The elements must not be used afterwards.
+     */
+    void release() {
+        if (vertices != null) {
+            bufferPool.release(vertices);
+            bufferPool.release(indices);
+            vertices = null;
+            indices = null;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.RenderMath;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.block.tiles.WorldAtlas;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Map;
+
+/**
+ * Merges the coplanar faces of neighbouring full blocks into larger quads while a chunk mesh is generated.
+ * <br><br>
+ * Only opaque cubes drawn by {@link BlockMeshGeneratorSingleShape} are merged, all other blocks are left to their
+ * mesh generator. Faces are merged if they belong to the same block and are evenly lit with the same light, so the
+ * interpolated lighting of the merged quad is the one of each face. Unevenly lit faces are appended on their own.
+ * <br><br>
+ * A merged quad repeats the texture of its block once per face, which the chunk shader does for vertices with a
+ * negative animation frame count: their texture coordinates are given in tiles and the frame count holds the index of
+ * the tile in the {@link WorldAtlas} as {@code -(index + 1)}.
+ */
+final class GreedyMeshGenerator {
+
+    /**
+     * The border {@link BlockMeshPart#mapTexCoords} leaves around each tile, relative to the tile size.
+     */
+    private static final float BORDER = 1f / 128f;
+    private static final float EPSILON = 1.0e-3f;
+    private static final int WHITE = RenderMath.packColor(1, 1, 1, 1);
+
+    private final float tileSize;
+    private final int tilesPerRow;
+    private final Map<Block, Boolean> mergeableBlocks = Maps.newConcurrentMap();
+
+    GreedyMeshGenerator(WorldAtlas worldAtlas) {
+        this.tileSize = worldAtlas.getRelativeTileSize();
+        this.tilesPerRow = Math.round(1 / tileSize);
+    }
+
+    /**
+     * @return whether the faces of the block are appended by {@link #generateChunkMesh} instead of its mesh generator
+     */
+    boolean isMergeable(Block block) {
+        return mergeableBlocks.computeIfAbsent(block, this::checkMergeable);
+    }
+
+    private boolean checkMergeable(Block block) {
+        // without tiles of a proper size, as in headless mode, the texture of a face can't be repeated
+        if (tileSize <= 0 || !(block.getMeshGenerator() instanceof BlockMeshGeneratorSingleShape) || block.isTranslucent()
+                || block.isLiquid() || block.isIce() || block.isDoubleSided() || block.isWaving()) {
+            return false;
+        }
+        BlockAppearance appearance = block.getPrimaryAppearance();
+        if (appearance.getPart(BlockPart.CENTER) != null) {
+            return false;
+        }
+        for (Side side : Side.getAllSides()) {
+            if (!block.isFullSide(side) || !isUnitFace(appearance.getPart(BlockPart.fromSide(side)), side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A face can be repeated if it is a square covering the side of the block and showing a whole, unanimated tile.
+     */
+    private boolean isUnitFace(BlockMeshPart part, Side side) {
+        if (part == null || part.size() != 4 || part.indicesSize() != 6 || part.getTexFrames() != 1) {
+            return false;
+        }
+        int normalAxis = getNormalAxis(side);
+        float normalOffset = 0.5f * getComponent(side.getVector3i(), normalAxis);
+        int corners = 0;
+        float[] tileTexCoord = new float[2];
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f vertex = part.getVertex(i);
+            if (Math.abs(getComponent(vertex, normalAxis) - normalOffset) > EPSILON
+                    || Math.abs(Math.abs(getComponent(vertex, (normalAxis + 1) % 3)) - 0.5f) > EPSILON
+                    || Math.abs(Math.abs(getComponent(vertex, (normalAxis + 2) % 3)) - 0.5f) > EPSILON) {
+                return false;
+            }
+            corners |= 1 << getCorner(vertex, normalAxis);
+            getTileTexCoord(part, i, tileTexCoord);
+            if (Math.abs(tileTexCoord[0] - Math.round(tileTexCoord[0])) > EPSILON
+                    || Math.abs(tileTexCoord[1] - Math.round(tileTexCoord[1])) > EPSILON) {
+                return false;
+            }
+        }
+        return corners == 0b1111;
+    }
+
+    /**
+     * Appends the faces of the mergeable blocks within the given height of the chunk view.
+     */
+    void generateChunkMesh(ChunkView view, ChunkMesh mesh, int verticalOffset, int meshHeight) {
+        int[] min = {0, verticalOffset, 0};
+        int[] max = {ChunkConstants.SIZE_X, verticalOffset + meshHeight, ChunkConstants.SIZE_Z};
+        int maskSize = Math.max(ChunkConstants.SIZE_X, meshHeight) * Math.max(meshHeight, ChunkConstants.SIZE_Z);
+        Block[] maskBlocks = new Block[maskSize];
+        float[] maskLights = new float[maskSize * 3];
+        int[] pos = new int[3];
+
+        for (Side side : Side.getAllSides()) {
+            int n = getNormalAxis(side);
+            for (pos[n] = min[n]; pos[n] < max[n]; pos[n]++) {
+                fillMask(view, mesh, side, pos, min, max, maskBlocks, maskLights);
+                mergeMask(mesh, side, pos, min, max, maskBlocks, maskLights);
+            }
+        }
+    }
+
+    /**
+     * Collects the visible faces of one slice of the chunk, appending those that can't be merged right away.
+     */
+    private void fillMask(ChunkView view, ChunkMesh mesh, Side side, int[] pos, int[] min, int[] max,
+                          Block[] maskBlocks, float[] maskLights) {
+        int n = getNormalAxis(side);
+        int u = (n + 1) % 3;
+        int v = (n + 2) % 3;
+        int sizeU = max[u] - min[u];
+        Vector3i offset = side.getVector3i();
+        Vector3f vertexPos = new Vector3f();
+        float[] light = new float[3];
+
+        for (pos[v] = min[v]; pos[v] < max[v]; pos[v]++) {
+            for (pos[u] = min[u]; pos[u] < max[u]; pos[u]++) {
+                int cell = (pos[v] - min[v]) * sizeU + pos[u] - min[u];
+                maskBlocks[cell] = null;
+                Block block = view.getBlock(pos[0], pos[1], pos[2]);
+                if (block == null || !isMergeable(block)) {
+                    continue;
+                }
+                Block adjacent = view.getBlock(pos[0] + offset.x, pos[1] + offset.y, pos[2] + offset.z);
+                if (!BlockMeshGeneratorSingleShape.isSideVisibleForBlockTypes(adjacent, block, side)) {
+                    continue;
+                }
+
+                BlockMeshPart part = block.getPrimaryAppearance().getPart(BlockPart.fromSide(side));
+                boolean evenlyLit = true;
+                for (int i = 0; i < part.size() && evenlyLit; i++) {
+                    Vector3f vertex = part.getVertex(i);
+                    vertexPos.set(vertex.x + pos[0], vertex.y + pos[1], vertex.z + pos[2]);
+                    ChunkTessellator.calcLightingValuesForVertexPos(view, vertexPos, light, part.getNormal(i));
+                    if (i == 0) {
+                        System.arraycopy(light, 0, maskLights, cell * 3, 3);
+                    } else {
+                        evenlyLit = light[0] == maskLights[cell * 3] && light[1] == maskLights[cell * 3 + 1]
+                                && light[2] == maskLights[cell * 3 + 2];
+                    }
+                }
+                if (evenlyLit) {
+                    maskBlocks[cell] = block;
+                } else {
+                    part.appendTo(mesh, pos[0], pos[1], pos[2], ChunkMesh.RenderType.OPAQUE, getVertexFlag(block, side));
+                }
+            }
+        }
+    }
+
+    /**
+     * Covers the collected faces of a slice with as few quads as possible, growing each quad first along the u and
+     * then along the v axis.
+     */
+    private void mergeMask(ChunkMesh mesh, Side side, int[] pos, int[] min, int[] max,
+                           Block[] maskBlocks, float[] maskLights) {
+        int n = getNormalAxis(side);
+        int u = (n + 1) % 3;
+        int v = (n + 2) % 3;
+        int sizeU = max[u] - min[u];
+        int sizeV = max[v] - min[v];
+
+        for (int cellV = 0; cellV < sizeV; cellV++) {
+            int cellU = 0;
+            while (cellU < sizeU) {
+                int cell = cellV * sizeU + cellU;
+                if (maskBlocks[cell] == null) {
+                    cellU++;
+                    continue;
+                }
+                int width = 1;
+                while (cellU + width < sizeU && matches(maskBlocks, maskLights, cell, cell + width)) {
+                    width++;
+                }
+                int height = 1;
+                growing:
+                while (cellV + height < sizeV) {
+                    for (int k = 0; k < width; k++) {
+                        if (!matches(maskBlocks, maskLights, cell, cell + height * sizeU + k)) {
+                            break growing;
+                        }
+                    }
+                    height++;
+                }
+
+                pos[u] = min[u] + cellU;
+                pos[v] = min[v] + cellV;
+                appendQuad(mesh, maskBlocks[cell], side, pos, width, height);
+                for (int row = 0; row < height; row++) {
+                    for (int k = 0; k < width; k++) {
+                        maskBlocks[cell + row * sizeU + k] = null;
+                    }
+                }
+                cellU += width;
+            }
+        }
+    }
+
+    private boolean matches(Block[] maskBlocks, float[] maskLights, int cell, int other) {
+        return maskBlocks[other] == maskBlocks[cell] && maskLights[other * 3] == maskLights[cell * 3]
+                && maskLights[other * 3 + 1] == maskLights[cell * 3 + 1] && maskLights[other * 3 + 2] == maskLights[cell * 3 + 2];
+    }
+
+    /**
+     * Appends the face of the block at the given position stretched over width times height faces.
+     */
+    private void appendQuad(ChunkMesh mesh, Block block, Side side, int[] pos, int width, int height) {
+        BlockMeshPart part = block.getPrimaryAppearance().getPart(BlockPart.fromSide(side));
+        int n = getNormalAxis(side);
+        int u = (n + 1) % 3;
+        int v = (n + 2) % 3;
+
+        // the texture coordinates in tiles at the corners of the face, which are whole numbers for a unit face
+        float[][] cornerTexCoords = new float[4][2];
+        for (int i = 0; i < part.size(); i++) {
+            float[] tileTexCoord = cornerTexCoords[getCorner(part.getVertex(i), n)];
+            getTileTexCoord(part, i, tileTexCoord);
+            tileTexCoord[0] = Math.round(tileTexCoord[0]);
+            tileTexCoord[1] = Math.round(tileTexCoord[1]);
+        }
+        // how much the texture coordinates change per face along the u and v axis
+        float stepUx = cornerTexCoords[1][0] - cornerTexCoords[0][0];
+        float stepUy = cornerTexCoords[1][1] - cornerTexCoords[0][1];
+        float stepVx = cornerTexCoords[2][0] - cornerTexCoords[0][0];
+        float stepVy = cornerTexCoords[2][1] - cornerTexCoords[0][1];
+
+        int frames = -(getTileIndex(part) + 1);
+        int flags = getVertexFlag(block, side).getValue();
+        float[] position = new float[3];
+        float[] texCoords = new float[part.size() * 2];
+        float[] positions = new float[part.size() * 3];
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f vertex = part.getVertex(i);
+            int corner = getCorner(vertex, n);
+            int extendU = (corner & 1) != 0 ? width - 1 : 0;
+            int extendV = (corner & 2) != 0 ? height - 1 : 0;
+            position[0] = vertex.x + pos[0];
+            position[1] = vertex.y + pos[1];
+            position[2] = vertex.z + pos[2];
+            position[u] += extendU;
+            position[v] += extendV;
+            System.arraycopy(position, 0, positions, i * 3, 3);
+            texCoords[i * 2] = cornerTexCoords[corner][0] + extendU * stepUx + extendV * stepVx;
+            texCoords[i * 2 + 1] = cornerTexCoords[corner][1] + extendU * stepUy + extendV * stepVy;
+        }
+
+        DirectVertexElements directElements = mesh.getDirectVertexElements(ChunkMesh.RenderType.OPAQUE);
+        if (directElements != null) {
+            int nextIndex = directElements.reserve(part.size(), part.indicesSize());
+            for (int i = 0; i < part.size(); i++) {
+                Vector3f normal = part.getNormal(i);
+                directElements.addVertex(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2],
+                        texCoords[i * 2], texCoords[i * 2 + 1], flags, frames, WHITE, normal.x, normal.y, normal.z);
+            }
+            for (int i = 0; i < part.indicesSize(); i++) {
+                directElements.addIndex(part.getIndex(i) + nextIndex);
+            }
+            return;
+        }
+
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        int nextIndex = elements.vertexCount;
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f normal = part.getNormal(i);
+            elements.tex.add(texCoords[i * 2]);
+            elements.tex.add(texCoords[i * 2 + 1]);
+            elements.color.add(1);
+            elements.color.add(1);
+            elements.color.add(1);
+            elements.color.add(1);
+            elements.vertices.add(positions[i * 3]);
+            elements.vertices.add(positions[i * 3 + 1]);
+            elements.vertices.add(positions[i * 3 + 2]);
+            elements.normals.add(normal.x);
+            elements.normals.add(normal.y);
+            elements.normals.add(normal.z);
+            elements.flags.add(flags);
+            elements.frames.add(frames);
+        }
+        elements.vertexCount += part.size();
+        for (int i = 0; i < part.indicesSize(); i++) {
+            elements.indices.add(part.getIndex(i) + nextIndex);
+        }
+    }
+
+    /**
+     * Same flags as {@link BlockMeshGeneratorSingleShape} uses for the faces of a mergeable block.
+     */
+    private ChunkVertexFlag getVertexFlag(Block block, Side side) {
+        if (block.isGrass() && side != Side.TOP && side != Side.BOTTOM) {
+            return ChunkVertexFlag.COLOR_MASK;
+        }
+        return ChunkVertexFlag.NORMAL;
+    }
+
+    /**
+     * @return the index of the atlas tile the face shows, counted row by row
+     */
+    private int getTileIndex(BlockMeshPart part) {
+        float centerX = 0;
+        float centerY = 0;
+        for (int i = 0; i < part.size(); i++) {
+            centerX += part.getTexCoord(i).x;
+            centerY += part.getTexCoord(i).y;
+        }
+        int column = (int) Math.floor(centerX / part.size() / tileSize);
+        int row = (int) Math.floor(centerY / part.size() / tileSize);
+        return row * tilesPerRow + column;
+    }
+
+    /**
+     * Converts the texture coordinates of a vertex into coordinates relative to its tile, 0 and 1 being the edges of
+     * the area {@link BlockMeshPart#mapTexCoords} maps a face to.
+     */
+    private void getTileTexCoord(BlockMeshPart part, int vertex, float[] output) {
+        int tileIndex = getTileIndex(part);
+        Vector2f texCoord = part.getTexCoord(vertex);
+        output[0] = ((texCoord.x - (tileIndex % tilesPerRow) * tileSize) / tileSize - BORDER) / (1 - 2 * BORDER);
+        output[1] = ((texCoord.y - (tileIndex / tilesPerRow) * tileSize) / tileSize - BORDER) / (1 - 2 * BORDER);
+    }
+
+    /**
+     * @return the corner of the face the vertex is at, bit 0 being set on the far end of the u axis and bit 1 on the
+     * far end of the v axis
+     */
+    private static int getCorner(Vector3f vertex, int normalAxis) {
+        int corner = 0;
+        if (getComponent(vertex, (normalAxis + 1) % 3) > 0) {
+            corner |= 1;
+        }
+        if (getComponent(vertex, (normalAxis + 2) % 3) > 0) {
+            corner |= 2;
+        }
+        return corner;
+    }
+
+    private static int getNormalAxis(Side side) {
+        Vector3i normal = side.getVector3i();
+        if (normal.x != 0) {
+            return 0;
+        }
+        return normal.y != 0 ? 1 : 2;
+    }
+
+    private static float getComponent(Vector3f vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x;
+            case 1:
+                return vector.y;
+            default:
+                return vector.z;
+        }
+    }
+
+    private static int getComponent(Vector3i vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x;
+            case 1:
+                return vector.y;
+            default:
+                return vector.z;
+        }
+    }
+}
@@ -23,6 +23,7 @@
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
 import org.terasology.utilities.concurrency.TaskMaster;
@@ -45,8 +46,6 @@
  *
  */
 public final class ChunkMeshUpdateManager {
-    private static final int NUM_TASK_THREADS = 8;
-
     private static final Logger logger = LoggerFactory.getLogger(ChunkMeshUpdateManager.class);
 
     /* CHUNK UPDATES */
@@ -70,7 +69,7 @@ public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldP
         this.tessellator = tessellator;
         this.worldProvider = worldProvider;
 
-        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterComparator());
+        chunkUpdater = TaskMaster.createSharedDynamicPriorityTaskMaster("Chunk-Updater", new ChunkUpdaterComparator());
     }
 
     /**
@@ -171,6 +170,7 @@ public void run() {
                 c.setDirty(false);
                 if (chunkView.isValidView()) {
                     newMesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+                    newMesh.setFaceConnectivity(ChunkFaceConnectivity.compute(chunkView));
 
                     c.setPendingMesh(newMesh);
                     ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Culls the chunks the camera can't see because they are hidden behind other chunks, like the caves and tunnels
+ * around a player underground. A breadth first traversal goes out from the chunk of the camera, leaving every chunk
+ * only through the faces connected to the face it was entered through (see {@link ChunkFaceConnectivity}). It never
+ * turns back towards the camera, and skips the chunks outside of the view frustum. The chunks it doesn't reach are
+ * culled.
+ * <br><br>
+ * The culling is conservative: chunks without a mesh yet are treated as if all their faces were connected.
+ */
+public final class ChunkOcclusionCuller {
+
+    private static final Side[] SIDES = Side.values();
+    /**
+     * The number of ways to enter a chunk: through one of its faces, or by starting in it.
+     */
+    private static final int ENTRIES = SIDES.length + 1;
+    private static final int CAMERA_ENTRY = SIDES.length;
+
+    private List<? extends RenderableChunk> chunks;
+    private final Vector3i gridMin = new Vector3i();
+    private final Vector3i gridSize = new Vector3i();
+    private int[] ranksByPosition = new int[0];
+
+    private int[] queue = new int[0];
+    private byte[] entryFaces = new byte[0];
+    private byte[] exitFaces = new byte[0];
+    private byte[] directions = new byte[0];
+
+    /**
+     * Indexes the given chunks by their position, replacing the previous ones. Has to be called again whenever the
+     * chunks or their order change.
+     *
+     * @param chunks the chunks, in the order of the visibility passed to {@link #cull}
+     */
+    public void rebuild(List<? extends RenderableChunk> chunks) {
+        this.chunks = chunks;
+        if (chunks.isEmpty()) {
+            gridSize.set(0, 0, 0);
+            return;
+        }
+
+        Vector3i min = new Vector3i(chunks.get(0).getPosition());
+        Vector3i max = new Vector3i(min);
+        for (RenderableChunk chunk : chunks) {
+            min.min(chunk.getPosition());
+            max.max(chunk.getPosition());
+        }
+        gridMin.set(min.x, min.y, min.z);
+        gridSize.set(max.x - min.x + 1, max.y - min.y + 1, max.z - min.z + 1);
+        int volume = gridSize.x * gridSize.y * gridSize.z;
+        if (ranksByPosition.length < volume) {
+            ranksByPosition = new int[volume];
+        }
+        Arrays.fill(ranksByPosition, 0, volume, -1);
+        for (int rank = 0; rank < chunks.size(); rank++) {
+            Vector3i position = chunks.get(rank).getPosition();
+            ranksByPosition[gridIndex(position.x, position.y, position.z)] = rank;
+        }
+
+        if (entryFaces.length < chunks.size()) {
+            queue = new int[chunks.size() * SIDES.length + 1];
+            entryFaces = new byte[chunks.size()];
+            exitFaces = new byte[chunks.size()];
+            directions = new byte[chunks.size() * SIDES.length];
+        }
+    }
+
+    /**
+     * Clears the given visibility bit of the chunks the camera can't see through the other chunks. Does nothing if the
+     * chunk of the camera isn't one of the indexed chunks, as there is nothing to go out from.
+     *
+     * @param cameraChunk   the position of the chunk the camera is in
+     * @param visibility    the visibility of every chunk, indexed by its rank
+     * @param visibilityBit the bit set for the chunks in the view frustum of the camera
+     * @return the number of chunks culled
+     */
+    public int cull(Vector3i cameraChunk, int[] visibility, int visibilityBit) {
+        int start = getRank(cameraChunk.x, cameraChunk.y, cameraChunk.z);
+        if (start < 0) {
+            return 0;
+        }
+
+        int chunkCount = chunks.size();
+        // the faces each chunk was entered and left through, as bits of the ordinals of the sides
+        Arrays.fill(entryFaces, 0, chunkCount, (byte) 0);
+        Arrays.fill(exitFaces, 0, chunkCount, (byte) 0);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start * ENTRIES + CAMERA_ENTRY;
+
+        while (head < tail) {
+            int rank = queue[head] / ENTRIES;
+            int entry = queue[head] % ENTRIES;
+            head++;
+            RenderableChunk chunk = chunks.get(rank);
+            long connectivity = chunk.hasMesh() ? chunk.getMesh().getFaceConnectivity() : ChunkFaceConnectivity.ALL_CONNECTED;
+            // the directions of the steps that led here, through the face entered
+            int pathDirections = entry == CAMERA_ENTRY ? 0 : directions[rank * SIDES.length + entry];
+            Vector3i position = chunk.getPosition();
+
+            for (Side side : SIDES) {
+                int sideBit = 1 << side.ordinal();
+                // left through another entry face before, which reached the neighbor through the same face already
+                if ((exitFaces[rank] & sideBit) != 0) {
+                    continue;
+                }
+                // going back towards the camera can't reveal anything the traversal wouldn't find anyway
+                if ((pathDirections & (1 << side.reverse().ordinal())) != 0) {
+                    continue;
+                }
+                if (entry != CAMERA_ENTRY && !ChunkFaceConnectivity.isConnected(connectivity, SIDES[entry], side)) {
+                    continue;
+                }
+                Vector3i direction = side.getVector3i();
+                int neighbor = getRank(position.x + direction.x, position.y + direction.y, position.z + direction.z);
+                if (neighbor < 0 || neighbor == start || (visibility[neighbor] & visibilityBit) == 0) {
+                    continue;
+                }
+                exitFaces[rank] |= sideBit;
+                int neighborEntry = side.reverse().ordinal();
+                if ((entryFaces[neighbor] & (1 << neighborEntry)) != 0) {
+                    continue;
+                }
+                entryFaces[neighbor] |= 1 << neighborEntry;
+                directions[neighbor * SIDES.length + neighborEntry] = (byte) (pathDirections | sideBit);
+                queue[tail++] = neighbor * ENTRIES + neighborEntry;
+            }
+        }
+
+        int culled = 0;
+        for (int rank = 0; rank < chunkCount; rank++) {
+            if (rank != start && entryFaces[rank] == 0 && (visibility[rank] & visibilityBit) != 0) {
+                visibility[rank] &= ~visibilityBit;
+                culled++;
+            }
+        }
+        return culled;
+    }
+
+    private int getRank(int x, int y, int z) {
+        if (x < gridMin.x || y < gridMin.y || z < gridMin.z
+                || x >= gridMin.x + gridSize.x || y >= gridMin.y + gridSize.y || z >= gridMin.z + gridSize.z) {
+            return -1;
+        }
+        return ranksByPosition[gridIndex(x, y, z)];
+    }
+
+    private int gridIndex(int x, int y, int z) {
+        return ((y - gridMin.y) * gridSize.z + (z - gridMin.z)) * gridSize.x + (x - gridMin.x);
+    }
+}
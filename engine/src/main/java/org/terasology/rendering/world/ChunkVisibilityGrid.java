@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.cameras.ViewFrustum.Containment;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Culls the chunks around the camera against several view frustums at once. The chunks are grouped into cubes of
+ * {@link #GROUP_SIZE} chunks a side, and every group is first tested as a whole against every frustum: the chunks of a
+ * group outside of a frustum or entirely inside of it don't have to be tested on their own. Only the groups crossing the
+ * border of a frustum have their chunks tested one by one.
+ * <br><br>
+ * The chunks keep the order they were given in, their rank in that order is the index of their visibility.
+ */
+public final class ChunkVisibilityGrid {
+
+    /**
+     * The number of chunks along each side of a group.
+     */
+    public static final int GROUP_SIZE = 4;
+
+    private final List<ChunkGroup> groups = Lists.newArrayList();
+    private int chunkCount;
+
+    /**
+     * Groups the given chunks, replacing the previous ones. Has to be called again whenever the chunks or their order
+     * change.
+     *
+     * @param chunks the chunks, in the order their visibility is reported in
+     */
+    public void rebuild(List<? extends RenderableChunk> chunks) {
+        Map<Vector3i, List<Integer>> ranksByGroup = Maps.newLinkedHashMap();
+        for (int rank = 0; rank < chunks.size(); rank++) {
+            Vector3i position = chunks.get(rank).getPosition();
+            Vector3i groupPosition = new Vector3i(Math.floorDiv(position.x, GROUP_SIZE), Math.floorDiv(position.y, GROUP_SIZE),
+                    Math.floorDiv(position.z, GROUP_SIZE));
+            ranksByGroup.computeIfAbsent(groupPosition, key -> Lists.newArrayList()).add(rank);
+        }
+
+        groups.clear();
+        for (List<Integer> ranks : ranksByGroup.values()) {
+            groups.add(new ChunkGroup(chunks, ranks));
+        }
+        chunkCount = chunks.size();
+    }
+
+    /**
+     * @return the number of chunks given to the last {@link #rebuild(List)}
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Culls all chunks against the given frustums. Bit {@code i} of the visibility of a chunk is set if the chunk
+     * intersects the frustum at index {@code i}, the same as {@link ViewFrustum#intersects(AABB)} would tell.
+     *
+     * @param frustums     up to 32 frustums to cull against, null entries are skipped
+     * @param viewPosition the position the frustums are relative to
+     * @param visibility   receives the visibility of every chunk, indexed by its rank; at least
+     *                     {@link #getChunkCount()} long
+     */
+    public void cull(ViewFrustum[] frustums, Vector3f viewPosition, int[] visibility) {
+        for (ChunkGroup group : groups) {
+            int insideMask = 0;
+            int crossingMask = 0;
+            for (int i = 0; i < frustums.length; i++) {
+                if (frustums[i] == null) {
+                    continue;
+                }
+                switch (classify(frustums[i], group.bounds, 0, viewPosition)) {
+                    case INSIDE:
+                        insideMask |= 1 << i;
+                        break;
+                    case INTERSECTING:
+                        crossingMask |= 1 << i;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            for (int chunk = 0; chunk < group.ranks.length; chunk++) {
+                int chunkVisibility = insideMask;
+                for (int i = 0; i < frustums.length; i++) {
+                    if ((crossingMask & (1 << i)) != 0
+                            && classify(frustums[i], group.chunkBounds, chunk * 6, viewPosition) != Containment.OUTSIDE) {
+                        chunkVisibility |= 1 << i;
+                    }
+                }
+                visibility[group.ranks[chunk]] = chunkVisibility;
+            }
+        }
+    }
+
+    private static Containment classify(ViewFrustum frustum, float[] boxes, int offset, Vector3f viewPosition) {
+        return frustum.classify(boxes[offset], boxes[offset + 1], boxes[offset + 2],
+                boxes[offset + 3], boxes[offset + 4], boxes[offset + 5], viewPosition);
+    }
+
+    /**
+     * The chunks of one cube of the grid, with their bounds and the bounds of the whole group.
+     */
+    private static final class ChunkGroup {
+        private final int[] ranks;
+        private final float[] chunkBounds;
+        private final float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE,
+                -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+
+        ChunkGroup(List<? extends RenderableChunk> chunks, List<Integer> chunkRanks) {
+            ranks = new int[chunkRanks.size()];
+            chunkBounds = new float[ranks.length * 6];
+            for (int i = 0; i < ranks.length; i++) {
+                ranks[i] = chunkRanks.get(i);
+                AABB aabb = chunks.get(ranks[i]).getAABB();
+                chunkBounds[i * 6] = aabb.minX();
+                chunkBounds[i * 6 + 1] = aabb.minY();
+                chunkBounds[i * 6 + 2] = aabb.minZ();
+                chunkBounds[i * 6 + 3] = aabb.maxX();
+                chunkBounds[i * 6 + 4] = aabb.maxY();
+                chunkBounds[i * 6 + 5] = aabb.maxZ();
+                for (int axis = 0; axis < 3; axis++) {
+                    bounds[axis] = Math.min(bounds[axis], chunkBounds[i * 6 + axis]);
+                    bounds[axis + 3] = Math.max(bounds[axis + 3], chunkBounds[i * 6 + axis + 3]);
+                }
+            }
+        }
+    }
+}
@@ -21,7 +21,9 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.config.RenderingConfig;
+import org.terasology.logic.players.LocalPlayer;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.ChunkMath;
 import org.terasology.math.JomlUtil;
 import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
@@ -30,8 +32,11 @@
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.cameras.Camera;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.rendering.primitives.DirectBufferPool;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
@@ -56,6 +61,10 @@ class RenderableWorldImpl implements RenderableWorld {
     private static final int MAX_LOADABLE_CHUNKS = ViewDistance.MEGA.getChunkDistance().x * ViewDistance.MEGA.getChunkDistance().y * ViewDistance.MEGA.getChunkDistance().z;
     private static final Vector3f CHUNK_CENTER_OFFSET = new Vector3f(0.5f, 0.5f, 0.5f);
 
+    private static final int PLAYER_FRUSTUM = 0;
+    private static final int SHADOW_FRUSTUM = 1;
+    private static final int REFLECTION_FRUSTUM = 2;
+
     private static final Logger logger = LoggerFactory.getLogger(RenderableWorldImpl.class);
 
     private final int maxChunksForShadows = TeraMath.clamp(CoreRegistry.get(Config.class).getRendering().getMaxChunksUsedForShadowMapping(), 64, 1024);
@@ -66,6 +75,12 @@ class RenderableWorldImpl implements RenderableWorld {
     private ChunkTessellator chunkTessellator;
     private final ChunkMeshUpdateManager chunkMeshUpdateManager;
     private final List<RenderableChunk> chunksInProximityOfCamera = Lists.newArrayListWithCapacity(MAX_LOADABLE_CHUNKS);
+    private final ChunkVisibilityGrid chunkVisibilityGrid = new ChunkVisibilityGrid();
+    private final ChunkOcclusionCuller chunkOcclusionCuller = new ChunkOcclusionCuller();
+    private boolean chunkVisibilityGridOutdated = true;
+    private int[] chunkVisibility = new int[0];
+    private final ViewFrustum[] cullingFrustums = new ViewFrustum[3];
+    private final Vector3f sortingCameraPosition = new Vector3f();
     private Region3i renderableRegion = Region3i.empty();
     private ViewDistance currentViewDistance;
     private RenderQueuesHelper renderQueues;
@@ -79,6 +94,7 @@ class RenderableWorldImpl implements RenderableWorld {
     private int statDirtyChunks;
     private int statVisibleChunks;
     private int statIgnoredPhases;
+    private int statOccludedChunks;
 
 
     RenderableWorldImpl(WorldProvider worldProvider,
@@ -88,7 +104,7 @@ class RenderableWorldImpl implements RenderableWorld {
 
         this.worldProvider = worldProvider;
         this.chunkProvider = chunkProvider;
-        chunkTessellator = new ChunkTessellator(bufferPool);
+        chunkTessellator = new ChunkTessellator(bufferPool, new DirectBufferPool(), renderingConfig.isGreedyMeshing());
         chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
 
         this.playerCamera = playerCamera;
@@ -106,7 +122,9 @@ public void onChunkLoaded(Vector3i chunkCoordinates) {
             Chunk chunk = chunkProvider.getChunk(chunkCoordinates);
             if (chunk != null) {
                 chunksInProximityOfCamera.add(chunk);
+                updateSortingCameraPosition();
                 Collections.sort(chunksInProximityOfCamera, new ChunkFrontToBackComparator());
+                chunkVisibilityGridOutdated = true;
             } else {
                 logger.warn("Warning: onChunkLoaded called for a null chunk!");
             }
@@ -123,6 +141,7 @@ public void onChunkUnloaded(Vector3i chunkCoordinates) {
                 if (chunk.getPosition().equals(chunkCoordinates)) {
                     chunk.disposeMesh();
                     iterator.remove();
+                    chunkVisibilityGridOutdated = true;
                     break;
                 }
             }
@@ -154,6 +173,7 @@ public boolean pregenerateChunks() {
                 chunk.setDirty(false);
 
                 newMesh = chunkTessellator.generateMesh(localView, ChunkConstants.SIZE_Y, 0);
+                newMesh.setFaceConnectivity(ChunkFaceConnectivity.compute(localView));
                 newMesh.generateVBOs();
 
                 if (chunk.hasMesh()) {
@@ -209,6 +229,7 @@ public boolean updateChunksInProximity(Region3i newRenderableRegion) {
                     if (chunk.getPosition().equals(chunkPosition)) {
                         chunk.disposeMesh();
                         nearbyChunks.remove();
+                        chunkVisibilityGridOutdated = true;
                         break;
                     }
                 }
@@ -226,7 +247,9 @@ public boolean updateChunksInProximity(Region3i newRenderableRegion) {
             }
 
             if (chunksHaveBeenAdded) {
+                updateSortingCameraPosition();
                 Collections.sort(chunksInProximityOfCamera, new ChunkFrontToBackComparator());
+                chunkVisibilityGridOutdated = true;
             }
             renderableRegion = newRenderableRegion;
             return true;
@@ -300,17 +323,21 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         statDirtyChunks = 0;
         statVisibleChunks = 0;
         statIgnoredPhases = 0;
+        statOccludedChunks = 0;
 
         int processedChunks = 0;
         int chunkCounter = 0;
         ChunkMesh mesh;
         boolean isDynamicShadows = renderingConfig.isDynamicShadows();
 
+        updateSortingCameraPosition();
+        cullChunks(isDynamicShadows && isFirstRenderingStageForCurrentFrame);
+
         for (RenderableChunk chunk : chunksInProximityOfCamera) {
             if (isChunkValidForRender(chunk)) {
                 mesh = chunk.getMesh();
 
-                if (isDynamicShadows && isFirstRenderingStageForCurrentFrame && chunkCounter < maxChunksForShadows && isChunkVisibleFromMainLight(chunk)) {
+                if (isDynamicShadows && isFirstRenderingStageForCurrentFrame && chunkCounter < maxChunksForShadows && isChunkVisible(chunkCounter, SHADOW_FRUSTUM)) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaqueShadow.add(chunk);
                     } else {
@@ -318,7 +345,7 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                     }
                 }
 
-                if (isChunkVisible(chunk)) {
+                if (isChunkVisible(chunkCounter, PLAYER_FRUSTUM)) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaque.add(chunk);
                     } else {
@@ -346,7 +373,7 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                     }
                 }
 
-                if (isChunkVisibleReflection(chunk)) {
+                if (isChunkVisible(chunkCounter, REFLECTION_FRUSTUM)) {
                     renderQueues.chunksOpaqueReflection.add(chunk);
                 }
 
@@ -385,24 +412,38 @@ private boolean areSurroundingChunksLoaded(RenderableChunk chunk) {
         return worldProvider.getWorldViewAround(chunk.getPosition()) != null;
     }
 
-    private boolean isChunkVisibleFromMainLight(RenderableChunk chunk) {
-        //TODO: need to work out better scheme for shadowMapCamera
-        if (shadowMapCamera == null) {
-            return false;
+    /**
+     * Culls all chunks in proximity of the camera against the frustums of the player camera, its reflection and, if
+     * asked for, the shadow map camera, regrouping the chunks first if they changed since the last time. If enabled,
+     * the chunks hidden from the player camera behind other chunks are culled as well.
+     */
+    private void cullChunks(boolean cullForShadows) {
+        if (chunkVisibilityGridOutdated) {
+            chunkVisibilityGrid.rebuild(chunksInProximityOfCamera);
+            chunkOcclusionCuller.rebuild(chunksInProximityOfCamera);
+            if (chunkVisibility.length < chunksInProximityOfCamera.size()) {
+                chunkVisibility = new int[chunksInProximityOfCamera.size()];
+            }
+            chunkVisibilityGridOutdated = false;
         }
-        return isChunkVisible(shadowMapCamera, chunk); //TODO: find an elegant way
-    }
 
-    private boolean isChunkVisible(RenderableChunk chunk) {
-        return isChunkVisible(playerCamera, chunk);
-    }
+        cullingFrustums[PLAYER_FRUSTUM] = playerCamera.getViewFrustum();
+        //TODO: need to work out better scheme for shadowMapCamera
+        cullingFrustums[SHADOW_FRUSTUM] = cullForShadows && shadowMapCamera != null ? shadowMapCamera.getViewFrustum() : null;
+        cullingFrustums[REFLECTION_FRUSTUM] = playerCamera.getViewFrustumReflected();
+
+        // the same position ViewFrustum.intersects(AABB) culls relative to
+        Vector3f viewPosition = CoreRegistry.get(LocalPlayer.class).getViewPosition();
+        chunkVisibilityGrid.cull(cullingFrustums, viewPosition, chunkVisibility);
 
-    private boolean isChunkVisible(Camera camera, RenderableChunk chunk) {
-        return camera.hasInSight(chunk.getAABB());
+        if (renderingConfig.isOcclusionCulling()) {
+            Vector3i cameraChunk = ChunkMath.calcChunkPos(JomlUtil.from(playerCamera.getPosition()));
+            statOccludedChunks = chunkOcclusionCuller.cull(cameraChunk, chunkVisibility, 1 << PLAYER_FRUSTUM);
+        }
     }
 
-    private boolean isChunkVisibleReflection(RenderableChunk chunk) {
-        return playerCamera.getViewFrustumReflected().intersects(chunk.getAABB());
+    private boolean isChunkVisible(int chunkRank, int frustum) {
+        return (chunkVisibility[chunkRank] & (1 << frustum)) != 0;
     }
 
     @Override
@@ -432,9 +473,21 @@ public String getMetrics() {
         stringToReturn += "Visible Chunks: ";
         stringToReturn += statVisibleChunks;
         stringToReturn += "\n";
+        stringToReturn += "Occluded Chunks: ";
+        stringToReturn += statOccludedChunks;
+        stringToReturn += "\n";
         return stringToReturn;
     }
 
+    /**
+     * The comparators of the chunks read the camera position from here, rather than looking the camera up for every
+     * comparison. The render queues are filled and emptied within a frame, so updating it once per frame is enough.
+     */
+    private void updateSortingCameraPosition() {
+        org.joml.Vector3f cameraPosition = playerCamera.getPosition();
+        sortingCameraPosition.set(cameraPosition.x(), cameraPosition.y(), cameraPosition.z());
+    }
+
     private static float squaredDistanceToCamera(RenderableChunk chunk, Vector3f cameraPosition) {
         // For performance reasons, to avoid instantiating too many vectors in a frequently called method,
         // comments are in use instead of appropriately named vectors.
@@ -450,18 +503,14 @@ private static float squaredDistanceToCamera(RenderableChunk chunk, Vector3f cam
         return result.lengthSquared();
     }
 
-    // TODO: find the right place to check if the activeCamera has changed,
-    // TODO: so that the comparators can hold an up-to-date reference to it
-    // TODO: and avoid having to find it on a per-comparison basis.
-    private static class ChunkFrontToBackComparator implements Comparator<RenderableChunk> {
+    private class ChunkFrontToBackComparator implements Comparator<RenderableChunk> {
 
         @Override
         public int compare(RenderableChunk chunk1, RenderableChunk chunk2) {
             Preconditions.checkNotNull(chunk1);
             Preconditions.checkNotNull(chunk2);
-            Vector3f cameraPosition = JomlUtil.from(CoreRegistry.get(WorldRenderer.class).getActiveCamera().getPosition());
-            double distance1 = squaredDistanceToCamera(chunk1, cameraPosition);
-            double distance2 = squaredDistanceToCamera(chunk2, cameraPosition);
+            double distance1 = squaredDistanceToCamera(chunk1, sortingCameraPosition);
+            double distance2 = squaredDistanceToCamera(chunk2, sortingCameraPosition);
 
             // Using Double.compare as simple d1 < d2 comparison is flagged as problematic by Jenkins
             // On the other hand Double.compare can return any positive/negative value apparently,
@@ -470,15 +519,14 @@ public int compare(RenderableChunk chunk1, RenderableChunk chunk2) {
         }
     }
 
-    private static class ChunkBackToFrontComparator implements Comparator<RenderableChunk> {
+    private class ChunkBackToFrontComparator implements Comparator<RenderableChunk> {
 
         @Override
         public int compare(RenderableChunk chunk1, RenderableChunk chunk2) {
             Preconditions.checkNotNull(chunk1);
             Preconditions.checkNotNull(chunk2);
-            Vector3f cameraPosition = JomlUtil.from(CoreRegistry.get(WorldRenderer.class).getActiveCamera().getPosition());
-            double distance1 = squaredDistanceToCamera(chunk1, cameraPosition);
-            double distance2 = squaredDistanceToCamera(chunk2, cameraPosition);
+            double distance1 = squaredDistanceToCamera(chunk1, sortingCameraPosition);
+            double distance2 = squaredDistanceToCamera(chunk2, sortingCameraPosition);
 
             if (distance1 == distance2) {
                 return 0;
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The work-stealing thread pool shared by the task masters created with
+ * {@link TaskMaster#createSharedDynamicPriorityTaskMaster(String, java.util.Comparator)}, so the chunk pipelines
+ * together keep the processors busy without starting more threads than there are processors.
+ * <br><br>
+ * The pool is started on first use, with the number of threads last set through {@link #setThreads(int)}, or one less
+ * than the available processors.
+ */
+public final class SharedTaskPool {
+
+    private static int threads;
+    private static ForkJoinPool pool;
+
+    private SharedTaskPool() {
+    }
+
+    /**
+     * Sets the number of threads of the pool. A running pool with a different number of threads is replaced, it
+     * finishes the tasks it already started.
+     *
+     * @param newThreads the number of threads, zero or less picks one less than the available processors
+     */
+    public static synchronized void setThreads(int newThreads) {
+        threads = newThreads > 0 ? newThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        if (pool != null && pool.getParallelism() != threads) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * @return the number of threads the pool runs with
+     */
+    public static synchronized int getThreads() {
+        if (threads <= 0) {
+            setThreads(0);
+        }
+        return threads;
+    }
+
+    static synchronized ForkJoinPool get() {
+        if (pool == null) {
+            if (threads <= 0) {
+                setThreads(0);
+            }
+            pool = new ForkJoinPool(threads, SharedTaskPool::createThread, null, true);
+        }
+        return pool;
+    }
+
+    private static ForkJoinWorkerThread createThread(ForkJoinPool forkJoinPool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        thread.setName("Task-Pool-" + thread.getPoolIndex());
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    }
+}
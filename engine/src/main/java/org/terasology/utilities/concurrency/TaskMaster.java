@@ -19,6 +19,10 @@
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.engine.GameThread;
+import org.terasology.monitoring.TaskQueueMonitor;
+import org.terasology.monitoring.ThreadActivity;
+import org.terasology.monitoring.ThreadMonitor;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -29,6 +33,7 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages execution of tasks on a queue.
@@ -56,26 +61,39 @@
  * @see Task
  * @see #createFIFOTaskMaster(String, int)
  * @see #createPriorityTaskMaster(String, int, int)
+ * @see #createSharedFIFOTaskMaster(String)
+ * @see #createSharedDynamicPriorityTaskMaster(String, Comparator)
  */
 public final class TaskMaster<T extends Task> {
     private static final Logger logger = LoggerFactory.getLogger(TaskMaster.class);
 
+    private static final long SHUTDOWN_TIMEOUT_MS = 20000;
+
     private BlockingQueue<T> taskQueue;
     private ExecutorService executorService;
     private int threads;
-    private boolean running;
+    private volatile boolean running;
     private String name;
+    private final boolean shared;
+    private final AtomicInteger activeSharedTasks = new AtomicInteger();
+    private final TaskQueueMonitor queueMonitor;
 
     private TaskMaster(String name, int threads, BlockingQueue<T> queue) {
-        this.name = name;
-        this.threads = threads;
+        this(name, threads, queue, false);
         if (threads <= 0) {
             throw new IllegalArgumentException("Must have at least one thread.");
         }
-        taskQueue = queue;
         restart();
     }
 
+    private TaskMaster(String name, int threads, BlockingQueue<T> queue, boolean shared) {
+        this.name = name;
+        this.threads = threads;
+        this.shared = shared;
+        taskQueue = queue;
+        queueMonitor = ThreadMonitor.monitorTaskQueue(name, queue::size);
+    }
+
     /**
      * Creates a FIFO taskmaster which simply reads from a task queue in order
      */
@@ -99,6 +117,30 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
         return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<>(comparator));
     }
 
+    /**
+     * Creates a FIFO taskmaster that runs its tasks on the {@link SharedTaskPool} instead of threads of its own.
+     * <p>
+     * Shutting it down doesn't need a terminate signal, the given task is only checked and never run.
+     */
+    public static <T extends Task> TaskMaster<T> createSharedFIFOTaskMaster(String name) {
+        TaskMaster<T> taskMaster = new TaskMaster<>(name, 0, new LinkedBlockingQueue<>(), true);
+        taskMaster.restart();
+        return taskMaster;
+    }
+
+    /**
+     * Creates a prioritized taskmaster that runs its tasks on the {@link SharedTaskPool} instead of threads of its own.
+     * Whenever a thread of the pool gets to it, it runs the least task at that time, like
+     * {@link #createDynamicPriorityTaskMaster(String, int, Comparator)}.
+     * <p>
+     * Shutting it down doesn't need a terminate signal, the given task is only checked and never run.
+     */
+    public static <T extends Task> TaskMaster<T> createSharedDynamicPriorityTaskMaster(String name, Comparator<T> comparator) {
+        TaskMaster<T> taskMaster = new TaskMaster<>(name, 0, new DynamicPriorityBlockingQueue<>(comparator), true);
+        taskMaster.restart();
+        return taskMaster;
+    }
+
     /**
      * Offers a task to this task master. This does not block, but may fail if the queue is full.
      *
@@ -106,7 +148,11 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
      * @return Whether the task was successfully added to the queue.
      */
     public boolean offer(T task) {
-        return taskQueue.offer(task);
+        if (!taskQueue.offer(task)) {
+            return false;
+        }
+        scheduleSharedTask();
+        return true;
     }
 
     /**
@@ -116,12 +162,26 @@ public boolean offer(T task) {
      */
     public void put(T task) throws InterruptedException {
         taskQueue.put(task);
+        scheduleSharedTask();
+    }
+
+    /**
+     * @return the number of tasks waiting to be run
+     */
+    public int getQueueSize() {
+        return taskQueue.size();
     }
 
     public void shutdown(T shutdownTask, boolean awaitComplete) {
         if (!shutdownTask.isTerminateSignal()) {
             throw new IllegalArgumentException("Expected task to provide terminate signal");
         }
+        // a task master that is shut down and never restarted must not stay reachable from the monitor
+        ThreadMonitor.removeTaskQueueMonitor(queueMonitor);
+        if (shared) {
+            shutdownShared(awaitComplete);
+            return;
+        }
         if (!awaitComplete) {
             taskQueue.drainTo(Lists.newArrayList());
         }
@@ -150,14 +210,93 @@ public void shutdown(T shutdownTask, boolean awaitComplete) {
 
     public void restart() {
         if (!running) {
+            ThreadMonitor.addTaskQueueMonitor(queueMonitor);
+            if (shared) {
+                running = true;
+                // tasks added while shut down are waiting without a pool task to run them
+                for (int i = taskQueue.size(); i > 0; i--) {
+                    scheduleSharedTask();
+                }
+                return;
+            }
             executorService = Executors.newFixedThreadPool(threads);
             for (int i = 0; i < threads; ++i) {
-                executorService.execute(new TaskProcessor<>(name + "-" + i, taskQueue));
+                executorService.execute(new TaskProcessor<>(name + "-" + i, taskQueue, queueMonitor));
             }
             running = true;
         }
     }
 
+    /**
+     * Lets a thread of the shared pool run one task of this taskmaster. Which task is picked when the thread gets to
+     * it, so the task priorities are those of that moment.
+     */
+    private void scheduleSharedTask() {
+        if (shared && running) {
+            SharedTaskPool.get().execute(this::runSharedTask);
+        }
+    }
+
+    private void runSharedTask() {
+        activeSharedTasks.incrementAndGet();
+        try {
+            T task = running ? taskQueue.poll() : null;
+            if (task == null) {
+                return;
+            }
+            try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
+                task.run();
+            }
+            queueMonitor.taskCompleted();
+        } catch (RuntimeException e) {
+            ThreadMonitor.addError(e);
+            logger.error("Error in task master {}", name, e);
+        } catch (Error e) {
+            GameThread.asynch(() -> {
+                throw e;  // re-throw on game thread to terminate the entire application
+            });
+        } finally {
+            if (activeSharedTasks.decrementAndGet() == 0) {
+                synchronized (activeSharedTasks) {
+                    activeSharedTasks.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void shutdownShared(boolean awaitComplete) {
+        if (awaitComplete) {
+            awaitSharedTasks(true);
+        }
+        running = false;
+        taskQueue.drainTo(Lists.newArrayList());
+        awaitSharedTasks(false);
+    }
+
+    /**
+     * Waits for the running tasks of this taskmaster to finish, and optionally for its queue to empty.
+     */
+    private void awaitSharedTasks(boolean untilQueueEmpty) {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        synchronized (activeSharedTasks) {
+            while (activeSharedTasks.get() > 0 || untilQueueEmpty && !taskQueue.isEmpty()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    logger.warn("Timed out awaiting tasks of {}", name);
+                    return;
+                }
+                try {
+                    // the queue empties without a notification, so check back regularly
+                    activeSharedTasks.wait(Math.min(remaining, 10));
+                } catch (InterruptedException e) {
+                    logger.warn("Interrupted awaiting tasks of {}", name);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * Get the {@link ExecutorService} underlying this TaskMaster. Note that by default the service will have a
      * {@link TaskProcessor} enqueued for each thread. In order to use the ExecutorService directly you will need to
@@ -169,6 +308,9 @@ public void restart() {
      * @return the {@link ExecutorService} used by this instance
      */
     public ExecutorService getExecutorService() {
+        if (shared) {
+            return SharedTaskPool.get();
+        }
         return executorService;
     }
 }
@@ -19,6 +19,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.GameThread;
+import org.terasology.monitoring.TaskQueueMonitor;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
 
@@ -32,10 +33,12 @@
 
     private String name;
     private BlockingQueue<T> queue;
+    private TaskQueueMonitor queueMonitor;
 
-     TaskProcessor(String name, BlockingQueue<T> taskQueue) {
+     TaskProcessor(String name, BlockingQueue<T> taskQueue, TaskQueueMonitor queueMonitor) {
         this.queue = taskQueue;
         this.name = name;
+        this.queueMonitor = queueMonitor;
     }
 
     @Override
@@ -51,6 +54,8 @@ public void run() {
                 }
                 if (task.isTerminateSignal()) {
                     running = false;
+                } else {
+                    queueMonitor.taskCompleted();
                 }
             } catch (InterruptedException e) {
                 ThreadMonitor.addError(e);
@@ -16,9 +16,12 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * An abstract implementation of most methods.
- * The int-based methods delegate to float-bases ones.
+ * The int-based methods delegate to float-bases ones, the regions to the batches of float positions.
  */
 public abstract class AbstractNoise implements Noise {
 
@@ -36,4 +39,44 @@ public float noise(int x, int y, int z) {
     public float noise(float x, float y) {
         return noise(x, y, 0);
     }
+
+    @Override
+    public float[] noise(Rect2i region) {
+        int count = region.sizeX() * region.sizeY();
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                xs[index] = x;
+                ys[index] = y;
+                index++;
+            }
+        }
+        float[] values = new float[count];
+        noise(xs, ys, values, count);
+        return values;
+    }
+
+    @Override
+    public float[] noise(Region3i region) {
+        int count = region.sizeX() * region.sizeY() * region.sizeZ();
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] zs = new float[count];
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    xs[index] = x;
+                    ys[index] = y;
+                    zs[index] = z;
+                    index++;
+                }
+            }
+        }
+        float[] values = new float[count];
+        noise(xs, ys, zs, values, count);
+        return values;
+    }
 }
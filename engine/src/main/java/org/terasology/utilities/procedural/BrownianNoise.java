@@ -16,6 +16,8 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -107,6 +109,75 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Returns Fractional Brownian Motion at a batch of positions. The octaves are summed up one by one over the
+     * whole batch, so the base noise evaluates each octave in a single batch.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param values The array the value of position i is written to, at index i
+     * @param count The number of positions
+     */
+    @Override
+    public void noise(float[] x, float[] y, float[] values, int count) {
+        float[] workingX = Arrays.copyOf(x, count);
+        float[] workingY = Arrays.copyOf(y, count);
+        float[] octave = new float[count];
+        float lacunarityFactor = (float) getLacunarity();
+
+        Arrays.fill(values, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingX, workingY, octave, count);
+            addOctave(values, octave, spectralWeights[i], count);
+
+            multiply(workingX, lacunarityFactor, count);
+            multiply(workingY, lacunarityFactor, count);
+        }
+        multiply(values, scale, count);
+    }
+
+    /**
+     * Returns Fractional Brownian Motion at a batch of positions. The octaves are summed up one by one over the
+     * whole batch, so the base noise evaluates each octave in a single batch.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param z The positions on the z-axis
+     * @param values The array the value of position i is written to, at index i
+     * @param count The number of positions
+     */
+    @Override
+    public void noise(float[] x, float[] y, float[] z, float[] values, int count) {
+        float[] workingX = Arrays.copyOf(x, count);
+        float[] workingY = Arrays.copyOf(y, count);
+        float[] workingZ = Arrays.copyOf(z, count);
+        float[] octave = new float[count];
+        float lacunarityFactor = (float) getLacunarity();
+
+        Arrays.fill(values, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingX, workingY, workingZ, octave, count);
+            addOctave(values, octave, spectralWeights[i], count);
+
+            multiply(workingX, lacunarityFactor, count);
+            multiply(workingY, lacunarityFactor, count);
+            multiply(workingZ, lacunarityFactor, count);
+        }
+        multiply(values, scale, count);
+    }
+
+    private static void addOctave(float[] values, float[] octave, float weight, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] += octave[i] * weight;
+        }
+    }
+
+    private static void multiply(float[] values, float factor, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] *= factor;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
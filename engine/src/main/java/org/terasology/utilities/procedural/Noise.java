@@ -16,6 +16,9 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Provides or generates noise
  *
@@ -59,4 +62,139 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Returns the noise values of all positions in a region, the same as {@link #noise(int, int)} for each of them.
+     *
+     * @param region The region to evaluate
+     * @return The noise values, x changing fastest: the value of (x, y) is at index
+     * (x - minX) + sizeX * (y - minY)
+     */
+    default float[] noise(Rect2i region) {
+        float[] values = new float[region.sizeX() * region.sizeY()];
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                values[index++] = noise(x, y);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the noise values of all positions in a region, the same as {@link #noise(int, int, int)} for each of them.
+     *
+     * @param region The region to evaluate
+     * @return The noise values, x changing fastest, then y: the value of (x, y, z) is at index
+     * (x - minX) + sizeX * ((y - minY) + sizeY * (z - minZ))
+     */
+    default float[] noise(Region3i region) {
+        float[] values = new float[region.sizeX() * region.sizeY() * region.sizeZ()];
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    values[index++] = noise(x, y, z);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Fills an array with the noise values of a grid of positions. Grid point (i, j) lies at
+     * (x + i * stepX, y + j * stepY) and its value is written to index i + sizeX * j.
+     *
+     * @param values The array to fill, at least sizeX * sizeY long
+     * @param x Position of the first grid point on the x-axis
+     * @param y Position of the first grid point on the y-axis
+     * @param stepX Distance between grid points on the x-axis
+     * @param stepY Distance between grid points on the y-axis
+     * @param sizeX Number of grid points on the x-axis
+     * @param sizeY Number of grid points on the y-axis
+     */
+    default void noise(float[] values, float x, float y, float stepX, float stepY, int sizeX, int sizeY) {
+        int count = sizeX * sizeY;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int j = 0; j < sizeY; j++) {
+            for (int i = 0; i < sizeX; i++) {
+                xs[i + sizeX * j] = x + i * stepX;
+                ys[i + sizeX * j] = y + j * stepY;
+            }
+        }
+        noise(xs, ys, values, count);
+    }
+
+    /**
+     * Fills an array with the noise values of a grid of positions. Grid point (i, j, k) lies at
+     * (x + i * stepX, y + j * stepY, z + k * stepZ) and its value is written to index i + sizeX * (j + sizeY * k).
+     *
+     * @param values The array to fill, at least sizeX * sizeY * sizeZ long
+     * @param x Position of the first grid point on the x-axis
+     * @param y Position of the first grid point on the y-axis
+     * @param z Position of the first grid point on the z-axis
+     * @param stepX Distance between grid points on the x-axis
+     * @param stepY Distance between grid points on the y-axis
+     * @param stepZ Distance between grid points on the z-axis
+     * @param sizeX Number of grid points on the x-axis
+     * @param sizeY Number of grid points on the y-axis
+     * @param sizeZ Number of grid points on the z-axis
+     */
+    default void noise(float[] values, float x, float y, float z, float stepX, float stepY, float stepZ,
+                       int sizeX, int sizeY, int sizeZ) {
+        int count = sizeX * sizeY * sizeZ;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] zs = new float[count];
+        int index = 0;
+        for (int k = 0; k < sizeZ; k++) {
+            for (int j = 0; j < sizeY; j++) {
+                for (int i = 0; i < sizeX; i++) {
+                    xs[index] = x + i * stepX;
+                    ys[index] = y + j * stepY;
+                    zs[index] = z + k * stepZ;
+                    index++;
+                }
+            }
+        }
+        noise(xs, ys, zs, values, count);
+    }
+
+    /**
+     * Evaluates the noise at a batch of positions, given as one array per axis. The results are the same as
+     * those of {@link #noise(float, float)} for each position.
+     * <br><br>
+     * Implementations override this to evaluate the whole batch in one tight loop, instead of being called
+     * once per position.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param values The array the value of position i is written to, at index i
+     * @param count The number of positions
+     */
+    default void noise(float[] x, float[] y, float[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = noise(x[i], y[i]);
+        }
+    }
+
+    /**
+     * Evaluates the noise at a batch of positions, given as one array per axis. The results are the same as
+     * those of {@link #noise(float, float, float)} for each position.
+     * <br><br>
+     * Implementations override this to evaluate the whole batch in one tight loop, instead of being called
+     * once per position.
+     *
+     * @param x The positions on the x-axis
+     * @param y The positions on the y-axis
+     * @param z The positions on the z-axis
+     * @param values The array the value of position i is written to, at index i
+     * @param count The number of positions
+     */
+    default void noise(float[] x, float[] y, float[] z, float[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = noise(x[i], y[i], z[i]);
+        }
+    }
 }
@@ -54,6 +54,19 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
             new Grad(1, 1, 1, 0), new Grad(1, 1, -1, 0), new Grad(1, -1, 1, 0), new Grad(1, -1, -1, 0),
             new Grad(-1, 1, 1, 0), new Grad(-1, 1, -1, 0), new Grad(-1, -1, 1, 0), new Grad(-1, -1, -1, 0)};
 
+    // The components of grad3, for the batch methods
+    private static final float[] GRAD3_X = new float[grad3.length];
+    private static final float[] GRAD3_Y = new float[grad3.length];
+    private static final float[] GRAD3_Z = new float[grad3.length];
+
+    static {
+        for (int i = 0; i < grad3.length; i++) {
+            GRAD3_X[i] = grad3[i].x;
+            GRAD3_Y[i] = grad3[i].y;
+            GRAD3_Z[i] = grad3[i].z;
+        }
+    }
+
     // Skewing and unskewing factors for 2, 3, and 4 dimensions
     private static final float F2 = 0.5f * (float) (Math.sqrt(3.0f) - 1.0f);
     private static final float G2 = (3.0f - (float) Math.sqrt(3.0f)) / 6.0f;
@@ -331,6 +344,130 @@ public float noise(float xin, float yin, float zin) {
         return 32.0f * (n0 + n1 + n2 + n3);
     }
 
+    /**
+     * 2D simplex noise at a batch of positions.
+     * Gives the same values as {@link #noise(float, float)}, but reads the permutation tables once per batch
+     * and the gradients from primitive arrays.
+     *
+     * @param x the x input coordinates
+     * @param y the y input coordinates
+     * @param values the array the noise value of position i is written to, at index i
+     * @param count the number of positions
+     */
+    @Override
+    public void noise(float[] x, float[] y, float[] values, int count) {
+        final short[] p = perm;
+        final short[] pMod12 = permMod12;
+        final float[] gradX = GRAD3_X;
+        final float[] gradY = GRAD3_Y;
+        for (int n = 0; n < count; n++) {
+            float xin = x[n];
+            float yin = y[n];
+            float s = (xin + yin) * F2;
+            int i = TeraMath.floorToInt(xin + s);
+            int j = TeraMath.floorToInt(yin + s);
+            float t = (i + j) * G2;
+            float x0 = xin - (i - t);
+            float y0 = yin - (j - t);
+
+            int i1 = x0 > y0 ? 1 : 0;
+            int j1 = 1 - i1;
+            float x1 = x0 - i1 + G2;
+            float y1 = y0 - j1 + G2;
+            float x2 = x0 - 1.0f + 2.0f * G2;
+            float y2 = y0 - 1.0f + 2.0f * G2;
+
+            int ii = i & 255;
+            int jj = j & 255;
+            int gi0 = pMod12[ii + p[jj]];
+            int gi1 = pMod12[ii + i1 + p[jj + j1]];
+            int gi2 = pMod12[ii + 1 + p[jj + 1]];
+
+            float n0 = contribution(0.5f - x0 * x0 - y0 * y0, gradX[gi0] * x0 + gradY[gi0] * y0);
+            float n1 = contribution(0.5f - x1 * x1 - y1 * y1, gradX[gi1] * x1 + gradY[gi1] * y1);
+            float n2 = contribution(0.5f - x2 * x2 - y2 * y2, gradX[gi2] * x2 + gradY[gi2] * y2);
+            values[n] = 70.0f * (n0 + n1 + n2);
+        }
+    }
+
+    /**
+     * 3D simplex noise at a batch of positions.
+     * Gives the same values as {@link #noise(float, float, float)}, but reads the permutation tables once per batch,
+     * the gradients from primitive arrays and picks the simplex corners without branching.
+     *
+     * @param x the x input coordinates
+     * @param y the y input coordinates
+     * @param z the z input coordinates
+     * @param values the array the noise value of position i is written to, at index i
+     * @param count the number of positions
+     */
+    @Override
+    public void noise(float[] x, float[] y, float[] z, float[] values, int count) {
+        final short[] p = perm;
+        final short[] pMod12 = permMod12;
+        final float[] gradX = GRAD3_X;
+        final float[] gradY = GRAD3_Y;
+        final float[] gradZ = GRAD3_Z;
+        for (int n = 0; n < count; n++) {
+            float xin = x[n];
+            float yin = y[n];
+            float zin = z[n];
+            float s = (xin + yin + zin) * F3;
+            int i = TeraMath.floorToInt(xin + s);
+            int j = TeraMath.floorToInt(yin + s);
+            int k = TeraMath.floorToInt(zin + s);
+            float t = (i + j + k) * G3;
+            float x0 = xin - (i - t);
+            float y0 = yin - (j - t);
+            float z0 = zin - (k - t);
+
+            // the same rank ordering as the branches in noise(float, float, float)
+            int xy = x0 >= y0 ? 1 : 0;
+            int yz = y0 >= z0 ? 1 : 0;
+            int xz = x0 >= z0 ? 1 : 0;
+            int i1 = xy & xz;
+            int j1 = (1 - xy) & yz;
+            int k1 = (1 - yz) & (1 - xz);
+            int i2 = xy | xz;
+            int j2 = (1 - xy) | yz;
+            int k2 = 1 - (yz & xz);
+
+            float x1 = x0 - i1 + G3;
+            float y1 = y0 - j1 + G3;
+            float z1 = z0 - k1 + G3;
+            float x2 = x0 - i2 + 2.0f * G3;
+            float y2 = y0 - j2 + 2.0f * G3;
+            float z2 = z0 - k2 + 2.0f * G3;
+            float x3 = x0 - 1.0f + 3.0f * G3;
+            float y3 = y0 - 1.0f + 3.0f * G3;
+            float z3 = z0 - 1.0f + 3.0f * G3;
+
+            int ii = i & 255;
+            int jj = j & 255;
+            int kk = k & 255;
+            int gi0 = pMod12[ii + p[jj + p[kk]]];
+            int gi1 = pMod12[ii + i1 + p[jj + j1 + p[kk + k1]]];
+            int gi2 = pMod12[ii + i2 + p[jj + j2 + p[kk + k2]]];
+            int gi3 = pMod12[ii + 1 + p[jj + 1 + p[kk + 1]]];
+
+            float n0 = contribution(0.6f - x0 * x0 - y0 * y0 - z0 * z0, gradX[gi0] * x0 + gradY[gi0] * y0 + gradZ[gi0] * z0);
+            float n1 = contribution(0.6f - x1 * x1 - y1 * y1 - z1 * z1, gradX[gi1] * x1 + gradY[gi1] * y1 + gradZ[gi1] * z1);
+            float n2 = contribution(0.6f - x2 * x2 - y2 * y2 - z2 * z2, gradX[gi2] * x2 + gradY[gi2] * y2 + gradZ[gi2] * z2);
+            float n3 = contribution(0.6f - x3 * x3 - y3 * y3 - z3 * z3, gradX[gi3] * x3 + gradY[gi3] * y3 + gradZ[gi3] * z3);
+            values[n] = 32.0f * (n0 + n1 + n2 + n3);
+        }
+    }
+
+    /**
+     * The contribution of a simplex corner, computed like the corners of the scalar methods.
+     */
+    private static float contribution(float t, float dot) {
+        if (t < 0) {
+            return 0.0f;
+        }
+        float t2 = t * t;
+        return t2 * t2 * dot;
+    }
 
     /**
      * 4D simplex noise, better simplex rank ordering method 2012-03-09
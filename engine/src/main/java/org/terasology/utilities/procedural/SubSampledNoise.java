@@ -66,6 +66,7 @@ public float noise(float x, float y) {
         return TeraMath.biLerp(q00, q10, q01, q11, xMod / sampleRate, yMod / sampleRate);
     }
 
+    @Override
     public float[] noise(Rect2i region) {
         Rect2i fullRegion = determineRequiredRegion(region);
         float[] keyData = getKeyValues(fullRegion);
@@ -155,6 +156,7 @@ public float noise(float x, float y, float z) {
         return TeraMath.triLerp(q000, q100, q010, q110, q001, q101, q011, q111, xMod / sampleRate, yMod / sampleRate, zMod / sampleRate);
     }
 
+    @Override
     public float[] noise(Region3i region) {
         Region3i fullRegion = determineRequiredRegion(region);
         float[] keyData = getKeyValues(fullRegion);
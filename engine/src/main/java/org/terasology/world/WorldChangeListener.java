@@ -16,14 +16,31 @@
 
 package org.terasology.world;
 
+import org.terasology.math.JomlUtil;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
+import org.terasology.world.propagation.BlockChange;
+
+import java.util.List;
 
 /**
  */
 public interface WorldChangeListener {
 
     void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock);
-    
+
+    /**
+     * Called once per chunk for the blocks a bulk change set within it, instead of {@link #onBlockChanged} per block.
+     * By default the changes are passed on to {@link #onBlockChanged} one by one.
+     *
+     * @param chunkPos The position of the chunk the changed blocks are in
+     * @param changes  The changed blocks, in the order they were set
+     */
+    default void onBlocksChanged(Vector3i chunkPos, List<BlockChange> changes) {
+        for (BlockChange change : changes) {
+            onBlockChanged(JomlUtil.from(change.getPosition()), change.getTo(), change.getFrom());
+        }
+    }
+
     void onExtraDataChanged(int i, Vector3i pos, int newData, int oldData);
 }
@@ -18,8 +18,10 @@
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector2f;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.rendering.RenderMath;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkVertexFlag;
+import org.terasology.rendering.primitives.DirectVertexElements;
 
 import java.util.Arrays;
 
@@ -30,6 +32,7 @@
  */
 public class BlockMeshPart {
     private static final float BORDER = 1f / 128f;
+    private static final int WHITE = RenderMath.packColor(1, 1, 1, 1);
 
     private Vector3f[] vertices;
     private Vector3f[] normals;
@@ -88,6 +91,11 @@ public BlockMeshPart mapTexCoords(Vector2f offset, float width, int frames) {
     }
 
     public void appendTo(ChunkMesh chunk, int offsetX, int offsetY, int offsetZ, ChunkMesh.RenderType renderType, ChunkVertexFlag flags) {
+        DirectVertexElements directElements = chunk.getDirectVertexElements(renderType);
+        if (directElements != null) {
+            appendTo(directElements, offsetX, offsetY, offsetZ, flags);
+            return;
+        }
         ChunkMesh.VertexElements elements = chunk.getVertexElements(renderType);
         for (Vector2f texCoord : texCoords) {
             elements.tex.add(texCoord.x);
@@ -116,6 +124,18 @@ public void appendTo(ChunkMesh chunk, int offsetX, int offsetY, int offsetZ, Chu
         }
     }
 
+    private void appendTo(DirectVertexElements elements, int offsetX, int offsetY, int offsetZ, ChunkVertexFlag flags) {
+        int nextIndex = elements.reserve(vertices.length, indices.length);
+        for (int vIdx = 0; vIdx < vertices.length; ++vIdx) {
+            elements.addVertex(vertices[vIdx].x + offsetX, vertices[vIdx].y + offsetY, vertices[vIdx].z + offsetZ,
+                    texCoords[vIdx].x, texCoords[vIdx].y, flags.getValue(), texFrames, WHITE,
+                    normals[vIdx].x, normals[vIdx].y, normals[vIdx].z);
+        }
+        for (int index : indices) {
+            elements.addIndex(index + nextIndex);
+        }
+    }
+
     public BlockMeshPart rotate(Quat4f rotation) {
         Vector3f[] newVertices = new Vector3f[vertices.length];
         Vector3f[] newNormals = new Vector3f[normals.length];
@@ -143,6 +143,44 @@ public String toString() {
 
     public abstract boolean set(int x, int y, int z, int value, int expected);
 
+    /**
+     * Passes all elements to the consumer as runs of equal values, in the order x changes fastest, then z, then y.
+     * Adjacent runs may have the same value.
+     * <br><br>
+     * This implementation reads the elements one by one. Subclasses should pass whole rows or stretches of their
+     * internal storage at once where they can.
+     */
+    public void forEachRun(RunConsumer consumer) {
+        int value = get(0, 0, 0);
+        int length = 0;
+        for (int y = 0; y < getSizeY(); y++) {
+            for (int z = 0; z < getSizeZ(); z++) {
+                for (int x = 0; x < getSizeX(); x++) {
+                    int item = get(x, y, z);
+                    if (item != value) {
+                        consumer.accept(value, length);
+                        value = item;
+                        length = 1;
+                    } else {
+                        length++;
+                    }
+                }
+            }
+        }
+        consumer.accept(value, length);
+    }
+
+    /**
+     * Receives the elements of a tera array as runs of equal values.
+     *
+     * @see TeraArray#forEachRun(RunConsumer)
+     */
+    @FunctionalInterface
+    public interface RunConsumer {
+
+        void accept(int value, int length);
+    }
+
     /**
      * This is the interface for tera array factories. Every tera array is required to implement a factory.
      * It should be implemented as a static subclass of the corresponding tera array class and it should be called Factory.
@@ -104,6 +104,20 @@ public boolean set(int x, int y, int z, int value, int expected) {
         return false;
     }
 
+    @Override
+    public void forEachRun(RunConsumer consumer) {
+        short value = data[0];
+        int start = 0;
+        for (int i = 1; i < data.length; i++) {
+            if (data[i] != value) {
+                consumer.accept(value, i - start);
+                value = data[i];
+                start = i;
+            }
+        }
+        consumer.accept(value, data.length - start);
+    }
+
     public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraDenseArray16Bit> {
 
         @Override
@@ -0,0 +1,512 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.map.TShortIntMap;
+import gnu.trove.map.hash.TShortIntHashMap;
+import gnu.trove.set.TShortSet;
+import gnu.trove.set.hash.TShortHashSet;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraPaletteArray implements a dense array with elements of 16 bit size, which stores the distinct values of its
+ * elements in a palette and the elements themselves as indices into the palette.
+ * Its elements are in the range -32'768 through +32'767, like those of {@link TeraDenseArray16Bit}.
+ * <br><br>
+ * The indices are packed into longs with 1, 2, 4 or 8 bits each, just enough for the size of the palette, so an
+ * index never spans two longs. As long as all elements have the same value no indices are stored at all. The palette
+ * grows when a new value is set and the indices are repacked with more bits when needed. Values that are no longer
+ * used are only dropped from the palette by a deflator.
+ * <br><br>
+ * The palette holds at most {@link #COMPACT_PALETTE_SIZE} values. Past that, 16 bit indices and their palette take
+ * more memory than the elements of a {@link TeraDenseArray16Bit}, so owners check {@link #canHold(int)} before setting
+ * a value and switch to the dense array returned by {@link #inflate()} when it fails.
+ *
+ */
+public class TeraPaletteArray extends TeraDenseArray {
+
+    /**
+     * The indices into palettes of up to this size take 8 bits or less, at most half of what the elements of a
+     * {@link TeraDenseArray16Bit} take.
+     */
+    public static final int COMPACT_PALETTE_SIZE = 256;
+
+    /**
+     * Up to this palette size, the index of a value is looked up by scanning the palette.
+     */
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+
+    private volatile State state;
+    private TShortIntMap paletteIndices;
+
+    public TeraPaletteArray() {
+        super();
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    /**
+     * Creates an array holding the given elements, with the palette ordered by first occurrence. The elements may use
+     * at most {@link #COMPACT_PALETTE_SIZE} distinct values.
+     */
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short[] values) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkNotNull(values);
+        Preconditions.checkArgument(values.length == getSizeXYZ(), "The length of parameter 'values' has to be " + getSizeXYZ() + " but is " + values.length);
+        // collecting the palette first means the indices are written once, at their final size
+        state = new State(new short[]{values[0]}, 1, null, 0);
+        short last = values[0];
+        for (short value : values) {
+            if (value != last) {
+                Preconditions.checkArgument(canHold(value), "The parameter 'values' holds more than " + COMPACT_PALETTE_SIZE + " distinct values");
+                indexOf(value);
+                last = value;
+            }
+        }
+        State current = state;
+        if (current.bitsPerEntry > 0) {
+            last = values[0];
+            int index = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != last) {
+                    last = values[i];
+                    index = indexOf(last);
+                }
+                current.setIndex(i, index);
+            }
+        }
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short[] palette, long[] data) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkNotNull(palette);
+        Preconditions.checkArgument(palette.length > 0, "The parameter 'palette' must not be empty");
+        Preconditions.checkArgument(palette.length <= COMPACT_PALETTE_SIZE, "The parameter 'palette' must not hold more than " + COMPACT_PALETTE_SIZE + " values");
+        int bitsPerEntry = getBitsForPaletteSize(palette.length);
+        int expectedLength = getDataLength(getSizeXYZ(), bitsPerEntry);
+        if (expectedLength > 0) {
+            Preconditions.checkNotNull(data);
+            Preconditions.checkArgument(data.length == expectedLength, "The length of parameter 'data' has to be " + expectedLength + " but is " + data.length);
+        }
+        this.state = new State(Arrays.copyOf(palette, 1 << bitsPerEntry), palette.length, expectedLength > 0 ? data : null, bitsPerEntry);
+        if (palette.length > LINEAR_SEARCH_LIMIT) {
+            buildPaletteIndices();
+        }
+    }
+
+    public TeraPaletteArray(TeraArray in) {
+        super(in);
+    }
+
+    /**
+     * @return the bits needed for the indices into a palette of the given size, one of 0, 1, 2, 4 and 8 for the palettes
+     * of this array
+     */
+    public static int getBitsForPaletteSize(int paletteSize) {
+        int bits = 0;
+        while ((1 << bits) < paletteSize) {
+            bits = bits == 0 ? 1 : bits * 2;
+        }
+        return bits;
+    }
+
+    /**
+     * @return whether the values hold at most {@link #COMPACT_PALETTE_SIZE} distinct values
+     */
+    public static boolean hasCompactPalette(short[] values) {
+        return countDistinctValues(values, COMPACT_PALETTE_SIZE) <= COMPACT_PALETTE_SIZE;
+    }
+
+    /**
+     * @return the number of distinct values, or {@code limit + 1} as soon as there are more than {@code limit} of them
+     */
+    public static int countDistinctValues(short[] values, int limit) {
+        TShortSet distinctValues = new TShortHashSet();
+        short last = values[0];
+        distinctValues.add(last);
+        for (short value : values) {
+            if (value != last) {
+                last = value;
+                if (distinctValues.add(value) && distinctValues.size() > limit) {
+                    return limit + 1;
+                }
+            }
+        }
+        return distinctValues.size();
+    }
+
+    /**
+     * @return the estimated memory consumption of an array with the given number of elements and distinct values, as
+     * created from its values
+     */
+    public static int getEstimatedMemoryConsumptionInBytes(int sizeXYZ, int paletteSize) {
+        int bitsPerEntry = getBitsForPaletteSize(paletteSize);
+        return estimateMemoryConsumption(1 << bitsPerEntry, paletteSize, getDataLength(sizeXYZ, bitsPerEntry),
+                paletteSize > LINEAR_SEARCH_LIMIT);
+    }
+
+    private static int estimateMemoryConsumption(int paletteLength, int paletteSize, int dataLength, boolean indexed) {
+        int result = 32 + 40 + 12 + paletteLength * 2;
+        if (dataLength > 0) {
+            result += 12 + dataLength * 8;
+        }
+        if (indexed) {
+            result += paletteSize * 8;
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of longs needed to store the given number of indices with the given bits each
+     */
+    public static int getDataLength(int entries, int bitsPerEntry) {
+        if (bitsPerEntry == 0) {
+            return 0;
+        }
+        int entriesPerLong = Long.SIZE / bitsPerEntry;
+        return (entries + entriesPerLong - 1) / entriesPerLong;
+    }
+
+    @Override
+    protected void initialize() {
+        state = new State(new short[1], 1, null, 0);
+        paletteIndices = null;
+    }
+
+    @Override
+    public TeraArray copy() {
+        State current = state;
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), Arrays.copyOf(current.palette, current.paletteSize),
+                current.data == null ? null : Arrays.copyOf(current.data, current.data.length));
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        State current = state;
+        return Preconditions.checkNotNull(deflator).deflatePaletteArray(current.palette, current.paletteSize, current.data,
+                current.bitsPerEntry, getSizeX(), getSizeY(), getSizeZ());
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        State current = state;
+        return estimateMemoryConsumption(current.palette.length, current.paletteSize,
+                current.data == null ? 0 : current.data.length, paletteIndices != null);
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 16;
+    }
+
+    public int getBitsPerEntry() {
+        return state.bitsPerEntry;
+    }
+
+    public int getPaletteSize() {
+        return state.paletteSize;
+    }
+
+    /**
+     * @return whether the value can be set without growing the palette past {@link #COMPACT_PALETTE_SIZE}
+     */
+    public boolean canHold(int value) {
+        return state.paletteSize < COMPACT_PALETTE_SIZE || findIndex((short) value) >= 0;
+    }
+
+    /**
+     * @return a dense array holding the same elements
+     */
+    public TeraDenseArray16Bit inflate() {
+        State current = state;
+        short[] values = new short[getSizeXYZ()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = current.get(i);
+        }
+        return new TeraDenseArray16Bit(getSizeX(), getSizeY(), getSizeZ(), values);
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return state.get(pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int pos = pos(x, y, z);
+        short old = state.get(pos);
+        if (old != (short) value) {
+            int index = indexOf((short) value);
+            // adding the value may have published a repacked state
+            state.setIndex(pos, index);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        short old = state.get(pos);
+        if (old == expected) {
+            if (old != (short) value) {
+                int index = indexOf((short) value);
+                state.setIndex(pos, index);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRun(RunConsumer consumer) {
+        State current = state;
+        if (current.bitsPerEntry == 0) {
+            consumer.accept(current.palette[0], getSizeXYZ());
+            return;
+        }
+        // equal indices mean equal values, so the values are only looked up once per run
+        int index = current.getIndex(0);
+        int start = 0;
+        for (int i = 1; i < getSizeXYZ(); i++) {
+            int next = current.getIndex(i);
+            if (next != index) {
+                consumer.accept(current.palette[index], i - start);
+                index = next;
+                start = i;
+            }
+        }
+        consumer.accept(current.palette[index], getSizeXYZ() - start);
+    }
+
+    /**
+     * @return the index of the value in the palette, or -1 if it is missing
+     */
+    private int findIndex(short value) {
+        if (paletteIndices != null) {
+            return paletteIndices.containsKey(value) ? paletteIndices.get(value) : -1;
+        }
+        State current = state;
+        for (int i = 0; i < current.paletteSize; i++) {
+            if (current.palette[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the value in the palette, adding it to the palette if it is missing
+     * @throws IllegalStateException if the value is missing and the palette is full
+     */
+    private int indexOf(short value) {
+        int existing = findIndex(value);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        State current = state;
+        int index = current.paletteSize;
+        if (index >= COMPACT_PALETTE_SIZE) {
+            throw new IllegalStateException("The palette is full, the array has to be inflated to hold " + value);
+        }
+        if (index < current.palette.length) {
+            // the entry is written before the state is published, so readers of the new state see it
+            current.palette[index] = value;
+            state = new State(current.palette, index + 1, current.data, current.bitsPerEntry);
+        } else {
+            state = repack(current, value);
+        }
+        if (paletteIndices != null) {
+            paletteIndices.put(value, index);
+        } else if (index + 1 > LINEAR_SEARCH_LIMIT) {
+            buildPaletteIndices();
+        }
+        return index;
+    }
+
+    private void buildPaletteIndices() {
+        State current = state;
+        paletteIndices = new TShortIntHashMap(current.paletteSize * 2);
+        for (int i = 0; i < current.paletteSize; i++) {
+            paletteIndices.put(current.palette[i], i);
+        }
+    }
+
+    /**
+     * @return a state with room for more indices, holding the given value as additional palette entry
+     */
+    private State repack(State current, short newValue) {
+        int newBitsPerEntry = getBitsForPaletteSize(current.paletteSize + 1);
+        short[] newPalette = Arrays.copyOf(current.palette, 1 << newBitsPerEntry);
+        newPalette[current.paletteSize] = newValue;
+        State repacked = new State(newPalette, current.paletteSize + 1, new long[getDataLength(getSizeXYZ(), newBitsPerEntry)],
+                newBitsPerEntry);
+        if (current.bitsPerEntry > 0) {
+            for (int i = 0; i < getSizeXYZ(); i++) {
+                int index = current.getIndex(i);
+                if (index != 0) {
+                    repacked.setIndex(i, index);
+                }
+            }
+        }
+        return repacked;
+    }
+
+    /**
+     * The palette, the indices and the layout of the indices, which change together when the palette grows.
+     * <br><br>
+     * Chunks are read by the mesh and lighting threads without locking, so a grown palette or repacked indices are
+     * only published as a new state once complete. Readers take the state once per access, so they never combine the
+     * indices of one state with the layout of another. As the palette always has room for every index its state can
+     * hold, a reader of an older state sees at worst an outdated value, like with the other dense arrays.
+     */
+    private static final class State {
+        /**
+         * Has {@code 1 << bitsPerEntry} entries, of which the first {@code paletteSize} are used.
+         */
+        private final short[] palette;
+        private final int paletteSize;
+        private final long[] data;
+        private final int bitsPerEntry;
+        private final int bitShift;
+        private final int wordShift;
+        private final int wordMask;
+        private final int entryMask;
+
+        State(short[] palette, int paletteSize, long[] data, int bitsPerEntry) {
+            this.palette = palette;
+            this.paletteSize = paletteSize;
+            this.data = data;
+            this.bitsPerEntry = bitsPerEntry;
+            if (bitsPerEntry > 0) {
+                bitShift = Integer.numberOfTrailingZeros(bitsPerEntry);
+                wordShift = Integer.numberOfTrailingZeros(Long.SIZE) - bitShift;
+                wordMask = (1 << wordShift) - 1;
+                entryMask = (1 << bitsPerEntry) - 1;
+            } else {
+                bitShift = 0;
+                wordShift = 0;
+                wordMask = 0;
+                entryMask = 0;
+            }
+        }
+
+        short get(int pos) {
+            if (bitsPerEntry == 0) {
+                return palette[0];
+            }
+            return palette[getIndex(pos)];
+        }
+
+        int getIndex(int pos) {
+            return (int) (data[pos >>> wordShift] >>> ((pos & wordMask) << bitShift)) & entryMask;
+        }
+
+        void setIndex(int pos, int index) {
+            int word = pos >>> wordShift;
+            int shift = (pos & wordMask) << bitShift;
+            data[word] = (data[word] & ~((long) entryMask << shift)) | ((long) index << shift);
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPaletteArray> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPaletteArray.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPaletteArray array) {
+            State state = array.state;
+            if (state == null) {
+                return 4;
+            }
+            int dataLength = state.data == null ? 0 : state.data.length;
+            return 4 + state.paletteSize * 2 + 4 + dataLength * 8;
+        }
+
+        @Override
+        protected void internalSerialize(TeraPaletteArray array, ByteBuffer buffer) {
+            State state = array.state;
+            if (state == null) {
+                buffer.putInt(0);
+                return;
+            }
+            buffer.putInt(state.paletteSize);
+            for (int i = 0; i < state.paletteSize; i++) {
+                buffer.putShort(state.palette[i]);
+            }
+            if (state.data == null) {
+                buffer.putInt(0);
+            } else {
+                buffer.putInt(state.data.length);
+                final LongBuffer lbuffer = buffer.asLongBuffer();
+                lbuffer.put(state.data);
+                buffer.position(buffer.position() + state.data.length * 8);
+            }
+        }
+
+        @Override
+        protected TeraPaletteArray internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int paletteSize = buffer.getInt();
+            if (paletteSize == 0) {
+                return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+            }
+            final short[] palette = new short[paletteSize];
+            for (int i = 0; i < paletteSize; i++) {
+                palette[i] = buffer.getShort();
+            }
+            final int length = buffer.getInt();
+            final long[] data = new long[length];
+            final LongBuffer lbuffer = buffer.asLongBuffer();
+            lbuffer.get(data, 0, length);
+            buffer.position(buffer.position() + length * 8);
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ, palette, length > 0 ? data : null);
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPaletteArray> {
+
+        @Override
+        public Class<TeraPaletteArray> getArrayClass() {
+            return TeraPaletteArray.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPaletteArray create() {
+            return new TeraPaletteArray();
+        }
+
+        @Override
+        public TeraPaletteArray create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+        }
+    }
+
+}
@@ -178,6 +178,31 @@ public boolean set(int x, int y, int z, int value, int expected) {
         return false;
     }
 
+    @Override
+    public void forEachRun(RunConsumer consumer) {
+        if (inflated == null) {
+            consumer.accept(fill, getSizeXYZ());
+            return;
+        }
+        for (int y = 0; y < getSizeY(); y++) {
+            short[] row = inflated[y];
+            if (row == null) {
+                consumer.accept(deflated[y], getSizeXZ());
+                continue;
+            }
+            short value = row[0];
+            int start = 0;
+            for (int i = 1; i < row.length; i++) {
+                if (row[i] != value) {
+                    consumer.accept(value, i - start);
+                    value = row[i];
+                    start = i;
+                }
+            }
+            consumer.accept(value, row.length - start);
+        }
+    }
+
     public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraSparseArray16Bit> {
 
         private void putRow(final short[] row, final int length, final ByteBuffer buffer) {
@@ -17,12 +17,16 @@
 package org.terasology.world.chunks.deflate;
 
 import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray4Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
 
+import java.util.Arrays;
+
 /**
- * TeraStandardDeflator implements a simple deflation algorithm for 4, 8 and 16-bit dense and sparse arrays.<br>
+ * TeraStandardDeflator implements a simple deflation algorithm for 4, 8 and 16-bit dense and sparse arrays and for
+ * palette arrays. Dense 16-bit arrays with few distinct values are turned into palette arrays.<br>
  * <b>NOTE:</b> Currently it is optimized for chunks of size 16x256x16 blocks.<br>
  * TODO: Implement deflation for sparse arrays.
  *
@@ -103,10 +107,24 @@ public TeraArray deflateDenseArray16Bit(short[] data, int rowSize, int sizeX, in
                 return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, first);
             }
         }
+        TeraArray result = null;
         if (packed > DEFLATE_MINIMUM_16BIT) {
-            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
+            result = new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
         }
-        return null;
+        // the palette is only built when the number of distinct values shows it to be smaller than the other
+        // candidates, and counting stops once there are too many values for that
+        final int sizeXYZ = sizeX * sizeY * sizeZ;
+        final int bound = result == null ? sizeXYZ * 2 : result.getEstimatedMemoryConsumptionInBytes();
+        int maxPaletteSize = 0;
+        for (int size = 2; size <= TeraPaletteArray.COMPACT_PALETTE_SIZE; size *= 2) {
+            if (TeraPaletteArray.getEstimatedMemoryConsumptionInBytes(sizeXYZ, size) < bound) {
+                maxPaletteSize = size;
+            }
+        }
+        if (maxPaletteSize > 0 && TeraPaletteArray.countDistinctValues(data, maxPaletteSize) <= maxPaletteSize) {
+            result = new TeraPaletteArray(sizeX, sizeY, sizeZ, data);
+        }
+        return result;
     }
 
     @Override
@@ -206,6 +224,53 @@ public TeraArray deflateSparseArray8Bit(final byte[][] inflated, final byte[] de
         return null;
     }
 
+    /**
+     * Drops the values no longer used from the palette, if the remaining indices then take fewer bits, and turns
+     * arrays holding a single value into sparse arrays.
+     */
+    @Override
+    public TeraArray deflatePaletteArray(short[] palette, int paletteSize, long[] data, int bitsPerEntry,
+                                         int sizeX, int sizeY, int sizeZ) {
+        if (bitsPerEntry == 0) {
+            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, palette[0]);
+        }
+        // same layout as in TeraPaletteArray: the indices fill each long from the lowest bits up
+        final int sizeXYZ = sizeX * sizeY * sizeZ;
+        final int entriesPerLong = Long.SIZE / bitsPerEntry;
+        final long entryMask = (1L << bitsPerEntry) - 1;
+        // sized for every index the data can hold, as the array may be deflated while another thread adds values
+        final int[] remapped = new int[Math.max(paletteSize, 1 << bitsPerEntry)];
+        Arrays.fill(remapped, -1);
+        int used = 0;
+        for (int i = 0; i < sizeXYZ; i++) {
+            int index = (int) (data[i / entriesPerLong] >>> ((i % entriesPerLong) * bitsPerEntry) & entryMask);
+            if (remapped[index] < 0) {
+                remapped[index] = used++;
+            }
+        }
+        if (used == 1) {
+            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, palette[(int) (data[0] & entryMask)]);
+        }
+        final int newBitsPerEntry = TeraPaletteArray.getBitsForPaletteSize(used);
+        if (newBitsPerEntry == bitsPerEntry) {
+            return null;
+        }
+
+        final short[] newPalette = new short[used];
+        for (int i = 0; i < remapped.length; i++) {
+            if (remapped[i] >= 0) {
+                newPalette[remapped[i]] = palette[i];
+            }
+        }
+        final int newEntriesPerLong = Long.SIZE / newBitsPerEntry;
+        final long[] newData = new long[TeraPaletteArray.getDataLength(sizeXYZ, newBitsPerEntry)];
+        for (int i = 0; i < sizeXYZ; i++) {
+            int index = (int) (data[i / entriesPerLong] >>> ((i % entriesPerLong) * bitsPerEntry) & entryMask);
+            newData[i / newEntriesPerLong] |= (long) remapped[index] << ((i % newEntriesPerLong) * newBitsPerEntry);
+        }
+        return new TeraPaletteArray(sizeX, sizeY, sizeZ, newPalette, newData);
+    }
+
     @Override
     public TeraArray deflateSparseArray4Bit(final byte[][] inflated, final byte[] deflated, final byte fill, final int rowSize,
                                             final int sizeX, final int sizeY, final int sizeZ) {
@@ -19,6 +19,8 @@
 import com.google.common.base.Preconditions;
 import org.terasology.world.chunks.blockdata.TeraArray;
 
+import java.util.Arrays;
+
 /**
  * TeraVisitingDeflator uses the visitor pattern to gain access to the internal implementation details of specific
  * TeraArrays. This allows to implement fast deflation algorithms.
@@ -51,4 +53,25 @@ public final TeraArray deflate(TeraArray in) {
 
     public abstract TeraArray deflateSparseArray4Bit(byte[][] inflated, byte[] deflated, byte fill, int rowSize, int sizeX, int sizeY, int sizeZ);
 
+
+    /**
+     * Deflates the elements of a palette array like those of a dense 16 bit array, unless overridden.
+     *
+     * @param palette holds at least {@code 1 << bitsPerEntry} values, of which the first {@code paletteSize} are in use
+     */
+    public TeraArray deflatePaletteArray(short[] palette, int paletteSize, long[] data, int bitsPerEntry, int sizeX, int sizeY, int sizeZ) {
+        final short[] values = new short[sizeX * sizeY * sizeZ];
+        if (bitsPerEntry == 0) {
+            Arrays.fill(values, palette[0]);
+        } else {
+            // same layout as in TeraPaletteArray: the indices fill each long from the lowest bits up
+            final int entriesPerLong = Long.SIZE / bitsPerEntry;
+            final long entryMask = (1L << bitsPerEntry) - 1;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = palette[(int) (data[i / entriesPerLong] >>> ((i % entriesPerLong) * bitsPerEntry) & entryMask)];
+            }
+        }
+        return deflateDenseArray16Bit(values, sizeX * sizeZ, sizeX, sizeY, sizeZ);
+    }
+
 }
@@ -17,6 +17,7 @@
 
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
+import com.google.protobuf.CodedOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.math.AABB;
@@ -36,9 +37,11 @@
 import org.terasology.world.chunks.blockdata.TeraArray;
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 import org.terasology.world.chunks.deflate.TeraDeflator;
 import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 
 /**
@@ -151,7 +154,10 @@ public final Block getBlock(int x, int y, int z) {
     // so whatever sets a block to something extraData sensitive should also initialise the extra data.
     @Override
     public Block setBlock(int x, int y, int z, Block block) {
-        if (blockData == blockDataSnapshot) {
+        if (blockData instanceof TeraPaletteArray && !((TeraPaletteArray) blockData).canHold(block.getId())) {
+            // a full palette is replaced rather than grown, which also leaves any snapshot untouched
+            blockData = ((TeraPaletteArray) blockData).inflate();
+        } else if (blockData == blockDataSnapshot) {
             blockData = blockData.copy();
         }
         int oldValue = blockData.set(x, y, z, block.getId());
@@ -539,9 +545,16 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData);
     }
 
+    /**
+     * Writes the chunk and the given entities as a ChunkStore message.
+     */
+    public void encode(EntityData.EntityStore entityStore, CodedOutputStream output) throws IOException {
+        ChunkSerializer.encode(chunkPos, blockData, extraData, entityStore, output);
+    }
+
     /**
      * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk.
-     * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
+     * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot(EntityData.EntityStore, CodedOutputStream)}.
      */
     public void createSnapshot() {
         this.blockDataSnapshot = this.blockData;
@@ -550,18 +563,16 @@ public void createSnapshot() {
     }
 
     /**
+     * Writes the snapshot taken with {@link #createSnapshot()} and the given entities as a ChunkStore message.
      * This method can only be
      * called once after {@link #createSnapshot()} has been called. It can be called from a different thread than
      * {@link #createSnapshot()}, but it must be made sure that neither method is still running when the other gets
      * called.
-     *
-     * @return an encoded version of the snapshot taken with {@link #createSnapshot()}.
      */
-    public EntityData.ChunkStore.Builder encodeAndReleaseSnapshot() {
-        EntityData.ChunkStore.Builder result = ChunkSerializer.encode(chunkPos, blockDataSnapshot, extraDataSnapshots);
+    public void encodeAndReleaseSnapshot(EntityData.EntityStore entityStore, CodedOutputStream output) throws IOException {
+        ChunkSerializer.encode(chunkPos, blockDataSnapshot, extraDataSnapshots, entityStore, output);
         this.blockDataSnapshot = null;
         this.extraDataSnapshots = null;
-        return result;
     }
 
 }
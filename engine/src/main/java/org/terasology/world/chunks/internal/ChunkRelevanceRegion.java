@@ -22,6 +22,8 @@
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkRegionListener;
@@ -32,6 +34,8 @@
 /**
  */
 public class ChunkRelevanceRegion {
+    private static final float VELOCITY_SMOOTHING = 0.25f;
+
     private EntityRef entity;
     private Vector3i relevanceDistance = new Vector3i();
     private boolean dirty;
@@ -39,6 +43,9 @@ public class ChunkRelevanceRegion {
     private Region3i currentRegion = Region3i.empty();
     private Region3i previousRegion = Region3i.empty();
     private ChunkRegionListener listener;
+    private final Vector3f lastPosition = new Vector3f();
+    private long lastPositionNanos;
+    private final Vector3f velocity = new Vector3f();
 
     private Set<Vector3i> relevantChunks = Sets.newLinkedHashSet();
 
@@ -108,6 +115,7 @@ public void update() {
         if (!isValid()) {
             dirty = false;
         } else {
+            updateVelocity();
             Vector3i newCenter = calculateCenter();
             if (!newCenter.equals(center)) {
                 dirty = true;
@@ -118,6 +126,56 @@ public void update() {
         }
     }
 
+    private void updateVelocity() {
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (loc == null || Float.isNaN(loc.getWorldPosition().x)) {
+            return;
+        }
+        Vector3f position = loc.getWorldPosition();
+        long now = System.nanoTime();
+        if (lastPositionNanos != 0 && now > lastPositionNanos) {
+            float seconds = (now - lastPositionNanos) / 1e9f;
+            // smoothed, so a single uneven frame doesn't throw the prediction off
+            velocity.x += VELOCITY_SMOOTHING * ((position.x - lastPosition.x) / seconds - velocity.x);
+            velocity.y += VELOCITY_SMOOTHING * ((position.y - lastPosition.y) / seconds - velocity.y);
+            velocity.z += VELOCITY_SMOOTHING * ((position.z - lastPosition.z) / seconds - velocity.z);
+        }
+        lastPosition.set(position);
+        lastPositionNanos = now;
+    }
+
+    /**
+     * @return the recent velocity of the entity, in blocks per second
+     */
+    public Vector3f getVelocity() {
+        return new Vector3f(velocity);
+    }
+
+    /**
+     * Predicts the region that will be relevant if the entity keeps moving the way it did recently. The prediction is
+     * moved by at most half the relevance distance, so it always overlaps the current region.
+     *
+     * @param seconds how far to look ahead
+     * @return the predicted region, or an empty region if it is the current one
+     */
+    public Region3i getPredictedRegion(float seconds) {
+        if (currentRegion.isEmpty() || lastPositionNanos == 0) {
+            return Region3i.empty();
+        }
+        Vector3f predictedPosition = new Vector3f(velocity);
+        predictedPosition.scale(seconds);
+        predictedPosition.add(lastPosition);
+        Vector3i predictedCenter = ChunkMath.calcChunkPos(predictedPosition);
+        Vector3i offset = new Vector3i(
+                TeraMath.clamp(predictedCenter.x - center.x, -relevanceDistance.x / 2, relevanceDistance.x / 2),
+                TeraMath.clamp(predictedCenter.y - center.y, -relevanceDistance.y / 2, relevanceDistance.y / 2),
+                TeraMath.clamp(predictedCenter.z - center.z, -relevanceDistance.z / 2, relevanceDistance.z / 2));
+        if (offset.equals(Vector3i.zero())) {
+            return Region3i.empty();
+        }
+        return currentRegion.move(offset);
+    }
+
     private Region3i calculateRegion() {
         LocationComponent loc = entity.getComponent(LocationComponent.class);
         if (loc != null&& !Float.isNaN(loc.getWorldPosition().x)) {
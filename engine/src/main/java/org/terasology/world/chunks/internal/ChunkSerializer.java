@@ -17,6 +17,10 @@
 
 import com.google.common.base.Preconditions;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
 import gnu.trove.list.TByteList;
 import gnu.trove.list.array.TByteArrayList;
 import org.terasology.math.geom.Vector3i;
@@ -26,13 +30,21 @@
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.world.chunks.blockdata.TeraArray;
-import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
 
+import java.io.IOException;
+
 /**
  */
 public final class ChunkSerializer {
 
+    private static final int STORE_TAG = RunLengthCodec.makeTag(EntityData.ChunkStore.STORE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int X_TAG = RunLengthCodec.makeTag(EntityData.ChunkStore.X_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int Y_TAG = RunLengthCodec.makeTag(EntityData.ChunkStore.Y_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int Z_TAG = RunLengthCodec.makeTag(EntityData.ChunkStore.Z_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int BLOCK_DATA_TAG = RunLengthCodec.makeTag(EntityData.ChunkStore.BLOCK_DATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int EXTRA_DATA_TAG = RunLengthCodec.makeTag(EntityData.ChunkStore.EXTRA_DATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
     private ChunkSerializer() {
     }
 
@@ -65,28 +77,75 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
         return new ChunkImpl(pos, blockData, extraData, blockManager);
     }
 
-    private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
-        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
-        short lastItem = (short) array.get(0, 0, 0);
-        int counter = 0;
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    short item = (short) array.get(x, y, z);
-                    if (lastItem != item) {
-                        builder.addRunLengths(counter);
-                        builder.addValues(lastItem & 0xFFFF);
-                        lastItem = item;
-                        counter = 1;
-                    } else {
-                        counter++;
-                    }
-                }
+    /**
+     * Writes the chunk and the entities stored with it as a ChunkStore message, without building the message: the runs
+     * of the arrays are encoded straight into the output by the {@link RunLengthCodec}. The bytes are the same the
+     * built message serializes to.
+     */
+    public static void encode(Vector3i pos, TeraArray blockData, TeraArray[] extraData, EntityData.EntityStore entityStore,
+                              CodedOutputStream output) throws IOException {
+        output.writeMessage(EntityData.ChunkStore.STORE_FIELD_NUMBER, entityStore);
+        output.writeSInt32(EntityData.ChunkStore.X_FIELD_NUMBER, pos.x);
+        output.writeSInt32(EntityData.ChunkStore.Y_FIELD_NUMBER, pos.y);
+        output.writeSInt32(EntityData.ChunkStore.Z_FIELD_NUMBER, pos.z);
+        RunLengthCodec.writeField(EntityData.ChunkStore.BLOCK_DATA_FIELD_NUMBER, blockData, output);
+        for (TeraArray extra : extraData) {
+            RunLengthCodec.writeField(EntityData.ChunkStore.EXTRA_DATA_FIELD_NUMBER, extra, output);
+        }
+    }
+
+    /**
+     * Reads a serialized ChunkStore message without parsing it into a message first: the run length encoded arrays are
+     * decoded straight from the input by the {@link RunLengthCodec}.
+     *
+     * @param entityStore the builder the entities stored with the chunk are merged into
+     */
+    public static Chunk decode(CodedInputStream input, EntityData.EntityStore.Builder entityStore, BlockManager blockManager,
+                               ExtraBlockDataManager extraDataManager) throws IOException {
+        Integer x = null;
+        Integer y = null;
+        Integer z = null;
+        TeraArray blockData = null;
+        final TeraArray[] extraData = extraDataManager.makeDataArrays(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        int extraDataCount = 0;
+        int tag = input.readTag();
+        while (tag != 0) {
+            if (tag == STORE_TAG) {
+                input.readMessage(entityStore, ExtensionRegistryLite.getEmptyRegistry());
+            } else if (tag == X_TAG) {
+                x = input.readSInt32();
+            } else if (tag == Y_TAG) {
+                y = input.readSInt32();
+            } else if (tag == Z_TAG) {
+                z = input.readSInt32();
+            } else if (tag == BLOCK_DATA_TAG) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                blockData = RunLengthCodec.read(input);
+                input.popLimit(limit);
+            } else if (tag == EXTRA_DATA_TAG && extraDataCount < extraData.length) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                RunLengthCodec.read(input, extraData[extraDataCount++]);
+                input.popLimit(limit);
+            } else if (!input.skipField(tag)) {
+                break;
             }
+            tag = input.readTag();
         }
-        if (lastItem != 0) {
-            builder.addRunLengths(counter);
-            builder.addValues(lastItem & 0xFFFF);
+        if (x == null || y == null || z == null) {
+            throw new IllegalArgumentException("Ill-formed protobuf message. Missing chunk position.");
+        }
+        if (blockData == null) {
+            throw new IllegalArgumentException("Ill-formed protobuf message. Missing block data.");
+        }
+        return new ChunkImpl(new Vector3i(x, y, z), blockData, extraData, blockManager);
+    }
+
+    private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
+        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        RunLengths runs = RunLengths.of(array);
+        for (int i = 0; i < runs.size(); i++) {
+            builder.addRunLengths(runs.getLength(i));
+            builder.addValues(runs.getValue(i));
         }
         return builder.build();
     }
@@ -120,17 +179,7 @@ private static EntityData.RunLengthEncoding8 runLengthEncode8(TeraArray array) {
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
-        Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
-        short[] decodedData = new short[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
-        int index = 0;
-        for (int pos = 0; pos < data.getValuesCount(); ++pos) {
-            int length = data.getRunLengths(pos);
-            short value = (short) data.getValues(pos);
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
-            }
-        }
-        return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
+        return RunLengths.of(data).toArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
@@ -153,25 +202,6 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
      * Generic w.r.t. TeraArray subclasses, allowing the data to be used for any type of TeraArray.
      */
     private static void runLengthDecode(EntityData.RunLengthEncoding16 data, TeraArray array) {
-        int index = 0;
-        int count = 0;
-        int value = 0;
-        outer:
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    if (count == 0) {
-                        if (index >= data.getRunLengthsCount()) {
-                            break outer;
-                        }
-                        count = data.getRunLengths(index);
-                        value = data.getValues(index);
-                        index++;
-                    }
-                    count--;
-                    array.set(x, y, z, value);
-                }
-            }
-        }
+        RunLengths.of(data).copyTo(array);
     }
 }
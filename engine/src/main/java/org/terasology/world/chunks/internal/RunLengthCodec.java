@@ -0,0 +1,195 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+
+import java.io.IOException;
+
+/**
+ * Encodes tera arrays straight to and from the wire format of {@link EntityData.RunLengthEncoding16}, without building
+ * the message and boxing every run into its repeated fields. What it writes parses as a RunLengthEncoding16 message and
+ * it reads what such a message serializes to.
+ * <br><br>
+ * The runs are collected with {@link TeraArray#forEachRun(TeraArray.RunConsumer)}, so sparse arrays pass their
+ * uniform rows as a whole and dense arrays are scanned without a virtual call per element.
+ */
+public final class RunLengthCodec {
+
+    private static final int RUN_LENGTHS_FIELD = EntityData.RunLengthEncoding16.RUNLENGTHS_FIELD_NUMBER;
+    private static final int VALUES_FIELD = EntityData.RunLengthEncoding16.VALUES_FIELD_NUMBER;
+    private static final int RUN_LENGTHS_TAG = makeTag(RUN_LENGTHS_FIELD, WireFormat.WIRETYPE_VARINT);
+    private static final int RUN_LENGTHS_PACKED_TAG = makeTag(RUN_LENGTHS_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int VALUES_TAG = makeTag(VALUES_FIELD, WireFormat.WIRETYPE_VARINT);
+    private static final int VALUES_PACKED_TAG = makeTag(VALUES_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private RunLengthCodec() {
+    }
+
+    /**
+     * @return the encoded runs of the array, as a serialized RunLengthEncoding16 message
+     */
+    public static ByteString encode(TeraArray array) {
+        RunLengths runs = RunLengths.of(array);
+        byte[] bytes = new byte[computeSize(runs)];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            write(runs, output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write to a byte array of the computed size", e);
+        }
+        return ByteString.copyFrom(bytes);
+    }
+
+    /**
+     * Writes the runs of the array, as the contents of a RunLengthEncoding16 message.
+     */
+    public static void write(TeraArray array, CodedOutputStream output) throws IOException {
+        write(RunLengths.of(array), output);
+    }
+
+    /**
+     * Writes the runs of the array as a RunLengthEncoding16 field of an enclosing message.
+     */
+    public static void writeField(int fieldNumber, TeraArray array, CodedOutputStream output) throws IOException {
+        RunLengths runs = RunLengths.of(array);
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeRawVarint32(computeSize(runs));
+        write(runs, output);
+    }
+
+    /**
+     * @return a chunk sized array holding the encoded runs: a palette array if they use few enough distinct values,
+     * a dense 16 bit array otherwise
+     */
+    public static TeraArray decode(ByteString bytes) {
+        try {
+            return read(bytes.newCodedInput());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Ill-formed run length encoding.", e);
+        }
+    }
+
+    /**
+     * Reads the contents of a RunLengthEncoding16 message, up to the end of the input or its current limit.
+     *
+     * @return a chunk sized array holding the runs: a palette array if they use few enough distinct values, a dense
+     * 16 bit array otherwise
+     */
+    public static TeraArray read(CodedInputStream input) throws IOException {
+        return readRuns(input).toArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+    }
+
+    /**
+     * Reads the contents of a RunLengthEncoding16 message, up to the end of the input or its current limit, into an
+     * existing array of any type.
+     */
+    public static void read(CodedInputStream input, TeraArray array) throws IOException {
+        readRuns(input).copyTo(array);
+    }
+
+    private static int computeSize(RunLengths runs) {
+        if (runs.size() == 0) {
+            return 0;
+        }
+        int lengthsSize = computeLengthsSize(runs);
+        int valuesSize = computeValuesSize(runs);
+        return CodedOutputStream.computeTagSize(RUN_LENGTHS_FIELD) + CodedOutputStream.computeRawVarint32Size(lengthsSize) + lengthsSize
+                + CodedOutputStream.computeTagSize(VALUES_FIELD) + CodedOutputStream.computeRawVarint32Size(valuesSize) + valuesSize;
+    }
+
+    private static int computeLengthsSize(RunLengths runs) {
+        int size = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            size += CodedOutputStream.computeSInt32SizeNoTag(runs.getLength(i));
+        }
+        return size;
+    }
+
+    private static int computeValuesSize(RunLengths runs) {
+        int size = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            size += CodedOutputStream.computeSInt32SizeNoTag(runs.getValue(i));
+        }
+        return size;
+    }
+
+    private static void write(RunLengths runs, CodedOutputStream output) throws IOException {
+        // empty packed fields are left out, like protobuf does
+        if (runs.size() == 0) {
+            return;
+        }
+        output.writeTag(RUN_LENGTHS_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeRawVarint32(computeLengthsSize(runs));
+        for (int i = 0; i < runs.size(); i++) {
+            output.writeSInt32NoTag(runs.getLength(i));
+        }
+        output.writeTag(VALUES_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeRawVarint32(computeValuesSize(runs));
+        for (int i = 0; i < runs.size(); i++) {
+            output.writeSInt32NoTag(runs.getValue(i));
+        }
+    }
+
+    private static RunLengths readRuns(CodedInputStream input) throws IOException {
+        TIntList lengths = new TIntArrayList();
+        TIntList values = new TIntArrayList();
+        int tag = input.readTag();
+        while (tag != 0) {
+            if (tag == RUN_LENGTHS_PACKED_TAG || tag == VALUES_PACKED_TAG) {
+                TIntList target = tag == RUN_LENGTHS_PACKED_TAG ? lengths : values;
+                int limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    target.add(input.readSInt32());
+                }
+                input.popLimit(limit);
+            } else if (tag == RUN_LENGTHS_TAG) {
+                // parsers have to accept repeated fields that weren't packed as well
+                lengths.add(input.readSInt32());
+            } else if (tag == VALUES_TAG) {
+                values.add(input.readSInt32());
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+            tag = input.readTag();
+        }
+        if (lengths.size() != values.size()) {
+            throw new InvalidProtocolBufferException("Expected same number of values as runs");
+        }
+        RunLengths runs = new RunLengths(lengths.size());
+        for (int i = 0; i < lengths.size(); i++) {
+            runs.add(lengths.get(i), values.get(i));
+        }
+        return runs;
+    }
+
+    /**
+     * The same as WireFormat.makeTag, which isn't public.
+     */
+    static int makeTag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+}
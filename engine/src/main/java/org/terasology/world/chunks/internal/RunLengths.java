@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.common.base.Preconditions;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
+
+import java.util.Arrays;
+
+/**
+ * The runs of equal values of a tera array, the way {@link EntityData.RunLengthEncoding16} stores them: in the order
+ * x changes fastest, then z, then y, with the values as unsigned 16 bit numbers. The elements after the last run are 0.
+ * <br><br>
+ * The runs collected from a tera array never have adjacent runs of the same value and leave out a last run of 0.
+ */
+final class RunLengths implements TeraArray.RunConsumer {
+
+    private int[] lengths;
+    private int[] values;
+    private int count;
+
+    RunLengths() {
+        this(64);
+    }
+
+    RunLengths(int capacity) {
+        lengths = new int[Math.max(capacity, 1)];
+        values = new int[lengths.length];
+    }
+
+    static RunLengths of(TeraArray array) {
+        RunLengths runs = new RunLengths();
+        array.forEachRun(runs);
+        if (runs.count > 0 && runs.values[runs.count - 1] == 0) {
+            runs.count--;
+        }
+        return runs;
+    }
+
+    static RunLengths of(EntityData.RunLengthEncoding16 data) {
+        Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
+        RunLengths runs = new RunLengths(data.getRunLengthsCount());
+        for (int i = 0; i < data.getRunLengthsCount(); i++) {
+            runs.add(data.getRunLengths(i), data.getValues(i));
+        }
+        return runs;
+    }
+
+    @Override
+    public void accept(int value, int length) {
+        int unsignedValue = value & 0xFFFF;
+        if (count > 0 && values[count - 1] == unsignedValue) {
+            lengths[count - 1] += length;
+        } else {
+            add(length, unsignedValue);
+        }
+    }
+
+    void add(int length, int value) {
+        if (count == lengths.length) {
+            lengths = Arrays.copyOf(lengths, count * 2);
+            values = Arrays.copyOf(values, count * 2);
+        }
+        lengths[count] = length;
+        values[count] = value;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int getLength(int index) {
+        return lengths[index];
+    }
+
+    int getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return a new array holding the runs: a palette array if they use few enough distinct values, a dense 16 bit
+     * array otherwise
+     */
+    TeraArray toArray(int sizeX, int sizeY, int sizeZ) {
+        short[] decodedData = new short[sizeX * sizeY * sizeZ];
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] < 0 || lengths[i] > decodedData.length - index) {
+                throw new IllegalArgumentException("Ill-formed run length encoding. The runs don't fit into the array.");
+            }
+            Arrays.fill(decodedData, index, index + lengths[i], (short) values[i]);
+            index += lengths[i];
+        }
+        if (TeraPaletteArray.hasCompactPalette(decodedData)) {
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ, decodedData);
+        }
+        return new TeraDenseArray16Bit(sizeX, sizeY, sizeZ, decodedData);
+    }
+
+    /**
+     * Writes the runs into an existing array. Generic w.r.t. TeraArray subclasses, allowing the data to be used for
+     * any type of TeraArray.
+     */
+    void copyTo(TeraArray array) {
+        int index = 0;
+        int remaining = 0;
+        int value = 0;
+        outer:
+        for (int y = 0; y < array.getSizeY(); ++y) {
+            for (int z = 0; z < array.getSizeZ(); ++z) {
+                for (int x = 0; x < array.getSizeX(); ++x) {
+                    if (remaining == 0) {
+                        if (index >= count) {
+                            break outer;
+                        }
+                        remaining = lengths[index];
+                        value = values[index];
+                        index++;
+                    }
+                    remaining--;
+                    array.set(x, y, z, value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.persistence.StorageManager;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reads and decompresses the stores of chunks that are expected to be loaded soon, so the chunk pipeline finds them
+ * ready instead of waiting on the storage.
+ * <br><br>
+ * At most {@code capacity} stores are held, the ones asked for first are dropped first. A store is handed out
+ * once, when its chunk gets loaded. Chunks are only prefetched while they are not loaded, and chunks are saved to the
+ * storage manager before they are removed, so a held store is never older than the saved chunk.
+ */
+final class ChunkPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkPrefetcher.class);
+
+    private final StorageManager storageManager;
+    private final int capacity;
+    private final Map<Vector3i, CompletableFuture<ChunkStore>> prefetched;
+    private final TaskMaster<Task> taskMaster;
+
+    ChunkPrefetcher(StorageManager storageManager, int capacity, int threads) {
+        this.storageManager = storageManager;
+        this.capacity = capacity;
+        this.prefetched = new LinkedHashMap<>();
+        this.taskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Prefetcher", threads);
+    }
+
+    /**
+     * Starts reading the store of a chunk in the background, unless it is already held or being read.
+     *
+     * @param chunkPos the position of the chunk
+     * @return whether a read was started
+     */
+    boolean prefetch(Vector3i chunkPos) {
+        CompletableFuture<ChunkStore> future = new CompletableFuture<>();
+        Vector3i pos = new Vector3i(chunkPos);
+        synchronized (prefetched) {
+            if (prefetched.containsKey(pos)) {
+                return false;
+            }
+            prefetched.put(pos, future);
+            dropEldest();
+        }
+        if (!taskMaster.offer(new PrefetchTask(pos, future))) {
+            synchronized (prefetched) {
+                prefetched.remove(pos, future);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hands out the store of a chunk that is being loaded. If the store was prefetched it is removed from the cache,
+     * waiting for the read to finish if necessary, otherwise it is read from the storage manager.
+     *
+     * @param chunkPos the position of the chunk
+     * @return the store of the chunk, or null if there is none
+     */
+    ChunkStore take(Vector3i chunkPos) {
+        CompletableFuture<ChunkStore> future;
+        synchronized (prefetched) {
+            future = prefetched.remove(chunkPos);
+        }
+        if (future != null) {
+            try {
+                ChunkStore store = future.get();
+                ChunkMonitor.recordPrefetchHit();
+                return store;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException e) {
+                logger.debug("Prefetch of chunk {} was cancelled", chunkPos);
+            } catch (ExecutionException e) {
+                logger.warn("Failed to prefetch chunk {}", chunkPos, e.getCause());
+            }
+        }
+        ChunkMonitor.recordPrefetchMiss();
+        return storageManager.loadChunkStore(chunkPos);
+    }
+
+    /**
+     * @return whether the store of the chunk is held or being read
+     */
+    boolean isPrefetched(Vector3i chunkPos) {
+        synchronized (prefetched) {
+            return prefetched.containsKey(chunkPos);
+        }
+    }
+
+    /**
+     * Drops all held stores, e.g. because the world they belong to was deleted.
+     */
+    void clear() {
+        synchronized (prefetched) {
+            for (CompletableFuture<ChunkStore> future : prefetched.values()) {
+                future.cancel(false);
+            }
+            prefetched.clear();
+        }
+    }
+
+    void restart() {
+        taskMaster.restart();
+    }
+
+    void shutdown() {
+        taskMaster.shutdown(new ShutdownTask(), false);
+        clear();
+    }
+
+    private void dropEldest() {
+        Iterator<CompletableFuture<ChunkStore>> iterator = prefetched.values().iterator();
+        while (prefetched.size() > capacity && iterator.hasNext()) {
+            iterator.next().cancel(false);
+            iterator.remove();
+            ChunkMonitor.recordPrefetchDropped();
+        }
+    }
+
+    private final class PrefetchTask implements Task {
+        private final Vector3i chunkPos;
+        private final CompletableFuture<ChunkStore> future;
+
+        PrefetchTask(Vector3i chunkPos, CompletableFuture<ChunkStore> future) {
+            this.chunkPos = chunkPos;
+            this.future = future;
+        }
+
+        @Override
+        public String getName() {
+            return "Prefetch chunk";
+        }
+
+        @Override
+        public void run() {
+            // dropped or cleared before its turn came
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(storageManager.loadChunkStore(chunkPos));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+    }
+}
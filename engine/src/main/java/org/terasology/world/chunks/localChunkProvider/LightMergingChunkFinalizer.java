@@ -24,11 +24,16 @@
 
 class LightMergingChunkFinalizer implements ChunkFinalizer {
 
+    private final int threadCount;
     private LightMerger<ReadyChunkInfo> lightMerger;
 
+    LightMergingChunkFinalizer(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
     @Override
     public void initialize(final GeneratingChunkProvider generatingChunkProvider) {
-        lightMerger = new LightMerger<>(generatingChunkProvider);
+        lightMerger = new LightMerger<>(generatingChunkProvider, threadCount);
     }
 
     @Override
@@ -35,6 +35,7 @@
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.chunk.ChunkMonitor;
@@ -64,6 +65,7 @@
 import org.terasology.world.chunks.pipeline.AbstractChunkTask;
 import org.terasology.world.chunks.pipeline.ChunkGenerationPipeline;
 import org.terasology.world.chunks.pipeline.ChunkTask;
+import org.terasology.world.generation.World;
 import org.terasology.world.generation.impl.EntityBufferImpl;
 import org.terasology.world.generator.WorldGenerator;
 import org.terasology.world.internal.ChunkViewCore;
@@ -90,12 +92,16 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
     private static final Logger logger = LoggerFactory.getLogger(LocalChunkProvider.class);
     private static final int UNLOAD_PER_FRAME = 64;
     private static final Vector3i UNLOAD_LEEWAY = Vector3i.one();
+    private static final float PREFETCH_SECONDS = 2f;
+    private static final int PREFETCH_PER_FRAME = 16;
+    private static final int PREFETCH_CAPACITY = 256;
 
     private StorageManager storageManager;
     private final EntityManager entityManager;
 
     private ChunkGenerationPipeline pipeline;
     private TaskMaster<ChunkUnloadRequest> unloadRequestTaskMaster;
+    private final ChunkPrefetcher prefetcher;
     private WorldGenerator generator;
 
     private Map<EntityRef, ChunkRelevanceRegion> regions = Maps.newHashMap();
@@ -121,13 +127,21 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
     //TODO Remove this old constructor at the end of the chunk overhaul
     public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
                               BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
+        this(storageManager, entityManager, generator, blockManager, extraDataManager, 1);
+    }
+
+    /**
+     * @param lightMergerThreads The number of threads merging the light of newly generated chunks
+     */
+    public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
+                              BlockManager blockManager, ExtraBlockDataManager extraDataManager, int lightMergerThreads) {
         this(storageManager,
                 entityManager,
                 generator,
                 blockManager,
                 extraDataManager,
-                new LightMergingChunkFinalizer(),
-                LightMergingChunkFinalizer::new,
+                new LightMergingChunkFinalizer(lightMergerThreads),
+                () -> new LightMergingChunkFinalizer(lightMergerThreads),
                 new ConcurrentMapChunkCache());
     }
 
@@ -142,6 +156,7 @@ public LocalChunkProvider(StorageManager storageManager, EntityManager entityMan
         this.extraDataManager = extraDataManager;
         this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
         this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 4);
+        this.prefetcher = new ChunkPrefetcher(storageManager, PREFETCH_CAPACITY, 2);
         this.chunkFinalizer = chunkFinalizer;
         this.chunkCache = chunkCache;
         chunkFinalizer.initialize(this);
@@ -419,9 +434,31 @@ private void checkForUnload() {
                 }
             }
         }
+        if (unloaded > 0) {
+            retainRelevantColumnData();
+        }
         PerformanceMonitor.endActivity();
     }
 
+    /**
+     * Lets the world generator drop the data it shares between the chunks of a column for all columns that are no
+     * longer covered by any relevance region.
+     */
+    private void retainRelevantColumnData() {
+        World world = generator.getWorld();
+        if (world == null) {
+            return;
+        }
+        List<Rect2i> relevantAreas = Lists.newArrayListWithCapacity(regions.size());
+        for (ChunkRelevanceRegion region : regions.values()) {
+            Region3i chunkRegion = region.getCurrentRegion().expand(UNLOAD_LEEWAY);
+            relevantAreas.add(Rect2i.createFromMinAndSize(
+                    chunkRegion.minX() * ChunkConstants.SIZE_X, chunkRegion.minZ() * ChunkConstants.SIZE_Z,
+                    chunkRegion.sizeX() * ChunkConstants.SIZE_X, chunkRegion.sizeZ() * ChunkConstants.SIZE_Z));
+        }
+        world.retainColumnData(relevantAreas);
+    }
+
     private boolean unloadChunkInternal(Vector3i pos) {
         Chunk chunk = chunkCache.get(pos);
         if (!chunk.isReady()) {
@@ -488,6 +525,37 @@ private void updateRelevance() {
                 }
                 chunkRelevanceRegion.setUpToDate();
             }
+            prefetchPredictedChunks(chunkRelevanceRegion);
+        }
+    }
+
+    /**
+     * Starts reading the stores of the chunks a relevance region is heading for, nearest first, so they are ready by
+     * the time the region reaches them.
+     */
+    private void prefetchPredictedChunks(ChunkRelevanceRegion region) {
+        Region3i predictedRegion = region.getPredictedRegion(PREFETCH_SECONDS);
+        if (predictedRegion.isEmpty()) {
+            return;
+        }
+        List<Vector3i> candidates = Lists.newArrayList();
+        Iterator<Vector3i> positions = predictedRegion.subtract(region.getCurrentRegion());
+        while (positions.hasNext()) {
+            Vector3i pos = positions.next();
+            if (!chunkCache.containsChunkAt(pos) && !preparingChunks.contains(pos) && !prefetcher.isPrefetched(pos)) {
+                candidates.add(pos);
+            }
+        }
+        Vector3i center = region.getCenter();
+        candidates.sort(Comparator.comparingInt(pos -> pos.gridDistance(center)));
+        int prefetched = 0;
+        for (Vector3i pos : candidates) {
+            if (prefetched >= PREFETCH_PER_FRAME) {
+                break;
+            }
+            if (prefetcher.prefetch(pos)) {
+                prefetched++;
+            }
         }
     }
 
@@ -553,6 +621,7 @@ public Collection<Chunk> getAllChunks() {
     @Override
     public void restart() {
         pipeline.restart();
+        prefetcher.restart();
         unloadRequestTaskMaster.restart();
         chunkFinalizer.restart();
     }
@@ -560,6 +629,7 @@ public void restart() {
     @Override
     public void shutdown() {
         pipeline.shutdown();
+        prefetcher.shutdown();
         unloadRequestTaskMaster.shutdown(new ChunkUnloadRequest(), true);
         chunkFinalizer.shutdown();
     }
@@ -599,6 +669,7 @@ public boolean reloadChunk(Vector3i coords) {
     public void purgeWorld() {
         ChunkMonitor.fireChunkProviderDisposed(this);
         pipeline.shutdown();
+        prefetcher.shutdown();
         unloadRequestTaskMaster.shutdown(new ChunkUnloadRequest(), true);
         chunkFinalizer.shutdown();
 
@@ -615,6 +686,7 @@ public void purgeWorld() {
         worldEntity.send(new PurgeWorldEvent());
 
         pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        prefetcher.restart();
         unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 8);
         chunkFinalizer = chunkFinalizerSupplier.get();
         chunkFinalizer.initialize(this);
@@ -641,7 +713,7 @@ public String getName() {
 
                 @Override
                 public void run() {
-                    ChunkStore chunkStore = storageManager.loadChunkStore(getPosition());
+                    ChunkStore chunkStore = prefetcher.take(getPosition());
                     Chunk chunk;
                     EntityBufferImpl buffer = new EntityBufferImpl();
                     if (chunkStore == null) {
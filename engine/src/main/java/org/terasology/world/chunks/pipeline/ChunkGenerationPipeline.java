@@ -25,13 +25,12 @@
 /**
  */
 public class ChunkGenerationPipeline {
-    private static final int NUM_TASK_THREADS = 8;
     private static final Logger logger = LoggerFactory.getLogger(ChunkGenerationPipeline.class);
 
     private TaskMaster<ChunkTask> chunkGenerator;
 
     public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator) {
-        chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskComparator);
+        chunkGenerator = TaskMaster.createSharedDynamicPriorityTaskMaster("Chunk-Generator", taskComparator);
     }
 
     public void doTask(ChunkTask task) {
@@ -21,6 +21,7 @@
 import org.terasology.world.generator.WorldGenerator;
 import org.terasology.world.zones.Zone;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -79,6 +80,12 @@ public void createChunk(CoreChunk chunk, EntityBuffer buffer) {
     public WorldConfigurator getConfigurator() {
         if (configurator == null) {
             configurator = getWorldBuilder().createConfigurator();
+            configurator.setPropertyChangeListener(() -> {
+                // facets generated with the old configuration must not be reused
+                if (world != null) {
+                    world.retainColumnData(Collections.emptyList());
+                }
+            });
         }
         return configurator;
     }
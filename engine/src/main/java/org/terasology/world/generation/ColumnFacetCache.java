@@ -0,0 +1,288 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.monitoring.PerformanceMonitor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shares the 2D facets of a world between all regions with the same footprint on the x/z plane, so that vertically
+ * stacked chunks only generate the facets of their column once.
+ * <br><br>
+ * Only {@link CopyableFacet2D copyable} facets whose whole provider chain is marked {@link HeightIndependent} and
+ * produces, updates and requires nothing but {@link WorldFacet2D}s are cached. Their providers are treated in groups:
+ * all providers writing to the same facet are either all skipped (and every facet they write restored from the cache)
+ * or all run. The cache keeps its own copy of each facet and hands a copy of it to every region, so providers running
+ * later can't change the facets of other regions.
+ * <br><br>
+ * The cache holds at most a fixed number of facets, dropping the least recently used ones first, and can additionally
+ * be trimmed to the columns still in use.
+ */
+class ColumnFacetCache {
+
+    private static final String HIT_COUNTER = "World generation column facet cache hits";
+    private static final String MISS_COUNTER = "World generation column facet cache misses";
+
+    private final Map<FacetProvider, ProviderGroup> groups = Maps.newHashMap();
+    private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final Map<Key, CopyableFacet2D> facets;
+
+    ColumnFacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     Map<Class<? extends WorldFacet>, Border3D> borders, int maxFacets) {
+        this.borders = borders;
+        this.facets = new LinkedHashMap<Key, CopyableFacet2D>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CopyableFacet2D> eldest) {
+                return size() > maxFacets;
+            }
+        };
+        determineGroups(facetProviderChains, determineColumnFacets(facetProviderChains));
+    }
+
+    /**
+     * Restores all facets written by the group of the given provider, if none of the group has been run for the region
+     * yet and all of its facets are cached.
+     *
+     * @return true if the facets were restored and the providers of the group must not be run.
+     */
+    boolean restore(FacetProvider provider, GeneratingRegion region, Set<FacetProvider> processedProviders) {
+        ProviderGroup group = groups.get(provider);
+        if (group == null || !Collections.disjoint(group.providers, processedProviders)) {
+            return false;
+        }
+        Map<Class<? extends WorldFacet>, CopyableFacet2D> cached = Maps.newHashMap();
+        synchronized (facets) {
+            for (Class<? extends WorldFacet> facetType : group.facets) {
+                CopyableFacet2D facet = facets.get(new Key(facetType, region.getRegion(), getSides(facetType)));
+                if (facet == null) {
+                    PerformanceMonitor.incrementCounter(MISS_COUNTER, 1);
+                    return false;
+                }
+                cached.put(facetType, facet);
+            }
+        }
+        PerformanceMonitor.incrementCounter(HIT_COUNTER, 1);
+        for (Map.Entry<Class<? extends WorldFacet>, CopyableFacet2D> entry : cached.entrySet()) {
+            setRegionFacet(region, entry.getKey(), entry.getValue().copy());
+        }
+        processedProviders.addAll(group.providers);
+        return true;
+    }
+
+    /**
+     * Stores the facets of the group of the given provider once every provider of the group has been run for the
+     * region, as no other provider may change them afterwards.
+     */
+    void store(FacetProvider provider, GeneratingRegion region, Set<FacetProvider> processedProviders) {
+        ProviderGroup group = groups.get(provider);
+        if (group == null || !processedProviders.containsAll(group.providers)) {
+            return;
+        }
+        synchronized (facets) {
+            for (Class<? extends WorldFacet> facetType : group.facets) {
+                WorldFacet facet = region.getRegionFacet(facetType);
+                if (facet != null) {
+                    Key key = new Key(facetType, region.getRegion(), getSides(facetType));
+                    if (!facets.containsKey(key)) {
+                        facets.put(key, ((CopyableFacet2D) facet).copy());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all facets that do not overlap any of the given areas.
+     *
+     * @param areas the areas to keep, in block coordinates on the x/z plane
+     */
+    void retain(Collection<Rect2i> areas) {
+        synchronized (facets) {
+            Iterator<Key> iterator = facets.keySet().iterator();
+            while (iterator.hasNext()) {
+                Key key = iterator.next();
+                if (areas.stream().noneMatch(key::overlaps)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (facets) {
+            facets.clear();
+        }
+    }
+
+    int size() {
+        synchronized (facets) {
+            return facets.size();
+        }
+    }
+
+    private int getSides(Class<? extends WorldFacet> facetType) {
+        Border3D border = borders.get(facetType);
+        return border != null ? border.getSides() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends WorldFacet> void setRegionFacet(GeneratingRegion region, Class<T> type, WorldFacet facet) {
+        region.setRegionFacet(type, (T) facet);
+    }
+
+    /**
+     * Determines the facets that can be shared across a column: copyable 2D facets whose provider chain is height
+     * independent, only deals with 2D facets and whose writers do not write any facet that can't be shared.
+     */
+    private static Set<Class<? extends WorldFacet>> determineColumnFacets(
+            ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        Set<Class<? extends WorldFacet>> columnFacets = new LinkedHashSet<>();
+        for (Class<? extends WorldFacet> facetType : facetProviderChains.keySet()) {
+            if (CopyableFacet2D.class.isAssignableFrom(facetType)
+                    && facetProviderChains.get(facetType).stream().allMatch(ColumnFacetCache::isColumnProvider)) {
+                columnFacets.add(facetType);
+            }
+        }
+
+        Set<FacetProvider> providers = new LinkedHashSet<>(facetProviderChains.values());
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (FacetProvider provider : providers) {
+                Set<Class<? extends WorldFacet>> written = writtenFacets(provider);
+                if (!columnFacets.containsAll(written) && columnFacets.removeAll(written)) {
+                    changed = true;
+                }
+            }
+        }
+        return columnFacets;
+    }
+
+    /**
+     * Groups the providers that only write column facets, joining the groups of providers that write the same facet.
+     */
+    private void determineGroups(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                                 Set<Class<? extends WorldFacet>> columnFacets) {
+        for (FacetProvider provider : new LinkedHashSet<>(facetProviderChains.values())) {
+            Set<Class<? extends WorldFacet>> written = writtenFacets(provider);
+            if (written.isEmpty() || !columnFacets.containsAll(written)) {
+                continue;
+            }
+            ProviderGroup group = new ProviderGroup();
+            group.providers.add(provider);
+            group.facets.addAll(written);
+            for (ProviderGroup other : new LinkedHashSet<>(groups.values())) {
+                if (!Collections.disjoint(other.facets, written)) {
+                    group.providers.addAll(other.providers);
+                    group.facets.addAll(other.facets);
+                }
+            }
+            for (FacetProvider member : group.providers) {
+                groups.put(member, group);
+            }
+        }
+    }
+
+    private static boolean isColumnProvider(FacetProvider provider) {
+        if (!provider.getClass().isAnnotationPresent(HeightIndependent.class)) {
+            return false;
+        }
+        Requires requires = provider.getClass().getAnnotation(Requires.class);
+        if (requires != null) {
+            for (Facet facet : requires.value()) {
+                if (!WorldFacet2D.class.isAssignableFrom(facet.value())) {
+                    return false;
+                }
+            }
+        }
+        return writtenFacets(provider).stream().allMatch(WorldFacet2D.class::isAssignableFrom);
+    }
+
+    private static Set<Class<? extends WorldFacet>> writtenFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> written = Sets.newLinkedHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            written.addAll(Arrays.asList(produces.value()));
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                written.add(facet.value());
+            }
+        }
+        return written;
+    }
+
+    private static final class ProviderGroup {
+        private final Set<FacetProvider> providers = Sets.newLinkedHashSet();
+        private final Set<Class<? extends WorldFacet>> facets = Sets.newLinkedHashSet();
+    }
+
+    private static final class Key {
+        private final Class<? extends WorldFacet> facetType;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final int sides;
+
+        Key(Class<? extends WorldFacet> facetType, Region3i region, int sides) {
+            this.facetType = facetType;
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.maxX = region.maxX();
+            this.maxZ = region.maxZ();
+            this.sides = sides;
+        }
+
+        boolean overlaps(Rect2i area) {
+            return minX - sides <= area.maxX() && maxX + sides >= area.minX()
+                    && minZ - sides <= area.maxY() && maxZ + sides >= area.minY();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return facetType == other.facetType && minX == other.minX && minZ == other.minZ
+                        && maxX == other.maxX && maxZ == other.maxZ && sides == other.sides;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(facetType, minX, minZ, maxX, maxZ, sides);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+/**
+ * A 2D facet that can be copied, so that one generated facet can be handed to several regions without them seeing
+ * each other's changes.
+ */
+public interface CopyableFacet2D extends WorldFacet2D {
+
+    /**
+     * @return a copy of this facet which shares no state that can be changed through the copy's methods
+     */
+    CopyableFacet2D copy();
+}
@@ -34,6 +34,8 @@ public class FacetedWorldConfigurator implements WorldConfigurator {
 
     private final List<ConfigurableFacetProvider> providers;
 
+    private Runnable propertyChangeListener = () -> { };
+
     public FacetedWorldConfigurator(List<ConfigurableFacetProvider> providersList) {
         for (ConfigurableFacetProvider provider : providersList) {
             Component old = properties.put(provider.getConfigurationName(), provider.getConfiguration());
@@ -49,12 +51,20 @@ public Map<String, Component> getProperties() {
         return Collections.unmodifiableMap(properties);
     }
 
+    /**
+     * @param listener called whenever the configuration of a facet provider has been changed
+     */
+    public void setPropertyChangeListener(Runnable listener) {
+        this.propertyChangeListener = listener;
+    }
+
     @Override
     public void setProperty(String key, Component comp) {
         for (ConfigurableFacetProvider facetProvider : providers) {
             if (key.equals(facetProvider.getConfigurationName())) {
                 facetProvider.setConfiguration(comp);
                 properties.put(key, comp);
+                propertyChangeListener.run();
                 return;
             }
         }
@@ -30,15 +30,22 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final ColumnFacetCache columnFacetCache;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+               ColumnFacetCache columnFacetCache) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.columnFacetCache = columnFacetCache;
     }
 
     @Override
@@ -46,8 +53,14 @@ public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
             facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
-                provider.process(this);
-                processedProviders.add(provider);
+                if (columnFacetCache == null) {
+                    provider.process(this);
+                    processedProviders.add(provider);
+                } else if (!columnFacetCache.restore(provider, this, processedProviders)) {
+                    provider.process(this);
+                    processedProviders.add(provider);
+                    columnFacetCache.store(provider, this, processedProviders);
+                }
             });
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
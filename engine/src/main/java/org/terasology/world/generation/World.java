@@ -16,8 +16,10 @@
 package org.terasology.world.generation;
 
 import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.world.chunks.CoreChunk;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -34,6 +36,15 @@ public interface World {
 
     void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer);
 
+    /**
+     * Allows the world to drop any data it keeps for the columns outside of the given areas, e.g. 2D facets shared
+     * between vertically stacked chunks.
+     *
+     * @param areas the areas that are still relevant, in block coordinates on the x/z plane
+     */
+    default void retainColumnData(Collection<Rect2i> areas) {
+    }
+
     /**
      * @return a <b>new</b> set containing all facet classes
      */
@@ -43,11 +43,17 @@ public class WorldBuilder extends ProviderStore {
 
     private static final Logger logger = LoggerFactory.getLogger(WorldBuilder.class);
 
+    /**
+     * Enough for the 2D facets of a few thousand columns.
+     */
+    private static final int DEFAULT_COLUMN_FACET_CACHE_SIZE = 8192;
+
     private final List<FacetProvider> providersList = Lists.newArrayList();
     private final Set<Class<? extends WorldFacet>> facetCalculationInProgress = Sets.newHashSet();
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private final List<EntityProvider> entityProviders = new ArrayList<>();
     private int seaLevel = 32;
+    private int columnFacetCacheSize = DEFAULT_COLUMN_FACET_CACHE_SIZE;
 
     private WorldGeneratorPluginLibrary pluginLibrary;
 
@@ -93,6 +99,15 @@ public WorldBuilder setSeaLevel(int level) {
         return this;
     }
 
+    /**
+     * @param size the maximum number of 2D facets shared between vertically stacked regions, 0 to disable sharing
+     * @return this
+     */
+    public WorldBuilder setColumnFacetCacheSize(int size) {
+        this.columnFacetCacheSize = size;
+        return this;
+    }
+
     public World build() {
         // TODO: ensure the required providers are present
 
@@ -104,7 +119,8 @@ public World build() {
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
         List<WorldRasterizer> orderedRasterizers = ensureRasterizerOrdering();
-        return new WorldImpl(providerChains, orderedRasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        return new WorldImpl(providerChains, orderedRasterizers, entityProviders, determineBorders(providerChains), seaLevel,
+                columnFacetCacheSize);
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
@@ -18,6 +18,7 @@
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.world.chunks.CoreChunk;
 
 import java.util.Collection;
@@ -34,22 +35,46 @@ public class WorldImpl implements World {
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final ColumnFacetCache columnFacetCache;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
                      List<EntityProvider> entityProviders,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
                      int seaLevel) {
+        this(facetProviderChains, worldRasterizers, entityProviders, borders, seaLevel, 0);
+    }
+
+    /**
+     * @param columnFacetCacheSize the maximum number of 2D facets shared between vertically stacked regions, 0 to
+     *                             generate them for every region
+     */
+    public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     List<WorldRasterizer> worldRasterizers,
+                     List<EntityProvider> entityProviders,
+                     Map<Class<? extends WorldFacet>, Border3D> borders,
+                     int seaLevel,
+                     int columnFacetCacheSize) {
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.columnFacetCache = columnFacetCacheSize > 0
+                ? new ColumnFacetCache(facetProviderChains, borders, columnFacetCacheSize)
+                : null;
     }
 
     @Override
     public Region getWorldData(Region3i region) {
-        return new RegionImpl(region, facetProviderChains, borders);
+        return new RegionImpl(region, facetProviderChains, borders, columnFacetCache);
+    }
+
+    @Override
+    public void retainColumnData(Collection<Rect2i> areas) {
+        if (columnFacetCache != null) {
+            columnFacetCache.retain(areas);
+        }
     }
 
     @Override
@@ -28,7 +28,7 @@
  */
 public abstract class BaseBooleanFieldFacet2D extends BaseFacet2D implements BooleanFieldFacet2D {
 
-    private final boolean[] data;
+    private boolean[] data;
 
     public BaseBooleanFieldFacet2D(Region3i targetRegion, Border3D border) {
         super(targetRegion, border);
@@ -56,6 +56,13 @@ public boolean getWorld(Vector2i pos) {
         return getWorld(pos.x, pos.y);
     }
 
+    @Override
+    public BaseBooleanFieldFacet2D copy() {
+        BaseBooleanFieldFacet2D copy = (BaseBooleanFieldFacet2D) super.copy();
+        copy.data = data.clone();
+        return copy;
+    }
+
     /**
      * This method exists for performance reasons, but it
      * is recommended to use proper getters and setters instead.
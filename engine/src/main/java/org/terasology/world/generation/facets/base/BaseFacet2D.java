@@ -18,11 +18,11 @@
 import org.terasology.math.geom.Rect2i;
 import org.terasology.math.Region3i;
 import org.terasology.world.generation.Border3D;
-import org.terasology.world.generation.WorldFacet2D;
+import org.terasology.world.generation.CopyableFacet2D;
 
 /**
  */
-public class BaseFacet2D implements WorldFacet2D {
+public class BaseFacet2D implements CopyableFacet2D, Cloneable {
 
     private Rect2i worldRegion;
     private Rect2i relativeRegion;
@@ -42,6 +42,19 @@ public final Rect2i getRelativeRegion() {
         return relativeRegion;
     }
 
+    /**
+     * Copies the facet through {@link Object#clone()}. Subclasses holding further mutable state have to copy it in
+     * an override.
+     */
+    @Override
+    public BaseFacet2D copy() {
+        try {
+            return (BaseFacet2D) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Facet can't be cloned", e);
+        }
+    }
+
     protected final int getRelativeIndex(int x, int z) {
         if (!relativeRegion.contains(x, z)) {
             throw new IllegalArgumentException(String.format("Out of bounds: (%d, %d) for region %s", x, z, relativeRegion.toString()));
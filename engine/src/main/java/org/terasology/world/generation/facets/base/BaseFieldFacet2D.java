@@ -54,6 +54,13 @@ public float getWorld(BaseVector2i pos) {
         return getWorld(pos.x(), pos.y());
     }
 
+    @Override
+    public BaseFieldFacet2D copy() {
+        BaseFieldFacet2D copy = (BaseFieldFacet2D) super.copy();
+        copy.data = data.clone();
+        return copy;
+    }
+
     public float[] getInternal() {
         return data;
     }
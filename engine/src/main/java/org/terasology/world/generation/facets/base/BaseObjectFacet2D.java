@@ -56,6 +56,17 @@ public T getWorld(BaseVector2i pos) {
         return getWorld(pos.x(), pos.y());
     }
 
+    /**
+     * Copies the array of objects, the objects themselves are shared with the copy.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public BaseObjectFacet2D<T> copy() {
+        BaseObjectFacet2D<T> copy = (BaseObjectFacet2D<T>) super.copy();
+        copy.data = data.clone();
+        return copy;
+    }
+
     public T[] getInternal() {
         return data;
     }
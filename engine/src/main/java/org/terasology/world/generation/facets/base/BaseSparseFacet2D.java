@@ -20,12 +20,12 @@
 import org.terasology.math.geom.Rect2i;
 import org.terasology.math.geom.Vector2i;
 import org.terasology.world.generation.Border3D;
-import org.terasology.world.generation.WorldFacet2D;
+import org.terasology.world.generation.CopyableFacet2D;
 
 /***
  * A base class for sparse (map-based) 2D facets.
  */
-public abstract class BaseSparseFacet2D implements WorldFacet2D {
+public abstract class BaseSparseFacet2D implements CopyableFacet2D, Cloneable {
     private Rect2i worldRegion;
     private Rect2i relativeRegion;
 
@@ -44,6 +44,19 @@ public Rect2i getRelativeRegion() {
         return relativeRegion;
     }
 
+    /**
+     * Copies the facet through {@link Object#clone()}. Subclasses holding further mutable state have to copy it in
+     * an override.
+     */
+    @Override
+    public BaseSparseFacet2D copy() {
+        try {
+            return (BaseSparseFacet2D) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Facet can't be cloned", e);
+        }
+    }
+
     protected BaseVector2i worldToRelative(int x, int y) {
         return new Vector2i(x - getWorldRegion().minX() + getRelativeRegion().minX(),
                 y - getWorldRegion().minY() + getRelativeRegion().minY());
@@ -32,6 +32,14 @@ public BaseStrictlySparseFieldFacet2D(Region3i targetRegion, Border3D border) {
         super(targetRegion, border);
     }
 
+    @Override
+    public BaseStrictlySparseFieldFacet2D copy() {
+        BaseStrictlySparseFieldFacet2D copy = (BaseStrictlySparseFieldFacet2D) super.copy();
+        copy.data = new HashMap<>();
+        data.forEach((pos, value) -> copy.data.put(new Vector2i(pos), value));
+        return copy;
+    }
+
     public Optional<Float> get(int x, int y) {
         return get(new Vector2i(x, y));
     }
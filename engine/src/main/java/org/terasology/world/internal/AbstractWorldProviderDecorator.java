@@ -112,6 +112,11 @@ public Block getBlock(int x, int y, int z) {
         return base.getBlock(x, y, z);
     }
 
+    @Override
+    public Block[] getBlocks(Region3i region, Block[] blocks) {
+        return base.getBlocks(region, blocks);
+    }
+
     @Override
     public byte getLight(int x, int y, int z) {
         return base.getLight(x, y, z);
@@ -142,16 +142,20 @@ public Block setBlock(Vector3ic pos, Block type) {
     public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
         if (GameThread.isCurrentThread()) {
             Map<Vector3i, Block> oldBlocks = super.setBlocks(blocks);
-            for (Vector3i vec : oldBlocks.keySet()) {
-                if (oldBlocks.get(vec) != null) {
+            // the block entities are only updated once every block is set
+            for (Map.Entry<Vector3i, Block> entry : oldBlocks.entrySet()) {
+                Block oldType = entry.getValue();
+                if (oldType != null) {
+                    Vector3i vec = entry.getKey();
                     EntityRef blockEntity = getBlockEntityAt(vec);
 
                     // check for components to be retained when updating the block entity
+                    RetainComponentsComponent retainComponentsComponent = blockEntity.getComponent(RetainComponentsComponent.class);
                     final Set<Class<? extends Component>> retainComponents =
-                            Optional.ofNullable(blockEntity.getComponent(RetainComponentsComponent.class))
-                                    .map(retainComponentsComponent -> retainComponentsComponent.components)
-                                    .orElse(Collections.emptySet());
-                    updateBlockEntity(blockEntity, vec, oldBlocks.get(vec), blocks.get(vec), false, retainComponents);
+                            retainComponentsComponent != null && retainComponentsComponent.components != null
+                                    ? retainComponentsComponent.components
+                                    : Collections.emptySet();
+                    updateBlockEntity(blockEntity, vec, oldType, blocks.get(vec), false, retainComponents);
                 }
             }
             return oldBlocks;
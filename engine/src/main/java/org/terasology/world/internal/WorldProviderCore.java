@@ -15,6 +15,7 @@
  */
 package org.terasology.world.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import org.joml.Vector3ic;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -145,6 +146,28 @@ default Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
      */
     Block getBlock(int x, int y, int z);
 
+    /**
+     * Reads the blocks of a region into an array, in the order the region iterates its positions: z changes fastest,
+     * then y, then x. Positions in chunks that aren't loaded are read like {@link #getBlock(int, int, int)} reads them.
+     *
+     * @param region The region to read
+     * @param blocks The array to read into, at least as long as the region holds positions
+     * @return The array read into
+     */
+    default Block[] getBlocks(Region3i region, Block[] blocks) {
+        Preconditions.checkArgument(blocks.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "The array is too short for region %s", region);
+        int index = 0;
+        for (int x = region.minX(); x <= region.maxX(); x++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                    blocks[index++] = getBlock(x, y, z);
+                }
+            }
+        }
+        return blocks;
+    }
+
     /**
      * Returns the light value at the given position.
      *
@@ -17,6 +17,7 @@
 package org.terasology.world.internal;
 
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
@@ -34,6 +35,7 @@
 import org.terasology.world.WorldComponent;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
@@ -55,10 +57,12 @@
 import org.terasology.world.time.WorldTime;
 import org.terasology.world.time.WorldTimeImpl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -83,6 +87,12 @@ public class WorldProviderCoreImpl implements WorldProviderCore {
 
     private Block unloadedBlock;
 
+    /**
+     * The chunk each thread read from last. Consecutive reads mostly hit the same chunk, which then doesn't have to be
+     * looked up in the chunk provider again.
+     */
+    private final ThreadLocal<LastReadChunk> lastReadChunks = ThreadLocal.withInitial(LastReadChunk::new);
+
     public WorldProviderCoreImpl(String title, String customTitle, String seed, long time, SimpleUri worldGenerator,
                                  GeneratingChunkProvider chunkProvider, Block unloadedBlock, Context context) {
         this.title = (title == null) ? seed : title;
@@ -221,18 +231,30 @@ public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
          * Hint: This method has a benchmark available in the BenchmarkScreen, The screen can be opened ingame via the
          * command "showSCreen BenchmarkScreen".
          */
-        Set<BlockChange> changedBlocks = new HashSet<>();
-        Map<Vector3i, Block> result = new HashMap<>(blocks.size());
-
+        Map<Vector3i, List<Map.Entry<Vector3i, Block>>> blocksByChunk = new LinkedHashMap<>();
         for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
-            Vector3i worldPos = entry.getKey();
-            Vector3i chunkPos = ChunkMath.calcChunkPos(worldPos);
-            CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+            blocksByChunk.computeIfAbsent(ChunkMath.calcChunkPos(entry.getKey()), chunkPos -> new ArrayList<>()).add(entry);
+        }
+
+        // all blocks are set before anything is notified, so listeners never see the change half done
+        Map<Vector3i, Block> result = new HashMap<>(blocks.size());
+        Map<Vector3i, List<BlockChange>> changesByChunk = new LinkedHashMap<>();
+        Set<Vector3i> dirtyChunks = new HashSet<>();
+        for (Map.Entry<Vector3i, List<Map.Entry<Vector3i, Block>>> chunkEntry : blocksByChunk.entrySet()) {
+            CoreChunk chunk = chunkProvider.getChunk(chunkEntry.getKey());
+            if (chunk == null) {
+                for (Map.Entry<Vector3i, Block> entry : chunkEntry.getValue()) {
+                    result.put(entry.getKey(), null);
+                }
+                continue;
+            }
 
-            if (chunk != null) {
+            List<BlockChange> changes = new ArrayList<>();
+            for (Map.Entry<Vector3i, Block> entry : chunkEntry.getValue()) {
+                Vector3i worldPos = entry.getKey();
                 Block type = entry.getValue();
-                Vector3i blockPos = ChunkMath.calcBlockPos(worldPos);
-                Block oldBlockType = chunk.setBlock(blockPos, type);
+                Block oldBlockType = chunk.setBlock(ChunkMath.calcBlockPosX(worldPos.x), ChunkMath.calcBlockPosY(worldPos.y),
+                        ChunkMath.calcBlockPosZ(worldPos.z), type);
                 if (oldBlockType != type) {
                     BlockChange oldChange = blockChanges.get(worldPos);
                     if (oldChange == null) {
@@ -240,22 +262,51 @@ public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
                     } else {
                         oldChange.setTo(type);
                     }
-                    setDirtyChunksNear(worldPos);
-                    changedBlocks.add(new BlockChange(JomlUtil.from(worldPos), oldBlockType, type));
+                    changes.add(new BlockChange(JomlUtil.from(worldPos), oldBlockType, type));
+                    addChunksNear(worldPos, chunkEntry.getKey(), dirtyChunks);
                 }
                 result.put(worldPos, oldBlockType);
-            } else {
-                result.put(worldPos, null);
+            }
+            if (!changes.isEmpty()) {
+                changesByChunk.put(chunkEntry.getKey(), changes);
             }
         }
 
-        for (BlockChange change : changedBlocks) {
-            notifyBlockChanged(JomlUtil.from(change.getPosition()), change.getTo(), change.getFrom());
+        for (Vector3i chunkPos : dirtyChunks) {
+            RenderableChunk dirtiedChunk = chunkProvider.getChunk(chunkPos);
+            if (dirtiedChunk != null) {
+                dirtiedChunk.setDirty(true);
+            }
         }
+        notifyBlocksChanged(changesByChunk);
 
         return result;
     }
 
+    /**
+     * Adds the positions of the chunks within one block of the given position to the set, the way
+     * {@link #setDirtyChunksNear(Vector3i)} finds them. Only blocks at the border of their chunk have others near.
+     */
+    private static void addChunksNear(Vector3i worldPos, Vector3i chunkPos, Set<Vector3i> chunkPositions) {
+        int minX = ChunkMath.calcChunkPosX(worldPos.x - 1);
+        int maxX = ChunkMath.calcChunkPosX(worldPos.x + 1);
+        int minY = ChunkMath.calcChunkPosY(worldPos.y - 1);
+        int maxY = ChunkMath.calcChunkPosY(worldPos.y + 1);
+        int minZ = ChunkMath.calcChunkPosZ(worldPos.z - 1);
+        int maxZ = ChunkMath.calcChunkPosZ(worldPos.z + 1);
+        if (minX == maxX && minY == maxY && minZ == maxZ) {
+            chunkPositions.add(chunkPos);
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    chunkPositions.add(new Vector3i(x, y, z));
+                }
+            }
+        }
+    }
+
     private void setDirtyChunksNear(Vector3i pos0) {
         for (Vector3i pos : ChunkMath.getChunkRegionAroundWorldPos(pos0, 1)) {
             RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
@@ -275,6 +326,19 @@ private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         }
     }
 
+    private void notifyBlocksChanged(Map<Vector3i, List<BlockChange>> changesByChunk) {
+        if (changesByChunk.isEmpty()) {
+            return;
+        }
+        synchronized (listeners) {
+            for (WorldChangeListener listener : listeners) {
+                for (Map.Entry<Vector3i, List<BlockChange>> entry : changesByChunk.entrySet()) {
+                    listener.onBlocksChanged(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
     private void notifyExtraDataChanged(int index, Vector3i pos, int newData, int oldData) {
         // TODO: Change to match block , if those changes are made.
         synchronized (listeners) {
@@ -286,55 +350,105 @@ private void notifyExtraDataChanged(int index, Vector3i pos, int newData, int ol
 
     @Override
     public Block getBlock(int x, int y, int z) {
-        CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+        CoreChunk chunk = getChunkForRead(x, y, z);
         if (chunk != null) {
             return chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return unloadedBlock;
     }
 
+    @Override
+    public Block[] getBlocks(Region3i region, Block[] blocks) {
+        Preconditions.checkArgument(blocks.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "The array is too short for region %s", region);
+        int strideX = region.sizeY() * region.sizeZ();
+        int strideY = region.sizeZ();
+        // one chunk lookup per chunk the region touches, then straight reads of the part inside the chunk
+        for (int chunkX = ChunkMath.calcChunkPosX(region.minX()); chunkX <= ChunkMath.calcChunkPosX(region.maxX()); chunkX++) {
+            int minX = Math.max(region.minX(), chunkX * ChunkConstants.SIZE_X);
+            int maxX = Math.min(region.maxX(), (chunkX + 1) * ChunkConstants.SIZE_X - 1);
+            for (int chunkY = ChunkMath.calcChunkPosY(region.minY()); chunkY <= ChunkMath.calcChunkPosY(region.maxY()); chunkY++) {
+                int minY = Math.max(region.minY(), chunkY * ChunkConstants.SIZE_Y);
+                int maxY = Math.min(region.maxY(), (chunkY + 1) * ChunkConstants.SIZE_Y - 1);
+                for (int chunkZ = ChunkMath.calcChunkPosZ(region.minZ()); chunkZ <= ChunkMath.calcChunkPosZ(region.maxZ()); chunkZ++) {
+                    int minZ = Math.max(region.minZ(), chunkZ * ChunkConstants.SIZE_Z);
+                    int maxZ = Math.min(region.maxZ(), (chunkZ + 1) * ChunkConstants.SIZE_Z - 1);
+                    CoreChunk chunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int y = minY; y <= maxY; y++) {
+                            int index = (x - region.minX()) * strideX + (y - region.minY()) * strideY + minZ - region.minZ();
+                            for (int z = minZ; z <= maxZ; z++) {
+                                blocks[index++] = chunk != null
+                                        ? chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z))
+                                        : unloadedBlock;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
     @Override
     public byte getLight(int x, int y, int z) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = getChunkForRead(x, y, z);
         if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return chunk.getLight(blockPos);
+            return chunk.getLight(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return 0;
     }
 
     @Override
     public byte getSunlight(int x, int y, int z) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = getChunkForRead(x, y, z);
         if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return chunk.getSunlight(blockPos);
+            return chunk.getSunlight(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return 0;
     }
 
     @Override
     public byte getTotalLight(int x, int y, int z) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = getChunkForRead(x, y, z);
         if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return (byte) Math.max(chunk.getSunlight(blockPos), chunk.getLight(blockPos));
+            int blockX = ChunkMath.calcBlockPosX(x);
+            int blockY = ChunkMath.calcBlockPosY(y);
+            int blockZ = ChunkMath.calcBlockPosZ(z);
+            return (byte) Math.max(chunk.getSunlight(blockX, blockY, blockZ), chunk.getLight(blockX, blockY, blockZ));
         }
         return 0;
     }
 
     @Override
     public int getExtraData(int index, int x, int y, int z) {
-        CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+        CoreChunk chunk = getChunkForRead(x, y, z);
         if (chunk != null) {
             return chunk.getExtraData(index, ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return 0;
     }
 
+    /**
+     * @return the ready chunk holding the given world position, or null if there is none
+     */
+    private Chunk getChunkForRead(int x, int y, int z) {
+        int chunkX = ChunkMath.calcChunkPosX(x);
+        int chunkY = ChunkMath.calcChunkPosY(y);
+        int chunkZ = ChunkMath.calcChunkPosZ(z);
+        LastReadChunk last = lastReadChunks.get();
+        // a chunk that got unloaded isn't ready anymore, its position has to be looked up again
+        if (last.chunk != null && last.chunkX == chunkX && last.chunkY == chunkY && last.chunkZ == chunkZ && last.chunk.isReady()) {
+            return last.chunk;
+        }
+        Chunk chunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+        last.chunk = chunk;
+        last.chunkX = chunkX;
+        last.chunkY = chunkY;
+        last.chunkZ = chunkZ;
+        return chunk;
+    }
+
     @Override
     public int setExtraData(int index, Vector3i worldPos, int value) {
         Vector3i chunkPos = ChunkMath.calcChunkPos(worldPos);
@@ -372,4 +486,11 @@ public Collection<Region3i> getRelevantRegions() {
 
         return FluentIterable.from(chunks).filter(isReady).transform(mapping).toList();
     }
+
+    private static final class LastReadChunk {
+        private Chunk chunk;
+        private int chunkX;
+        private int chunkY;
+        private int chunkZ;
+    }
 }
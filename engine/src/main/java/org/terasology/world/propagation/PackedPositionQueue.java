@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * A first-in first-out queue of block positions that holds every position at most once.
+ * <p>
+ * Positions are stored packed into longs, 21 bits per coordinate, so they have to be within +/-1'048'576 blocks of
+ * the origin. Which positions are queued is tracked in one bitset per chunk, taken from a pool shared with the other
+ * queues of the same propagator. Once the queue and the pool have grown to the size needed, adding, removing and
+ * polling positions allocates nothing.
+ */
+final class PackedPositionQueue {
+
+    private static final int COORDINATE_BITS = 21;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    private static final int UNPACK_SHIFT = Long.SIZE - COORDINATE_BITS;
+
+    private static final int BITSET_LENGTH = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z / Long.SIZE;
+
+    /**
+     * Bitsets kept in the pool beyond this many are left to the garbage collector.
+     */
+    private static final int MAX_POOLED_BITSETS = 64;
+
+    private final Deque<long[]> bitsetPool;
+    private final TLongObjectMap<long[]> chunkBitsets = new TLongObjectHashMap<>();
+    private long lastChunkKey;
+    private long[] lastChunkBitset;
+
+    private long[] entries = new long[64];
+    private int head;
+    private int tail;
+
+    /**
+     * @param bitsetPool Cleared chunk bitsets, shared between the queues of one propagator
+     */
+    PackedPositionQueue(Deque<long[]> bitsetPool) {
+        this.bitsetPool = bitsetPool;
+    }
+
+    /**
+     * Adds the position to the end of the queue, unless it is queued already.
+     *
+     * @return Whether the position was added
+     */
+    boolean add(int x, int y, int z) {
+        long[] bitset = getBitset(x, y, z, true);
+        int index = bitIndex(x, y, z);
+        long bit = 1L << index;
+        if ((bitset[index >>> 6] & bit) != 0) {
+            return false;
+        }
+        bitset[index >>> 6] |= bit;
+
+        if (tail == entries.length) {
+            if (head > entries.length / 2) {
+                System.arraycopy(entries, head, entries, 0, tail - head);
+                tail -= head;
+                head = 0;
+            } else {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+        }
+        entries[tail++] = pack(x, y, z);
+        return true;
+    }
+
+    boolean add(Vector3i pos) {
+        return add(pos.x, pos.y, pos.z);
+    }
+
+    /**
+     * Removes the position from the queue, if it is queued.
+     */
+    void remove(Vector3i pos) {
+        long[] bitset = getBitset(pos.x, pos.y, pos.z, false);
+        if (bitset != null) {
+            int index = bitIndex(pos.x, pos.y, pos.z);
+            bitset[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Takes the first position off the queue.
+     *
+     * @param dest Set to the position taken off the queue
+     * @return Whether there was a position to take off the queue
+     */
+    boolean poll(Vector3i dest) {
+        while (head < tail) {
+            long packed = entries[head++];
+            int x = unpackX(packed);
+            int y = unpackY(packed);
+            int z = unpackZ(packed);
+            long[] bitset = getBitset(x, y, z, false);
+            int index = bitIndex(x, y, z);
+            long bit = 1L << index;
+            // removed positions stay in the entries until they are polled, with their bit cleared
+            if ((bitset[index >>> 6] & bit) != 0) {
+                bitset[index >>> 6] &= ~bit;
+                dest.set(x, y, z);
+                return true;
+            }
+        }
+        releaseBitsets();
+        return false;
+    }
+
+    /**
+     * Removes all positions from the queue.
+     */
+    void clear() {
+        for (int i = head; i < tail; i++) {
+            long packed = entries[i];
+            int x = unpackX(packed);
+            int y = unpackY(packed);
+            int z = unpackZ(packed);
+            long[] bitset = getBitset(x, y, z, false);
+            int index = bitIndex(x, y, z);
+            bitset[index >>> 6] &= ~(1L << index);
+        }
+        releaseBitsets();
+    }
+
+    /**
+     * Returns the bitsets of the chunks to the pool. All their bits are cleared by now.
+     */
+    private void releaseBitsets() {
+        head = 0;
+        tail = 0;
+        if (!chunkBitsets.isEmpty()) {
+            chunkBitsets.forEachValue(bitset -> {
+                if (bitsetPool.size() < MAX_POOLED_BITSETS) {
+                    bitsetPool.push(bitset);
+                }
+                return true;
+            });
+            chunkBitsets.clear();
+            lastChunkBitset = null;
+        }
+    }
+
+    private long[] getBitset(int x, int y, int z, boolean create) {
+        long chunkKey = pack(x >> ChunkConstants.POWER_X, y >> ChunkConstants.POWER_Y, z >> ChunkConstants.POWER_Z);
+        if (lastChunkBitset != null && lastChunkKey == chunkKey) {
+            return lastChunkBitset;
+        }
+        long[] bitset = chunkBitsets.get(chunkKey);
+        if (bitset == null) {
+            if (!create) {
+                return null;
+            }
+            bitset = bitsetPool.isEmpty() ? new long[BITSET_LENGTH] : bitsetPool.pop();
+            chunkBitsets.put(chunkKey, bitset);
+        }
+        lastChunkKey = chunkKey;
+        lastChunkBitset = bitset;
+        return bitset;
+    }
+
+    private static int bitIndex(int x, int y, int z) {
+        return (x & ChunkConstants.INNER_CHUNK_POS_FILTER_X)
+                + ChunkConstants.SIZE_X * ((z & ChunkConstants.INNER_CHUNK_POS_FILTER_Z)
+                + ChunkConstants.SIZE_Z * (y & ChunkConstants.INNER_CHUNK_POS_FILTER_Y));
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & COORDINATE_MASK) << (2 * COORDINATE_BITS)) | ((y & COORDINATE_MASK) << COORDINATE_BITS) | (z & COORDINATE_MASK);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed << (UNPACK_SHIFT - 2 * COORDINATE_BITS) >> UNPACK_SHIFT);
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << (UNPACK_SHIFT - COORDINATE_BITS) >> UNPACK_SHIFT);
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << UNPACK_SHIFT >> UNPACK_SHIFT);
+    }
+}
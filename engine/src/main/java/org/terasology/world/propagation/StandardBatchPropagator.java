@@ -16,9 +16,8 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
+import org.joml.Vector3ic;
 import org.terasology.math.ChunkMath;
-import org.terasology.math.JomlUtil;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
@@ -26,24 +25,34 @@
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.LitChunk;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
  * Works for a single given propagation ruleset
+ * <p>
+ * The positions waiting to be processed are kept in packed queues rather than sets of vectors, and the positions
+ * handed to the rules and the world view are reused, so propagating a change allocates next to nothing.
  */
 public class StandardBatchPropagator implements BatchPropagator {
 
     private static final byte NO_VALUE = 0;
 
+    private static final Side[] SIDES = Side.values();
+
     private PropagationRules rules;
     private PropagatorWorldView world;
 
     /* Queues are stored in reverse order. Ie, strongest light is 0. */
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PackedPositionQueue[] reduceQueues;
+    private PackedPositionQueue[] increaseQueues;
+
+    /* The position being processed and its neighbour, reused for every position taken off the queues */
+    private final Vector3i queuedPos = new Vector3i();
+    private final Vector3i adjacentPos = new Vector3i();
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
@@ -71,11 +80,12 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        Deque<long[]> bitsetPool = new ArrayDeque<>();
+        increaseQueues = new PackedPositionQueue[rules.getMaxValue()];
+        reduceQueues = new PackedPositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PackedPositionQueue(bitsetPool);
+            reduceQueues[i] = new PackedPositionQueue(bitsetPool);
         }
 
     }
@@ -102,7 +112,8 @@ public void process(Iterable<BlockChange> blockChanges) {
      * @param blockChange The change that was made
      */
     private void reviewChange(BlockChange blockChange) {
-        Vector3i blockChangePosition = JomlUtil.from(blockChange.getPosition());
+        Vector3ic changePosition = blockChange.getPosition();
+        Vector3i blockChangePosition = queuedPos.set(changePosition.x(), changePosition.y(), changePosition.z());
         byte newValue = rules.getFixedValue(blockChange.getTo(), blockChangePosition);
         byte existingValue = world.getValueAt(blockChangePosition);
 
@@ -118,16 +129,16 @@ private void reviewChange(BlockChange blockChange) {
         }
 
         /* Process propagation out to other blocks */
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), side);
 
             if (comparison.isRestricting() && existingValue > 0) {
                 /* If the propagation of the new value is going to be lower/reduced */
                 reduce(blockChangePosition, existingValue);
-                Vector3i adjPos = side.getAdjacentPos(blockChangePosition);
-                byte adjValue = world.getValueAt(adjPos);
+                setAdjacentPos(blockChangePosition, side);
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom())) {
-                    reduce(adjPos, adjValue);
+                    reduce(adjacentPos, adjValue);
                 }
 
             } else if (comparison.isPermitting()) {
@@ -137,10 +148,10 @@ private void reviewChange(BlockChange blockChange) {
                     queueSpreadValue(blockChangePosition, existingValue);
                 }
                 /* Spread it out to the block on the side */
-                Vector3i adjPos = side.getAdjacentPos(blockChangePosition);
-                byte adjValue = world.getValueAt(adjPos);
+                setAdjacentPos(blockChangePosition, side);
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjacentPos, adjValue);
                 }
             }
         }
@@ -166,19 +177,19 @@ private void purge(Vector3i pos, byte oldValue) {
         }
 
 
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             /* Handle this value being reset to the default by updating sides as needed */
             byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
+            setAdjacentPos(pos, side);
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue == expectedValue) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjacentPos);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        reduce(adjPos, expectedValue);
+                        reduce(adjacentPos, expectedValue);
                     }
                 } else if (adjValue > 0) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjacentPos, adjValue);
                 }
             }
         }
@@ -192,14 +203,9 @@ private void processReduction() {
         for (int depth = 0; depth < rules.getMaxValue(); depth++) {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
 
-            while (!reduceQueues[depth].isEmpty()) {
-                Set<Vector3i> toProcess = reduceQueues[depth];
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                /* This step will add any new reductions to to the `reduceQueues` set */
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
+            /* This step will add any new reductions to the `reduceQueues`, possibly to the one being processed */
+            while (reduceQueues[depth].poll(queuedPos)) {
+                purge(queuedPos, oldValue);
             }
         }
     }
@@ -212,14 +218,9 @@ private void processIncrease() {
         for (int depth = 0; depth < rules.getMaxValue() - 1; depth++) {
             byte value = (byte) (rules.getMaxValue() - depth);
 
-            while (!increaseQueues[depth].isEmpty()) {
-                Set<Vector3i> toProcess = increaseQueues[depth];
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                /* This step will add any new values to `increaseQueues` */
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
-                }
+            /* This step will add any new values to `increaseQueues` */
+            while (increaseQueues[depth].poll(queuedPos)) {
+                push(queuedPos, value);
             }
         }
 
@@ -236,24 +237,35 @@ private void processIncrease() {
      */
     private void push(Vector3i pos, byte value) {
         Block block = world.getBlockAt(pos);
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             byte propagatedValue = rules.propagateValue(value, side, block);
 
             if (rules.canSpreadOutOf(block, side)) {
-                Vector3i adjPos = side.getAdjacentPos(pos);
-                byte adjValue = world.getValueAt(adjPos);
+                setAdjacentPos(pos, side);
+                byte adjValue = world.getValueAt(adjacentPos);
 
                 if (adjValue < propagatedValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjacentPos);
 
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        increase(adjPos, propagatedValue);
+                        increase(adjacentPos, propagatedValue);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Points {@link #adjacentPos} at the block next to a position
+     *
+     * @param position The position to start from
+     * @param side     The side the adjacent block is on
+     */
+    private void setAdjacentPos(Vector3i position, Side side) {
+        Vector3i direction = side.getVector3i();
+        adjacentPos.set(position.x + direction.x, position.y + direction.y, position.z + direction.z);
+    }
+
     /**
      * Set the value at a position to a new value.
      * This should be larger than the prior value
@@ -288,8 +300,12 @@ private void reduce(Vector3i position, byte oldValue) {
      * @param value    The value to propagate out
      */
     private void queueSpreadValue(Vector3i position, byte value) {
+        queueSpreadValue(position.x, position.y, position.z, value);
+    }
+
+    private void queueSpreadValue(int x, int y, int z, byte value) {
         if (value > 1) {
-            increaseQueues[rules.getMaxValue() - value].add(position);
+            increaseQueues[rules.getMaxValue() - value].add(x, y, z);
         }
     }
 
@@ -297,7 +313,7 @@ private void queueSpreadValue(Vector3i position, byte value) {
      * Clears all the queues and cleans up the object
      */
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PackedPositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
@@ -344,7 +360,8 @@ private void propagateDepth(LitChunk adjChunk, Side side, boolean propagateExter
                 adjPos.add(chunkEdgeDeltas.get(side));
                 byte value = rules.getValue(adjChunk, adjPos);
                 if (value > 1) {
-                    queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos), value);
+                    queueSpreadValue(adjChunk.chunkToWorldPositionX(adjPos.x), adjChunk.chunkToWorldPositionY(adjPos.y),
+                            adjChunk.chunkToWorldPositionZ(adjPos.z), value);
                 }
             }
         }
@@ -17,9 +17,11 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Queues;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.math.Side;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.LitChunk;
@@ -32,20 +34,53 @@
 import org.terasology.world.propagation.SunlightRegenBatchPropagator;
 
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Merges the light of newly generated chunks with that of their neighbours, in the background.
+ * <p>
+ * A merge reads and writes the 3x3x3 chunks around the merged chunk, so merges can run on several threads at once as
+ * long as those neighbourhoods don't overlap. Merges whose neighbourhoods overlap run in the order they were begun.
+ *
+ * @param <T> The data handed back once the merge of a chunk is complete
+ */
 public class LightMerger<T> {
     private static final int CENTER_INDEX = 13;
 
+    /**
+     * The neighbourhoods of chunks at least this many chunks apart along any axis don't overlap.
+     */
+    private static final int NEIGHBOURHOOD_DISTANCE = 3;
+
+    /**
+     * How many of the oldest pending merges are considered whenever a thread becomes free.
+     */
+    private static final int SCHEDULING_WINDOW = 64;
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    private static final String MERGE_COUNTER = "Light merges";
+    private static final String MERGE_TIME_COUNTER = "Light merge time in microseconds";
+    private static final String WAIT_TIME_COUNTER = "Light merge wait time in microseconds";
+    private static final String QUEUE_DEPTH_COUNTER = "Light merge queue depth total";
+
     private static final Logger logger = LoggerFactory.getLogger(LightMerger.class);
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final int threadCount;
+    private ExecutorService executorService;
     private BlockingQueue<T> results = Queues.newLinkedBlockingQueue();
 
+    /* Guarded by this */
+    private final List<PendingMerge> pendingMerges = new LinkedList<>();
+    private final List<Vector3i> mergingChunks = Lists.newArrayList();
+    private final List<Vector3i> skippedChunks = Lists.newArrayList();
+
     private GeneratingChunkProvider chunkProvider;
     private LightPropagationRules lightRules = new LightPropagationRules();
     private SunlightRegenPropagationRules sunlightRegenRules = new SunlightRegenPropagationRules();
@@ -53,14 +88,82 @@
     private boolean running = true;
 
     public LightMerger(GeneratingChunkProvider chunkProvider) {
+        this(chunkProvider, 1);
+    }
+
+    /**
+     * @param chunkProvider The provider of the chunks being merged and their neighbours
+     * @param threadCount   The number of merges to run at once at most
+     */
+    public LightMerger(GeneratingChunkProvider chunkProvider, int threadCount) {
         this.chunkProvider = chunkProvider;
+        this.threadCount = Math.max(1, threadCount);
+        this.executorService = createExecutorService();
+    }
+
+    public synchronized void beginMerge(final Chunk chunk, final T data) {
+        PerformanceMonitor.incrementCounter(QUEUE_DEPTH_COUNTER, pendingMerges.size());
+        pendingMerges.add(new PendingMerge(chunk, data));
+        scheduleMerges();
+    }
+
+    /**
+     * @return The number of merges begun but not yet running
+     */
+    public synchronized int getPendingMergeCount() {
+        return pendingMerges.size();
+    }
+
+    /**
+     * Starts the oldest pending merges that don't overlap with running merges or with older pending merges, until
+     * all threads are busy.
+     */
+    private synchronized void scheduleMerges() {
+        if (!running) {
+            return;
+        }
+        Iterator<PendingMerge> iterator = pendingMerges.iterator();
+        for (int i = 0; i < SCHEDULING_WINDOW && mergingChunks.size() < threadCount && iterator.hasNext(); i++) {
+            PendingMerge pendingMerge = iterator.next();
+            Vector3i chunkPos = pendingMerge.chunk.getPosition();
+            if (overlapsAny(chunkPos, mergingChunks) || overlapsAny(chunkPos, skippedChunks)) {
+                skippedChunks.add(chunkPos);
+            } else {
+                iterator.remove();
+                mergingChunks.add(chunkPos);
+                executorService.submit(() -> runMerge(pendingMerge));
+            }
+        }
+        skippedChunks.clear();
     }
 
-    public void beginMerge(final Chunk chunk, final T data) {
-        executorService.submit(() -> {
-            merge(chunk);
-            results.add(data);
-        });
+    private void runMerge(PendingMerge pendingMerge) {
+        long startTime = System.nanoTime();
+        try {
+            merge(pendingMerge.chunk);
+            results.add(pendingMerge.data);
+        } finally {
+            long endTime = System.nanoTime();
+            PerformanceMonitor.incrementCounter(MERGE_COUNTER, 1);
+            PerformanceMonitor.incrementCounter(MERGE_TIME_COUNTER, (endTime - startTime) / 1000);
+            PerformanceMonitor.incrementCounter(WAIT_TIME_COUNTER, (startTime - pendingMerge.beginTime) / 1000);
+            synchronized (this) {
+                mergingChunks.remove(pendingMerge.chunk.getPosition());
+                scheduleMerges();
+                notifyAll();
+            }
+        }
+    }
+
+    private static boolean overlapsAny(Vector3i chunkPos, List<Vector3i> otherChunkPositions) {
+        for (Vector3i other : otherChunkPositions) {
+            if (Math.abs(chunkPos.x - other.x) < NEIGHBOURHOOD_DISTANCE
+                    && Math.abs(chunkPos.y - other.y) < NEIGHBOURHOOD_DISTANCE
+                    && Math.abs(chunkPos.z - other.z) < NEIGHBOURHOOD_DISTANCE) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public List<T> completeMerge() {
@@ -72,7 +175,10 @@ public List<T> completeMerge() {
         return Collections.emptyList();
     }
 
-    private void merge(Chunk chunk) {
+    /**
+     * Package-private so tests can check the scheduling without propagating light.
+     */
+    void merge(Chunk chunk) {
         Chunk[] localChunks = assembleLocalChunks(chunk);
         localChunks[CENTER_INDEX] = chunk;
         List<BatchPropagator> propagators = Lists.newArrayList();
@@ -126,20 +232,57 @@ private Chunk[] assembleLocalChunks(Chunk chunk) {
         return localChunks;
     }
 
+    /**
+     * Stops the merge threads once the merges already begun are complete, so their chunks are saved with merged light.
+     */
     public void shutdown() {
-        running = false;
-        executorService.shutdown();
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        ExecutorService stoppedExecutorService;
+        synchronized (this) {
+            try {
+                while (running && (!pendingMerges.isEmpty() || !mergingChunks.isEmpty())) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        logger.error("Failed to complete {} pending light merges in a timely manner", pendingMerges.size());
+                        break;
+                    }
+                    wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Interrupted while completing pending light merges");
+            }
+            running = false;
+            stoppedExecutorService = executorService;
+        }
+        stoppedExecutorService.shutdown();
         try {
-            executorService.awaitTermination(10, TimeUnit.SECONDS);
+            stoppedExecutorService.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
-            logger.error("Failed to shutdown light merge thread in a timely manner");
+            logger.error("Failed to shutdown light merge threads in a timely manner");
         }
     }
 
-    public void restart() {
+    public synchronized void restart() {
         if (!running) {
-            executorService = Executors.newSingleThreadExecutor();
+            executorService = createExecutorService();
             running = true;
+            scheduleMerges();
+        }
+    }
+
+    private ExecutorService createExecutorService() {
+        return Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat("Light-Merger-%d").build());
+    }
+
+    private final class PendingMerge {
+        private final Chunk chunk;
+        private final T data;
+        private final long beginTime = System.nanoTime();
+
+        private PendingMerge(Chunk chunk, T data) {
+            this.chunk = chunk;
+            this.data = data;
         }
     }
 }
@@ -1,3 +1,4 @@
+#version 130
 /*
  * Copyright 2012 Benjamin Glatzel <benjamin.glatzel@me.com>
  *
@@ -81,6 +82,19 @@ mat2 inverse2(mat2 m) {
     return mat2(m[1][1], -m[0][1], -m[1][0], m[0][0]) / det;
 }
 
+// Faces merged by the greedy mesher repeat the texture of their block, so their texture coordinates are given in
+// tiles and the animation frame count holds the index of the tile in the atlas as -(index + 1). The wrapped
+// coordinates jump at every repetition of the tile, so the atlas is sampled with the gradients of the unwrapped ones
+// (textureGrad, which needs GLSL 1.30), or the smallest mip level would be picked along the seams.
+vec2 mergedFaceTexCoord(vec4 mergedTexCoord) {
+    float tileIndex = floor(-mergedTexCoord.w - 0.5);
+    float tilesPerRow = floor(1.0 / TEXTURE_OFFSET + 0.5);
+    vec2 texCorner = vec2(mod(tileIndex, tilesPerRow), floor(tileIndex / tilesPerRow)) * TEXTURE_OFFSET;
+    // Same border around the tile as BlockMeshPart.mapTexCoords()
+    float border = TEXTURE_OFFSET / 128.0;
+    return texCorner + border + fract(mergedTexCoord.xy) * (TEXTURE_OFFSET - 2.0 * border);
+}
+
 void main() {
 
 // Active for worldReflectionNode only.
@@ -91,6 +105,13 @@ void main() {
 #endif
 
     vec2 texCoord = gl_TexCoord[0].xy;
+    float tilesPerTexCoord = 1.0 / TEXTURE_OFFSET;
+    if (gl_TexCoord[0].w < 0.0) {
+        texCoord = mergedFaceTexCoord(gl_TexCoord[0]);
+        tilesPerTexCoord = 1.0;
+    }
+    vec2 texCoordDx = dFdx(gl_TexCoord[0].xy) * tilesPerTexCoord * TEXTURE_OFFSET;
+    vec2 texCoordDy = dFdy(gl_TexCoord[0].xy) * tilesPerTexCoord * TEXTURE_OFFSET;
 
     vec3 normalizedViewPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
@@ -104,14 +125,15 @@ void main() {
     // both view and UV coordinates to screen-space coordinated. The specific relationship between 
     // screen coordinates and view coordinates is irrelevant.
     mat2x3 screenToView = mat2x3(dFdx(vertexViewPos.xyz), dFdy(vertexViewPos.xyz));
-    mat2   screenToUv   = mat2  (dFdx(gl_TexCoord[0].xy), dFdy(gl_TexCoord[0].xy)) / TEXTURE_OFFSET;
+    mat2   screenToUv   = mat2  (dFdx(gl_TexCoord[0].xy), dFdy(gl_TexCoord[0].xy)) * tilesPerTexCoord;
     mat2 uvToScreen = inverse2(screenToUv);
     mat2x3 uvToView = screenToView * uvToScreen;
 
 #if defined (PARALLAX_MAPPING)
     vec2 viewDirectionUvProjection = -normalizedViewPos * uvToView;
+    vec2 texCorner = floor(texCoord/TEXTURE_OFFSET)*TEXTURE_OFFSET;
 
-    float height = parallaxScale * texture2D(textureAtlasHeight, texCoord).r - parallaxBias;
+    float height = parallaxScale * textureGrad(textureAtlasHeight, texCoord, texCoordDx, texCoordDy).r - parallaxBias;
     // Ideally this should be divided by dot(normal, normalizedViewPos), as the offset for texCoord 
     // is the component parallel to the surface of a vector along the view's forward axis, 
     // the other component being a vector perpendicular to the surface and having magnitude "height". 
@@ -120,7 +142,6 @@ void main() {
     texCoord += height * viewDirectionUvProjection * TEXTURE_OFFSET;
 	
     //Crudely prevent the parallax from extending to other textures in the same atlas.
-    vec2 texCorner = floor(gl_TexCoord[0].xy/TEXTURE_OFFSET)*TEXTURE_OFFSET;
     vec2 texSize = vec2(1,1)*TEXTURE_OFFSET*0.9999; //Remain strictly this side of the edge of the texture.
     texCoord = clamp(texCoord, texCorner, texCorner + texSize);
 #endif
@@ -128,10 +149,11 @@ void main() {
     // Normalised but not orthonormalised. It should be orthogonal anyway (except for some non-rectangular 
     // block shapes like torches), but it's not obvious what's the best thing to do when it isn't.
     mat3 uvnSpaceToViewSpace = mat3(normalize(uvToView[0]), normalize(uvToView[1]), normal);
-    normalOpaque = normalize(texture2D(textureAtlasNormal, texCoord).xyz * 2.0 - 1.0);
+    vec4 normalAndShininess = textureGrad(textureAtlasNormal, texCoord, texCoordDx, texCoordDy);
+    normalOpaque = normalize(normalAndShininess.xyz * 2.0 - 1.0);
     normalOpaque = normalize(uvnSpaceToViewSpace * normalOpaque);
 
-    shininess = texture2D(textureAtlasNormal, texCoord).w;
+    shininess = normalAndShininess.w;
 #endif
 #endif
 
@@ -172,7 +194,7 @@ void main() {
     vec4 color = vec4(0.0, 0.0, 0.0, 1.0);
 
 #if !defined (FEATURE_REFRACTIVE_PASS)
-    color = texture2D(textureAtlas, texCoord.xy);
+    color = textureGrad(textureAtlas, texCoord.xy, texCoordDx, texCoordDy);
 
 #if defined FEATURE_ALPHA_REJECT
     if (color.a < 0.1) {